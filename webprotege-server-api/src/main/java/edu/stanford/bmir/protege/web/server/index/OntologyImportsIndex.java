@@ -0,0 +1,25 @@
+package edu.stanford.bmir.protege.web.server.index;
+
+
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * An index of the imports declarations of the project ontologies.
+ */
+@ProjectSingleton
+public interface OntologyImportsIndex extends Index {
+
+    /**
+     * Gets the imports declarations for the specified ontology Id
+     * @param ontologyID The ontology Id
+     * @return A stream of the imports declarations of the ontology.  If the ontology Id
+     * is not recognized then an empty stream is returned.
+     */
+    @Nonnull
+    Stream<OWLImportsDeclaration> getImportsDeclarations(@Nonnull OWLOntologyID ontologyID);
+}
@@ -17,5 +17,11 @@ public enum RevisionType {
     /**
      * Changes are made by a user during an edit.  These changes are applied after the baseline.
      */
-    EDIT
+    EDIT,
+
+    /**
+     * Changes that are not applied by a user.  They bring empty ontology documents to the state of a specific
+     * revision, so that the revisions before it do not have to be replayed.
+     */
+    SNAPSHOT
 }
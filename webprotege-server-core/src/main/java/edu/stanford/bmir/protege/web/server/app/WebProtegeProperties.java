@@ -2,7 +2,10 @@ package edu.stanford.bmir.protege.web.server.app;
 
 import com.google.common.collect.ImmutableMap;
 import edu.stanford.bmir.protege.web.server.init.WebProtegeConfigurationException;
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistorySyncMode;
 import edu.stanford.bmir.protege.web.shared.app.WebProtegePropertyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
@@ -21,6 +24,8 @@ import static edu.stanford.bmir.protege.web.shared.app.WebProtegePropertyName.*;
  */
 public class WebProtegeProperties implements Serializable {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebProtegeProperties.class);
+
     private ImmutableMap<WebProtegePropertyName, Optional<String>> propertyValueMap;
 
     public static final String WEB_PROTEGE_PROPERTIES_FILE_NAME = "webprotege.properties";
@@ -84,6 +89,21 @@ public class WebProtegeProperties implements Serializable {
     }
 
 
+    /**
+     * Gets an integer property value.  Values that cannot be parsed are replaced with the default value
+     * of the property.
+     */
+    private Optional<Integer> getOptionalInteger(WebProtegePropertyName propertyName) {
+        return getOptionalString(propertyName)
+                .map(value -> {
+                    try {
+                        return Integer.parseInt(value);
+                    } catch(NumberFormatException e) {
+                        return Integer.parseInt(propertyName.getDefaultValue().orElseThrow());
+                    }
+                });
+    }
+
     private String getRequiredString(WebProtegePropertyName propertyName) {
         Optional<String> value = propertyValueMap.get(propertyName);
         if (!value.isPresent()) {
@@ -147,4 +167,78 @@ public class WebProtegeProperties implements Serializable {
                 });
 
     }
+
+    public Optional<String> getNeo4jHost() {
+        return getOptionalString(NEO4J_HOST);
+    }
+
+    public Optional<Integer> getNeo4jPort() {
+        return getOptionalInteger(NEO4J_PORT);
+    }
+
+    public Optional<String> getNeo4jUserName() {
+        return getOptionalString(NEO4J_AUTH_USERNAME);
+    }
+
+    public Optional<String> getNeo4jPassword() {
+        return getOptionalString(NEO4J_AUTH_PASSWORD);
+    }
+
+    public Optional<Integer> getNeo4jPoolMaxSize() {
+        return getOptionalInteger(NEO4J_POOL_MAX_SIZE);
+    }
+
+    public Optional<Integer> getNeo4jPoolAcquisitionTimeout() {
+        return getOptionalInteger(NEO4J_POOL_ACQUISITION_TIMEOUT);
+    }
+
+    public Optional<Integer> getNeo4jTransactionMaxRetryTime() {
+        return getOptionalInteger(NEO4J_TRANSACTION_MAX_RETRY_TIME);
+    }
+
+    public Optional<Integer> getNeo4jExportThreads() {
+        return getOptionalInteger(NEO4J_EXPORT_THREADS);
+    }
+
+    public Optional<Integer> getNeo4jExportBatchSize() {
+        return getOptionalInteger(NEO4J_EXPORT_BATCH_SIZE);
+    }
+
+    public Optional<Integer> getNeo4jExportDeleteBatchSize() {
+        return getOptionalInteger(NEO4J_EXPORT_DELETE_BATCH_SIZE);
+    }
+
+    public Optional<Boolean> getNeo4jExportIncremental() {
+        return getOptionalString(WebProtegePropertyName.NEO4J_EXPORT_INCREMENTAL)
+                .map(Boolean::parseBoolean);
+    }
+
+    public Optional<Integer> getExportCacheMaxSize() {
+        return getOptionalInteger(EXPORT_CACHE_MAX_SIZE);
+    }
+
+    public Optional<Integer> getRevisionSnapshotInterval() {
+        return getOptionalInteger(REVISION_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Gets the mode in which revisions are forced to disk.  Unknown values are replaced with
+     * {@link ChangeHistorySyncMode#REVISION}, which is the safest mode.
+     */
+    public Optional<ChangeHistorySyncMode> getRevisionSyncMode() {
+        return getOptionalString(REVISION_SYNC_MODE)
+                .map(WebProtegeProperties::parseRevisionSyncMode);
+    }
+
+    private static ChangeHistorySyncMode parseRevisionSyncMode(@Nonnull String value) {
+        try {
+            return ChangeHistorySyncMode.valueOf(value.trim().toUpperCase());
+        } catch(IllegalArgumentException e) {
+            logger.warn("Unknown value for the {} property: {}.  Using {} instead.",
+                        REVISION_SYNC_MODE.getPropertyName(),
+                        value,
+                        ChangeHistorySyncMode.REVISION);
+            return ChangeHistorySyncMode.REVISION;
+        }
+    }
 }
@@ -6,15 +6,16 @@ import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandle
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.dispatch.actions.GetRevisionsAction;
 import edu.stanford.bmir.protege.web.server.dispatch.actions.GetRevisionsResult;
-import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionDetails;
 import edu.stanford.bmir.protege.web.server.revision.RevisionDetailsExtractor;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -57,11 +58,14 @@ public class GetRevisionsActionHandler extends AbstractProjectActionHandler<GetR
         long fromIndex = action.getFrom().getValue() - 1;
         long skip = fromIndex;
         long limit = action.getTo().getValue() - fromIndex;
-        Predicate<Revision> byAuthor = rev -> !action.getAuthor().isPresent() || action.getAuthor().get().equals(rev.getUserId());
-        ImmutableList<RevisionDetails> revisionDetails = revisionManager.getRevisions().stream()
+        Predicate<RevisionSummary> byAuthor = rev -> !action.getAuthor().isPresent() || action.getAuthor().get().equals(rev.getUserId());
+        // Select the revisions from their summaries so that only the selected revisions are read
+        ImmutableList<RevisionDetails> revisionDetails = revisionManager.getRevisionSummaries().stream()
                                                                         .skip(skip)
                                                                         .limit(limit)
                                                                         .filter(byAuthor)
+                                                                        .map(summary -> revisionManager.getRevision(summary.getRevisionNumber()))
+                                                                        .flatMap(Optional::stream)
                                                                         .map(extractor::extractRevisionDetails)
                                                                         .collect(ImmutableList.toImmutableList());
         return new GetRevisionsResult(revisionDetails,
@@ -2,21 +2,28 @@ package edu.stanford.bmir.protege.web.server.download;
 
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
-import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.server.util.MemoryMonitor;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
@@ -44,12 +51,24 @@ public class CreateDownloadTask implements Callable<Void> {
     @Nonnull
     private final DownloadFormat format;
 
+    @Nonnull
+    private final Optional<IRI> rootClassIri;
+
     @Nonnull
     private final Path downloadPath;
 
     @Nonnull
     private final ProjectDownloaderFactory projectDownloaderFactory;
 
+    @Nonnull
+    private final ProjectExporterFactory projectExporterFactory;
+
+    /**
+     * Creates a task that writes a download of the specified revision of a project to a file.
+     * @param revisionNumber The revision to download.
+     * @param rootClassIri The IRI of the class whose subtree is downloaded.  If this is empty then the
+     *                     complete ontologies are downloaded.
+     */
     @AutoFactory
     public CreateDownloadTask(@Provided @Nonnull ProjectManager projectManager,
                               @Nonnull ProjectId projectId,
@@ -57,16 +76,20 @@ public class CreateDownloadTask implements Callable<Void> {
                               @Nonnull String projectDisplayName,
                               @Nonnull RevisionNumber revisionNumber,
                               @Nonnull DownloadFormat format,
+                              @Nonnull Optional<IRI> rootClassIri,
                               @Nonnull Path destinationPath,
-                              @Provided @Nonnull ProjectDownloaderFactory projectDownloaderFactory) {
+                              @Provided @Nonnull ProjectDownloaderFactory projectDownloaderFactory,
+                              @Provided @Nonnull ProjectExporterFactory projectExporterFactory) {
         this.projectManager = projectManager;
         this.projectId = projectId;
         this.userId = userId;
         this.projectDisplayName = projectDisplayName;
         this.revisionNumber = revisionNumber;
         this.format = format;
+        this.rootClassIri = rootClassIri;
         this.downloadPath = destinationPath;
         this.projectDownloaderFactory = projectDownloaderFactory;
+        this.projectExporterFactory = projectExporterFactory;
     }
 
     @Override
@@ -79,24 +102,58 @@ public class CreateDownloadTask implements Callable<Void> {
                         downloadPath.toAbsolutePath());
             return null;
         }
+        createDownload();
+        double sizeInMB = Files.size(downloadPath) / (1024.0 * 1024);
+        logger.info("{} {} Finished creating download ({} MB)", projectId, userId, String.format("%.4f", sizeInMB));
+        return null;
+    }
+
+    /**
+     * Writes the download to a temporary file that is moved to the download path once it is complete, so
+     * that a partially written download is never served.
+     */
+    private void createDownload() throws IOException {
         logger.info("{} {} Creating project download", projectId, userId);
         MemoryMonitor memoryMonitor = new MemoryMonitor(logger);
         memoryMonitor.monitorMemoryUsage();
-        RevisionManager revisionManager = projectManager.getRevisionManager(projectId);
+        var ontologyManagerFactory = projectManager.getRevisionOntologyManagerFactory(projectId);
         memoryMonitor.monitorMemoryUsage();
-        ProjectDownloader downloader = projectDownloaderFactory.create(projectId,
-                                                                       projectDisplayName,
-                                                                       revisionNumber,
-                                                                       format,
-                                                                       revisionManager);
         logger.info("{} {} Writing download to file: {}", projectId, userId, downloadPath);
         Files.createDirectories(downloadPath.getParent());
-        try (BufferedOutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(downloadPath))) {
-            downloader.writeProject(outputStream);
+        Path tempPath = Files.createTempFile(downloadPath.getParent(), downloadPath.getFileName().toString(), ".tmp");
+        try {
+            try (var outputStream = Files.newOutputStream(tempPath)) {
+                writeDownload(ontologyManagerFactory, outputStream);
+            }
+            Files.move(tempPath, downloadPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempPath);
         }
-        double sizeInMB = Files.size(downloadPath) / (1024.0 * 1024);
-        logger.info("{} {} Finished creating download ({} MB)", projectId, userId, String.format("%.4f", sizeInMB));
         memoryMonitor.monitorMemoryUsage();
-        return null;
+    }
+
+    private void writeDownload(@Nonnull RevisionOntologyManagerFactory ontologyManagerFactory,
+                               @Nonnull OutputStream outputStream) throws IOException {
+        if(rootClassIri.isPresent()) {
+            ProjectExporter exporter = projectExporterFactory.create(projectId,
+                                                                     projectDisplayName,
+                                                                     revisionNumber,
+                                                                     format,
+                                                                     rootClassIri.get(),
+                                                                     ontologyManagerFactory);
+            try {
+                exporter.writeSubtree(outputStream);
+            } catch(OWLOntologyStorageException e) {
+                throw new IOException(e);
+            }
+        }
+        else {
+            ProjectDownloader downloader = projectDownloaderFactory.create(projectId,
+                                                                           projectDisplayName,
+                                                                           revisionNumber,
+                                                                           format,
+                                                                           ontologyManagerFactory);
+            downloader.writeProject(outputStream);
+        }
     }
 }
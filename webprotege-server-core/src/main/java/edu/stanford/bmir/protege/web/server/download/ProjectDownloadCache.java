@@ -1,8 +1,10 @@
 package edu.stanford.bmir.protege.web.server.download;
 
+import com.google.common.hash.Hashing;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.IRI;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -10,6 +12,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Matthew Horridge
@@ -51,4 +54,30 @@ public class ProjectDownloadCache {
         return resolver.get().resolve(relativePath);
     }
 
+    /**
+     * Gets the path to where the subtree of the specified class in the specified project can be downloaded
+     *
+     * @param projectId      The projectId of the project to be downloaded.
+     * @param revisionNumber The revision number of the project to be downloaded
+     * @param downloadFormat The format of the download
+     * @param rootClassIri   The IRI of the root class of the subtree
+     * @return A path to the subtree at the project revision that has the specified format. If the path
+     * does not point to a file that exists then there is no cached download for the specified
+     * subtree.
+     */
+    @Nonnull
+    public Path getCachedSubtreeDownloadPath(@Nonnull ProjectId projectId,
+                                             @Nonnull RevisionNumber revisionNumber,
+                                             @Nonnull DownloadFormat downloadFormat,
+                                             @Nonnull IRI rootClassIri) {
+        // The IRI is hashed because it may contain characters that are not allowed in file names
+        String rootClassHash = Hashing.sha256().hashString(rootClassIri.toString(), UTF_8).toString();
+        String fileName = String.format("%s-R%d-subtree-%s.%s.zip",
+                                        projectId.getId(),
+                                        revisionNumber.getValue(),
+                                        rootClassHash,
+                                        downloadFormat.getExtension());
+        Path relativePath = Paths.get(projectId.getId(), fileName);
+        return resolver.get().resolve(relativePath);
+    }
 }
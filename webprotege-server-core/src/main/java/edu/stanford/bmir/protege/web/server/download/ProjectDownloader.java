@@ -3,7 +3,7 @@ package edu.stanford.bmir.protege.web.server.download;
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
 import edu.stanford.bmir.protege.web.server.project.PrefixDeclarationsStore;
-import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
 import edu.stanford.bmir.protege.web.server.util.MemoryMonitor;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
@@ -48,7 +48,7 @@ public class ProjectDownloader {
     private final PrefixDeclarationsStore prefixDeclarationsStore;
 
     @Nonnull
-    private final RevisionManager revisionManager;
+    private final RevisionOntologyManagerFactory ontologyManagerFactory;
 
     @Nonnull
     private final ProjectId projectId;
@@ -56,7 +56,7 @@ public class ProjectDownloader {
     /**
      * Creates a project downloader that downloads the specified revision of the specified project.
      *
-     * @param revisionManager         The revision manager of project to be downloaded.  Not <code>null</code>.
+     * @param ontologyManagerFactory  Creates the ontologies of the project to be downloaded.  Not <code>null</code>.
      * @param revision                The revision of the project to be downloaded.
      * @param format                  The format which the project should be downloaded in.
      * @param prefixDeclarationsStore The prefix declarations store that is used to retrieve customised prefixes
@@ -67,11 +67,11 @@ public class ProjectDownloader {
                              @Nonnull String fileName,
                              @Nonnull RevisionNumber revision,
                              @Nonnull DownloadFormat format,
-                             @Nonnull RevisionManager revisionManager,
+                             @Nonnull RevisionOntologyManagerFactory ontologyManagerFactory,
                              @Provided @Nonnull PrefixDeclarationsStore prefixDeclarationsStore) {
         this.projectId = checkNotNull(projectId);
         this.revision = checkNotNull(revision);
-        this.revisionManager = checkNotNull(revisionManager);
+        this.ontologyManagerFactory = checkNotNull(ontologyManagerFactory);
         this.format = checkNotNull(format);
         this.fileName = checkNotNull(fileName);
         this.prefixDeclarationsStore = checkNotNull(prefixDeclarationsStore);
@@ -91,7 +91,7 @@ public class ProjectDownloader {
                                        @Nonnull RevisionNumber revisionNumber,
                                        @Nonnull OutputStream outputStream,
                                        @Nonnull DownloadFormat format) throws IOException, OWLOntologyStorageException {
-        OWLOntologyManager manager = revisionManager.getOntologyManagerForRevision(revisionNumber);
+        OWLOntologyManager manager = ontologyManagerFactory.createOntologyManager(revisionNumber);
         saveOntologiesToStream(projectDisplayName, manager, format, outputStream, revisionNumber);
     }
 
@@ -0,0 +1,124 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import com.google.auto.factory.AutoFactory;
+import com.google.auto.factory.Provided;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
+import edu.stanford.bmir.protege.web.server.project.PrefixDeclarationsStore;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+import org.semanticweb.owlapi.util.OntologyIRIShortFormProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Author: Matthew Horridge<br>
+ * Stanford University<br>
+ * Bio-Medical Informatics Research Group<br>
+ * Date: 06/06/2012
+ * <p>
+ *     Exports the subtree of a class in each of the ontologies of a project revision as a zipped download.
+ * </p>
+ */
+public class ProjectExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectExporter.class);
+
+    @Nonnull
+    private final RevisionNumber revision;
+
+    @Nonnull
+    private final DownloadFormat downloadFormat;
+
+    @Nonnull
+    private final String projectDisplayName;
+
+    @Nonnull
+    private final PrefixDeclarationsStore prefixDeclarationsStore;
+
+    @Nonnull
+    private final RevisionOntologyManagerFactory ontologyManagerFactory;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final IRI rootClassIri;
+
+    /**
+     * Creates a project exporter that exports the subtree of a class at the specified revision of the
+     * specified project.
+     *
+     * @param ontologyManagerFactory  Creates the subtrees of the project to be exported.  Not <code>null</code>.
+     * @param revision                The revision of the project to be exported.
+     * @param downloadFormat          The format which the subtree should be exported in.
+     * @param rootClassIri            The IRI of the class whose subtree is exported.
+     * @param prefixDeclarationsStore The prefix declarations store that is used to retrieve customised prefixes
+     */
+    @AutoFactory
+    @Inject
+    public ProjectExporter(@Nonnull ProjectId projectId,
+                           @Nonnull String projectDisplayName,
+                           @Nonnull RevisionNumber revision,
+                           @Nonnull DownloadFormat downloadFormat,
+                           @Nonnull IRI rootClassIri,
+                           @Nonnull RevisionOntologyManagerFactory ontologyManagerFactory,
+                           @Provided @Nonnull PrefixDeclarationsStore prefixDeclarationsStore) {
+        this.projectId = checkNotNull(projectId);
+        this.revision = checkNotNull(revision);
+        this.ontologyManagerFactory = checkNotNull(ontologyManagerFactory);
+        this.downloadFormat = checkNotNull(downloadFormat);
+        this.rootClassIri = checkNotNull(rootClassIri);
+        this.projectDisplayName = checkNotNull(projectDisplayName);
+        this.prefixDeclarationsStore = checkNotNull(prefixDeclarationsStore);
+    }
+
+    /**
+     * Writes a zip file that contains the subtree of the root class in each ontology of the project.
+     * @param outputStream The stream that the zip file is written to.
+     */
+    public void writeSubtree(@Nonnull OutputStream outputStream) throws IOException, OWLOntologyStorageException {
+        logger.info("{} Exporting subtree of {} in {} at revision {}", projectId, rootClassIri, projectDisplayName, revision);
+        OWLOntologyManager manager = ontologyManagerFactory.createSubtreeOntologyManager(revision, rootClassIri);
+        saveSubtreeOntologiesToStream(manager, downloadFormat, outputStream);
+    }
+
+    private void saveSubtreeOntologiesToStream(@Nonnull OWLOntologyManager manager,
+                                               @Nonnull DownloadFormat format,
+                                               @Nonnull OutputStream outputStream) throws IOException, OWLOntologyStorageException {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(outputStream))) {
+            String baseFolder = projectDisplayName.replace(" ", "-") + "-subtree-" + format.getExtension();
+            baseFolder = baseFolder.toLowerCase();
+            baseFolder = baseFolder + "-REVISION-" + (revision.isHead() ? "HEAD" : revision.getValue());
+            for (var ontology : manager.getOntologies()) {
+                var documentFormat = format.getDocumentFormat();
+                if (documentFormat.isPrefixOWLOntologyFormat()) {
+                    var prefixDocumentFormat = documentFormat.asPrefixOWLOntologyFormat();
+                    Map<String, String> prefixes = prefixDeclarationsStore.find(projectId).getPrefixes();
+                    prefixes.forEach(prefixDocumentFormat::setPrefix);
+                }
+                var ontologyShortForm = new OntologyIRIShortFormProvider().getShortForm(ontology);
+                var ontologyDocumentFileName = ontologyShortForm.replace(":", "_");
+                logger.info("{} Exporting subtree of {} with {} axioms", projectId, rootClassIri, ontology.getAxiomCount());
+                zipOutputStream.putNextEntry(new ZipEntry(baseFolder + "/" + ontologyDocumentFileName + "." + format.getExtension()));
+                manager.saveOntology(ontology, documentFormat, zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+            zipOutputStream.finish();
+            zipOutputStream.flush();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsBySubjectIndex;
+import edu.stanford.bmir.protege.web.server.index.AxiomsByEntityReferenceIndex;
+import edu.stanford.bmir.protege.web.server.index.SubClassOfAxiomsBySubClassIndex;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.*;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Extracts the subtree of a class from an ontology.  The subtree consists of the declarations and the
+ * annotation assertions of the root class and all of its (direct and indirect) named subclasses, along
+ * with the named subclass axioms between these classes.
+ * <p>
+ * Each class in the subtree is looked up once in the supplied indexes.  The hierarchy is traversed
+ * iteratively, so that deep hierarchies do not exhaust the stack.
+ */
+@ProjectSingleton
+public class ClassSubtreeExtractor {
+
+    @Nonnull
+    private final SubClassOfAxiomsBySubClassIndex subClassOfAxiomsIndex;
+
+    @Nonnull
+    private final AnnotationAssertionAxiomsBySubjectIndex annotationAssertionsIndex;
+
+    @Nonnull
+    private final AxiomsByEntityReferenceIndex axiomsByEntityReferenceIndex;
+
+    @Nonnull
+    private final OWLDataFactory dataFactory;
+
+    @Inject
+    public ClassSubtreeExtractor(@Nonnull SubClassOfAxiomsBySubClassIndex subClassOfAxiomsIndex,
+                                 @Nonnull AnnotationAssertionAxiomsBySubjectIndex annotationAssertionsIndex,
+                                 @Nonnull AxiomsByEntityReferenceIndex axiomsByEntityReferenceIndex,
+                                 @Nonnull OWLDataFactory dataFactory) {
+        this.subClassOfAxiomsIndex = checkNotNull(subClassOfAxiomsIndex);
+        this.annotationAssertionsIndex = checkNotNull(annotationAssertionsIndex);
+        this.axiomsByEntityReferenceIndex = checkNotNull(axiomsByEntityReferenceIndex);
+        this.dataFactory = checkNotNull(dataFactory);
+    }
+
+    /**
+     * Creates an extractor that looks up axioms in the indexes that an {@link OWLOntology} maintains
+     * itself.  This is used for ontologies that are not indexed by the project, such as ontologies that
+     * have been loaded from a previous revision.
+     * @param ontology The ontology.  Only this ontology is searched, regardless of the ontology id that
+     *                 is passed to {@link #getSubtreeAxioms(IRI, OWLOntologyID)}.
+     */
+    @Nonnull
+    public static ClassSubtreeExtractor forOntology(@Nonnull OWLOntology ontology) {
+        checkNotNull(ontology);
+        return new ClassSubtreeExtractor(
+                (subClass, ontologyId) -> ontology.getSubClassAxiomsForSubClass(subClass).stream(),
+                (subject, ontologyId) -> ontology.getAnnotationAssertionAxioms(subject).stream(),
+                (entity, ontologyId) -> ontology.getReferencingAxioms(entity).stream(),
+                ontology.getOWLOntologyManager().getOWLDataFactory());
+    }
+
+    /**
+     * Gets the axioms that make up the subtree of the specified class.
+     * @param rootClassIri The IRI of the root class of the subtree.
+     * @param ontologyId The ontology to extract the subtree from.
+     * @return The axioms of the subtree.  This is empty if the ontology does not reference the root class.
+     */
+    @Nonnull
+    public ImmutableSet<OWLAxiom> getSubtreeAxioms(@Nonnull IRI rootClassIri,
+                                                   @Nonnull OWLOntologyID ontologyId) {
+        checkNotNull(rootClassIri);
+        checkNotNull(ontologyId);
+        var rootClass = dataFactory.getOWLClass(rootClassIri);
+        var rootIsReferenced = axiomsByEntityReferenceIndex.getReferencingAxioms(rootClass, ontologyId)
+                                                           .findAny()
+                                                           .isPresent();
+        if(!rootIsReferenced) {
+            return ImmutableSet.of();
+        }
+        Set<OWLClass> subtreeClasses = getSubtreeClasses(rootClass, ontologyId);
+        var axioms = ImmutableSet.<OWLAxiom>builder();
+        for(var cls : subtreeClasses) {
+            axioms.add(dataFactory.getOWLDeclarationAxiom(cls));
+            annotationAssertionsIndex.getAxiomsForSubject(cls.getIRI(), ontologyId)
+                                     .forEach(axioms::add);
+            if(!cls.equals(rootClass)) {
+                // Only the edges that stay inside of the subtree
+                subClassOfAxiomsIndex.getSubClassOfAxiomsForSubClass(cls, ontologyId)
+                                     .filter(ax -> ax.getSuperClass().isNamed())
+                                     .filter(ax -> subtreeClasses.contains(ax.getSuperClass().asOWLClass()))
+                                     .forEach(axioms::add);
+            }
+        }
+        return axioms.build();
+    }
+
+    private Set<OWLClass> getSubtreeClasses(@Nonnull OWLClass rootClass,
+                                            @Nonnull OWLOntologyID ontologyId) {
+        Set<OWLClass> visited = new LinkedHashSet<>();
+        Deque<OWLClass> toVisit = new ArrayDeque<>();
+        visited.add(rootClass);
+        toVisit.push(rootClass);
+        while(!toVisit.isEmpty()) {
+            var parent = toVisit.pop();
+            axiomsByEntityReferenceIndex.getReferencingAxioms(parent, ontologyId)
+                                        .filter(ax -> ax instanceof OWLSubClassOfAxiom)
+                                        .map(ax -> (OWLSubClassOfAxiom) ax)
+                                        .filter(ax -> ax.getSuperClass().equals(parent))
+                                        .filter(ax -> ax.getSubClass().isNamed())
+                                        .map(ax -> ax.getSubClass().asOWLClass())
+                                        .filter(visited::add)
+                                        .forEach(toVisit::push);
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,125 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An in-memory cache of the artifacts that are produced when project revisions are exported to Neo4J.
+ * Since a concrete revision of a project never changes, an artifact never becomes stale.  The cache is
+ * bounded by the (estimated) size of its artifacts and evicts the least recently used ones first.
+ * Artifacts also expire a short while after they were last used, so that they do not stay on the heap
+ * once the exports that need them have finished.  An unchanged revision does not need its artifacts
+ * anyway, because the exported graph records the revision that it is at.
+ * <p>
+ * Downloads are not cached here.  They are written to files that are managed by the
+ * {@link edu.stanford.bmir.protege.web.server.download.ProjectDownloadCache}.
+ */
+@ApplicationSingleton
+public class ExportArtifactCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportArtifactCache.class);
+
+    private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Rough estimates of the memory that is taken up by graph elements and strings
+     */
+    private static final int NODE_OVERHEAD = 128;
+
+    private static final int RELATIONSHIP_OVERHEAD = 64;
+
+    private static final int STRING_OVERHEAD = 40;
+
+    private static final int OTHER_ARTIFACT_WEIGHT = 1024;
+
+    private static final Duration EXPIRATION_DURATION = Duration.ofMinutes(10);
+
+    private final Cache<ExportArtifactKey, Object> cache;
+
+    @Inject
+    public ExportArtifactCache(@ExportCacheMaxSize int maxSizeInMegabytes) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumWeight((long) maxSizeInMegabytes * BYTES_PER_MEGABYTE)
+                                 .weigher((ExportArtifactKey key, Object artifact) -> getWeight(artifact))
+                                 .expireAfterAccess(EXPIRATION_DURATION)
+                                 .recordStats()
+                                 .build();
+    }
+
+    /**
+     * Gets the artifact for the specified key, creating it if it is not in the cache.  Concurrent requests
+     * for the same key wait for the artifact to be created once.
+     * @param key The key of the artifact.
+     * @param artifactType The type of the artifact.
+     * @param artifactFactory Creates the artifact if it is not in the cache.
+     * @return The artifact.
+     * @throws ExecutionException if the artifact could not be created.
+     */
+    @Nonnull
+    public <A> A get(@Nonnull ExportArtifactKey key,
+                     @Nonnull Class<A> artifactType,
+                     @Nonnull Callable<? extends A> artifactFactory) throws ExecutionException {
+        checkNotNull(key);
+        checkNotNull(artifactFactory);
+        var cachedArtifact = cache.getIfPresent(key);
+        if(cachedArtifact != null) {
+            logger.info("{} Using cached {} export of revision {} (scope: {})",
+                        key.getProjectId(),
+                        key.getFormat(),
+                        key.getRevisionNumber(),
+                        key.getScope());
+            return artifactType.cast(cachedArtifact);
+        }
+        return artifactType.cast(cache.get(key, artifactFactory));
+    }
+
+    @Nonnull
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Estimates the number of bytes that are taken up by an artifact.
+     */
+    private static int getWeight(@Nonnull Object artifact) {
+        if(artifact instanceof OntologyGraph) {
+            return getWeight((OntologyGraph) artifact);
+        }
+        else {
+            return OTHER_ARTIFACT_WEIGHT;
+        }
+    }
+
+    private static int getWeight(@Nonnull OntologyGraph graph) {
+        long weight = 0;
+        for(var node : graph.getNodes()) {
+            weight += NODE_OVERHEAD + getWeight(node.getIri()) + getWeight(node.getName());
+            for(Map.Entry<String, String> property : node.getProperties().entries()) {
+                weight += getWeight(property.getKey()) + getWeight(property.getValue());
+            }
+        }
+        for(var relationship : graph.getRelationships()) {
+            weight += RELATIONSHIP_OVERHEAD
+                    + getWeight(relationship.getFromIri())
+                    + getWeight(relationship.getToIri());
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int getWeight(@Nonnull String s) {
+        return STRING_OVERHEAD + 2 * s.length();
+    }
+}
@@ -0,0 +1,51 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Identifies an artifact in the {@link ExportArtifactCache}.  An artifact is the result of exporting
+ * some part (the scope) of a specific revision of a project in a specific format.
+ */
+@AutoValue
+public abstract class ExportArtifactKey {
+
+    /**
+     * The scope of an export that contains the complete project
+     */
+    public static final String ALL_SCOPE = "all";
+
+    /**
+     * Gets a key.
+     * @param projectId The project that was exported.
+     * @param revisionNumber The revision that was exported.  This must be a concrete revision number and
+     *                       not the head revision, because the head revision changes.
+     * @param format The format of the artifact, for example a file extension.
+     * @param scope The part of the project that was exported.
+     */
+    @Nonnull
+    public static ExportArtifactKey get(@Nonnull ProjectId projectId,
+                                        @Nonnull RevisionNumber revisionNumber,
+                                        @Nonnull String format,
+                                        @Nonnull String scope) {
+        checkArgument(!revisionNumber.isHead(), "The head revision cannot be used as a cache key");
+        return new AutoValue_ExportArtifactKey(projectId, revisionNumber, format, scope);
+    }
+
+    @Nonnull
+    public abstract ProjectId getProjectId();
+
+    @Nonnull
+    public abstract RevisionNumber getRevisionNumber();
+
+    @Nonnull
+    public abstract String getFormat();
+
+    @Nonnull
+    public abstract String getScope();
+}
@@ -0,0 +1,14 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The maximum size, in megabytes, of the {@link ExportArtifactCache}.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExportCacheMaxSize {
+
+}
@@ -0,0 +1,61 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The settings for the connection pool that is used to export projects to Neo4J.
+ */
+@AutoValue
+public abstract class Neo4jConnectionSettings {
+
+    @Nonnull
+    public static Neo4jConnectionSettings get(@Nonnull String host,
+                                              int port,
+                                              @Nonnull String userName,
+                                              @Nonnull String password,
+                                              int maxConnectionPoolSize,
+                                              long connectionAcquisitionTimeoutMs,
+                                              long maxTransactionRetryTimeMs) {
+        return new AutoValue_Neo4jConnectionSettings(host,
+                                                     port,
+                                                     userName,
+                                                     password,
+                                                     maxConnectionPoolSize,
+                                                     connectionAcquisitionTimeoutMs,
+                                                     maxTransactionRetryTimeMs);
+    }
+
+    @Nonnull
+    public abstract String getHost();
+
+    public abstract int getPort();
+
+    @Nonnull
+    public abstract String getUserName();
+
+    @Nonnull
+    public abstract String getPassword();
+
+    public abstract int getMaxConnectionPoolSize();
+
+    public abstract long getConnectionAcquisitionTimeoutMs();
+
+    public abstract long getMaxTransactionRetryTimeMs();
+
+    @Nonnull
+    public String getBoltUri() {
+        return "bolt://" + getHost() + ":" + getPort();
+    }
+
+    @Override
+    public String toString() {
+        // Don't leak the password into logs
+        return "Neo4jConnectionSettings{uri=" + getBoltUri() +
+                ", userName=" + getUserName() +
+                ", maxConnectionPoolSize=" + getMaxConnectionPoolSize() +
+                ", connectionAcquisitionTimeoutMs=" + getConnectionAcquisitionTimeoutMs() +
+                ", maxTransactionRetryTimeMs=" + getMaxTransactionRetryTimeMs() + "}";
+    }
+}
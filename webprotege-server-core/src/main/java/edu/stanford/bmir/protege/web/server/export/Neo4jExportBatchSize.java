@@ -0,0 +1,14 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The maximum number of nodes or relationships that are written to Neo4J in a single transaction.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Neo4jExportBatchSize {
+
+}
@@ -0,0 +1,15 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Whether exports to Neo4J bring an existing graph up to date by replaying the changes since the
+ * last exported revision.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Neo4jIncrementalExport {
+
+}
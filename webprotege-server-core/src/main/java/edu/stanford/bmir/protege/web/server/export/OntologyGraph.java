@@ -0,0 +1,25 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The nodes and relationships of an ontology graph that is ready to be written to Neo4J.
+ */
+@AutoValue
+public abstract class OntologyGraph {
+
+    @Nonnull
+    public static OntologyGraph get(@Nonnull ImmutableList<OntologyGraphNode> nodes,
+                                    @Nonnull ImmutableList<OntologyGraphRelationship> relationships) {
+        return new AutoValue_OntologyGraph(nodes, relationships);
+    }
+
+    @Nonnull
+    public abstract ImmutableList<OntologyGraphNode> getNodes();
+
+    @Nonnull
+    public abstract ImmutableList<OntologyGraphRelationship> getRelationships();
+}
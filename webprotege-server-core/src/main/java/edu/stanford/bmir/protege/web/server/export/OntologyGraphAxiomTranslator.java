@@ -0,0 +1,169 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.util.OWLAxiomVisitorAdapter;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.server.export.OntologyGraphNodeType.*;
+import static edu.stanford.bmir.protege.web.server.export.OntologyGraphRelationshipType.*;
+
+/**
+ * Translates axioms into the nodes, relationships and node properties of the ontology graph that
+ * is exported to Neo4J.  The translation mirrors what the neosemantics (n10s) ontology importer
+ * extracts from an ontology document:
+ * <ul>
+ *     <li>Declared classes, object properties and data properties become nodes</li>
+ *     <li>SubClassOf axioms between named classes become {@code SCO} relationships</li>
+ *     <li>Sub-property axioms between named properties become {@code SPO} relationships</li>
+ *     <li>Domains and ranges that are named classes become {@code DOMAIN} and {@code RANGE} relationships</li>
+ *     <li>rdfs:label and rdfs:comment annotation assertions become {@code label} and {@code comment} node properties</li>
+ * </ul>
+ * All other axioms are ignored.
+ */
+public class OntologyGraphAxiomTranslator {
+
+    public static final String LABEL_PROPERTY_NAME = "label";
+
+    public static final String COMMENT_PROPERTY_NAME = "comment";
+
+    @Inject
+    public OntologyGraphAxiomTranslator() {
+    }
+
+    /**
+     * Translates the specified axiom and passes the result to the specified handler.
+     * @param axiom The axiom to translate.
+     * @param handler The handler that receives the translated graph elements.
+     */
+    public void translate(@Nonnull OWLAxiom axiom,
+                          @Nonnull OntologyGraphHandler handler) {
+        axiom.accept(new TranslatorVisitor(checkNotNull(handler)));
+    }
+
+    private static class TranslatorVisitor extends OWLAxiomVisitorAdapter {
+
+        private final OntologyGraphHandler handler;
+
+        private TranslatorVisitor(OntologyGraphHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void visit(@Nonnull OWLDeclarationAxiom axiom) {
+            OWLEntity entity = axiom.getEntity();
+            if(entity.isOWLClass()) {
+                handler.handleNode(entity.getIRI(), CLASS);
+            }
+            else if(entity.isOWLObjectProperty()) {
+                handler.handleNode(entity.getIRI(), OBJECT_PROPERTY);
+            }
+            else if(entity.isOWLDataProperty()) {
+                handler.handleNode(entity.getIRI(), DATA_PROPERTY);
+            }
+        }
+
+        @Override
+        public void visit(@Nonnull OWLSubClassOfAxiom axiom) {
+            OWLClassExpression subCls = axiom.getSubClass();
+            OWLClassExpression superCls = axiom.getSuperClass();
+            if(subCls.isAnonymous() || superCls.isAnonymous()) {
+                return;
+            }
+            IRI subClsIri = subCls.asOWLClass().getIRI();
+            IRI superClsIri = superCls.asOWLClass().getIRI();
+            handler.handleNode(subClsIri, CLASS);
+            handler.handleNode(superClsIri, CLASS);
+            handler.handleRelationship(SCO, subClsIri, superClsIri);
+        }
+
+        @Override
+        public void visit(@Nonnull OWLSubObjectPropertyOfAxiom axiom) {
+            OWLObjectPropertyExpression subProperty = axiom.getSubProperty();
+            OWLObjectPropertyExpression superProperty = axiom.getSuperProperty();
+            if(subProperty.isAnonymous() || superProperty.isAnonymous()) {
+                return;
+            }
+            handleSubProperty(subProperty.asOWLObjectProperty().getIRI(),
+                              superProperty.asOWLObjectProperty().getIRI(),
+                              OBJECT_PROPERTY);
+        }
+
+        @Override
+        public void visit(@Nonnull OWLSubDataPropertyOfAxiom axiom) {
+            handleSubProperty(axiom.getSubProperty().asOWLDataProperty().getIRI(),
+                              axiom.getSuperProperty().asOWLDataProperty().getIRI(),
+                              DATA_PROPERTY);
+        }
+
+        private void handleSubProperty(IRI subProperty, IRI superProperty, OntologyGraphNodeType nodeType) {
+            handler.handleNode(subProperty, nodeType);
+            handler.handleNode(superProperty, nodeType);
+            handler.handleRelationship(SPO, subProperty, superProperty);
+        }
+
+        @Override
+        public void visit(@Nonnull OWLObjectPropertyDomainAxiom axiom) {
+            if(axiom.getProperty().isAnonymous()) {
+                return;
+            }
+            handleClassRelationship(axiom.getProperty().asOWLObjectProperty().getIRI(),
+                                    OBJECT_PROPERTY,
+                                    DOMAIN,
+                                    axiom.getDomain());
+        }
+
+        @Override
+        public void visit(@Nonnull OWLObjectPropertyRangeAxiom axiom) {
+            if(axiom.getProperty().isAnonymous()) {
+                return;
+            }
+            handleClassRelationship(axiom.getProperty().asOWLObjectProperty().getIRI(),
+                                    OBJECT_PROPERTY,
+                                    RANGE,
+                                    axiom.getRange());
+        }
+
+        @Override
+        public void visit(@Nonnull OWLDataPropertyDomainAxiom axiom) {
+            handleClassRelationship(axiom.getProperty().asOWLDataProperty().getIRI(),
+                                    DATA_PROPERTY,
+                                    DOMAIN,
+                                    axiom.getDomain());
+        }
+
+        private void handleClassRelationship(IRI property,
+                                             OntologyGraphNodeType propertyNodeType,
+                                             OntologyGraphRelationshipType relationshipType,
+                                             OWLClassExpression ce) {
+            if(ce.isAnonymous()) {
+                return;
+            }
+            IRI clsIri = ce.asOWLClass().getIRI();
+            handler.handleNode(property, propertyNodeType);
+            handler.handleNode(clsIri, CLASS);
+            handler.handleRelationship(relationshipType, property, clsIri);
+        }
+
+        @Override
+        public void visit(@Nonnull OWLAnnotationAssertionAxiom axiom) {
+            if(!(axiom.getSubject() instanceof IRI)) {
+                return;
+            }
+            if(!(axiom.getValue() instanceof OWLLiteral)) {
+                return;
+            }
+            IRI subject = (IRI) axiom.getSubject();
+            String value = ((OWLLiteral) axiom.getValue()).getLiteral();
+            OWLAnnotationProperty property = axiom.getProperty();
+            if(property.isLabel()) {
+                handler.handleNodeProperty(subject, LABEL_PROPERTY_NAME, value);
+            }
+            else if(property.isComment()) {
+                handler.handleNodeProperty(subject, COMMENT_PROPERTY_NAME, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.TreeMultimap;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import javax.annotation.Nonnull;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Accumulates the graph elements for a stream of axioms into an {@link OntologyGraph}.  Node properties
+ * are merged into the nodes that they describe, so that each node can be written with a single
+ * statement.  As with the n10s ontology importer, every type of a punned IRI and every value of a property
+ * are kept, and properties of IRIs that do not correspond to nodes are dropped.  The resulting nodes do not
+ * depend on the order in which axioms are added.  Not thread safe.
+ */
+public class OntologyGraphBuilder implements OntologyGraphHandler {
+
+    @Nonnull
+    private final OntologyGraphAxiomTranslator translator;
+
+    private final Map<IRI, Set<OntologyGraphNodeType>> nodeTypes = new LinkedHashMap<>();
+
+    private final Map<IRI, SetMultimap<String, String>> nodeProperties = new HashMap<>();
+
+    private final Set<OntologyGraphRelationship> relationships = new LinkedHashSet<>();
+
+    public OntologyGraphBuilder(@Nonnull OntologyGraphAxiomTranslator translator) {
+        this.translator = checkNotNull(translator);
+    }
+
+    public void addAxiom(@Nonnull OWLAxiom axiom) {
+        translator.translate(axiom, this);
+    }
+
+    @Override
+    public void handleNode(@Nonnull IRI iri, @Nonnull OntologyGraphNodeType nodeType) {
+        nodeTypes.computeIfAbsent(iri, i -> EnumSet.noneOf(OntologyGraphNodeType.class))
+                 .add(nodeType);
+    }
+
+    @Override
+    public void handleRelationship(@Nonnull OntologyGraphRelationshipType relationshipType,
+                                   @Nonnull IRI from,
+                                   @Nonnull IRI to) {
+        relationships.add(OntologyGraphRelationship.get(relationshipType, from.toString(), to.toString()));
+    }
+
+    @Override
+    public void handleNodeProperty(@Nonnull IRI iri, @Nonnull String propertyName, @Nonnull String value) {
+        nodeProperties.computeIfAbsent(iri, i -> TreeMultimap.create())
+                      .put(propertyName, value);
+    }
+
+    @Nonnull
+    public OntologyGraph build() {
+        var nodes = nodeTypes.entrySet()
+                             .stream()
+                             .map(e -> OntologyGraphNode.get(e.getKey().toString(),
+                                                             Sets.immutableEnumSet(e.getValue()),
+                                                             e.getKey().getShortForm(),
+                                                             getProperties(e.getKey())))
+                             .collect(toImmutableList());
+        return OntologyGraph.get(nodes, ImmutableList.copyOf(relationships));
+    }
+
+    @Nonnull
+    private ImmutableSetMultimap<String, String> getProperties(@Nonnull IRI iri) {
+        var properties = nodeProperties.get(iri);
+        if(properties == null) {
+            return ImmutableSetMultimap.of();
+        }
+        // Values are sorted by the TreeMultimap
+        return ImmutableSetMultimap.copyOf(properties);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The changes to an exported ontology graph between two revisions of a project.  The delta is
+ * expressed in terms of the IRIs whose graph elements were affected by the changes of the revisions.
+ * For each of these IRIs the delta contains the complete, current node (if any), its properties and
+ * all relationships that start or end at it.  A delta is applied by removing the graph elements of
+ * the affected IRIs and then writing the graph of the delta.
+ */
+@AutoValue
+public abstract class OntologyGraphDelta {
+
+    @Nonnull
+    public static OntologyGraphDelta get(@Nonnull RevisionNumber fromRevision,
+                                         @Nonnull RevisionNumber toRevision,
+                                         @Nonnull ImmutableSet<String> affectedIris,
+                                         @Nonnull OntologyGraph graph) {
+        return new AutoValue_OntologyGraphDelta(fromRevision, toRevision, affectedIris, graph);
+    }
+
+    /**
+     * Gets the revision that the delta is based on.  Changes in this revision are not part of the delta.
+     */
+    @Nonnull
+    public abstract RevisionNumber getFromRevision();
+
+    /**
+     * Gets the revision that the graph is at once the delta has been applied.
+     */
+    @Nonnull
+    public abstract RevisionNumber getToRevision();
+
+    /**
+     * Gets the IRIs of the nodes whose graph elements were affected by the changes.
+     */
+    @Nonnull
+    public abstract ImmutableSet<String> getAffectedIris();
+
+    /**
+     * Gets the current graph elements for the affected IRIs.
+     */
+    @Nonnull
+    public abstract OntologyGraph getGraph();
+
+    public boolean isEmpty() {
+        return getAffectedIris().isEmpty();
+    }
+}
@@ -0,0 +1,23 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the nodes, relationships and node properties that an {@link OntologyGraphAxiomTranslator}
+ * produces for an axiom.
+ */
+public interface OntologyGraphHandler {
+
+    void handleNode(@Nonnull IRI iri,
+                    @Nonnull OntologyGraphNodeType nodeType);
+
+    void handleRelationship(@Nonnull OntologyGraphRelationshipType relationshipType,
+                            @Nonnull IRI from,
+                            @Nonnull IRI to);
+
+    void handleNodeProperty(@Nonnull IRI iri,
+                            @Nonnull String propertyName,
+                            @Nonnull String value);
+}
@@ -0,0 +1,48 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A node in the ontology graph that is exported to Neo4J.
+ */
+@AutoValue
+public abstract class OntologyGraphNode {
+
+    @Nonnull
+    public static OntologyGraphNode get(@Nonnull String iri,
+                                        @Nonnull ImmutableSet<OntologyGraphNodeType> nodeTypes,
+                                        @Nonnull String name,
+                                        @Nonnull ImmutableSetMultimap<String, String> properties) {
+        return new AutoValue_OntologyGraphNode(iri, nodeTypes, name, properties);
+    }
+
+    /**
+     * Gets the IRI of the entity that this node represents.  This is stored as the {@code uri} property
+     * of the node.
+     */
+    @Nonnull
+    public abstract String getIri();
+
+    /**
+     * Gets the types of the node.  A punned IRI has more than one type.
+     */
+    @Nonnull
+    public abstract ImmutableSet<OntologyGraphNodeType> getNodeTypes();
+
+    /**
+     * Gets the local name of the entity that this node represents.
+     */
+    @Nonnull
+    public abstract String getName();
+
+    /**
+     * Gets additional properties of the node (e.g. the labels and the comments of the entity).  A property
+     * may have several values.
+     */
+    @Nonnull
+    public abstract ImmutableSetMultimap<String, String> getProperties();
+}
@@ -0,0 +1,32 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The types of node that make up the ontology graph that is exported to Neo4J.  The labels
+ * are the default labels that the neosemantics (n10s) ontology importer uses, so that graphs
+ * that are written directly over Bolt have the same shape as graphs that are imported with
+ * {@code n10s.onto.import.fetch}.
+ */
+public enum OntologyGraphNodeType {
+
+    CLASS("Class"),
+
+    OBJECT_PROPERTY("Relationship"),
+
+    DATA_PROPERTY("Property");
+
+    private final String label;
+
+    OntologyGraphNodeType(@Nonnull String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the Neo4J node label for this node type
+     */
+    @Nonnull
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,28 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A relationship in the ontology graph that is exported to Neo4J.
+ */
+@AutoValue
+public abstract class OntologyGraphRelationship {
+
+    @Nonnull
+    public static OntologyGraphRelationship get(@Nonnull OntologyGraphRelationshipType relationshipType,
+                                                @Nonnull String fromIri,
+                                                @Nonnull String toIri) {
+        return new AutoValue_OntologyGraphRelationship(relationshipType, fromIri, toIri);
+    }
+
+    @Nonnull
+    public abstract OntologyGraphRelationshipType getRelationshipType();
+
+    @Nonnull
+    public abstract String getFromIri();
+
+    @Nonnull
+    public abstract String getToIri();
+}
@@ -0,0 +1,28 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+/**
+ * The types of relationship that make up the ontology graph that is exported to Neo4J.  The names
+ * of the constants are the relationship types that the neosemantics (n10s) ontology importer uses.
+ */
+public enum OntologyGraphRelationshipType {
+
+    /**
+     * rdfs:subClassOf between two named classes
+     */
+    SCO,
+
+    /**
+     * rdfs:subPropertyOf between two named object properties or two named data properties
+     */
+    SPO,
+
+    /**
+     * rdfs:domain between a property and a named class
+     */
+    DOMAIN,
+
+    /**
+     * rdfs:range between an object property and a named class
+     */
+    RANGE
+}
@@ -0,0 +1,261 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsBySubjectIndex;
+import edu.stanford.bmir.protege.web.server.index.AxiomsByEntityReferenceIndex;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.index.OntologyAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionMaterializer;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Extracts the {@link OntologyGraph} of a project revision.  The graph for the current revision is
+ * extracted directly from the in-memory project indexes, so that no ontology document needs to be
+ * serialized and parsed.  The indexes are read whilst holding the {@link ProjectChangeLock}, so that
+ * the graph corresponds exactly to the revision that it is extracted for.  Earlier revisions are
+ * extracted from the ontologies that are materialized by the {@link RevisionMaterializer}.
+ */
+@ProjectSingleton
+public class ProjectOntologyGraphExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectOntologyGraphExtractor.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Nonnull
+    private final OntologyAxiomsIndex ontologyAxiomsIndex;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final EntitiesInProjectSignatureByIriIndex entitiesInProjectSignatureByIriIndex;
+
+    @Nonnull
+    private final AxiomsByEntityReferenceIndex axiomsByEntityReferenceIndex;
+
+    @Nonnull
+    private final AnnotationAssertionAxiomsBySubjectIndex annotationAssertionAxiomsBySubjectIndex;
+
+    @Nonnull
+    private final OntologyGraphAxiomTranslator translator;
+
+    @Nonnull
+    private final ProjectChangeLock projectChangeLock;
+
+    @Nonnull
+    private final RevisionMaterializer revisionMaterializer;
+
+    @Inject
+    public ProjectOntologyGraphExtractor(@Nonnull ProjectId projectId,
+                                         @Nonnull ProjectOntologiesIndex projectOntologiesIndex,
+                                         @Nonnull OntologyAxiomsIndex ontologyAxiomsIndex,
+                                         @Nonnull RevisionManager revisionManager,
+                                         @Nonnull EntitiesInProjectSignatureByIriIndex entitiesInProjectSignatureByIriIndex,
+                                         @Nonnull AxiomsByEntityReferenceIndex axiomsByEntityReferenceIndex,
+                                         @Nonnull AnnotationAssertionAxiomsBySubjectIndex annotationAssertionAxiomsBySubjectIndex,
+                                         @Nonnull OntologyGraphAxiomTranslator translator,
+                                         @Nonnull ProjectChangeLock projectChangeLock,
+                                         @Nonnull RevisionMaterializer revisionMaterializer) {
+        this.projectId = checkNotNull(projectId);
+        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
+        this.ontologyAxiomsIndex = checkNotNull(ontologyAxiomsIndex);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.entitiesInProjectSignatureByIriIndex = checkNotNull(entitiesInProjectSignatureByIriIndex);
+        this.axiomsByEntityReferenceIndex = checkNotNull(axiomsByEntityReferenceIndex);
+        this.annotationAssertionAxiomsBySubjectIndex = checkNotNull(annotationAssertionAxiomsBySubjectIndex);
+        this.translator = checkNotNull(translator);
+        this.projectChangeLock = checkNotNull(projectChangeLock);
+        this.revisionMaterializer = checkNotNull(revisionMaterializer);
+    }
+
+    /**
+     * Gets the current revision of the project
+     */
+    @Nonnull
+    public RevisionNumber getCurrentRevision() {
+        return revisionManager.getCurrentRevision();
+    }
+
+    /**
+     * Gets the ontology graph for the specified revision.
+     * @param revisionNumber The revision.  This may be the head revision.
+     * @return The graph of the revision.
+     */
+    @Nonnull
+    public OntologyGraph getOntologyGraph(@Nonnull RevisionNumber revisionNumber) {
+        var stopwatch = Stopwatch.createStarted();
+        var builder = new OntologyGraphBuilder(translator);
+        // Changes must not be applied whilst the indexes are read, otherwise the graph would not
+        // correspond to the revision
+        boolean extractedFromIndexes = false;
+        projectChangeLock.readLock().lock();
+        try {
+            if(revisionNumber.isHead() || revisionNumber.equals(revisionManager.getCurrentRevision())) {
+                projectOntologiesIndex.getOntologyIds()
+                                      .flatMap(ontologyAxiomsIndex::getAxioms)
+                                      .forEach(builder::addAxiom);
+                extractedFromIndexes = true;
+            }
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+        if(!extractedFromIndexes) {
+            revisionMaterializer.getOntologies(revisionNumber)
+                                .forEach(ontology -> ontology.getAxioms().forEach(builder::addAxiom));
+        }
+        var graph = builder.build();
+        logger.info("{} Extracted ontology graph of revision {} ({} nodes, {} relationships) in {} ms",
+                    projectId,
+                    revisionNumber,
+                    graph.getNodes().size(),
+                    graph.getRelationships().size(),
+                    stopwatch.elapsed(MILLISECONDS));
+        return graph;
+    }
+
+    /**
+     * Gets the delta that takes an ontology graph from the specified revision to the current revision.
+     * The changes of the intervening revisions determine which IRIs are affected, and the graph elements
+     * of the affected IRIs are then extracted from the current state of the project indexes.  If the
+     * project is modified while the delta is being computed the delta may contain elements from a later
+     * revision.  Because a delta always replaces the complete graph elements of the IRIs it affects,
+     * a subsequent delta from the returned revision brings the graph back in line.
+     * @param fromRevision The revision that the graph is currently at.
+     * @return The delta, or an empty value if the graph cannot be brought up to date incrementally
+     * because the specified revision is later than the current revision of the project.
+     */
+    @Nonnull
+    public Optional<OntologyGraphDelta> getOntologyGraphDelta(@Nonnull RevisionNumber fromRevision) {
+        checkNotNull(fromRevision);
+        projectChangeLock.readLock().lock();
+        try {
+            return computeOntologyGraphDelta(fromRevision);
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+    }
+
+    private Optional<OntologyGraphDelta> computeOntologyGraphDelta(@Nonnull RevisionNumber fromRevision) {
+        var stopwatch = Stopwatch.createStarted();
+        var toRevision = revisionManager.getCurrentRevision();
+        if(fromRevision.isHead() || fromRevision.compareTo(toRevision) > 0) {
+            return Optional.empty();
+        }
+        var affectedIris = new AffectedIriCollector();
+        int changeCount = 0;
+        for(long rev = fromRevision.getValue() + 1; rev <= toRevision.getValue(); rev++) {
+            var revision = revisionManager.getRevision(RevisionNumber.getRevisionNumber(rev));
+            if(revision.isEmpty()) {
+                return Optional.empty();
+            }
+            for(OntologyChange change : revision.get().getChanges()) {
+                if(change.isAxiomChange()) {
+                    translator.translate(change.getAxiomOrThrow(), affectedIris);
+                    changeCount++;
+                }
+            }
+        }
+        var builder = new OntologyGraphBuilder(translator);
+        var ontologyIds = projectOntologiesIndex.getOntologyIds().collect(toImmutableList());
+        affectedIris.getIris()
+                    .forEach(iri -> getAxiomsForIri(iri, ontologyIds).forEach(builder::addAxiom));
+        var affected = affectedIris.getIris()
+                                   .stream()
+                                   .map(IRI::toString)
+                                   .collect(ImmutableSet.toImmutableSet());
+        var graph = restrictToIris(builder.build(), affected);
+        logger.info("{} Computed ontology graph delta from revision {} to revision {} ({} axiom changes, {} affected IRIs) in {} ms",
+                    projectId,
+                    fromRevision,
+                    toRevision,
+                    changeCount,
+                    affected.size(),
+                    stopwatch.elapsed(MILLISECONDS));
+        return Optional.of(OntologyGraphDelta.get(fromRevision, toRevision, affected, graph));
+    }
+
+    private Stream<OWLAxiom> getAxiomsForIri(@Nonnull IRI iri,
+                                             @Nonnull Iterable<OWLOntologyID> ontologyIds) {
+        var entities = entitiesInProjectSignatureByIriIndex.getEntitiesInSignature(iri).collect(toImmutableList());
+        Stream.Builder<Stream<? extends OWLAxiom>> axioms = Stream.builder();
+        for(var ontologyId : ontologyIds) {
+            for(var entity : entities) {
+                axioms.add(axiomsByEntityReferenceIndex.getReferencingAxioms(entity, ontologyId));
+            }
+            axioms.add(annotationAssertionAxiomsBySubjectIndex.getAxiomsForSubject(iri, ontologyId));
+        }
+        return axioms.build().flatMap(s -> s);
+    }
+
+    private static OntologyGraph restrictToIris(@Nonnull OntologyGraph graph,
+                                                @Nonnull Set<String> iris) {
+        var nodes = graph.getNodes()
+                         .stream()
+                         .filter(node -> iris.contains(node.getIri()))
+                         .collect(toImmutableList());
+        var relationships = graph.getRelationships()
+                                 .stream()
+                                 .filter(rel -> iris.contains(rel.getFromIri()) || iris.contains(rel.getToIri()))
+                                 .collect(toImmutableList());
+        return OntologyGraph.get(nodes, relationships);
+    }
+
+    /**
+     * Collects the IRIs of all graph elements that an axiom translates to
+     */
+    private static class AffectedIriCollector implements OntologyGraphHandler {
+
+        private final Set<IRI> iris = new HashSet<>();
+
+        @Override
+        public void handleNode(@Nonnull IRI iri, @Nonnull OntologyGraphNodeType nodeType) {
+            iris.add(iri);
+        }
+
+        @Override
+        public void handleRelationship(@Nonnull OntologyGraphRelationshipType relationshipType,
+                                       @Nonnull IRI from,
+                                       @Nonnull IRI to) {
+            iris.add(from);
+            iris.add(to);
+        }
+
+        @Override
+        public void handleNodeProperty(@Nonnull IRI iri, @Nonnull String propertyName, @Nonnull String value) {
+            iris.add(iri);
+        }
+
+        public Set<IRI> getIris() {
+            return iris;
+        }
+    }
+}
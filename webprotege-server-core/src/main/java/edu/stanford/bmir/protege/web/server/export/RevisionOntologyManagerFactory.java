@@ -0,0 +1,198 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.owlapi.WebProtegeOWLManager;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionMaterializer;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Creates ontology managers that contain the ontologies of a project at a specific revision, so that
+ * they can be serialized by downloads and exports.
+ * <p>
+ * The ontologies of the current revision are copied from the in-memory project indexes whilst holding
+ * the {@link ProjectChangeLock}.  Only earlier revisions are materialized from the revision history by
+ * the {@link RevisionMaterializer}.
+ * <p>
+ * The subtrees of a class at the current revision are extracted by the index-backed
+ * {@link ClassSubtreeExtractor}.  Subtrees at earlier revisions are extracted from the materialized
+ * ontologies.
+ */
+@ProjectSingleton
+public class RevisionOntologyManagerFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionOntologyManagerFactory.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final ProjectOntologiesBuilder projectOntologiesBuilder;
+
+    @Nonnull
+    private final ProjectChangeLock projectChangeLock;
+
+    @Nonnull
+    private final RevisionMaterializer revisionMaterializer;
+
+    @Nonnull
+    private final ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Nonnull
+    private final ClassSubtreeExtractor classSubtreeExtractor;
+
+    @Inject
+    public RevisionOntologyManagerFactory(@Nonnull ProjectId projectId,
+                                          @Nonnull RevisionManager revisionManager,
+                                          @Nonnull ProjectOntologiesBuilder projectOntologiesBuilder,
+                                          @Nonnull ProjectChangeLock projectChangeLock,
+                                          @Nonnull RevisionMaterializer revisionMaterializer,
+                                          @Nonnull ProjectOntologiesIndex projectOntologiesIndex,
+                                          @Nonnull ClassSubtreeExtractor classSubtreeExtractor) {
+        this.projectId = checkNotNull(projectId);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.projectOntologiesBuilder = checkNotNull(projectOntologiesBuilder);
+        this.projectChangeLock = checkNotNull(projectChangeLock);
+        this.revisionMaterializer = checkNotNull(revisionMaterializer);
+        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
+        this.classSubtreeExtractor = checkNotNull(classSubtreeExtractor);
+    }
+
+    /**
+     * Creates an ontology manager that contains the ontologies of the project at the specified revision.
+     * @param revisionNumber The revision.  If this is the head revision then the ontologies at the
+     *                       current revision are returned.
+     */
+    @Nonnull
+    public OWLOntologyManager createOntologyManager(@Nonnull RevisionNumber revisionNumber) {
+        checkNotNull(revisionNumber);
+        var headOntologies = getHeadOntologies(revisionNumber);
+        if(headOntologies.isPresent()) {
+            return toOntologyManager(headOntologies.get());
+        }
+        return toOntologyManager(revisionMaterializer.getOntologies(revisionNumber));
+    }
+
+    /**
+     * Creates an ontology manager that contains the subtree of the specified class in each of the
+     * ontologies of the project at the specified revision.  See {@link ClassSubtreeExtractor} for the
+     * axioms that make up a subtree.
+     * @param revisionNumber The revision.  If this is the head revision then the subtrees at the
+     *                       current revision are returned.
+     * @param rootClassIri The IRI of the root class of the subtrees.
+     */
+    @Nonnull
+    public OWLOntologyManager createSubtreeOntologyManager(@Nonnull RevisionNumber revisionNumber,
+                                                           @Nonnull IRI rootClassIri) {
+        checkNotNull(revisionNumber);
+        checkNotNull(rootClassIri);
+        var headSubtrees = getHeadSubtrees(revisionNumber, rootClassIri);
+        if(headSubtrees.isPresent()) {
+            return toOntologyManager(headSubtrees.get());
+        }
+        // Earlier revisions are not indexed, so their subtrees are extracted from the ontologies themselves
+        var manager = toOntologyManager(revisionMaterializer.getOntologies(revisionNumber));
+        var subtrees = manager.getOntologies()
+                              .stream()
+                              .map(ontology -> {
+                                  var ontologyId = ontology.getOntologyID();
+                                  var axioms = ClassSubtreeExtractor.forOntology(ontology)
+                                                                    .getSubtreeAxioms(rootClassIri, ontologyId);
+                                  return toSubtreeOntology(ontologyId, rootClassIri, axioms);
+                              })
+                              .collect(Collectors.toList());
+        return toOntologyManager(subtrees);
+    }
+
+    /**
+     * Extracts the subtrees from the project indexes if the specified revision is the current revision
+     */
+    private Optional<Collection<Ontology>> getHeadSubtrees(@Nonnull RevisionNumber revisionNumber,
+                                                           @Nonnull IRI rootClassIri) {
+        projectChangeLock.readLock().lock();
+        try {
+            if(!revisionNumber.isHead() && !revisionNumber.equals(revisionManager.getCurrentRevision())) {
+                return Optional.empty();
+            }
+            Collection<Ontology> subtrees = projectOntologiesIndex.getOntologyIds()
+                                                                  .map(ontologyId -> toSubtreeOntology(ontologyId,
+                                                                                                       rootClassIri,
+                                                                                                       classSubtreeExtractor.getSubtreeAxioms(rootClassIri, ontologyId)))
+                                                                  .collect(Collectors.toList());
+            return Optional.of(subtrees);
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+    }
+
+    private static Ontology toSubtreeOntology(@Nonnull OWLOntologyID ontologyId,
+                                              @Nonnull IRI rootClassIri,
+                                              @Nonnull ImmutableSet<OWLAxiom> axioms) {
+        var baseIri = ontologyId.getOntologyIRI().transform(IRI::toString).or(rootClassIri.toString());
+        var subtreeOntologyId = new OWLOntologyID(IRI.create(baseIri + "_subtree"));
+        return Ontology.get(subtreeOntologyId, ImmutableSet.of(), ImmutableSet.of(), axioms);
+    }
+
+    /**
+     * Takes a snapshot of the project ontologies if the specified revision is the current revision
+     */
+    private Optional<Collection<Ontology>> getHeadOntologies(@Nonnull RevisionNumber revisionNumber) {
+        projectChangeLock.readLock().lock();
+        try {
+            if(!revisionNumber.isHead() && !revisionNumber.equals(revisionManager.getCurrentRevision())) {
+                return Optional.empty();
+            }
+            var stopwatch = Stopwatch.createStarted();
+            var ontologies = projectOntologiesBuilder.buildProjectOntologies();
+            logger.info("{} Took snapshot of the project ontologies at revision {} in {} ms",
+                        projectId,
+                        revisionManager.getCurrentRevision(),
+                        stopwatch.elapsed(MILLISECONDS));
+            return Optional.of(ontologies);
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+    }
+
+    private static OWLOntologyManager toOntologyManager(@Nonnull Collection<Ontology> ontologies) {
+        try {
+            var manager = WebProtegeOWLManager.createOWLOntologyManager();
+            for(var ontology : ontologies) {
+                var owlOntology = manager.createOntology(ontology.getOntologyId());
+                manager.addAxioms(owlOntology, ontology.getAxioms());
+                ontology.getImportsDeclarations()
+                        .forEach(importsDeclaration -> manager.applyChange(new AddImport(owlOntology, importsDeclaration)));
+                ontology.getAnnotations()
+                        .forEach(annotation -> manager.applyChange(new AddOntologyAnnotation(owlOntology, annotation)));
+            }
+            if(manager.getOntologies().isEmpty()) {
+                manager.createOntology();
+            }
+            return manager;
+        } catch(OWLOntologyCreationException e) {
+            throw new IllegalStateException("Problem creating ontology", e);
+        }
+    }
+}
@@ -7,7 +7,7 @@ import edu.stanford.bmir.protege.web.server.index.impl.*;
 import edu.stanford.bmir.protege.web.server.owlapi.ProjectAnnotationAssertionAxiomsBySubjectIndexImpl;
 import edu.stanford.bmir.protege.web.server.project.DefaultOntologyIdManager;
 import edu.stanford.bmir.protege.web.server.project.DefaultOntologyIdManagerImpl;
-import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.OntologySnapshotManager;
 import edu.stanford.bmir.protege.web.server.shortform.DeprecatedEntitiesByEntityIndexLuceneImpl;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 
@@ -224,6 +224,12 @@ public class IndexModule {
         return impl;
     }
 
+    @ProjectSingleton
+    @Provides
+    OntologyImportsIndex provideOntologyImportsIndex(OntologyImportsIndexImpl impl) {
+        return impl;
+    }
+
     @Provides
     OntologyAxiomsIndex provideOntologyAxiomsIndex(OntologyAxiomsIndexImpl impl) {
         return impl;
@@ -252,8 +258,8 @@ public class IndexModule {
 
     @Provides
     ProjectOntologiesIndex provideProjectOntologiesIndex(ProjectOntologiesIndexImpl impl,
-                                                         RevisionManager revisionManager) {
-        impl.init(revisionManager);
+                                                         OntologySnapshotManager snapshotManager) {
+        impl.init(snapshotManager);
         return impl;
     }
 
@@ -394,6 +400,12 @@ public class IndexModule {
         return impl;
     }
 
+    @Provides
+    @IntoSet
+    public UpdatableIndex provideOntologyImportsIndexImplIntoSet(OntologyImportsIndexImpl impl) {
+        return impl;
+    }
+
     @Provides
     @IntoSet
     public UpdatableIndex provideSameIndividualAxiomsIndexImplIntoSet(SameIndividualAxiomsIndexImpl impl) {
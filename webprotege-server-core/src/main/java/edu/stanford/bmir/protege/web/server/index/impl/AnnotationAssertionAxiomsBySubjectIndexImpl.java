@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsBySubjectIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationSubject;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -20,15 +22,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-09
  */
 @ProjectSingleton
-public class AnnotationAssertionAxiomsBySubjectIndexImpl implements AnnotationAssertionAxiomsBySubjectIndex, UpdatableIndex {
+public class AnnotationAssertionAxiomsBySubjectIndexImpl implements AnnotationAssertionAxiomsBySubjectIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLAnnotationSubject, OWLAnnotationAssertionAxiom> index;
 
     @Inject
-    public AnnotationAssertionAxiomsBySubjectIndexImpl() {
+    public AnnotationAssertionAxiomsBySubjectIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLAnnotationAssertionAxiom.class,
-                                          OWLAnnotationAssertionAxiom::getSubject);
+                                          OWLAnnotationAssertionAxiom::getSubject,
+                                          objectIdTable);
     }
 
     @Override
@@ -43,4 +46,10 @@ public class AnnotationAssertionAxiomsBySubjectIndexImpl implements AnnotationAs
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
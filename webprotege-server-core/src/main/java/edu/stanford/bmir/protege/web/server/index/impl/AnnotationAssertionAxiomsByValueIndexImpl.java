@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsByValueIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationValue;
 import org.semanticweb.owlapi.model.OWLLiteral;
@@ -22,14 +24,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2020-08-13
  */
 @ProjectSingleton
-public class AnnotationAssertionAxiomsByValueIndexImpl implements AnnotationAssertionAxiomsByValueIndex, UpdatableIndex {
+public class AnnotationAssertionAxiomsByValueIndexImpl implements AnnotationAssertionAxiomsByValueIndex, AxiomTypeSpecificIndex {
 
     private final AxiomMultimapIndex<OWLAnnotationValue, OWLAnnotationAssertionAxiom> index;
 
     @Inject
-    public AnnotationAssertionAxiomsByValueIndexImpl() {
+    public AnnotationAssertionAxiomsByValueIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLAnnotationAssertionAxiom.class,
-                                          AnnotationAssertionAxiomsByValueIndexImpl::extractAnnotationValue);
+                                          AnnotationAssertionAxiomsByValueIndexImpl::extractAnnotationValue,
+                                          objectIdTable);
     }
 
     @Nullable
@@ -56,4 +59,10 @@ public class AnnotationAssertionAxiomsByValueIndexImpl implements AnnotationAsse
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
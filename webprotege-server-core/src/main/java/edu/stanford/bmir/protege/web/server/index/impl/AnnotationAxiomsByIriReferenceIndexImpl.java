@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.AnnotationAxiomsByIriReferenceIndex;
@@ -22,7 +23,7 @@ import java.util.stream.Stream;
  * 2019-08-07
  */
 @ProjectSingleton
-public class AnnotationAxiomsByIriReferenceIndexImpl implements AnnotationAxiomsByIriReferenceIndex, UpdatableIndex {
+public class AnnotationAxiomsByIriReferenceIndexImpl implements AnnotationAxiomsByIriReferenceIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<IRI, OWLAnnotationAxiom> index;
@@ -30,9 +31,10 @@ public class AnnotationAxiomsByIriReferenceIndexImpl implements AnnotationAxioms
     private final KeyExtractorVisitor keyExtractor = new KeyExtractorVisitor();
 
     @Inject
-    public AnnotationAxiomsByIriReferenceIndexImpl() {
+    public AnnotationAxiomsByIriReferenceIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.createWithNaryKeyValueExtractor(OWLAnnotationAxiom.class,
-                                                                   this::extractIris);
+                                                                   this::extractIris,
+                                                                   objectIdTable);
         index.setLazy(true);
     }
 
@@ -75,6 +77,12 @@ public class AnnotationAxiomsByIriReferenceIndexImpl implements AnnotationAxioms
         index.applyChanges(changes);
     }
 
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
+
     private static class KeyExtractorVisitor extends OWLAxiomVisitorExAdapter<Iterable<IRI>> {
 
         private final AssertionIrisIterable assertionIrisIterable = new AssertionIrisIterable();
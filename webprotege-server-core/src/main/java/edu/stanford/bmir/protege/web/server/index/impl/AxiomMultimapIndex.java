@@ -1,10 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.server.change.AxiomChange;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 
@@ -17,6 +18,7 @@ import java.util.Queue;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 /**
  * Matthew Horridge
@@ -28,7 +30,7 @@ public class AxiomMultimapIndex<V, A extends OWLAxiom> {
     private final AxiomChangeHandler axiomChangeHandler = new AxiomChangeHandler();
 
     @Nonnull
-    private final Multimap<Key<V>, A> backingMap;
+    private final AxiomStore<V, A> axiomStore;
 
     @Nullable
     private final KeyValueExtractor<V, A> unaryKeyValueExtractor;
@@ -48,31 +50,34 @@ public class AxiomMultimapIndex<V, A extends OWLAxiom> {
     public static <V, A extends OWLAxiom> AxiomMultimapIndex<V, A> create(@Nonnull Class<A> axiomCls,
                                                                           @Nonnull KeyValueExtractor<V, A> keyValueExtractor,
                                                                           @Nonnull Multimap<Key<V>, A> backingMap) {
-        return new AxiomMultimapIndex<>(axiomCls, keyValueExtractor, null, backingMap);
+        return new AxiomMultimapIndex<>(axiomCls, keyValueExtractor, null, new MultimapAxiomStore<>(backingMap));
     }
+
     public static <V, A extends OWLAxiom> AxiomMultimapIndex<V, A> create(@Nonnull Class<A> axiomCls,
-                                                                          @Nonnull KeyValueExtractor<V, A> keyValueExtractor) {
-        var backingMap = IndexedSetMultimaps.<V, A>create();
-        return new AxiomMultimapIndex<>(axiomCls, keyValueExtractor, null, backingMap);
+                                                                          @Nonnull KeyValueExtractor<V, A> keyValueExtractor,
+                                                                          @Nonnull ObjectIdTable objectIdTable) {
+        var axiomStore = new InternedAxiomStore<V, A>(objectIdTable, axiomCls);
+        return new AxiomMultimapIndex<>(axiomCls, keyValueExtractor, null, axiomStore);
     }
 
     public static <V, A extends OWLAxiom> AxiomMultimapIndex<V, A> createWithNaryKeyValueExtractor(@Nonnull Class<A> axiomCls,
-                                                                                                   @Nonnull KeyValueExtractor<Iterable<V>, A> keyValueExtractor) {
-        var backingMap = IndexedSetMultimaps.<V, A>create();
-        return new AxiomMultimapIndex<>(axiomCls, null, keyValueExtractor, backingMap);
+                                                                                                   @Nonnull KeyValueExtractor<Iterable<V>, A> keyValueExtractor,
+                                                                                                   @Nonnull ObjectIdTable objectIdTable) {
+        var axiomStore = new InternedAxiomStore<V, A>(objectIdTable, axiomCls);
+        return new AxiomMultimapIndex<>(axiomCls, null, keyValueExtractor, axiomStore);
     }
 
     public static <V, A extends OWLAxiom> AxiomMultimapIndex<V, A> createWithNaryKeyValueExtractor(@Nonnull Class<A> axiomCls,
                                                                                                    @Nonnull KeyValueExtractor<Iterable<V>, A> keyValueExtractor,
                                                                                                    @Nonnull Multimap<Key<V>, A> backingMap) {
-        return new AxiomMultimapIndex<>(axiomCls, null, keyValueExtractor, backingMap);
+        return new AxiomMultimapIndex<>(axiomCls, null, keyValueExtractor, new MultimapAxiomStore<>(backingMap));
     }
 
     private AxiomMultimapIndex(@Nonnull Class<A> axiomCls,
                                @Nullable KeyValueExtractor<V, A> unaryKeyValueExtractor,
                                @Nullable KeyValueExtractor<Iterable<V>, A> naryKeyValueExtractor,
-                               @Nonnull Multimap<Key<V>, A> backingMap) {
-        this.backingMap = checkNotNull(backingMap);
+                               @Nonnull AxiomStore<V, A> axiomStore) {
+        this.axiomStore = checkNotNull(axiomStore);
         this.unaryKeyValueExtractor = unaryKeyValueExtractor;
         this.naryKeyValueExtractor = naryKeyValueExtractor;
         this.axiomCls = checkNotNull(axiomCls);
@@ -125,17 +130,17 @@ public class AxiomMultimapIndex<V, A extends OWLAxiom> {
 
     private void handleOntologyChange(@Nonnull AxiomChange change, Key<V> key, A ax) {
         if(change.isAddAxiom()) {
-            // Backing map may/may not be a set
+            // Axiom store may/may not be a set
             // If it is a set then we just added the key/axiom pair
             // If it is not a set, we don't want duplicates so we must
             // check to see if it contains the key/axiom pair
-            var shouldAdd = allowDuplicates || backingMap instanceof SetMultimap || !backingMap.containsEntry(key, ax);
+            var shouldAdd = allowDuplicates || axiomStore.isSet() || !axiomStore.containsEntry(key, ax);
             if(shouldAdd) {
-                backingMap.put(key, ax);
+                axiomStore.put(key, ax);
             }
         }
         else {
-            backingMap.remove(key, ax);
+            axiomStore.remove(key, ax);
         }
     }
 
@@ -149,8 +154,7 @@ public class AxiomMultimapIndex<V, A extends OWLAxiom> {
         if(!changeQueue.isEmpty()) {
             applyQueuedChanges();
         }
-        return ImmutableList.copyOf(backingMap.get(key))
-                            .stream();
+        return axiomStore.get(key);
     }
 
     private void applyQueuedChanges() {
@@ -167,7 +171,17 @@ public class AxiomMultimapIndex<V, A extends OWLAxiom> {
         }
     }
 
+    /**
+     * Gets the types of the axioms that this index holds
+     */
+    @Nonnull
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return AxiomType.AXIOM_TYPES.stream()
+                                    .filter(axiomType -> axiomCls.isAssignableFrom(axiomType.getActualClass()))
+                                    .collect(toImmutableSet());
+    }
+
     public void dumpStats(PrintStream out) {
-        Stats.dump("AnnotationAxiomsByIriReferenceIndex", backingMap, out);
+        axiomStore.dumpStats(axiomCls.getSimpleName(), out);
     }
 }
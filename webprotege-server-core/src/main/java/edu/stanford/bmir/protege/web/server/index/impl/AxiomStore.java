@@ -0,0 +1,32 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+import java.util.stream.Stream;
+
+/**
+ * Holds the axioms for an {@link AxiomMultimapIndex}, keyed by ontology and value.
+ */
+public interface AxiomStore<V, A extends OWLAxiom> {
+
+    void put(@Nonnull Key<V> key, @Nonnull A axiom);
+
+    void remove(@Nonnull Key<V> key, @Nonnull A axiom);
+
+    boolean containsEntry(@Nonnull Key<V> key, @Nonnull A axiom);
+
+    /**
+     * Indicates whether the store ignores duplicate key/axiom pairs
+     */
+    boolean isSet();
+
+    /**
+     * Gets a snapshot of the axioms for the specified key
+     */
+    @Nonnull
+    Stream<A> get(@Nonnull Key<V> key);
+
+    void dumpStats(@Nonnull String title, @Nonnull PrintStream out);
+}
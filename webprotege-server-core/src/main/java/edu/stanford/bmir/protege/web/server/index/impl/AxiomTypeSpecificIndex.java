@@ -0,0 +1,19 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.semanticweb.owlapi.model.AxiomType;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An {@link UpdatableIndex} that is only built from axioms of specific types.  When the indexes are built, the
+ * {@link IndexUpdater} only passes the index the changes that add or remove axioms of these types.
+ */
+public interface AxiomTypeSpecificIndex extends UpdatableIndex {
+
+    /**
+     * Gets the types of axiom that this index is built from.
+     */
+    @Nonnull
+    ImmutableSet<AxiomType<?>> getAxiomTypes();
+}
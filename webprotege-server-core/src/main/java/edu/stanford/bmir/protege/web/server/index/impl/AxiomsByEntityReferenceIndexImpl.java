@@ -2,8 +2,6 @@ package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
 import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
 import edu.stanford.bmir.protege.web.server.change.AxiomChange;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
@@ -19,9 +17,9 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -31,16 +29,26 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 2019-08-07
+ * <p>
+ * Each call to {@link #applyChanges(ImmutableList)} produces a new version of the index.  The updated postings
+ * are built off to the side and are published atomically when the version number is incremented.  Readers do
+ * not block on the writer and each read sees the index as of a single version.
+ * </p>
  */
 @ProjectSingleton
 public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReferenceIndex, OntologyAxiomsSignatureIndex, ProjectAxiomsSignatureIndex, UpdatableIndex {
 
+    private final Lock writeLock = new ReentrantLock();
 
-    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    /**
+     * The version that readers read at
+     */
+    private volatile long publishedVersion = 0;
 
-    private final Lock readLock = readWriteLock.readLock();
-
-    private final Lock writeLock = readWriteLock.writeLock();
+    /**
+     * The oldest version that can still be read.  A read at an older version must be retried.
+     */
+    private volatile long oldestReadableVersion = 0;
 
     private final AxiomChangeHandler axiomChangeHandler = new AxiomChangeHandler();
 
@@ -49,33 +57,17 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
     private final OWLEntityCollectionContainerCollector signatureCollector = new OWLEntityCollectionContainerCollector(
             signatureBuffer);
 
-    private final Multimap<ClassKey, OWLAxiom> byClass = MultimapBuilder.hashKeys(1000)
-                                                                        .hashSetValues(2)
-                                                                        .build();
-
-    private final Multimap<ObjectPropertyKey, OWLAxiom> byObjectProperty = MultimapBuilder.hashKeys(20)
-                                                                                          .hashSetValues()
-                                                                                          .build();
-
-    private final Multimap<DataPropertyKey, OWLAxiom> byDataProperty = MultimapBuilder.hashKeys(20)
-                                                                                      .hashSetValues()
-                                                                                      .build();
+    private final VersionedAxiomPostings<ClassKey> byClass = new VersionedAxiomPostings<>(1000);
 
-    private final Multimap<AnnotationPropertyKey, OWLAxiom> byAnnotationProperty = MultimapBuilder.hashKeys(20)
-                                                                                                  .hashSetValues()
-                                                                                                  .build();
+    private final VersionedAxiomPostings<ObjectPropertyKey> byObjectProperty = new VersionedAxiomPostings<>(20);
 
-    private final Multimap<NamedIndividualKey, OWLAxiom> byIndividual = MultimapBuilder.hashKeys(10)
-                                                                                       .hashSetValues()
-                                                                                       .build();
+    private final VersionedAxiomPostings<DataPropertyKey> byDataProperty = new VersionedAxiomPostings<>(20);
 
-    private final Multimap<DatatypeKey, OWLAxiom> byDatatype = MultimapBuilder.hashKeys()
-            .hashSetValues()
-            .build();
+    private final VersionedAxiomPostings<AnnotationPropertyKey> byAnnotationProperty = new VersionedAxiomPostings<>(20);
 
-    private final AxiomsByReferenceVisitor referenceVisitor = new AxiomsByReferenceVisitor();
+    private final VersionedAxiomPostings<NamedIndividualKey> byIndividual = new VersionedAxiomPostings<>(10);
 
-    private final ReferenceCheckVisitor referenceCheckVisitor = new ReferenceCheckVisitor();
+    private final VersionedAxiomPostings<DatatypeKey> byDatatype = new VersionedAxiomPostings<>(16);
 
     private final IndexingVisitor indexingVisitor = new IndexingVisitor();
 
@@ -124,49 +116,40 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
                                                            @Nonnull OWLOntologyID ontologyId) {
         checkNotNull(entity);
         checkNotNull(ontologyId);
-        try {
-            readLock.lock();
-            referenceCheckVisitor.setOntologyId(ontologyId);
-            return entity.accept(referenceCheckVisitor);
-        } finally {
-            readLock.unlock();
-        }
+        return read(version -> entity.accept(new ReferenceCheckVisitor(ontologyId, version)));
     }
 
     public Stream<OWLEntity> getEntitiesInSignatureWithIri(@Nonnull IRI iri, @Nonnull OWLOntologyID ontologyId) {
         checkNotNull(iri);
         checkNotNull(ontologyId);
-        try {
-            readLock.lock();
-            var builder = Stream.<OWLEntity>builder();
-            if(byClass.containsKey(ClassKey.get(ontologyId, iri))) {
+        return read(version -> {
+            var builder = ImmutableList.<OWLEntity>builder();
+            if(byClass.containsKey(ClassKey.get(ontologyId, iri), version)) {
                 var cls = entityProvider.getOWLClass(iri);
                 builder.add(cls);
             }
-            if(byObjectProperty.containsKey(ObjectPropertyKey.get(ontologyId, iri))) {
+            if(byObjectProperty.containsKey(ObjectPropertyKey.get(ontologyId, iri), version)) {
                 var property = entityProvider.getOWLObjectProperty(iri);
                 builder.add(property);
             }
-            if(byDataProperty.containsKey(DataPropertyKey.get(ontologyId, iri))) {
+            if(byDataProperty.containsKey(DataPropertyKey.get(ontologyId, iri), version)) {
                 var property = entityProvider.getOWLDataProperty(iri);
                 builder.add(property);
             }
-            if(byAnnotationProperty.containsKey(AnnotationPropertyKey.get(ontologyId, iri))) {
+            if(byAnnotationProperty.containsKey(AnnotationPropertyKey.get(ontologyId, iri), version)) {
                 var property = entityProvider.getOWLAnnotationProperty(iri);
                 builder.add(property);
             }
-            if(byIndividual.containsKey(NamedIndividualKey.get(ontologyId, iri))) {
+            if(byIndividual.containsKey(NamedIndividualKey.get(ontologyId, iri), version)) {
                 var individual = entityProvider.getOWLNamedIndividual(iri);
                 builder.add(individual);
             }
-            if(byDatatype.containsKey(DatatypeKey.get(ontologyId, iri))) {
+            if(byDatatype.containsKey(DatatypeKey.get(ontologyId, iri), version)) {
                 var datatype = entityProvider.getOWLDatatype(iri);
                 builder.add(datatype);
             }
             return builder.build();
-        } finally {
-            readLock.unlock();
-        }
+        }).stream();
     }
 
     @Nonnull
@@ -220,38 +203,32 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
                                                                Predicate<Key> filter,
                                                                Function<IRI, OWLEntity> iri2Entity) {
 
-        readLock.lock();
-        try {
-            final Multimap<? extends Key, OWLAxiom> keys;
-            if(type.equals(EntityType.DATATYPE)) {
-                keys = byDatatype;
-            }
-            else if(type.equals(EntityType.CLASS)) {
-                keys = byClass;
-            }
-            else if(type.equals(EntityType.OBJECT_PROPERTY)) {
-                keys = byObjectProperty;
-            }
-            else if(type.equals(EntityType.DATA_PROPERTY)) {
-                keys = byDataProperty;
-            }
-            else if(type.equals(EntityType.ANNOTATION_PROPERTY)) {
-                keys = byAnnotationProperty;
-            }
-            else if(type.equals(EntityType.NAMED_INDIVIDUAL)) {
-                keys = byIndividual;
-            }
-            else {
-                throw new RuntimeException("Unknown Entity Type: " + type);
-            }
-            return (Stream<E>) ImmutableList.copyOf(keys.keySet())
-                                .stream()
-                                .filter(filter)
-                                            .map(Key::getIri)
-                                .map(iri2Entity);
-        } finally {
-            readLock.unlock();
+        final VersionedAxiomPostings<? extends Key> postings;
+        if(type.equals(EntityType.DATATYPE)) {
+            postings = byDatatype;
         }
+        else if(type.equals(EntityType.CLASS)) {
+            postings = byClass;
+        }
+        else if(type.equals(EntityType.OBJECT_PROPERTY)) {
+            postings = byObjectProperty;
+        }
+        else if(type.equals(EntityType.DATA_PROPERTY)) {
+            postings = byDataProperty;
+        }
+        else if(type.equals(EntityType.ANNOTATION_PROPERTY)) {
+            postings = byAnnotationProperty;
+        }
+        else if(type.equals(EntityType.NAMED_INDIVIDUAL)) {
+            postings = byIndividual;
+        }
+        else {
+            throw new RuntimeException("Unknown Entity Type: " + type);
+        }
+        return (Stream<E>) read(version -> postings.getKeys(filter, version))
+                .stream()
+                .map(Key::getIri)
+                .map(iri2Entity);
     }
 
     @Override
@@ -259,14 +236,20 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
                                                  @Nonnull OWLOntologyID ontologyId) {
         checkNotNull(entity);
         checkNotNull(ontologyId);
-        readLock.lock();
-        try {
-            referenceVisitor.setOntologyId(ontologyId);
-            var axioms = entity.accept(referenceVisitor);
-            return ImmutableList.copyOf(axioms)
-                                .stream();
-        } finally {
-            readLock.unlock();
+        return read(version -> entity.accept(new AxiomsByReferenceVisitor(ontologyId, version))).stream();
+    }
+
+    /**
+     * Performs a read at the most recently published version.  The read is retried if the writer discarded
+     * postings for the version while the read was in progress.
+     */
+    private <R> R read(@Nonnull LongFunction<R> reader) {
+        while(true) {
+            var version = publishedVersion;
+            var result = reader.apply(version);
+            if(version >= oldestReadableVersion) {
+                return result;
+            }
         }
     }
 
@@ -275,6 +258,16 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
         try {
             writeLock.lock();
             axiomChangeHandler.handleOntologyChanges(changes);
+            var version = publishedVersion + 1;
+            // Readers at versions older than the current version must retry once postings are discarded
+            oldestReadableVersion = publishedVersion;
+            byClass.publish(version);
+            byObjectProperty.publish(version);
+            byDataProperty.publish(version);
+            byAnnotationProperty.publish(version);
+            byIndividual.publish(version);
+            byDatatype.publish(version);
+            publishedVersion = version;
         } finally {
             writeLock.unlock();
         }
@@ -456,91 +449,97 @@ public class AxiomsByEntityReferenceIndexImpl implements AxiomsByEntityReference
 
     private class AxiomsByReferenceVisitor implements OWLEntityVisitorEx<Collection<OWLAxiom>> {
 
-        private OWLOntologyID ontologyId = new OWLOntologyID();
+        private final OWLOntologyID ontologyId;
 
-        public void setOntologyId(@Nonnull OWLOntologyID ontologyId) {
+        private final long version;
+
+        public AxiomsByReferenceVisitor(@Nonnull OWLOntologyID ontologyId, long version) {
             this.ontologyId = checkNotNull(ontologyId);
+            this.version = version;
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLClass cls) {
-            return byClass.get(ClassKey.get(ontologyId, cls));
+            return byClass.get(ClassKey.get(ontologyId, cls), version);
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLObjectProperty property) {
-            return byObjectProperty.get(ObjectPropertyKey.get(ontologyId, property));
+            return byObjectProperty.get(ObjectPropertyKey.get(ontologyId, property), version);
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLDataProperty property) {
-            return byDataProperty.get(DataPropertyKey.get(ontologyId, property));
+            return byDataProperty.get(DataPropertyKey.get(ontologyId, property), version);
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLNamedIndividual individual) {
-            return byIndividual.get(NamedIndividualKey.get(ontologyId, individual));
+            return byIndividual.get(NamedIndividualKey.get(ontologyId, individual), version);
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLDatatype datatype) {
-            return byDatatype.get(DatatypeKey.get(ontologyId, datatype));
+            return byDatatype.get(DatatypeKey.get(ontologyId, datatype), version);
         }
 
         @Nonnull
         @Override
         public Collection<OWLAxiom> visit(@Nonnull OWLAnnotationProperty property) {
-            return byAnnotationProperty.get(AnnotationPropertyKey.get(ontologyId, property));
+            return byAnnotationProperty.get(AnnotationPropertyKey.get(ontologyId, property), version);
         }
     }
 
     private class ReferenceCheckVisitor implements OWLEntityVisitorEx<Boolean> {
 
-        private OWLOntologyID ontologyId = new OWLOntologyID();
+        private final OWLOntologyID ontologyId;
+
+        private final long version;
 
-        public void setOntologyId(@Nonnull OWLOntologyID ontologyId) {
+        public ReferenceCheckVisitor(@Nonnull OWLOntologyID ontologyId, long version) {
             this.ontologyId = checkNotNull(ontologyId);
+            this.version = version;
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLClass cls) {
-            return byClass.containsKey(ClassKey.get(ontologyId, cls));
+            return byClass.containsKey(ClassKey.get(ontologyId, cls), version);
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLObjectProperty property) {
-            return byObjectProperty.containsKey(ObjectPropertyKey.get(ontologyId, property));
+            return byObjectProperty.containsKey(ObjectPropertyKey.get(ontologyId, property), version);
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLDataProperty property) {
-            return byDataProperty.containsKey(DataPropertyKey.get(ontologyId, property));
+            return byDataProperty.containsKey(DataPropertyKey.get(ontologyId, property), version);
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLNamedIndividual individual) {
-            return byIndividual.containsKey(NamedIndividualKey.get(ontologyId, individual));
+            return byIndividual.containsKey(NamedIndividualKey.get(ontologyId, individual), version);
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLDatatype datatype) {
-            return byDatatype.containsKey(DatatypeKey.get(ontologyId, datatype));
+            return byDatatype.containsKey(DatatypeKey.get(ontologyId, datatype), version);
         }
 
         @Nonnull
         @Override
         public Boolean visit(@Nonnull OWLAnnotationProperty property) {
-            return byAnnotationProperty.containsKey(AnnotationPropertyKey.get(ontologyId, property));
+            return byAnnotationProperty.containsKey(AnnotationPropertyKey.get(ontologyId, property), version);
         }
     }
 
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByClassIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
@@ -21,15 +23,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-19
  */
 @ProjectSingleton
-public class ClassAssertionAxiomsByClassIndexImpl implements ClassAssertionAxiomsByClassIndex, UpdatableIndex {
+public class ClassAssertionAxiomsByClassIndexImpl implements ClassAssertionAxiomsByClassIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLClassExpression, OWLClassAssertionAxiom> index;
 
     @Inject
-    public ClassAssertionAxiomsByClassIndexImpl() {
+    public ClassAssertionAxiomsByClassIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLClassAssertionAxiom.class,
-                                          OWLClassAssertionAxiom::getClassExpression);
+                                          OWLClassAssertionAxiom::getClassExpression,
+                                          objectIdTable);
         index.setLazy(true);
     }
 
@@ -46,4 +49,10 @@ public class ClassAssertionAxiomsByClassIndexImpl implements ClassAssertionAxiom
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByIndividualIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -20,15 +22,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-10
  */
 @ProjectSingleton
-public class ClassAssertionAxiomsByIndividualIndexImpl implements ClassAssertionAxiomsByIndividualIndex, UpdatableIndex {
+public class ClassAssertionAxiomsByIndividualIndexImpl implements ClassAssertionAxiomsByIndividualIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLIndividual, OWLClassAssertionAxiom> index;
 
     @Inject
-    public ClassAssertionAxiomsByIndividualIndexImpl() {
+    public ClassAssertionAxiomsByIndividualIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLClassAssertionAxiom.class,
-                                          OWLClassAssertionAxiom::getIndividual);
+                                          OWLClassAssertionAxiom::getIndividual,
+                                          objectIdTable);
 
         index.setLazy(true);
     }
@@ -45,4 +48,10 @@ public class ClassAssertionAxiomsByIndividualIndexImpl implements ClassAssertion
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
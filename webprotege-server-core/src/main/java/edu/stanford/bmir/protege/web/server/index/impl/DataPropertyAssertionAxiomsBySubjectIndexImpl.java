@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.DataPropertyAssertionAxiomsBySubjectIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLDataPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -21,15 +23,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 @ProjectSingleton
 public class DataPropertyAssertionAxiomsBySubjectIndexImpl implements DataPropertyAssertionAxiomsBySubjectIndex,
-        UpdatableIndex {
+        AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLIndividual, OWLDataPropertyAssertionAxiom> index;
 
     @Inject
-    public DataPropertyAssertionAxiomsBySubjectIndexImpl() {
+    public DataPropertyAssertionAxiomsBySubjectIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLDataPropertyAssertionAxiom.class,
-                                          OWLDataPropertyAssertionAxiom::getSubject);
+                                          OWLDataPropertyAssertionAxiom::getSubject,
+                                          objectIdTable);
     }
 
     @Nonnull
@@ -45,4 +48,10 @@ public class DataPropertyAssertionAxiomsBySubjectIndexImpl implements DataProper
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.DifferentIndividualsAxiomsIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLDifferentIndividualsAxiom;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -20,16 +22,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-24
  */
 @ProjectSingleton
-public class DifferentIndividualsAxiomsIndexImpl implements DifferentIndividualsAxiomsIndex, UpdatableIndex {
+public class DifferentIndividualsAxiomsIndexImpl implements DifferentIndividualsAxiomsIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLIndividual, OWLDifferentIndividualsAxiom> index;
 
     @Inject
-    public DifferentIndividualsAxiomsIndexImpl() {
+    public DifferentIndividualsAxiomsIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         this.index = AxiomMultimapIndex.createWithNaryKeyValueExtractor(
                 OWLDifferentIndividualsAxiom.class,
-                OWLDifferentIndividualsAxiom::getIndividuals);
+                OWLDifferentIndividualsAxiom::getIndividuals,
+                objectIdTable);
     }
 
     @Nonnull
@@ -45,4 +48,10 @@ public class DifferentIndividualsAxiomsIndexImpl implements DifferentIndividuals
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.DisjointClassesAxiomsIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
@@ -21,15 +23,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-22
  */
 @ProjectSingleton
-public class DisjointClassesAxiomsIndexImpl implements DisjointClassesAxiomsIndex, UpdatableIndex {
+public class DisjointClassesAxiomsIndexImpl implements DisjointClassesAxiomsIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLClassExpression, OWLDisjointClassesAxiom> index;
 
     @Inject
-    public DisjointClassesAxiomsIndexImpl() {
+    public DisjointClassesAxiomsIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.createWithNaryKeyValueExtractor(OWLDisjointClassesAxiom.class,
-                                                                   OWLDisjointClassesAxiom::getClassExpressions);
+                                                                   OWLDisjointClassesAxiom::getClassExpressions,
+                                                                   objectIdTable);
 
         index.setLazy(true);
     }
@@ -46,4 +49,10 @@ public class DisjointClassesAxiomsIndexImpl implements DisjointClassesAxiomsInde
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
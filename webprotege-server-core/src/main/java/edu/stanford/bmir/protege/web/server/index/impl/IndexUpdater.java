@@ -3,27 +3,28 @@ package edu.stanford.bmir.protege.web.server.index.impl;
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.graph.Graph;
-import com.google.common.graph.GraphBuilder;
+import com.google.common.collect.ImmutableListMultimap;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.DependentIndex;
 import edu.stanford.bmir.protege.web.server.index.IndexUpdatingService;
-import edu.stanford.bmir.protege.web.server.revision.Revision;
-import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.OntologySnapshotManager;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -40,7 +41,7 @@ public class IndexUpdater {
     private static final Logger logger = LoggerFactory.getLogger(IndexUpdater.class);
 
     @Nonnull
-    private final RevisionManager revisionManager;
+    private final OntologySnapshotManager snapshotManager;
 
     private final Collection<UpdatableIndex> indexes;
 
@@ -54,95 +55,101 @@ public class IndexUpdater {
 
     @AutoFactory
     @Inject
-    public IndexUpdater(@Provided @Nonnull RevisionManager revisionManager,
+    public IndexUpdater(@Provided @Nonnull OntologySnapshotManager snapshotManager,
                         @Provided @Nonnull Set<UpdatableIndex> indexes,
                         @Provided @Nonnull @IndexUpdatingService ExecutorService indexUpdaterService,
                         @Provided @Nonnull ProjectId projectId) {
-        this.revisionManager = checkNotNull(revisionManager);
+        this.snapshotManager = checkNotNull(snapshotManager);
         this.indexes = checkNotNull(indexes);
         this.indexUpdaterService = checkNotNull(indexUpdaterService);
         this.projectId = checkNotNull(projectId);
     }
 
-    private Multimap<Integer, UpdatableIndex> getRankedIndexes() {
-        var graph = GraphBuilder.directed().allowsSelfLoops(false).<UpdatableIndex>build();
-        for(var index : indexes) {
-            graph.addNode(index);
-            if(index instanceof DependentIndex) {
-                var dependentIndex = (DependentIndex) index;
-                dependentIndex.getDependencies()
-                              .stream()
-                              .map(dep -> (UpdatableIndex) dep)
-                              .forEach(dependency -> graph.putEdge(index, dependency));
-            }
-        }
-        var rankMap = HashMultimap.<Integer, UpdatableIndex>create();
-        for(var index : indexes) {
-            var rank = getRank(index, graph);
-            rankMap.put(rank, index);
-        }
-        return rankMap;
-    }
-
-    private int getRank(UpdatableIndex index, Graph<UpdatableIndex> depGraph) {
-        int depth = 0;
-        for(var successor : depGraph.successors(index)) {
-            int successorDepth = 1 + getRank(successor, depGraph);
-            if(successorDepth > depth) {
-                depth = successorDepth;
-            }
-        }
-        return depth;
-    }
-
     public synchronized void buildIndexes() {
         if(builtIndexes) {
             return;
         }
         builtIndexes = true;
-        var revisions = revisionManager.getRevisions();
-        var revisionChanges = revisions.stream()
-                                       .map(Revision::getChanges)
-                                       .collect(toImmutableList());
+        // Start from the latest snapshot, if there is one, rather than replaying the complete history
+        var revisionChanges = snapshotManager.getReplayChanges();
         updateIndexesWithRevisions(revisionChanges);
+        snapshotManager.releaseReplayChanges();
+        snapshotManager.snapshotIfNecessary();
     }
 
     private synchronized void updateIndexesWithRevisions(ImmutableList<ImmutableList<OntologyChange>> revisions) {
-        var rankedIndexes = getRankedIndexes();
-        var ranks = rankedIndexes.keySet().size();
-        for(var rank = 0; rank < ranks; rank++) {
-            var rankIndexes = rankedIndexes.get(rank);
-            buildIndexesWithRevisions(rank, rankIndexes, revisions);
+        var stopwatch = Stopwatch.createStarted();
+        // Decode the revisions once and share the results between the indexes.  Indexes that are built from
+        // specific types of axiom only see the changes for those types.
+        var changesByAxiomType = getChangesByAxiomType(revisions);
+        // The other indexes receive all of the changes as one batch so that indexes that copy on write do so
+        // once per build rather than once per revision
+        var allChanges = ImmutableList.of(revisions.stream()
+                                                   .flatMap(ImmutableList::stream)
+                                                   .collect(toImmutableList()));
+        // Each index is built as soon as the indexes that it depends on have been built, rather than
+        // waiting for every index of a lower rank
+        var builds = new HashMap<UpdatableIndex, CompletableFuture<Void>>();
+        indexes.forEach(index -> getBuild(index, allChanges, changesByAxiomType, builds));
+        try {
+            CompletableFuture.allOf(builds.values().toArray(new CompletableFuture[0])).join();
+        } catch(CompletionException e) {
+            logger.error("{} Error while building indexes", projectId, e.getCause());
         }
+        stopwatch.stop();
+        logger.info("{} Built indexes in {} ms",
+                    projectId,
+                    stopwatch.elapsed()
+                             .toMillis());
+    }
 
+    private static ImmutableListMultimap<AxiomType<?>, OntologyChange> getChangesByAxiomType(@Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions) {
+        var changesByAxiomType = ImmutableListMultimap.<AxiomType<?>, OntologyChange>builder();
+        revisions.forEach(changes -> changes.stream()
+                                            .filter(OntologyChange::isAxiomChange)
+                                            .forEach(change -> changesByAxiomType.put(change.getAxiomOrThrow()
+                                                                                            .getAxiomType(), change)));
+        return changesByAxiomType.build();
     }
 
-    private void buildIndexesWithRevisions(int rank,
-                                           Collection<UpdatableIndex> indexes,
-                                           ImmutableList<ImmutableList<OntologyChange>> revisions) {
-        try {
-            var stopwatch = Stopwatch.createStarted();
-            var countDownLatch = new CountDownLatch(indexes.size());
-            indexes.forEach(index -> buildIndex(rank, index, revisions, countDownLatch));
-            countDownLatch.await();
-            stopwatch.stop();
-            logger.info("{} Built indexes in {} ms",
-                        projectId,
-                        stopwatch.elapsed()
-                                 .toMillis());
-        } catch(InterruptedException e) {
-            logger.error("{} Interrupted while building indexes", projectId);
+    private CompletableFuture<Void> getBuild(@Nonnull UpdatableIndex index,
+                                             @Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions,
+                                             @Nonnull ImmutableListMultimap<AxiomType<?>, OntologyChange> changesByAxiomType,
+                                             @Nonnull Map<UpdatableIndex, CompletableFuture<Void>> builds) {
+        var build = builds.get(index);
+        if(build != null) {
+            return build;
         }
-
+        var dependencyBuilds = new ArrayList<CompletableFuture<Void>>();
+        if(index instanceof DependentIndex) {
+            ((DependentIndex) index).getDependencies()
+                                    .stream()
+                                    .map(dep -> (UpdatableIndex) dep)
+                                    // Dependencies that are not being updated are already up to date
+                                    .filter(indexes::contains)
+                                    .forEach(dep -> dependencyBuilds.add(getBuild(dep, revisions, changesByAxiomType, builds)));
+        }
+        var indexRevisions = getRevisionsForIndex(index, revisions, changesByAxiomType);
+        var updaterTask = new IndexUpdaterTask(projectId, index, indexRevisions);
+        build = CompletableFuture.allOf(dependencyBuilds.toArray(new CompletableFuture[0]))
+                                 .thenRunAsync(updaterTask, indexUpdaterService);
+        builds.put(index, build);
+        return build;
     }
 
-
-    private void buildIndex(int rank,
-                            @Nonnull UpdatableIndex index,
-                            @Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions,
-                            @Nonnull CountDownLatch countDownLatch) {
-        var updaterTask = new IndexUpdaterTask(projectId, rank, index, revisions, countDownLatch);
-        indexUpdaterService.submit(updaterTask);
+    private static ImmutableList<ImmutableList<OntologyChange>> getRevisionsForIndex(@Nonnull UpdatableIndex index,
+                                                                                    @Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions,
+                                                                                    @Nonnull ImmutableListMultimap<AxiomType<?>, OntologyChange> changesByAxiomType) {
+        if(!(index instanceof AxiomTypeSpecificIndex)) {
+            return revisions;
+        }
+        // Changes for different types of axiom are independent of each other, so the changes for each type
+        // can be applied one type after another.  The order of changes within a type is preserved.
+        return ((AxiomTypeSpecificIndex) index).getAxiomTypes()
+                                               .stream()
+                                               .map(changesByAxiomType::get)
+                                               .filter(changes -> !changes.isEmpty())
+                                               .collect(toImmutableList());
     }
 
     public synchronized void updateIndexes(ImmutableList<OntologyChange> changes) {
@@ -156,27 +163,18 @@ public class IndexUpdater {
 
         private final ProjectId projectId;
 
-        private final int rank;
-
         @Nonnull
         private final UpdatableIndex index;
 
         @Nonnull
         private final ImmutableList<ImmutableList<OntologyChange>> revisions;
 
-        @Nonnull
-        private final CountDownLatch countDownLatch;
-
         public IndexUpdaterTask(ProjectId projectId,
-                                int rank,
                                 UpdatableIndex index,
-                                @Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions,
-                                @Nonnull CountDownLatch countDownLatch) {
+                                @Nonnull ImmutableList<ImmutableList<OntologyChange>> revisions) {
             this.projectId = checkNotNull(projectId);
-            this.rank = rank;
             this.index = checkNotNull(index);
             this.revisions = checkNotNull(revisions);
-            this.countDownLatch = countDownLatch;
         }
 
         @Override
@@ -186,16 +184,21 @@ public class IndexUpdater {
             var threadMxBean = ManagementFactory.getThreadMXBean();
             var cpu0 = threadMxBean.getCurrentThreadCpuTime();
             revisions.forEach(index::applyChanges);
-            countDownLatch.countDown();
             var cpu1 = threadMxBean.getCurrentThreadCpuTime();
             var cpuTimeMs = (cpu1 - cpu0) / (1_000_000);
             stopwatch.stop();
-            logger.info("{}    Built {} in {} ms of user-time ({} ms wall-clock)",
+            var wallClockMs = stopwatch.elapsed()
+                                       .toMillis();
+            var changeCount = revisions.stream()
+                                       .mapToLong(ImmutableList::size)
+                                       .sum();
+            logger.info("{}    Built {} from {} changes in {} ms of user-time ({} ms wall-clock, {} changes/s)",
                         projectId,
                         indexName,
+                        changeCount,
                         cpuTimeMs,
-                        stopwatch.elapsed()
-                                 .toMillis());
+                        wallClockMs,
+                        (changeCount * 1000) / Math.max(1, wallClockMs));
         }
     }
 
@@ -0,0 +1,177 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A map from int keys to sets of int values.  Keys are held in an open addressing hash table and the values for
+ * each key are held in a sorted, growable int array.  No objects are allocated per entry, other than the
+ * array of values for each key.  This class is not thread safe.
+ */
+public class IntPostingsMap {
+
+    private static final int EMPTY = -1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final int[] NO_VALUES = new int[0];
+
+    private int[] keys;
+
+    private int[][] values;
+
+    private int[] sizes;
+
+    private int keyCount = 0;
+
+    public IntPostingsMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity][];
+        sizes = new int[capacity];
+    }
+
+    private int getSlot(int key) {
+        var mask = keys.length - 1;
+        var slot = mix(key) & mask;
+        while(keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        var h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Adds the specified value to the values for the specified key.
+     * @return true if the value was added, or false if the key was already mapped to the value.
+     */
+    public boolean put(int key, int value) {
+        var slot = getSlot(key);
+        if(keys[slot] == EMPTY) {
+            keys[slot] = key;
+            values[slot] = new int[1];
+            keyCount++;
+        }
+        var slotValues = values[slot];
+        var size = sizes[slot];
+        var pos = size == 0 || slotValues[size - 1] < value ? -(size + 1) : Arrays.binarySearch(slotValues, 0, size, value);
+        if(pos >= 0) {
+            return false;
+        }
+        var insertionPoint = -(pos + 1);
+        if(size == slotValues.length) {
+            slotValues = Arrays.copyOf(slotValues, size * 2);
+            values[slot] = slotValues;
+        }
+        System.arraycopy(slotValues, insertionPoint, slotValues, insertionPoint + 1, size - insertionPoint);
+        slotValues[insertionPoint] = value;
+        sizes[slot] = size + 1;
+        if(keyCount * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified value from the values for the specified key.
+     * @return true if the value was removed, or false if the key was not mapped to the value.
+     */
+    public boolean remove(int key, int value) {
+        var slot = getSlot(key);
+        if(keys[slot] == EMPTY) {
+            return false;
+        }
+        var slotValues = values[slot];
+        var size = sizes[slot];
+        var pos = Arrays.binarySearch(slotValues, 0, size, value);
+        if(pos < 0) {
+            return false;
+        }
+        System.arraycopy(slotValues, pos + 1, slotValues, pos, size - pos - 1);
+        sizes[slot] = size - 1;
+        if(size == 1) {
+            removeKey(slot);
+        }
+        else if(size - 1 < slotValues.length / 4) {
+            values[slot] = Arrays.copyOf(slotValues, slotValues.length / 2);
+        }
+        return true;
+    }
+
+    private void removeKey(int slot) {
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        sizes[slot] = 0;
+        keyCount--;
+        // Re-insert the entries that follow in the same cluster so that lookups do not stop early
+        var mask = keys.length - 1;
+        var next = (slot + 1) & mask;
+        while(keys[next] != EMPTY) {
+            var key = keys[next];
+            var keyValues = values[next];
+            var keySize = sizes[next];
+            keys[next] = EMPTY;
+            values[next] = null;
+            sizes[next] = 0;
+            var target = getSlot(key);
+            keys[target] = key;
+            values[target] = keyValues;
+            sizes[target] = keySize;
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        var oldSizes = sizes;
+        allocate(capacity);
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != EMPTY) {
+                var slot = getSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                sizes[slot] = oldSizes[i];
+            }
+        }
+    }
+
+    public boolean containsEntry(int key, int value) {
+        var slot = getSlot(key);
+        return keys[slot] != EMPTY && Arrays.binarySearch(values[slot], 0, sizes[slot], value) >= 0;
+    }
+
+    /**
+     * Gets a copy of the values for the specified key, in ascending order.
+     */
+    public int[] get(int key) {
+        var slot = getSlot(key);
+        if(keys[slot] == EMPTY) {
+            return NO_VALUES;
+        }
+        return Arrays.copyOf(values[slot], sizes[slot]);
+    }
+
+    /**
+     * Passes the number of values held by each key to the specified consumer.
+     */
+    public void forEachValueCount(IntConsumer consumer) {
+        for(int i = 0; i < keys.length; i++) {
+            if(keys[i] != EMPTY) {
+                consumer.accept(sizes[i]);
+            }
+        }
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+}
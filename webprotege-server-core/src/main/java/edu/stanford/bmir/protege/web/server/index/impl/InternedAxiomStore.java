@@ -0,0 +1,116 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link AxiomStore} that holds axioms and values as ids from a shared {@link ObjectIdTable}.  For each
+ * ontology, the ids of the axioms for a value are held in an {@link IntPostingsMap} rather than in a collection
+ * of objects under a {@link Key}.  Key/axiom pairs are never duplicated.  Each key/axiom pair holds a reference
+ * to the ids of its value and its axiom, which is released when the pair is removed.
+ */
+public class InternedAxiomStore<V, A extends OWLAxiom> implements AxiomStore<V, A> {
+
+    @Nonnull
+    private final ObjectIdTable objectIdTable;
+
+    @Nonnull
+    private final Class<A> axiomCls;
+
+    private final Map<OWLOntologyID, IntPostingsMap> postingsByOntology = new HashMap<>(2);
+
+    public InternedAxiomStore(@Nonnull ObjectIdTable objectIdTable,
+                              @Nonnull Class<A> axiomCls) {
+        this.objectIdTable = checkNotNull(objectIdTable);
+        this.axiomCls = checkNotNull(axiomCls);
+    }
+
+    @Override
+    public void put(@Nonnull Key<V> key, @Nonnull A axiom) {
+        var postings = postingsByOntology.computeIfAbsent(key.getOntologyId(), ontologyId -> new IntPostingsMap());
+        var valueId = objectIdTable.acquireId(key.getValue());
+        var axiomId = objectIdTable.acquireId(axiom);
+        if(!postings.put(valueId, axiomId)) {
+            objectIdTable.releaseId(valueId);
+            objectIdTable.releaseId(axiomId);
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull Key<V> key, @Nonnull A axiom) {
+        var postings = postingsByOntology.get(key.getOntologyId());
+        if(postings == null) {
+            return;
+        }
+        var valueId = objectIdTable.getIdIfPresent(key.getValue());
+        var axiomId = objectIdTable.getIdIfPresent(axiom);
+        if(valueId == ObjectIdTable.NO_ID || axiomId == ObjectIdTable.NO_ID) {
+            return;
+        }
+        if(postings.remove(valueId, axiomId)) {
+            objectIdTable.releaseId(valueId);
+            objectIdTable.releaseId(axiomId);
+        }
+        if(postings.keyCount() == 0) {
+            postingsByOntology.remove(key.getOntologyId());
+        }
+    }
+
+    @Override
+    public boolean containsEntry(@Nonnull Key<V> key, @Nonnull A axiom) {
+        var postings = postingsByOntology.get(key.getOntologyId());
+        if(postings == null) {
+            return false;
+        }
+        var valueId = objectIdTable.getIdIfPresent(key.getValue());
+        var axiomId = objectIdTable.getIdIfPresent(axiom);
+        return valueId != ObjectIdTable.NO_ID
+                && axiomId != ObjectIdTable.NO_ID
+                && postings.containsEntry(valueId, axiomId);
+    }
+
+    @Override
+    public boolean isSet() {
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<A> get(@Nonnull Key<V> key) {
+        var postings = postingsByOntology.get(key.getOntologyId());
+        if(postings == null) {
+            return Stream.empty();
+        }
+        var valueId = objectIdTable.getIdIfPresent(key.getValue());
+        if(valueId == ObjectIdTable.NO_ID) {
+            return Stream.empty();
+        }
+        // The axioms are looked up before returning because an id may be reused once it is released
+        var axiomIds = postings.get(valueId);
+        var axioms = new ArrayList<A>(axiomIds.length);
+        for(var axiomId : axiomIds) {
+            axioms.add(axiomCls.cast(objectIdTable.getObject(axiomId)));
+        }
+        return axioms.stream();
+    }
+
+    @Override
+    public void dumpStats(@Nonnull String title, @Nonnull PrintStream out) {
+        var statistics = new DescriptiveStatistics();
+        postingsByOntology.values()
+                          .forEach(postings -> postings.forEachValueCount(statistics::addValue));
+        out.println(title);
+        out.print(statistics);
+        out.println("Shared objects: " + objectIdTable.size());
+    }
+}
@@ -0,0 +1,57 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link AxiomStore} that is backed by a {@link Multimap}.
+ */
+public class MultimapAxiomStore<V, A extends OWLAxiom> implements AxiomStore<V, A> {
+
+    @Nonnull
+    private final Multimap<Key<V>, A> backingMap;
+
+    public MultimapAxiomStore(@Nonnull Multimap<Key<V>, A> backingMap) {
+        this.backingMap = checkNotNull(backingMap);
+    }
+
+    @Override
+    public void put(@Nonnull Key<V> key, @Nonnull A axiom) {
+        backingMap.put(key, axiom);
+    }
+
+    @Override
+    public void remove(@Nonnull Key<V> key, @Nonnull A axiom) {
+        backingMap.remove(key, axiom);
+    }
+
+    @Override
+    public boolean containsEntry(@Nonnull Key<V> key, @Nonnull A axiom) {
+        return backingMap.containsEntry(key, axiom);
+    }
+
+    @Override
+    public boolean isSet() {
+        return backingMap instanceof SetMultimap;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<A> get(@Nonnull Key<V> key) {
+        return ImmutableList.copyOf(backingMap.get(key))
+                            .stream();
+    }
+
+    @Override
+    public void dumpStats(@Nonnull String title, @Nonnull PrintStream out) {
+        Stats.dump(title, backingMap, out);
+    }
+}
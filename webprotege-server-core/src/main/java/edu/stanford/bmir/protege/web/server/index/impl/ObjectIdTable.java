@@ -0,0 +1,205 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A project wide table that assigns each distinct object (axioms and the values that axioms are indexed by) a
+ * compact int id.  The table is shared between indexes so that an axiom that appears in several indexes is only
+ * held once, with the indexes themselves storing primitive ids.  Each id is reference counted: an index acquires
+ * an id for each posting that it holds and releases the id when the posting is removed.  When the last reference
+ * to an id is released the object is dropped from the table and its id is reused, so the table does not grow
+ * with the number of axioms that have ever been added to the project.
+ * <p>
+ * The table is used by indexes that are being built concurrently, and most acquisitions are of objects that are
+ * already in the table.  These only increment the reference count of the object's entry, without locking.  Only
+ * adding an object to the table and removing an object from the table take the lock of the table.  An entry whose
+ * reference count has dropped to zero can never be acquired again, so an object that is acquired while its entry
+ * is being removed is added back with a new entry.  Reads do not block.
+ */
+@ProjectSingleton
+public class ObjectIdTable {
+
+    /**
+     * The id that is returned for objects that are not in the table
+     */
+    public static final int NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<Object, Entry> entriesByObject = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    /**
+     * The entries by id.  Only replaced, when it grows, and written while holding the lock of the table.
+     */
+    private volatile Entry[] entriesById = new Entry[INITIAL_CAPACITY];
+
+    private int[] releasedIds = new int[16];
+
+    private int releasedIdCount = 0;
+
+    private int nextId = 0;
+
+    @Inject
+    public ObjectIdTable() {
+    }
+
+    /**
+     * Acquires a reference to the id of the specified object, adding the object to the table if it is not already
+     * present.  Each call must be balanced by a call to {@link #releaseId(int)} once the id is no longer held.
+     * @param object The object.
+     * @return The id of the object.
+     */
+    public int acquireId(@Nonnull Object object) {
+        checkNotNull(object);
+        var entry = entriesByObject.get(object);
+        if(entry != null && entry.tryAcquire()) {
+            return entry.id;
+        }
+        return addObject(object);
+    }
+
+    private synchronized int addObject(@Nonnull Object object) {
+        // Another thread may have added the object since it was looked up
+        var entry = entriesByObject.get(object);
+        if(entry != null && entry.tryAcquire()) {
+            return entry.id;
+        }
+        int id;
+        if(releasedIdCount > 0) {
+            releasedIdCount--;
+            id = releasedIds[releasedIdCount];
+        }
+        else {
+            id = nextId;
+            nextId++;
+        }
+        var entries = entriesById;
+        if(id == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        var addedEntry = new Entry(object, id);
+        entries[id] = addedEntry;
+        // Publish the entry before its id becomes visible
+        entriesById = entries;
+        // Replaces an entry that has been released but that has not been removed yet
+        entriesByObject.put(object, addedEntry);
+        return id;
+    }
+
+    /**
+     * Releases a reference to the specified id.  If this is the last reference then the object that has the id is
+     * removed from the table and the id may subsequently be assigned to a different object.
+     * @param id The id.  This must be an id that was previously returned by {@link #acquireId(Object)}.
+     */
+    public void releaseId(int id) {
+        var entries = entriesById;
+        checkElementIndex(id, entries.length);
+        var entry = entries[id];
+        checkState(entry != null, "Id %s has not been acquired", id);
+        if(entry.release()) {
+            removeEntry(entry);
+        }
+    }
+
+    private synchronized void removeEntry(@Nonnull Entry entry) {
+        entriesByObject.remove(entry.object, entry);
+        entriesById[entry.id] = null;
+        if(releasedIdCount == releasedIds.length) {
+            releasedIds = Arrays.copyOf(releasedIds, releasedIds.length * 2);
+        }
+        releasedIds[releasedIdCount] = entry.id;
+        releasedIdCount++;
+    }
+
+    /**
+     * Gets the id of the specified object without adding the object to the table.
+     * @param object The object.
+     * @return The id of the object or {@link #NO_ID} if the object is not in the table.
+     */
+    public int getIdIfPresent(@Nonnull Object object) {
+        checkNotNull(object);
+        var entry = entriesByObject.get(object);
+        return entry != null && entry.isAcquired() ? entry.id : NO_ID;
+    }
+
+    /**
+     * Gets the object that has the specified id.
+     * @param id The id.  This must be an id that is currently acquired.
+     * @return The object.
+     */
+    @Nonnull
+    public Object getObject(int id) {
+        return entriesById[id].object;
+    }
+
+    /**
+     * Gets the number of objects in the table.
+     */
+    public int size() {
+        return entriesByObject.size();
+    }
+
+    /**
+     * An object in the table along with its id and the number of references to the id
+     */
+    private static final class Entry {
+
+        private static final AtomicIntegerFieldUpdater<Entry> REFERENCE_COUNT_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Entry.class, "referenceCount");
+
+        private final Object object;
+
+        private final int id;
+
+        private volatile int referenceCount = 1;
+
+        private Entry(@Nonnull Object object, int id) {
+            this.object = object;
+            this.id = id;
+        }
+
+        /**
+         * Increments the reference count, unless the last reference has already been released.
+         * @return true if the reference count was incremented, or false if the entry has been released.
+         */
+        private boolean tryAcquire() {
+            while(true) {
+                var count = referenceCount;
+                if(count == 0) {
+                    return false;
+                }
+                if(REFERENCE_COUNT_UPDATER.compareAndSet(this, count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Decrements the reference count.
+         * @return true if this released the last reference.
+         */
+        private boolean release() {
+            while(true) {
+                var count = referenceCount;
+                checkState(count > 0, "Id %s has not been acquired", id);
+                if(REFERENCE_COUNT_UPDATER.compareAndSet(this, count, count - 1)) {
+                    return count == 1;
+                }
+            }
+        }
+
+        private boolean isAcquired() {
+            return referenceCount > 0;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.ObjectPropertyAssertionAxiomsBySubjectIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObjectPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -21,21 +23,28 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-12
  */
 @ProjectSingleton
-public class ObjectPropertyAssertionAxiomsBySubjectIndexImpl implements ObjectPropertyAssertionAxiomsBySubjectIndex, UpdatableIndex {
+public class ObjectPropertyAssertionAxiomsBySubjectIndexImpl implements ObjectPropertyAssertionAxiomsBySubjectIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLIndividual, OWLObjectPropertyAssertionAxiom> index;
 
     @Inject
-    public ObjectPropertyAssertionAxiomsBySubjectIndexImpl() {
+    public ObjectPropertyAssertionAxiomsBySubjectIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         this.index = AxiomMultimapIndex.create(OWLObjectPropertyAssertionAxiom.class,
-                                               OWLPropertyAssertionAxiom::getSubject);
+                                               OWLPropertyAssertionAxiom::getSubject,
+                                               objectIdTable);
     }
     @Override
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
 
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
+
     @Nonnull
     @Override
     public Stream<OWLObjectPropertyAssertionAxiom> getObjectPropertyAssertions(@Nonnull OWLIndividual subject,
@@ -0,0 +1,49 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import edu.stanford.bmir.protege.web.server.change.*;
+import edu.stanford.bmir.protege.web.server.index.OntologyImportsIndex;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of the imports declarations of the project ontologies, so that the ontologies can be
+ * rebuilt with their imports.
+ */
+@ProjectSingleton
+public class OntologyImportsIndexImpl implements OntologyImportsIndex, UpdatableIndex {
+
+    private final SetMultimap<OWLOntologyID, OWLImportsDeclaration> importsMap = LinkedHashMultimap.create();
+
+    @Inject
+    public OntologyImportsIndexImpl() {
+    }
+
+    @Nonnull
+    @Override
+    public Stream<OWLImportsDeclaration> getImportsDeclarations(@Nonnull OWLOntologyID ontologyID) {
+        return ImmutableList.copyOf(importsMap.get(ontologyID)).stream();
+    }
+
+    @Override
+    public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
+        changes.forEach(change -> change.accept(new OntologyChangeVisitor() {
+            @Override
+            public void visit(@Nonnull AddImportChange addImportChange) {
+                importsMap.put(addImportChange.getOntologyId(), addImportChange.getImportsDeclaration());
+            }
+
+            @Override
+            public void visit(@Nonnull RemoveImportChange removeImportChange) {
+                importsMap.remove(removeImportChange.getOntologyId(), removeImportChange.getImportsDeclaration());
+            }
+        }));
+    }
+}
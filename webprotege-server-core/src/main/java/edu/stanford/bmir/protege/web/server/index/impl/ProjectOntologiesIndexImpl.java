@@ -3,9 +3,11 @@ package edu.stanford.bmir.protege.web.server.index.impl;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multiset;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveImportChange;
 import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
-import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.OntologySnapshotManager;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.slf4j.Logger;
@@ -46,22 +48,23 @@ public class ProjectOntologiesIndexImpl implements ProjectOntologiesIndex, Updat
         return cache.stream();
     }
 
-    public synchronized void init(RevisionManager revisionManager) {
+    public synchronized void init(OntologySnapshotManager snapshotManager) {
         if(initialized) {
             return;
         }
-        revisionManager.getRevisions()
-                       .forEach(rev -> applyChanges(rev.getChanges()));
+        snapshotManager.getReplayChanges()
+                       .forEach(this::applyChanges);
         initialized = true;
     }
 
     @Override
     public synchronized void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         for(var ontologyChange : changes) {
-            if(ontologyChange.isAddAxiom() || ontologyChange.isAddOntologyAnnotation()) {
+            // Imports are counted too, so that an ontology that only has imports is still a project ontology
+            if(ontologyChange.isAddAxiom() || ontologyChange.isAddOntologyAnnotation() || ontologyChange instanceof AddImportChange) {
                 ontologyIds.add(ontologyChange.getOntologyId());
             }
-            else if(ontologyChange.isRemoveAxiom() || ontologyChange.isRemoveOntologyAnnotation()) {
+            else if(ontologyChange.isRemoveAxiom() || ontologyChange.isRemoveOntologyAnnotation() || ontologyChange instanceof RemoveImportChange) {
                 ontologyIds.remove(ontologyChange.getOntologyId());
             }
         }
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.SameIndividualAxiomsIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
@@ -20,15 +22,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-10
  */
 @ProjectSingleton
-public class SameIndividualAxiomsIndexImpl implements SameIndividualAxiomsIndex, UpdatableIndex {
+public class SameIndividualAxiomsIndexImpl implements SameIndividualAxiomsIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLIndividual, OWLSameIndividualAxiom> index;
 
     @Inject
-    public SameIndividualAxiomsIndexImpl() {
+    public SameIndividualAxiomsIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.createWithNaryKeyValueExtractor(OWLSameIndividualAxiom.class,
-                                                                   OWLSameIndividualAxiom::getIndividuals);
+                                                                   OWLSameIndividualAxiom::getIndividuals,
+                                                                   objectIdTable);
     }
 
     @Nonnull
@@ -44,4 +47,10 @@ public class SameIndividualAxiomsIndexImpl implements SameIndividualAxiomsIndex,
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
@@ -1,9 +1,11 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.index.SubAnnotationPropertyAxiomsBySuperPropertyIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLSubAnnotationPropertyOfAxiom;
@@ -20,15 +22,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 2019-08-17
  */
 @ProjectSingleton
-public class SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl implements SubAnnotationPropertyAxiomsBySuperPropertyIndex, UpdatableIndex {
+public class SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl implements SubAnnotationPropertyAxiomsBySuperPropertyIndex, AxiomTypeSpecificIndex {
 
     @Nonnull
     private final AxiomMultimapIndex<OWLAnnotationProperty, OWLSubAnnotationPropertyOfAxiom> index;
 
     @Inject
-    public SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl() {
+    public SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl(@Nonnull ObjectIdTable objectIdTable) {
         index = AxiomMultimapIndex.create(OWLSubAnnotationPropertyOfAxiom.class,
-                                          OWLSubAnnotationPropertyOfAxiom::getSuperProperty);
+                                          OWLSubAnnotationPropertyOfAxiom::getSuperProperty,
+                                          objectIdTable);
     }
 
     @Nonnull
@@ -44,4 +47,10 @@ public class SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl implements SubA
     public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
         index.applyChanges(changes);
     }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<AxiomType<?>> getAxiomTypes() {
+        return index.getAxiomTypes();
+    }
 }
@@ -0,0 +1,256 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A multimap from keys to axioms that supports reads at a specific version while it is being updated.  Readers
+ * never block.  The postings for each key are immutable and each key holds its current postings plus the
+ * postings that were current at the previous version, so a read at either of the two most recent versions sees
+ * the state of the map as of that version.
+ * <p>
+ * There must only be one writer at a time.  The writer stages additions and removals with {@link #put(Object,
+ * OWLAxiom)} and {@link #remove(Object, OWLAxiom)} and then installs them with {@link #publish(long)}.  Staged
+ * changes are not visible to readers until the version that they were published under becomes readable.
+ * </p>
+ * <p>
+ * The postings for a key consist of a base set of axioms plus the axioms that have been added to and removed from
+ * the base since it was built.  Publishing a change to a key copies these (small) deltas rather than the whole
+ * base, so that an edit does not cost time proportional to the number of axioms that reference a heavily used
+ * entity.  The deltas are compacted into a new base once they grow beyond the square root of the size of the base,
+ * which bounds both the size of the deltas and the amortized cost of compaction.
+ * </p>
+ */
+public class VersionedAxiomPostings<K> {
+
+    private static final int MIN_DELTA_SIZE = 8;
+
+    private final ConcurrentHashMap<K, Posting> postingsByKey;
+
+    private final Map<K, StagedPosting> stagedPostings = new HashMap<>();
+
+    private List<K> tombstones = new ArrayList<>();
+
+    public VersionedAxiomPostings(int expectedKeys) {
+        postingsByKey = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    /**
+     * Gets the axioms for the specified key as of the specified version.  The returned collection is an immutable
+     * view that is not affected by subsequent changes.
+     */
+    @Nonnull
+    public Collection<OWLAxiom> get(@Nonnull K key, long version) {
+        var posting = getPosting(key, version);
+        return posting == null ? ImmutableSet.of() : posting.getAxioms();
+    }
+
+    /**
+     * Determines whether there are any axioms for the specified key as of the specified version
+     */
+    public boolean containsKey(@Nonnull K key, long version) {
+        var posting = getPosting(key, version);
+        return posting != null && posting.size() > 0;
+    }
+
+    /**
+     * Gets the keys that have axioms as of the specified version
+     */
+    @Nonnull
+    public ImmutableList<K> getKeys(@Nonnull Predicate<? super K> filter, long version) {
+        var keys = ImmutableList.<K>builder();
+        postingsByKey.forEach((key, posting) -> {
+            if(filter.test(key) && containsKey(key, version)) {
+                keys.add(key);
+            }
+        });
+        return keys.build();
+    }
+
+    @Nullable
+    private Posting getPosting(@Nonnull K key, long version) {
+        var posting = postingsByKey.get(key);
+        while(posting != null && posting.version > version) {
+            posting = posting.previous;
+        }
+        return posting;
+    }
+
+    /**
+     * Stages the addition of an axiom for a key
+     */
+    public void put(@Nonnull K key, @Nonnull OWLAxiom axiom) {
+        getStagedPosting(key).add(checkNotNull(axiom));
+    }
+
+    /**
+     * Stages the removal of an axiom for a key
+     */
+    public void remove(@Nonnull K key, @Nonnull OWLAxiom axiom) {
+        getStagedPosting(key).remove(checkNotNull(axiom));
+    }
+
+    private StagedPosting getStagedPosting(@Nonnull K key) {
+        return stagedPostings.computeIfAbsent(checkNotNull(key), k -> new StagedPosting(postingsByKey.get(k)));
+    }
+
+    /**
+     * Installs the staged changes under the specified version.  Postings from versions before the previous version
+     * are discarded, so the caller must ensure that readers at older versions retry their reads.
+     * @param version The version.  This must be greater than any previously published version.
+     */
+    public void publish(long version) {
+        // Keys whose axioms were all removed in an earlier version are no longer needed
+        tombstones.forEach(key -> {
+            var posting = postingsByKey.get(key);
+            if(posting != null && posting.size() == 0 && posting.version < version) {
+                postingsByKey.remove(key, posting);
+            }
+        });
+        var nextTombstones = new ArrayList<K>();
+        stagedPostings.forEach((key, staged) -> {
+            var current = postingsByKey.get(key);
+            var previous = current == null || current.previous == null ? current : current.withoutPrevious();
+            var posting = staged.toPosting(version, previous);
+            postingsByKey.put(key, posting);
+            if(posting.size() == 0) {
+                nextTombstones.add(key);
+            }
+        });
+        stagedPostings.clear();
+        tombstones = nextTombstones;
+    }
+
+    private static class Posting {
+
+        private final long version;
+
+        /**
+         * The axioms that the deltas apply to
+         */
+        private final ImmutableSet<OWLAxiom> base;
+
+        /**
+         * The axioms that have been added since the base was built.  None of these are in the base.
+         */
+        private final ImmutableSet<OWLAxiom> added;
+
+        /**
+         * The axioms that have been removed since the base was built.  All of these are in the base.
+         */
+        private final ImmutableSet<OWLAxiom> removed;
+
+        @Nullable
+        private final Posting previous;
+
+        private Posting(long version,
+                        ImmutableSet<OWLAxiom> base,
+                        ImmutableSet<OWLAxiom> added,
+                        ImmutableSet<OWLAxiom> removed,
+                        @Nullable Posting previous) {
+            this.version = version;
+            this.base = base;
+            this.added = added;
+            this.removed = removed;
+            this.previous = previous;
+        }
+
+        private Posting withoutPrevious() {
+            return new Posting(version, base, added, removed, null);
+        }
+
+        private int size() {
+            return base.size() - removed.size() + added.size();
+        }
+
+        private Collection<OWLAxiom> getAxioms() {
+            if(added.isEmpty() && removed.isEmpty()) {
+                return base;
+            }
+            return new AbstractCollection<>() {
+                @Override
+                public Iterator<OWLAxiom> iterator() {
+                    return Iterators.concat(Iterators.filter(base.iterator(), ax -> !removed.contains(ax)),
+                                            added.iterator());
+                }
+
+                @Override
+                public int size() {
+                    return Posting.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return added.contains(o) || base.contains(o) && !removed.contains(o);
+                }
+            };
+        }
+    }
+
+    /**
+     * The staged changes to the postings of a key.  The base of the current postings is shared and only the deltas
+     * are copied.
+     */
+    private static class StagedPosting {
+
+        private final ImmutableSet<OWLAxiom> base;
+
+        private final Set<OWLAxiom> added;
+
+        private final Set<OWLAxiom> removed;
+
+        private StagedPosting(@Nullable Posting current) {
+            if(current == null) {
+                base = ImmutableSet.of();
+                added = new HashSet<>();
+                removed = new HashSet<>();
+            }
+            else {
+                base = current.base;
+                added = new HashSet<>(current.added);
+                removed = new HashSet<>(current.removed);
+            }
+        }
+
+        private void add(@Nonnull OWLAxiom axiom) {
+            if(base.contains(axiom)) {
+                removed.remove(axiom);
+            }
+            else {
+                added.add(axiom);
+            }
+        }
+
+        private void remove(@Nonnull OWLAxiom axiom) {
+            if(base.contains(axiom)) {
+                removed.add(axiom);
+            }
+            else {
+                added.remove(axiom);
+            }
+        }
+
+        private Posting toPosting(long version, @Nullable Posting previous) {
+            var deltaSize = added.size() + removed.size();
+            if(deltaSize > Math.max(MIN_DELTA_SIZE, (int) Math.sqrt(base.size()))) {
+                var axioms = ImmutableSet.<OWLAxiom>builder();
+                base.stream()
+                    .filter(ax -> !removed.contains(ax))
+                    .forEach(axioms::add);
+                axioms.addAll(added);
+                return new Posting(version, axioms.build(), ImmutableSet.of(), ImmutableSet.of(), previous);
+            }
+            return new Posting(version, base, ImmutableSet.copyOf(added), ImmutableSet.copyOf(removed), previous);
+        }
+    }
+}
@@ -26,7 +26,12 @@ import edu.stanford.bmir.protege.web.server.dispatch.impl.ActionHandlerRegistryI
 import edu.stanford.bmir.protege.web.server.dispatch.impl.DispatchServiceExecutorImpl;
 import edu.stanford.bmir.protege.web.server.download.DownloadGeneratorExecutor;
 import edu.stanford.bmir.protege.web.server.download.FileTransferExecutor;
+import edu.stanford.bmir.protege.web.server.export.ExportCacheMaxSize;
 import edu.stanford.bmir.protege.web.server.export.ExportGeneratorExecutor;
+import edu.stanford.bmir.protege.web.server.export.Neo4jConnectionSettings;
+import edu.stanford.bmir.protege.web.server.export.Neo4jDeleteBatchSize;
+import edu.stanford.bmir.protege.web.server.export.Neo4jExportBatchSize;
+import edu.stanford.bmir.protege.web.server.export.Neo4jIncrementalExport;
 import edu.stanford.bmir.protege.web.server.form.EntityFormRepository;
 import edu.stanford.bmir.protege.web.server.form.EntityFormRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.form.EntityFormSelectorRepository;
@@ -40,10 +45,15 @@ import edu.stanford.bmir.protege.web.server.permissions.ProjectPermissionsManage
 import edu.stanford.bmir.protege.web.server.permissions.ProjectPermissionsManagerImpl;
 import edu.stanford.bmir.protege.web.server.perspective.*;
 import edu.stanford.bmir.protege.web.server.project.*;
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistorySyncMode;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotExecutor;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotInterval;
 import edu.stanford.bmir.protege.web.server.search.EntitySearchFilterRepository;
 import edu.stanford.bmir.protege.web.server.search.EntitySearchFilterRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManager;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManagerImpl;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexBuildExecutor;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexCommitService;
 import edu.stanford.bmir.protege.web.server.upload.*;
 import edu.stanford.bmir.protege.web.server.user.*;
 import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
@@ -58,6 +68,7 @@ import edu.stanford.bmir.protege.web.server.webhook.WebhookRepository;
 import edu.stanford.bmir.protege.web.server.webhook.WebhookRepositoryImpl;
 import edu.stanford.bmir.protege.web.shared.app.ApplicationSettings;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.neo4j.driver.Driver;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLEntityProvider;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
@@ -81,6 +92,8 @@ public class ApplicationModule {
 
     private static final int INDEX_UPDATING_THREADS = 10;
 
+    private static final int MAX_LUCENE_INDEX_BUILD_THREADS = 4;
+
 
     @ApplicationSingleton
     @Provides
@@ -238,10 +251,11 @@ public class ApplicationModule {
     @Provides
     @ExportGeneratorExecutor
     @ApplicationSingleton
-    public ExecutorService provideExportGeneratorExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
-        // Might prove to be too much of a bottle neck.  For now, this limits the memory we need
-        // to generate downloads
-        var executor = Executors.newSingleThreadExecutor(r -> {
+    public ExecutorService provideExportGeneratorExecutorService(ApplicationExecutorsRegistry executorsRegistry,
+                                                                 WebProtegeProperties properties) {
+        // Exports of different projects run concurrently.  The number of threads limits the memory
+        // that we need to extract project graphs.
+        var executor = Executors.newFixedThreadPool(properties.getNeo4jExportThreads().orElse(2), r -> {
             Thread thread = Executors.defaultThreadFactory().newThread(r);
             thread.setName(thread.getName().replace("thread", "Export-Generator"));
             return thread;
@@ -276,6 +290,49 @@ public class ApplicationModule {
         return executor;
     }
 
+    @Provides
+    @LuceneIndexBuildExecutor
+    @ApplicationSingleton
+    public ExecutorService provideLuceneIndexBuildExecutor(ApplicationExecutorsRegistry executorsRegistry) {
+        // Indexes of several projects may be built at the same time, so the threads are shared and bounded
+        var threads = Math.min(MAX_LUCENE_INDEX_BUILD_THREADS, Runtime.getRuntime().availableProcessors());
+        var executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Lucene-Index-Builder"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Lucene-Index-Builder");
+        return executor;
+    }
+
+    @Provides
+    @LuceneIndexCommitService
+    @ApplicationSingleton
+    public ScheduledExecutorService provideLuceneIndexCommitService(ApplicationExecutorsRegistry executorsRegistry) {
+        // Commits are short and are delayed, so one thread serves the lucene indexes of all projects
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Lucene-Index-Committer"));
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Lucene-Index-Committer");
+        return executor;
+    }
+
+    @Provides
+    @RevisionSnapshotExecutor
+    @ApplicationSingleton
+    public ExecutorService provideRevisionSnapshotExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Revision-Snapshot-Writer"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Revision-Snapshot-Writer");
+        return executor;
+    }
+
     @Provides
     @UploadedOntologiesCacheService
     @ApplicationSingleton
@@ -413,6 +470,59 @@ public class ApplicationModule {
         return properties.getEntityGraphEdgeLimit().orElse(3000);
     }
 
+    @Provides
+    Neo4jConnectionSettings provideNeo4jConnectionSettings(WebProtegeProperties properties) {
+        return Neo4jConnectionSettings.get(properties.getNeo4jHost().orElse("neo4j"),
+                                           properties.getNeo4jPort().orElse(7687),
+                                           properties.getNeo4jUserName().orElse("neo4j"),
+                                           properties.getNeo4jPassword().orElse("test"),
+                                           properties.getNeo4jPoolMaxSize().orElse(20),
+                                           properties.getNeo4jPoolAcquisitionTimeout().orElse(60_000),
+                                           properties.getNeo4jTransactionMaxRetryTime().orElse(30_000));
+    }
+
+    @Provides
+    @ApplicationSingleton
+    Driver provideNeo4jDriver(Neo4jDriverProvider provider) {
+        return provider.get();
+    }
+
+    @Provides
+    @Neo4jExportBatchSize
+    int provideNeo4jExportBatchSize(WebProtegeProperties properties) {
+        return properties.getNeo4jExportBatchSize().orElse(10_000);
+    }
+
+    @Provides
+    @Neo4jDeleteBatchSize
+    int provideNeo4jDeleteBatchSize(WebProtegeProperties properties) {
+        return properties.getNeo4jExportDeleteBatchSize().orElse(10_000);
+    }
+
+    @Provides
+    @Neo4jIncrementalExport
+    boolean provideNeo4jIncrementalExport(WebProtegeProperties properties) {
+        return properties.getNeo4jExportIncremental().orElse(true);
+    }
+
+    @Provides
+    @ExportCacheMaxSize
+    int provideExportCacheMaxSize(WebProtegeProperties properties) {
+        return properties.getExportCacheMaxSize().orElse(64);
+    }
+
+    @Provides
+    @RevisionSnapshotInterval
+    int provideRevisionSnapshotInterval(WebProtegeProperties properties) {
+        return properties.getRevisionSnapshotInterval().orElse(1000);
+    }
+
+    @Provides
+    ChangeHistorySyncMode provideChangeHistorySyncMode(WebProtegeProperties properties) {
+        return properties.getRevisionSyncMode()
+                         .orElse(ChangeHistorySyncMode.BATCH);
+    }
+
     @Provides
     @ApplicationSingleton
     EntitySearchFilterRepository provideEntitySearchFilterRepository(EntitySearchFilterRepositoryImpl impl) {
@@ -21,6 +21,14 @@ public class ChangeHistoryFileFactory {
 
     private static final String CHANGE_DATA_FILE_NAME = "change-data.binary";
 
+    private static final String SNAPSHOT_FILE_NAME = "snapshot.binary";
+
+    private static final String HEAD_REVISION_FILE_NAME = "head-revision.binary";
+
+    private static final String ENTITY_REVISION_INDEX_FILE_NAME = "entity-revisions.binary";
+
+    private static final String LEGACY_CHANGE_COUNTS_FILE_NAME = "legacy-change-counts.binary";
+
     @Nonnull
     private final ProjectDirectoryFactory projectDirectoryFactory;
 
@@ -34,4 +42,41 @@ public class ChangeHistoryFileFactory {
         var projectDirectory = projectDirectoryFactory.getProjectDirectory(projectId);
         return new File(new File(projectDirectory, CHANGE_DATA_DIRECTORY_NAME), CHANGE_DATA_FILE_NAME);
     }
+
+    /**
+     * Gets the file that the latest snapshot of the ontologies of the specified project is stored in.
+     */
+    public File getSnapshotFile(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        var projectDirectory = projectDirectoryFactory.getProjectDirectory(projectId);
+        return new File(new File(projectDirectory, CHANGE_DATA_DIRECTORY_NAME), SNAPSHOT_FILE_NAME);
+    }
+
+    /**
+     * Gets the file that records the head revision of the change history of the specified project.
+     */
+    public File getHeadRevisionFile(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        var projectDirectory = projectDirectoryFactory.getProjectDirectory(projectId);
+        return new File(new File(projectDirectory, CHANGE_DATA_DIRECTORY_NAME), HEAD_REVISION_FILE_NAME);
+    }
+
+    /**
+     * Gets the file that stores the index of the revisions that changed each entity of the specified project.
+     */
+    public File getEntityRevisionIndexFile(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        var projectDirectory = projectDirectoryFactory.getProjectDirectory(projectId);
+        return new File(new File(projectDirectory, CHANGE_DATA_DIRECTORY_NAME), ENTITY_REVISION_INDEX_FILE_NAME);
+    }
+
+    /**
+     * Gets the file that records the change counts of the revisions of the specified project that were written
+     * without a change count.
+     */
+    public File getLegacyChangeCountsFile(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        var projectDirectory = projectDirectoryFactory.getProjectDirectory(projectId);
+        return new File(new File(projectDirectory, CHANGE_DATA_DIRECTORY_NAME), LEGACY_CHANGE_COUNTS_FILE_NAME);
+    }
 }
@@ -0,0 +1,61 @@
+package edu.stanford.bmir.protege.web.server.inject;
+
+import edu.stanford.bmir.protege.web.server.app.ApplicationDisposablesManager;
+import edu.stanford.bmir.protege.web.server.export.Neo4jConnectionSettings;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Provides the Neo4J {@link Driver} that is shared by all exports.  The driver maintains a pool of
+ * Bolt connections, so that exports do not pay for connection setup and several exports can run
+ * over the same pool.
+ */
+@ApplicationSingleton
+public class Neo4jDriverProvider implements Provider<Driver> {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4jDriverProvider.class);
+
+    @Nonnull
+    private final Neo4jConnectionSettings settings;
+
+    @Nonnull
+    private final ApplicationDisposablesManager disposableObjectManager;
+
+    @Inject
+    public Neo4jDriverProvider(@Nonnull Neo4jConnectionSettings settings,
+                               @Nonnull ApplicationDisposablesManager disposableObjectManager) {
+        this.settings = checkNotNull(settings);
+        this.disposableObjectManager = checkNotNull(disposableObjectManager);
+    }
+
+    @Override
+    public Driver get() {
+        var config = Config.builder()
+                           .withMaxConnectionPoolSize(settings.getMaxConnectionPoolSize())
+                           .withConnectionAcquisitionTimeout(settings.getConnectionAcquisitionTimeoutMs(), MILLISECONDS)
+                           .withMaxTransactionRetryTime(settings.getMaxTransactionRetryTimeMs(), MILLISECONDS)
+                           .build();
+        var driver = GraphDatabase.driver(settings.getBoltUri(),
+                                          AuthTokens.basic(settings.getUserName(), settings.getPassword()),
+                                          config);
+        logger.info("Created Neo4J driver: {}", settings);
+        disposableObjectManager.register(() -> {
+            logger.info("Closing Neo4J driver...");
+            driver.close();
+            logger.info("    ...closed Neo4J driver");
+        });
+        return driver;
+    }
+}
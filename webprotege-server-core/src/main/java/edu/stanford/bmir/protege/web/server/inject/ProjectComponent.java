@@ -3,6 +3,8 @@ package edu.stanford.bmir.protege.web.server.inject;
 import dagger.Subcomponent;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRegistry;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
+import edu.stanford.bmir.protege.web.server.export.ProjectOntologyGraphExtractor;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
 import edu.stanford.bmir.protege.web.server.form.EntityFrameFormDataComponent;
 import edu.stanford.bmir.protege.web.server.form.EntityFrameFormDataModule;
 import edu.stanford.bmir.protege.web.server.inject.project.ProjectModule;
@@ -39,6 +41,10 @@ public interface ProjectComponent {
 
     RevisionManager getRevisionManager();
 
+    ProjectOntologyGraphExtractor getOntologyGraphExtractor();
+
+    RevisionOntologyManagerFactory getRevisionOntologyManagerFactory();
+
     EntityFrameFormDataComponent getEntityFrameFormDataComponentBuilder(EntityFrameFormDataModule module);
 
 }
@@ -20,6 +20,8 @@ import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
 import edu.stanford.bmir.protege.web.server.renderer.LiteralLexicalFormTransformer;
 import edu.stanford.bmir.protege.web.server.renderer.ShortFormAdapter;
 import edu.stanford.bmir.protege.web.server.repository.ProjectEntitySearchFiltersManager;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexBuildExecutor;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexCommitService;
 import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexesDirectory;
 import edu.stanford.bmir.protege.web.server.shortform.LuceneModule;
 import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
@@ -39,6 +41,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -58,12 +62,22 @@ public class UploadedProjectModule {
     @Nonnull
     private final LanguageManager languagesManager;
 
+    @Nonnull
+    private final ScheduledExecutorService luceneIndexCommitService;
+
+    @Nonnull
+    private final ExecutorService luceneIndexBuildExecutor;
+
     public UploadedProjectModule(@Nonnull ProjectId projectId,
                                  @Nonnull ImmutableSet<Ontology> ontologies,
-                                 @Nonnull LanguageManager languagesManager) {
+                                 @Nonnull LanguageManager languagesManager,
+                                 @Nonnull ScheduledExecutorService luceneIndexCommitService,
+                                 @Nonnull ExecutorService luceneIndexBuildExecutor) {
         this.projectId = projectId;
         this.ontologies = checkNotNull(ontologies);
         this.languagesManager = checkNotNull(languagesManager);
+        this.luceneIndexCommitService = checkNotNull(luceneIndexCommitService);
+        this.luceneIndexBuildExecutor = checkNotNull(luceneIndexBuildExecutor);
     }
 
     @Provides
@@ -72,6 +86,18 @@ public class UploadedProjectModule {
         return projectId;
     }
 
+    @Provides
+    @LuceneIndexCommitService
+    ScheduledExecutorService provideLuceneIndexCommitService() {
+        return luceneIndexCommitService;
+    }
+
+    @Provides
+    @LuceneIndexBuildExecutor
+    ExecutorService provideLuceneIndexBuildExecutor() {
+        return luceneIndexBuildExecutor;
+    }
+
     @Provides
     @ProjectSingleton
     ImmutableSet<Ontology> provideUploadedOntologies() {
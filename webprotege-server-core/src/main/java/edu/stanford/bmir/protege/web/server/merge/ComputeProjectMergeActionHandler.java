@@ -10,6 +10,8 @@ import edu.stanford.bmir.protege.web.server.inject.project.DaggerUploadedProject
 import edu.stanford.bmir.protege.web.server.inject.project.UploadedProjectModule;
 import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
 import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexBuildExecutor;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexCommitService;
 import edu.stanford.bmir.protege.web.server.upload.UploadedOntologiesCache;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.diff.DiffElement;
@@ -25,6 +27,8 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.EDIT_ONTOLOGY;
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.UPLOAD_AND_MERGE;
@@ -53,19 +57,29 @@ public class ComputeProjectMergeActionHandler extends AbstractProjectActionHandl
     @Nonnull
     private final ProjectOntologiesBuilder projectOntologiesBuilder;
 
+    @Nonnull
+    private final ScheduledExecutorService luceneIndexCommitService;
+
+    @Nonnull
+    private final ExecutorService luceneIndexBuildExecutor;
+
     @Inject
     public ComputeProjectMergeActionHandler(@Nonnull AccessManager accessManager,
                                             @Nonnull ProjectId projectId,
                                             @Nonnull Comparator<OWLAxiom> axiomComparator,
                                             @Nonnull LanguageManager languageManager,
                                             @Nonnull UploadedOntologiesCache uploadedOntologiesCache,
-                                            @Nonnull ProjectOntologiesBuilder projectOntologiesBuilder) {
+                                            @Nonnull ProjectOntologiesBuilder projectOntologiesBuilder,
+                                            @Nonnull @LuceneIndexCommitService ScheduledExecutorService luceneIndexCommitService,
+                                            @Nonnull @LuceneIndexBuildExecutor ExecutorService luceneIndexBuildExecutor) {
         super(accessManager);
         this.projectId = projectId;
         this.axiomComparator = axiomComparator;
         this.languageManager = languageManager;
         this.uploadedOntologiesCache = uploadedOntologiesCache;
         this.projectOntologiesBuilder = projectOntologiesBuilder;
+        this.luceneIndexCommitService = luceneIndexCommitService;
+        this.luceneIndexBuildExecutor = luceneIndexBuildExecutor;
     }
 
     @Nonnull
@@ -115,7 +129,9 @@ public class ComputeProjectMergeActionHandler extends AbstractProjectActionHandl
 
         var uploadedProjectModule = new UploadedProjectModule(projectId,
                                                               ImmutableSet.copyOf(uploadedOntologies),
-                                                              languageManager);
+                                                              languageManager,
+                                                              luceneIndexCommitService,
+                                                              luceneIndexBuildExecutor);
         var uploadedOntologiesComponent = DaggerUploadedProjectComponent.builder()
                                                                         .uploadedProjectModule(uploadedProjectModule)
                                                                         .build();
@@ -1,8 +1,8 @@
 package edu.stanford.bmir.protege.web.server.merge;
 
-import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.index.OntologyAnnotationsIndex;
 import edu.stanford.bmir.protege.web.server.index.OntologyAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.OntologyImportsIndex;
 import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import edu.stanford.bmir.protege.web.server.project.Ontology;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -31,13 +31,18 @@ public class ProjectOntologiesBuilder {
     @Nonnull
     private final OntologyAxiomsIndex axiomsIndex;
 
+    @Nonnull
+    private final OntologyImportsIndex importsIndex;
+
     @Inject
     public ProjectOntologiesBuilder(@Nonnull ProjectOntologiesIndex projectOntologiesIndex,
                                     @Nonnull OntologyAnnotationsIndex annotationsIndex,
-                                    @Nonnull OntologyAxiomsIndex axiomsIndex) {
+                                    @Nonnull OntologyAxiomsIndex axiomsIndex,
+                                    @Nonnull OntologyImportsIndex importsIndex) {
         this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
         this.annotationsIndex = checkNotNull(annotationsIndex);
         this.axiomsIndex = checkNotNull(axiomsIndex);
+        this.importsIndex = checkNotNull(importsIndex);
     }
 
     public Collection<Ontology> buildProjectOntologies() {
@@ -52,12 +57,14 @@ public class ProjectOntologiesBuilder {
      * @param ontId The ontology Id
      */
     private Ontology toOntology(@Nonnull OWLOntologyID ontId) {
+        var importsDeclarations = importsIndex.getImportsDeclarations(ontId)
+                                              .collect(toImmutableSet());
         var annotations = annotationsIndex.getOntologyAnnotations(ontId)
                                           .collect(toImmutableSet());
         var axioms = axiomsIndex.getAxioms(ontId)
                                 .collect(toImmutableSet());
         return Ontology.get(ontId,
-                            ImmutableSet.of(),
+                            importsDeclarations,
                             annotations, axioms);
     }
 }
@@ -5,6 +5,8 @@ import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRegistry;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
+import edu.stanford.bmir.protege.web.server.export.ProjectOntologyGraphExtractor;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
 import edu.stanford.bmir.protege.web.server.inject.ProjectComponent;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.shared.HasDispose;
@@ -129,6 +131,14 @@ public class ProjectCache implements HasDispose {
         return getProjectInternal(projectId, AccessMode.NORMAL, InstantiationMode.LAZY).getRevisionManager();
     }
 
+    public ProjectOntologyGraphExtractor getOntologyGraphExtractor(ProjectId projectId) {
+        return getProjectInternal(projectId, AccessMode.NORMAL, InstantiationMode.LAZY).getOntologyGraphExtractor();
+    }
+
+    public RevisionOntologyManagerFactory getRevisionOntologyManagerFactory(ProjectId projectId) {
+        return getProjectInternal(projectId, AccessMode.NORMAL, InstantiationMode.LAZY).getRevisionOntologyManagerFactory();
+    }
+
     @Nonnull
     public Optional<EventManager<ProjectEvent<?>>> getProjectEventManagerIfActive(@Nonnull ProjectId projectId) {
         try {
@@ -147,6 +157,25 @@ public class ProjectCache implements HasDispose {
         }
     }
 
+    /**
+     * Gets the {@link RevisionManager} of the specified project if the project is loaded.  The project is not
+     * loaded if it is not already loaded.
+     */
+    @Nonnull
+    public Optional<RevisionManager> getRevisionManagerIfActive(@Nonnull ProjectId projectId) {
+        try {
+            readLock.lock();
+            if(!isActive(projectId)) {
+                return Optional.empty();
+            }
+            return Optional.of(getProjectInternal(projectId, AccessMode.QUIET, InstantiationMode.LAZY))
+                           .map(ProjectComponent::getRevisionManager);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
     private enum AccessMode {
         NORMAL,
         QUIET
@@ -2,6 +2,8 @@ package edu.stanford.bmir.protege.web.server.project;
 
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRegistry;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
+import edu.stanford.bmir.protege.web.server.export.ProjectOntologyGraphExtractor;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.shared.event.EventList;
 import edu.stanford.bmir.protege.web.shared.event.EventTag;
@@ -64,6 +66,14 @@ public class ProjectManager {
         return projectCache.getRevisionManager(projectId);
     }
 
+    public ProjectOntologyGraphExtractor getOntologyGraphExtractor(@Nonnull ProjectId projectId) {
+        return projectCache.getOntologyGraphExtractor(projectId);
+    }
+
+    public RevisionOntologyManagerFactory getRevisionOntologyManagerFactory(@Nonnull ProjectId projectId) {
+        return projectCache.getRevisionOntologyManagerFactory(projectId);
+    }
+
     public ProjectId createNewProject(@Nonnull NewProjectSettings newProjectSettings) throws ProjectAlreadyExistsException, OWLOntologyCreationException, IOException, OWLOntologyStorageException {
         return projectCache.getProject(newProjectSettings);
     }
@@ -24,6 +24,7 @@ import edu.stanford.bmir.protege.web.server.project.BuiltInPrefixDeclarations;
 import edu.stanford.bmir.protege.web.server.project.DefaultOntologyIdManager;
 import edu.stanford.bmir.protege.web.server.project.PrefixDeclarationsStore;
 import edu.stanford.bmir.protege.web.server.project.ProjectDetailsRepository;
+import edu.stanford.bmir.protege.web.server.revision.OntologySnapshotManager;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
@@ -47,9 +48,7 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.server.access.Subject.forUser;
@@ -124,10 +123,7 @@ public class ChangeManager implements HasApplyChanges {
     private final EntityCrudContextFactory entityCrudContextFactory;
 
     @Nonnull
-    private final ReadWriteLock projectChangeLock = new ReentrantReadWriteLock();
-
-    @Nonnull
-    private final Lock projectChangeWriteLock = projectChangeLock.writeLock();
+    private final Lock projectChangeWriteLock;
 
     @Nonnull
     private final Lock changeProcesssingLock = new ReentrantLock();
@@ -147,6 +143,9 @@ public class ChangeManager implements HasApplyChanges {
     @Nonnull
     private final IriReplacerFactory iriReplacerFactory;
 
+    @Nonnull
+    private final OntologySnapshotManager snapshotManager;
+
     @Inject
     public ChangeManager(@Nonnull ProjectId projectId,
                          @Nonnull OWLDataFactory dataFactory,
@@ -172,7 +171,9 @@ public class ChangeManager implements HasApplyChanges {
                          @Nonnull BuiltInPrefixDeclarations builtInPrefixDeclarations,
                          @Nonnull IndexUpdater indexUpdater,
                          @Nonnull DefaultOntologyIdManager defaultOntologyIdManager,
-                         @Nonnull IriReplacerFactory iriReplacerFactory) {
+                         @Nonnull IriReplacerFactory iriReplacerFactory,
+                         @Nonnull ProjectChangeLock projectChangeLock,
+                         @Nonnull OntologySnapshotManager snapshotManager) {
         this.projectId = projectId;
         this.dataFactory = dataFactory;
         this.dictionaryUpdatesProcessor = dictionaryUpdatesProcessor;
@@ -198,6 +199,8 @@ public class ChangeManager implements HasApplyChanges {
         this.indexUpdater = indexUpdater;
         this.defaultOntologyIdManager = defaultOntologyIdManager;
         this.iriReplacerFactory = iriReplacerFactory;
+        this.projectChangeWriteLock = projectChangeLock.writeLock();
+        this.snapshotManager = snapshotManager;
     }
 
     /**
@@ -332,6 +335,10 @@ public class ChangeManager implements HasApplyChanges {
                 projectChangeWriteLock.unlock();
             }
 
+            if(revision.isPresent()) {
+                snapshotManager.snapshotIfNecessary();
+            }
+
             generateAndDispatchHighLevelEvents(userId,
                                                changeListGenerator,
                                                changeApplicationResult,
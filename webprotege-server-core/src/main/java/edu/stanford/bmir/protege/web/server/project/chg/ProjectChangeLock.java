@@ -0,0 +1,34 @@
+package edu.stanford.bmir.protege.web.server.project.chg;
+
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lock that guards the state of a project whilst changes are applied to it.  The {@link ChangeManager}
+ * holds the write lock whilst it logs a revision and updates the project indexes.  Readers that need a
+ * consistent view of the indexes and the current revision number, such as exports, hold the read lock.
+ */
+@ProjectSingleton
+public class ProjectChangeLock {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Inject
+    public ProjectChangeLock() {
+    }
+
+    @Nonnull
+    public Lock readLock() {
+        return lock.readLock();
+    }
+
+    @Nonnull
+    public Lock writeLock() {
+        return lock.writeLock();
+    }
+}
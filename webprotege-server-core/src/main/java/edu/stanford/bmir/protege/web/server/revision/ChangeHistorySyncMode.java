@@ -0,0 +1,18 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+/**
+ * Specifies when revisions that are appended to the change history are forced to disk.
+ */
+public enum ChangeHistorySyncMode {
+
+    /**
+     * Each revision is forced to disk before the next revision is written.
+     */
+    REVISION,
+
+    /**
+     * The revisions that have queued up while the previous revisions were being written are appended together
+     * and forced to disk once.
+     */
+    BATCH
+}
@@ -1,40 +1,67 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import edu.stanford.bmir.protege.web.server.axiom.AxiomSubjectProvider;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 27/05/15
+ * <p>
+ * The cache is safe for concurrent use.  It is bounded by the total number of entities that it holds and evicts
+ * the entities of the least recently used revisions first.
  */
+@ProjectSingleton
 public class EntitiesByRevisionCache {
 
+    /**
+     * The maximum number of entities, summed over revisions, that are held in the cache
+     */
+    private static final long MAX_CACHED_ENTITIES = 100_000;
+
     private final AxiomSubjectProvider axiomSubjectProvider;
 
     private final HasContainsEntityInSignature hasContainsEntityInSignature;
 
     private final OWLDataFactory dataFactory;
 
-    private final Map<RevisionNumber, ImmutableSet<OWLEntity>> entity2Revisions = new HashMap<>();
+    private final Cache<RevisionNumber, ImmutableSet<OWLEntity>> entitiesByRevision;
 
     @Inject
     public EntitiesByRevisionCache(@Nonnull AxiomSubjectProvider axiomSubjectProvider,
                                    @Nonnull HasContainsEntityInSignature hasContainsEntityInSignature,
                                    @Nonnull OWLDataFactory dataFactory) {
-        this.axiomSubjectProvider = axiomSubjectProvider;
-        this.hasContainsEntityInSignature = hasContainsEntityInSignature;
-        this.dataFactory = dataFactory;
+        this(axiomSubjectProvider, hasContainsEntityInSignature, dataFactory, MAX_CACHED_ENTITIES);
+    }
+
+    EntitiesByRevisionCache(@Nonnull AxiomSubjectProvider axiomSubjectProvider,
+                            @Nonnull HasContainsEntityInSignature hasContainsEntityInSignature,
+                            @Nonnull OWLDataFactory dataFactory,
+                            long maxCachedEntities) {
+        this.axiomSubjectProvider = checkNotNull(axiomSubjectProvider);
+        this.hasContainsEntityInSignature = checkNotNull(hasContainsEntityInSignature);
+        this.dataFactory = checkNotNull(dataFactory);
+        this.entitiesByRevision = CacheBuilder.newBuilder()
+                                              .maximumWeight(maxCachedEntities)
+                                              .weigher((RevisionNumber revisionNumber, ImmutableSet<OWLEntity> entities) -> entities.size() + 1)
+                                              .recordStats()
+                                              .build();
     }
 
     public boolean containsEntity(Revision revision, OWLEntity entity) {
@@ -42,13 +69,20 @@ public class EntitiesByRevisionCache {
     }
 
     public ImmutableSet<OWLEntity> getEntities(Revision revision) {
-        ImmutableSet<OWLEntity> cachedEntities = entity2Revisions.get(revision.getRevisionNumber());
-        if(cachedEntities != null) {
-            return cachedEntities;
+        try {
+            // Concurrent requests for the same revision wait for its entities to be computed once
+            return entitiesByRevision.get(revision.getRevisionNumber(), () -> getEntitiesInternal(revision));
+        } catch(ExecutionException | UncheckedExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
-        ImmutableSet<OWLEntity> entitiesToCache = getEntitiesInternal(revision);
-        entity2Revisions.put(revision.getRevisionNumber(), entitiesToCache);
-        return entitiesToCache;
+    }
+
+    /**
+     * Gets the hit, miss and eviction statistics of the cache.
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        return entitiesByRevision.stats();
     }
 
     private ImmutableSet<OWLEntity> getEntitiesInternal(Revision revision) {
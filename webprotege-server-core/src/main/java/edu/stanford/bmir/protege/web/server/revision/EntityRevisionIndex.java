@@ -0,0 +1,309 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CountingInputStream;
+import edu.stanford.bmir.protege.web.server.axiom.AxiomIRISubjectProvider;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import org.semanticweb.owlapi.model.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * An inverted index from the IRI of an entity to the revisions that contain changes whose subject is the entity.
+ * The index is used to answer "changes for entity X" without scanning the complete change history.
+ * <p>
+ * The index is persisted next to the change history as a log that contains one record for each revision, in
+ * revision order.  Each record lists the subjects that the revision changed.  When the index is first used the
+ * log is read, and any revisions that were added after the last revision in the log are indexed and appended to
+ * the log.  Revisions that are added later are indexed and appended in the same way when the index is next used,
+ * so only the changes of new revisions are ever read.
+ */
+@ProjectSingleton
+public class EntityRevisionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityRevisionIndex.class);
+
+    private static final long[] NO_REVISIONS = new long[0];
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    private final AxiomIRISubjectProvider subjectProvider = new AxiomIRISubjectProvider(IRI::compareTo);
+
+    private final Map<IRI, RevisionList> revisionsBySubject = new HashMap<>();
+
+    private boolean loaded = false;
+
+    /**
+     * The last revision that has been indexed
+     */
+    private long lastIndexedRevision = 0;
+
+    /**
+     * Whether the log is missing records that are in the in-memory index because they could not be written
+     */
+    private boolean logBehindIndex = false;
+
+    @Inject
+    public EntityRevisionIndex(@Nonnull ProjectId projectId,
+                               @Nonnull RevisionManager revisionManager,
+                               @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+        this.projectId = checkNotNull(projectId);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+    }
+
+    /**
+     * Gets the revisions that contain changes whose subject is the specified IRI.
+     * @param subject The subject IRI.
+     * @return The revision numbers, in ascending order.
+     */
+    @Nonnull
+    public synchronized ImmutableList<RevisionNumber> getRevisions(@Nonnull IRI subject) {
+        checkNotNull(subject);
+        updateIndex();
+        var revisions = revisionsBySubject.get(subject);
+        if(revisions == null) {
+            return ImmutableList.of();
+        }
+        return Arrays.stream(revisions.toArray())
+                     .mapToObj(RevisionNumber::getRevisionNumber)
+                     .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Gets the subjects of the changes in the specified revision, as they would be indexed.
+     */
+    @Nonnull
+    private Set<IRI> getSubjects(@Nonnull Revision revision) {
+        var subjects = new LinkedHashSet<IRI>();
+        for(OntologyChange change : revision.getChanges()) {
+            if(change.isAxiomChange()) {
+                subjectProvider.getSubject(change.getAxiomOrThrow()).ifPresent(subjects::add);
+            }
+        }
+        return subjects;
+    }
+
+    private void updateIndex() {
+        var indexFile = changeHistoryFileFactory.getEntityRevisionIndexFile(projectId);
+        if(!loaded) {
+            load(indexFile);
+            loaded = true;
+        }
+        var summaries = revisionManager.getRevisionSummaries();
+        if(summaries.isEmpty() || getLast(summaries) <= lastIndexedRevision) {
+            return;
+        }
+        var stopwatch = Stopwatch.createStarted();
+        int firstUnindexed = summaries.size();
+        while(firstUnindexed > 0 && summaries.get(firstUnindexed - 1).getRevisionNumber().getValue() > lastIndexedRevision) {
+            firstUnindexed--;
+        }
+        var records = new ArrayList<Record>();
+        for(int i = firstUnindexed; i < summaries.size(); i++) {
+            var revisionNumber = summaries.get(i).getRevisionNumber();
+            var revision = revisionManager.getRevision(revisionNumber);
+            if(revision.isEmpty()) {
+                continue;
+            }
+            var subjects = getSubjects(revision.get());
+            addRecord(revisionNumber.getValue(), subjects);
+            records.add(new Record(revisionNumber.getValue(), subjects));
+        }
+        if(!logBehindIndex) {
+            appendToLog(indexFile, records);
+        }
+        logger.info("{} Indexed the subjects of {} revisions in {} ms",
+                    projectId,
+                    summaries.size() - firstUnindexed,
+                    stopwatch.elapsed(MILLISECONDS));
+    }
+
+    /**
+     * Appends records to the log.  If the records cannot be written then the log is truncated to the records that
+     * it contained before, and nothing more is appended to it, so that the log never skips revisions.  The records
+     * that are missing from the log are indexed again when the project is next loaded.
+     */
+    private void appendToLog(@Nonnull File indexFile, @Nonnull List<Record> records) {
+        indexFile.getParentFile().mkdirs();
+        var validLength = indexFile.length();
+        try(var outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)))) {
+            for(var record : records) {
+                writeRecord(outputStream, record.revisionNumber, record.subjects);
+            }
+        } catch(IOException e) {
+            logger.warn("{} Could not write the entity revision index.  The index will be written again when the " +
+                                "project is next loaded.  Cause: {}",
+                        projectId,
+                        e.getMessage());
+            truncate(indexFile, validLength);
+            logBehindIndex = true;
+        }
+    }
+
+    private void truncate(@Nonnull File indexFile, long length) {
+        try(var file = new RandomAccessFile(indexFile, "rw")) {
+            if(file.length() != length) {
+                file.setLength(length);
+            }
+        } catch(IOException e) {
+            logger.warn("{} Could not truncate the entity revision index: {}", projectId, e.getMessage());
+        }
+    }
+
+    private static long getLast(@Nonnull List<RevisionSummary> summaries) {
+        return summaries.get(summaries.size() - 1).getRevisionNumber().getValue();
+    }
+
+    private void load(@Nonnull File indexFile) {
+        if(!indexFile.exists()) {
+            return;
+        }
+        var stopwatch = Stopwatch.createStarted();
+        long validLength = 0;
+        try(var countingInputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+            var inputStream = new DataInputStream(countingInputStream)) {
+            var currentRevision = revisionManager.getCurrentRevision().getValue();
+            while(true) {
+                var record = readRecord(inputStream);
+                if(record.isEmpty()) {
+                    break;
+                }
+                var revisionNumber = record.get().revisionNumber;
+                if(revisionNumber <= lastIndexedRevision || revisionNumber > currentRevision) {
+                    // The index does not correspond to the change history
+                    logger.warn("{} The entity revision index is out of date and will be rebuilt", projectId);
+                    reset();
+                    validLength = 0;
+                    break;
+                }
+                addRecord(revisionNumber, record.get().subjects);
+                validLength = countingInputStream.getCount();
+            }
+        } catch(IOException e) {
+            logger.warn("{} Could not read the entity revision index.  The index will be rebuilt.  Cause: {}",
+                        projectId,
+                        e.getMessage());
+            reset();
+            validLength = 0;
+        }
+        // Any partially written record is discarded
+        truncate(indexFile, validLength);
+        logger.info("{} Read the entity revision index up to revision {} ({} subjects) in {} ms",
+                    projectId,
+                    lastIndexedRevision,
+                    revisionsBySubject.size(),
+                    stopwatch.elapsed(MILLISECONDS));
+    }
+
+    private void reset() {
+        revisionsBySubject.clear();
+        lastIndexedRevision = 0;
+    }
+
+    private void addRecord(long revisionNumber, @Nonnull Set<IRI> subjects) {
+        for(var subject : subjects) {
+            revisionsBySubject.computeIfAbsent(subject, s -> new RevisionList()).add(revisionNumber);
+        }
+        lastIndexedRevision = revisionNumber;
+    }
+
+    private static void writeRecord(@Nonnull DataOutputStream outputStream,
+                                    long revisionNumber,
+                                    @Nonnull Set<IRI> subjects) throws IOException {
+        outputStream.writeLong(revisionNumber);
+        outputStream.writeInt(subjects.size());
+        for(var subject : subjects) {
+            outputStream.writeUTF(subject.toString());
+        }
+    }
+
+    /**
+     * Reads the next record of the index log.
+     * @return The record, or empty if the end of the log, or a partially written record, has been reached.
+     */
+    private static Optional<Record> readRecord(@Nonnull DataInputStream inputStream) throws IOException {
+        try {
+            var revisionNumber = inputStream.readLong();
+            var subjectCount = inputStream.readInt();
+            var subjects = new LinkedHashSet<IRI>(subjectCount);
+            for(int i = 0; i < subjectCount; i++) {
+                subjects.add(IRI.create(inputStream.readUTF()));
+            }
+            return Optional.of(new Record(revisionNumber, subjects));
+        } catch(EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class Record {
+
+        private final long revisionNumber;
+
+        private final Set<IRI> subjects;
+
+        private Record(long revisionNumber, Set<IRI> subjects) {
+            this.revisionNumber = revisionNumber;
+            this.subjects = subjects;
+        }
+    }
+
+    /**
+     * A growable list of revision numbers, in ascending order
+     */
+    private static class RevisionList {
+
+        private long[] revisions = NO_REVISIONS;
+
+        private int size = 0;
+
+        private void add(long revision) {
+            if(size == revisions.length) {
+                revisions = Arrays.copyOf(revisions, Math.max(2, size * 2));
+            }
+            revisions[size] = revision;
+            size++;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(revisions, size);
+        }
+    }
+}
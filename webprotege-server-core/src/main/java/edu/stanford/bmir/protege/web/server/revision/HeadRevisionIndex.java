@@ -0,0 +1,84 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A small side file, stored next to the change history of a project, that records the head revision of the
+ * change history so that it can be looked up without reading the change history.  The length of the change
+ * history at the time the head revision was recorded is stored along with the head revision.  If the change
+ * history has a different length when the side file is read, for example because revisions were appended by a
+ * version that did not maintain the side file or because the process stopped between appending revisions and
+ * updating the side file, then the recorded head revision is treated as stale.
+ */
+public class HeadRevisionIndex {
+
+    @Nonnull
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    @Inject
+    public HeadRevisionIndex(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+    }
+
+    /**
+     * Reads the recorded head revision of the specified project.
+     * @param projectId The project.
+     * @return The head revision, or empty if no head revision is recorded or if the recorded head revision does
+     * not correspond to the current length of the change history.
+     */
+    @Nonnull
+    public Optional<RevisionNumber> read(@Nonnull ProjectId projectId) throws IOException {
+        var headRevisionFile = changeHistoryFileFactory.getHeadRevisionFile(projectId);
+        if(!headRevisionFile.exists()) {
+            return Optional.empty();
+        }
+        try(var inputStream = new DataInputStream(Files.newInputStream(headRevisionFile.toPath()))) {
+            var headRevision = inputStream.readLong();
+            var changeHistoryLength = inputStream.readLong();
+            var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+            if(changeHistoryFile.length() != changeHistoryLength) {
+                return Optional.empty();
+            }
+            return Optional.of(RevisionNumber.getRevisionNumber(headRevision));
+        }
+    }
+
+    /**
+     * Records the head revision of the specified project.
+     * @param projectId The project.
+     * @param headRevision The head revision of the change history.
+     * @param changeHistoryLength The length, in bytes, of the change history up to and including the head revision.
+     */
+    public void write(@Nonnull ProjectId projectId,
+                      @Nonnull RevisionNumber headRevision,
+                      long changeHistoryLength) throws IOException {
+        checkNotNull(headRevision);
+        var headRevisionFile = changeHistoryFileFactory.getHeadRevisionFile(projectId);
+        headRevisionFile.getParentFile().mkdirs();
+        // Each writer uses its own temporary file, so that concurrent writers do not interfere with each other
+        var tempFile = Files.createTempFile(headRevisionFile.getParentFile().toPath(), headRevisionFile.getName(), ".tmp");
+        try {
+            try(var outputStream = new DataOutputStream(Files.newOutputStream(tempFile))) {
+                outputStream.writeLong(headRevision.getValue());
+                outputStream.writeLong(changeHistoryLength);
+            }
+            Files.move(tempFile, headRevisionFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
 import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.server.project.ProjectCache;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import org.semanticweb.binaryowl.BinaryOWLChangeLogHandler;
@@ -23,15 +24,29 @@ import static org.semanticweb.binaryowl.chunk.SkipSetting.SKIP_DATA;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 14 Apr 2017
+ * <p>
+ * The head revision of a project that is loaded is served by the {@link RevisionManager} of the project.  The
+ * head revision of a project that is not loaded is read from the {@link HeadRevisionIndex} of the project.  The
+ * change history is only scanned if the head revision index is missing or stale.
  */
 public class HeadRevisionNumberFinder {
 
     @Nonnull
     private final ChangeHistoryFileFactory changeHistoryFileFactory;
 
+    @Nonnull
+    private final HeadRevisionIndex headRevisionIndex;
+
+    @Nonnull
+    private final ProjectCache projectCache;
+
     @Inject
-    public HeadRevisionNumberFinder(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+    public HeadRevisionNumberFinder(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory,
+                                    @Nonnull HeadRevisionIndex headRevisionIndex,
+                                    @Nonnull ProjectCache projectCache) {
         this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+        this.headRevisionIndex = checkNotNull(headRevisionIndex);
+        this.projectCache = checkNotNull(projectCache);
     }
 
     /**
@@ -42,16 +57,23 @@ public class HeadRevisionNumberFinder {
      */
     @Nonnull
     public RevisionNumber getHeadRevisionNumber(@Nonnull ProjectId projectId) throws IOException {
-        /*
-            This method works fairly well, even for large
-            projects, but it is only intended to be a stopgap and needs replacing.
-         */
+        var revisionManager = projectCache.getRevisionManagerIfActive(projectId);
+        if(revisionManager.isPresent()) {
+            return revisionManager.get().getCurrentRevision();
+        }
+        var indexedHeadRevision = headRevisionIndex.read(projectId);
+        if(indexedHeadRevision.isPresent()) {
+            return indexedHeadRevision.get();
+        }
         File changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+        var changeHistoryLength = changeHistoryFile.length();
         try (BufferedInputStream bufferedInputStream = new BufferedInputStream(Files.newInputStream(changeHistoryFile.toPath()))) {
             BinaryOWLOntologyChangeLog log = new BinaryOWLOntologyChangeLog();
             RevisionExtractor extractor = new RevisionExtractor();
             log.readChanges(bufferedInputStream, new OWLDataFactoryImpl(), extractor, SKIP_DATA);
-            return RevisionNumber.getRevisionNumber(extractor.getLastRevision());
+            var headRevision = RevisionNumber.getRevisionNumber(extractor.getLastRevision());
+            headRevisionIndex.write(projectId, headRevision, changeHistoryLength);
+            return headRevision;
         }
     }
 
@@ -0,0 +1,90 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableTable;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A small side file, stored next to the change history of a project, that records the change counts of the
+ * revisions that were written before the change count was stored in the metadata of each revision.  Without it,
+ * these revisions would have to be read in full every time that the project is loaded, just to count their
+ * changes.  Each count is recorded with the revision number and the offset of the revision in the change history,
+ * and a count is only used for a revision at the same offset with the same revision number.
+ */
+public class LegacyChangeCountIndex {
+
+    @Nonnull
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    @Inject
+    public LegacyChangeCountIndex(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+    }
+
+    /**
+     * Reads the recorded change counts of the specified project.
+     * @param projectId The project.
+     * @return The change counts, by the offset of the revision in the change history and the revision number.
+     * The table is empty if no change counts are recorded.
+     */
+    @Nonnull
+    ImmutableTable<Long, RevisionNumber, Integer> read(@Nonnull ProjectId projectId) throws IOException {
+        var changeCountsFile = changeHistoryFileFactory.getLegacyChangeCountsFile(projectId);
+        if(!changeCountsFile.exists()) {
+            return ImmutableTable.of();
+        }
+        try(var inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(changeCountsFile.toPath())))) {
+            var changeCounts = ImmutableTable.<Long, RevisionNumber, Integer>builder();
+            var count = inputStream.readInt();
+            for(int i = 0; i < count; i++) {
+                var offset = inputStream.readLong();
+                var revisionNumber = RevisionNumber.getRevisionNumber(inputStream.readLong());
+                var changeCount = inputStream.readInt();
+                changeCounts.put(offset, revisionNumber, changeCount);
+            }
+            return changeCounts.build();
+        }
+    }
+
+    /**
+     * Records the change counts of the specified revisions, replacing any counts that were recorded before.
+     * @param projectId The project.
+     * @param headers The headers of the revisions.  These must be written to the change history and have their
+     *                change counts set.
+     */
+    void write(@Nonnull ProjectId projectId,
+               @Nonnull List<RevisionHeader> headers) throws IOException {
+        checkNotNull(headers);
+        var changeCountsFile = changeHistoryFileFactory.getLegacyChangeCountsFile(projectId);
+        changeCountsFile.getParentFile().mkdirs();
+        var tempFile = Files.createTempFile(changeCountsFile.getParentFile().toPath(), changeCountsFile.getName(), ".tmp");
+        try {
+            try(var outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeInt(headers.size());
+                for(var header : headers) {
+                    outputStream.writeLong(header.getOffset());
+                    outputStream.writeLong(header.getRevisionNumber().getValue());
+                    outputStream.writeInt(header.getChangeCount());
+                }
+            }
+            Files.move(tempFile, changeCountsFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The state of the ontologies of a project at a specific revision.  The state is represented by the
+ * changes that bring empty ontologies to that revision.  These are additions only, so applying them is
+ * proportional to the size of the ontologies rather than to the length of the revision history.
+ */
+@AutoValue
+public abstract class OntologySnapshot {
+
+    @Nonnull
+    public static OntologySnapshot get(@Nonnull RevisionNumber revisionNumber,
+                                       @Nonnull ImmutableList<OntologyChange> changes) {
+        return new AutoValue_OntologySnapshot(revisionNumber, changes);
+    }
+
+    /**
+     * Gets the revision that this snapshot was taken at.
+     */
+    @Nonnull
+    public abstract RevisionNumber getRevisionNumber();
+
+    /**
+     * Gets the changes that bring empty ontologies to the revision of this snapshot.
+     */
+    @Nonnull
+    public abstract ImmutableList<OntologyChange> getChanges();
+}
@@ -0,0 +1,233 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.change.AddOntologyAnnotationChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Maintains periodic snapshots of the project ontologies so that the indexes of a project can be built from the
+ * latest snapshot plus the revisions that follow it, rather than by replaying the complete change history.
+ * <p>
+ * Snapshots are written in the background once the number of revisions since the last snapshot reaches the
+ * configured interval.  The change history itself remains the authoritative record of the project; a missing or
+ * unreadable snapshot simply causes the complete history to be replayed.
+ */
+@ProjectSingleton
+public class OntologySnapshotManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(OntologySnapshotManager.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final OntologySnapshotStore snapshotStore;
+
+    @Nonnull
+    private final Provider<ProjectOntologiesBuilder> projectOntologiesBuilderProvider;
+
+    @Nonnull
+    private final ProjectChangeLock projectChangeLock;
+
+    @Nonnull
+    private final ExecutorService snapshotExecutor;
+
+    private final int snapshotInterval;
+
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean();
+
+    private volatile long lastSnapshotRevision = 0;
+
+    @Nullable
+    private ImmutableList<ImmutableList<OntologyChange>> replayChanges;
+
+    @Inject
+    public OntologySnapshotManager(@Nonnull ProjectId projectId,
+                                   @Nonnull RevisionManager revisionManager,
+                                   @Nonnull OntologySnapshotStore snapshotStore,
+                                   @Nonnull Provider<ProjectOntologiesBuilder> projectOntologiesBuilderProvider,
+                                   @Nonnull ProjectChangeLock projectChangeLock,
+                                   @Nonnull @RevisionSnapshotExecutor ExecutorService snapshotExecutor,
+                                   @RevisionSnapshotInterval int snapshotInterval) {
+        this.projectId = checkNotNull(projectId);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.snapshotStore = checkNotNull(snapshotStore);
+        this.projectOntologiesBuilderProvider = checkNotNull(projectOntologiesBuilderProvider);
+        this.projectChangeLock = checkNotNull(projectChangeLock);
+        this.snapshotExecutor = checkNotNull(snapshotExecutor);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Gets the changes that must be replayed, in order, to reconstruct the current state of the project
+     * ontologies.  If a usable snapshot exists then the first element holds the changes of the snapshot and the
+     * remaining elements hold the changes of the revisions that follow it.  Otherwise, the changes of every
+     * revision are returned.  The list is retained until {@link #releaseReplayChanges()} is called so that
+     * indexes that are built at start up share a single copy.
+     */
+    @Nonnull
+    public synchronized ImmutableList<ImmutableList<OntologyChange>> getReplayChanges() {
+        if(replayChanges == null) {
+            replayChanges = computeReplayChanges();
+        }
+        return replayChanges;
+    }
+
+    /**
+     * Releases the changes returned by {@link #getReplayChanges()} once the indexes have been built.
+     */
+    public synchronized void releaseReplayChanges() {
+        replayChanges = null;
+    }
+
+    private ImmutableList<ImmutableList<OntologyChange>> computeReplayChanges() {
+        var currentRevision = revisionManager.getCurrentRevision();
+        var snapshot = snapshotStore.load()
+                                    .filter(s -> isUsable(s, currentRevision));
+        var snapshotRevision = snapshot.map(s -> s.getRevisionNumber().getValue()).orElse(0L);
+        lastSnapshotRevision = snapshotRevision;
+        var builder = ImmutableList.<ImmutableList<OntologyChange>>builder();
+        snapshot.ifPresent(s -> builder.add(s.getChanges()));
+        if(snapshot.isPresent()) {
+            // Only the revisions that follow the snapshot are read
+            revisionManager.getRevisionSummaries()
+                           .stream()
+                           .map(RevisionSummary::getRevisionNumber)
+                           .filter(revisionNumber -> revisionNumber.getValue() > snapshotRevision)
+                           .map(revisionManager::getRevision)
+                           .flatMap(Optional::stream)
+                           .map(Revision::getChanges)
+                           .forEach(builder::add);
+        }
+        else {
+            revisionManager.getRevisions()
+                           .stream()
+                           .map(Revision::getChanges)
+                           .forEach(builder::add);
+        }
+        var result = builder.build();
+        if(snapshot.isPresent()) {
+            logger.info("{} Replaying {} revisions on top of the ontology snapshot at revision {}",
+                        projectId,
+                        result.size() - 1,
+                        snapshotRevision);
+        }
+        return result;
+    }
+
+    private boolean isUsable(@Nonnull OntologySnapshot snapshot, @Nonnull RevisionNumber currentRevision) {
+        var snapshotRevision = snapshot.getRevisionNumber();
+        if(snapshotRevision.getValue() > currentRevision.getValue()) {
+            logger.warn("{} Ignoring ontology snapshot at revision {} because it is ahead of the change history (revision {})",
+                        projectId,
+                        snapshotRevision,
+                        currentRevision);
+            return false;
+        }
+        return revisionManager.getRevision(snapshotRevision).isPresent();
+    }
+
+    /**
+     * Gets the revision of the latest snapshot that is known to be usable.
+     * @return The revision, or empty if there is no usable snapshot.
+     */
+    @Nonnull
+    public Optional<RevisionNumber> getLastSnapshotRevision() {
+        var revision = lastSnapshotRevision;
+        return revision == 0 ? Optional.empty() : Optional.of(RevisionNumber.getRevisionNumber(revision));
+    }
+
+    /**
+     * Schedules a new snapshot to be written in the background if the number of revisions since the last
+     * snapshot has reached the snapshot interval.  At most one snapshot is written at a time.
+     */
+    public void snapshotIfNecessary() {
+        if(snapshotInterval <= 0) {
+            return;
+        }
+        var currentRevision = revisionManager.getCurrentRevision().getValue();
+        if(currentRevision - lastSnapshotRevision < snapshotInterval) {
+            return;
+        }
+        if(!snapshotInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            snapshotExecutor.submit(this::writeSnapshot);
+        } catch(RuntimeException e) {
+            snapshotInProgress.set(false);
+            logger.warn("{} Could not schedule ontology snapshot: {}", projectId, e.getMessage());
+        }
+    }
+
+    private void writeSnapshot() {
+        try {
+            var snapshot = captureSnapshot();
+            snapshotStore.save(snapshot);
+            lastSnapshotRevision = snapshot.getRevisionNumber().getValue();
+        } catch(Exception e) {
+            logger.error("{} Failed to write ontology snapshot: {}", projectId, e.getMessage(), e);
+        } finally {
+            snapshotInProgress.set(false);
+        }
+    }
+
+    @Nonnull
+    private OntologySnapshot captureSnapshot() {
+        var readLock = projectChangeLock.readLock();
+        readLock.lock();
+        try {
+            var revisionNumber = revisionManager.getCurrentRevision();
+            var changes = projectOntologiesBuilderProvider.get()
+                                                          .buildProjectOntologies()
+                                                          .stream()
+                                                          .flatMap(OntologySnapshotManager::toAddChanges)
+                                                          .collect(toImmutableList());
+            return OntologySnapshot.get(revisionNumber, changes);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Nonnull
+    private static Stream<OntologyChange> toAddChanges(@Nonnull Ontology ontology) {
+        var ontologyId = ontology.getOntologyId();
+        var importChanges = ontology.getImportsDeclarations()
+                                    .stream()
+                                    .map(importsDeclaration -> AddImportChange.of(ontologyId, importsDeclaration));
+        var annotationChanges = ontology.getAnnotations()
+                                        .stream()
+                                        .map(annotation -> AddOntologyAnnotationChange.of(ontologyId, annotation));
+        var axiomChanges = ontology.getAxioms()
+                                   .stream()
+                                   .map(axiom -> AddAxiomChange.of(ontologyId, axiom));
+        return Stream.of(importChanges, annotationChanges, axiomChanges)
+                     .flatMap(changes -> changes);
+    }
+}
@@ -0,0 +1,131 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslator;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.binaryowl.BinaryOWLMetadata;
+import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
+import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
+import org.semanticweb.binaryowl.chunk.SkipSetting;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.REVISION_META_DATA_ATTRIBUTE;
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.REVISION_TYPE_META_DATA_ATTRIBUTE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Reads and writes the latest {@link OntologySnapshot} of a project.  The snapshot is stored next to the
+ * change history in the same binary format, as a single list of changes.
+ */
+public class OntologySnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OntologySnapshotStore.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    @Nonnull
+    private final OWLDataFactory dataFactory;
+
+    @Nonnull
+    private final OntologyChangeRecordTranslator changeRecordTranslator;
+
+    @Inject
+    public OntologySnapshotStore(@Nonnull ProjectId projectId,
+                                 @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory,
+                                 @Nonnull OWLDataFactory dataFactory,
+                                 @Nonnull OntologyChangeRecordTranslator changeRecordTranslator) {
+        this.projectId = checkNotNull(projectId);
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+        this.dataFactory = checkNotNull(dataFactory);
+        this.changeRecordTranslator = checkNotNull(changeRecordTranslator);
+    }
+
+    /**
+     * Reads the latest snapshot of the project.
+     * @return The snapshot, or empty if there is no snapshot or the snapshot could not be read.
+     */
+    @Nonnull
+    public Optional<OntologySnapshot> load() {
+        var snapshotFile = changeHistoryFileFactory.getSnapshotFile(projectId);
+        if(!snapshotFile.exists()) {
+            return Optional.empty();
+        }
+        var stopwatch = Stopwatch.createStarted();
+        var snapshots = new OntologySnapshot[1];
+        try(var inputStream = new BufferedInputStream(new FileInputStream(snapshotFile))) {
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream, dataFactory, (changeRecordList, skipSetting, l) -> {
+                var metadata = changeRecordList.getMetadata();
+                var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
+                var changes = changeRecordList.getChangeRecords()
+                                              .stream()
+                                              .map(changeRecordTranslator::getOntologyChange)
+                                              .collect(toImmutableList());
+                snapshots[0] = OntologySnapshot.get(RevisionNumber.getRevisionNumber(revisionNumberValue), changes);
+            }, SkipSetting.SKIP_NONE);
+        } catch(Exception e) {
+            logger.error("{} Failed to read the ontology snapshot.  The complete change history will be replayed.  Cause: {}",
+                         projectId,
+                         e.getMessage(),
+                         e);
+            return Optional.empty();
+        }
+        var snapshot = Optional.ofNullable(snapshots[0]);
+        snapshot.ifPresent(s -> logger.info("{} Read ontology snapshot at revision {} ({} changes) in {} ms",
+                                            projectId,
+                                            s.getRevisionNumber(),
+                                            s.getChanges().size(),
+                                            stopwatch.elapsed(MILLISECONDS)));
+        return snapshot;
+    }
+
+    /**
+     * Replaces the latest snapshot of the project with the specified snapshot.  The snapshot is written to a
+     * temporary file first, so that a failure does not leave a partially written snapshot behind.
+     */
+    public void save(@Nonnull OntologySnapshot snapshot) throws IOException {
+        checkNotNull(snapshot);
+        var stopwatch = Stopwatch.createStarted();
+        var snapshotFile = changeHistoryFileFactory.getSnapshotFile(projectId);
+        snapshotFile.getParentFile().mkdirs();
+        var tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        Files.deleteIfExists(tempFile.toPath());
+        var metadata = new BinaryOWLMetadata();
+        metadata.setLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), snapshot.getRevisionNumber().getValue());
+        metadata.setStringAttribute(REVISION_TYPE_META_DATA_ATTRIBUTE.getVocabularyName(), RevisionType.SNAPSHOT.name());
+        var changeRecords = snapshot.getChanges()
+                                    .stream()
+                                    .map(OntologyChange::toOwlOntologyChangeRecord)
+                                    .collect(toImmutableList());
+        var changeLog = new BinaryOWLOntologyChangeLog();
+        changeLog.appendChanges(new OntologyChangeRecordList(System.currentTimeMillis(), metadata, changeRecords), tempFile);
+        Files.move(tempFile.toPath(), snapshotFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        logger.info("{} Wrote ontology snapshot at revision {} ({} changes) in {} ms",
+                    projectId,
+                    snapshot.getRevisionNumber(),
+                    changeRecords.size(),
+                    stopwatch.elapsed(MILLISECONDS));
+    }
+}
@@ -1,6 +1,5 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
-import com.google.common.base.Stopwatch;
 import com.google.common.collect.*;
 import com.google.gwt.safehtml.shared.SafeHtml;
 import edu.stanford.bmir.protege.web.server.axiom.AxiomIRISubjectProvider;
@@ -15,6 +14,7 @@ import edu.stanford.bmir.protege.web.shared.pagination.Page;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -28,8 +28,8 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Matthew Horridge
@@ -53,25 +53,21 @@ public class ProjectChangesManager {
 
     private final Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider;
 
-    private final Table<RevisionNumber, Optional<IRI>, ImmutableList<OntologyChange>> cache = HashBasedTable.create();
+    private final EntityRevisionIndex entityRevisionIndex;
 
     @Inject
     public ProjectChangesManager(ProjectId projectId,
                                  @Nonnull RevisionManager revisionManager,
                                  @Nonnull RenderingManager browserTextProvider,
                                  @Nonnull Comparator<OntologyChange> changeRecordComparator,
-                                 @Nonnull Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider) {
+                                 @Nonnull Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider,
+                                 @Nonnull EntityRevisionIndex entityRevisionIndex) {
         this.projectId = projectId;
         this.revisionManager = revisionManager;
         this.browserTextProvider = browserTextProvider;
         this.changeRecordComparator = changeRecordComparator;
         this.revision2DiffElementsTranslatorProvider = revision2DiffElementsTranslatorProvider;
-    }
-
-    private static Multimap<Optional<IRI>, OntologyChange> getChangesBySubject(Revision revision) {
-        Multimap<Optional<IRI>, OntologyChange> results = HashMultimap.create();
-        revision.getChanges().forEach(record -> results.put(getSubject(record), record));
-        return results;
+        this.entityRevisionIndex = entityRevisionIndex;
     }
 
     private static Optional<IRI> getSubject(OntologyChange change) {
@@ -91,28 +87,38 @@ public class ProjectChangesManager {
 
     public Page<ProjectChange> getProjectChanges(Optional<OWLEntity> subject,
                                                  PageRequest pageRequest) {
-        ImmutableList<Revision> revisions = revisionManager.getRevisions();
         if (subject.isPresent()) {
-            // We need to scan revisions to find the ones containing a particular subject
-            // We ignore the page request here.
-            // This needs reworking really, but the number of changes per entity is usually small
-            // so this works for now.
+            // Pages are in reverse order
+            // Only the revisions that changed the subject, and that are on the requested page, are read
+            ImmutableList<RevisionNumber> revisionNumbers = entityRevisionIndex.getRevisions(subject.get().getIRI());
             ImmutableList.Builder<ProjectChange> changes = ImmutableList.builder();
-            for (Revision revision : revisions) {
-                getProjectChangesForRevision(revision, subject, changes);
-            }
+            Lists.reverse(revisionNumbers).stream()
+                    .skip(pageRequest.getSkip())
+                    .limit(pageRequest.getPageSize())
+                    .map(revisionManager::getRevision)
+                    .flatMap(Optional::stream)
+                    .forEach(revision -> getProjectChangesForRevision(revision, subject, changes));
             ImmutableList<ProjectChange> theChanges = changes.build();
-            return new Page<>(1, 1, theChanges, theChanges.size());
+            int pageSize = pageRequest.getPageSize();
+            int pageCount = Math.max(1, (revisionNumbers.size() + pageSize - 1) / pageSize);
+            return new Page<>(pageRequest.getPageNumber(),
+                              pageCount,
+                              theChanges,
+                              revisionNumbers.size());
         }
         else {
             // Pages are in reverse order
+            // Only the revisions on the requested page are read
             ImmutableList.Builder<ProjectChange> changes = ImmutableList.builder();
-            revisions.reverse().stream()
+            List<RevisionSummary> revisionSummaries = revisionManager.getRevisionSummaries();
+            Lists.reverse(revisionSummaries).stream()
                     .skip(pageRequest.getSkip())
                     .limit(pageRequest.getPageSize())
+                    .map(summary -> revisionManager.getRevision(summary.getRevisionNumber()))
+                    .flatMap(Optional::stream)
                     .forEach(revision -> getProjectChangesForRevision(revision, subject, changes));
             ImmutableList<ProjectChange> changeList = changes.build();
-            int pageCount = (revisions.size() / pageRequest.getPageSize()) + 1;
+            int pageCount = (revisionSummaries.size() / pageRequest.getPageSize()) + 1;
             return new Page<>(pageRequest.getPageNumber(),
                               pageCount,
                               changeList, changeList.size());
@@ -128,20 +134,14 @@ public class ProjectChangesManager {
     private void getProjectChangesForRevision(Revision revision,
                                               Optional<OWLEntity> subject,
                                               ImmutableList.Builder<ProjectChange> changesBuilder) {
-        if(!cache.containsRow(revision.getRevisionNumber())) {
-            logger.debug("{} Building cache for revision {}", projectId, revision.getRevisionNumber().getValue());
-            var stopwatch = Stopwatch.createStarted();
-            var changeRecordsBySubject = getChangesBySubject(revision);
-            changeRecordsBySubject.asMap().forEach((subj, records) -> {
-                cache.put(revision.getRevisionNumber(), subj, ImmutableList.copyOf(records));
-            });
-            logger.debug("{} Cached revision {} in {} ms", projectId, revision.getRevisionNumber().getValue(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
-        }
         List<OntologyChange> limitedRecords = new ArrayList<>();
         final int totalChanges;
         if (subject.isPresent()) {
-            List<OntologyChange> records = cache.get(revision.getRevisionNumber(), subject.map(OWLEntity::getIRI));
-            if (records == null) {
+            Optional<IRI> subjectIri = subject.map(OWLEntity::getIRI);
+            List<OntologyChange> records = revision.getChanges().stream()
+                    .filter(change -> getSubject(change).equals(subjectIri))
+                    .collect(Collectors.toList());
+            if (records.isEmpty()) {
                 // Nothing in this revision that changes the subject
                 return;
             }
@@ -0,0 +1,86 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The details of a revision that are held in memory by the {@link RevisionStoreImpl}.  The changes of the
+ * revision are not held by the header.  They are read from the change history file, at the location given by
+ * the header, when they are needed.
+ */
+@AutoValue
+abstract class RevisionHeader {
+
+    /**
+     * The file offset of a revision that has not been written to the change history file yet.
+     */
+    static final long UNWRITTEN = -1;
+
+    @Nonnull
+    static RevisionHeader get(@Nonnull RevisionNumber revisionNumber,
+                              @Nonnull UserId userId,
+                              long timestamp,
+                              @Nonnull String description,
+                              int changeCount,
+                              long offset,
+                              int length) {
+        return new AutoValue_RevisionHeader(revisionNumber, userId, timestamp, description, changeCount, offset, length);
+    }
+
+    @Nonnull
+    static RevisionHeader getUnwritten(@Nonnull Revision revision) {
+        return get(revision.getRevisionNumber(),
+                   revision.getUserId(),
+                   revision.getTimestamp(),
+                   revision.getHighLevelDescription(),
+                   revision.getSize(),
+                   UNWRITTEN,
+                   0);
+    }
+
+    @Nonnull
+    abstract RevisionNumber getRevisionNumber();
+
+    @Nonnull
+    abstract UserId getUserId();
+
+    abstract long getTimestamp();
+
+    @Nonnull
+    abstract String getDescription();
+
+    abstract int getChangeCount();
+
+    /**
+     * Gets the offset of the revision in the change history file, or {@link #UNWRITTEN}.
+     */
+    abstract long getOffset();
+
+    /**
+     * Gets the number of bytes that the revision occupies in the change history file.
+     */
+    abstract int getLength();
+
+    boolean isWritten() {
+        return getOffset() != UNWRITTEN;
+    }
+
+    @Nonnull
+    RevisionHeader withLocation(long offset, int length) {
+        return get(getRevisionNumber(), getUserId(), getTimestamp(), getDescription(), getChangeCount(), offset, length);
+    }
+
+    @Nonnull
+    RevisionHeader withChangeCount(int changeCount) {
+        return get(getRevisionNumber(), getUserId(), getTimestamp(), getDescription(), changeCount, getOffset(), getLength());
+    }
+
+    @Nonnull
+    RevisionSummary toRevisionSummary() {
+        return new RevisionSummary(getRevisionNumber(), getUserId(), getTimestamp(), getChangeCount(), getDescription());
+    }
+}
@@ -20,7 +20,6 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.stream.Collectors.toList;
 
 /**
  * Author: Matthew Horridge<br>
@@ -140,26 +139,13 @@ public class RevisionManagerImpl implements RevisionManager {
     @Nonnull
     @Override
     public Optional<RevisionSummary> getRevisionSummary(@Nonnull RevisionNumber revisionNumber) {
-        Optional<Revision> revision = revisionStore.getRevision(revisionNumber);
-        return revision.map(RevisionManagerImpl::toRevisionSummary);
-
-    }
-
-    private static RevisionSummary toRevisionSummary(Revision revision) {
-        return new RevisionSummary(revision.getRevisionNumber(),
-                                   revision.getUserId(),
-                                   revision.getTimestamp(),
-                                   revision.getSize(),
-                                   revision.getHighLevelDescription());
+        return revisionStore.getRevisionSummary(revisionNumber);
     }
 
     @Nonnull
     @Override
     public List<RevisionSummary> getRevisionSummaries() {
-        return revisionStore.getRevisions()
-                            .stream()
-                            .map(RevisionManagerImpl::toRevisionSummary)
-                            .collect(toList());
+        return revisionStore.getRevisionSummaries();
     }
 
 }
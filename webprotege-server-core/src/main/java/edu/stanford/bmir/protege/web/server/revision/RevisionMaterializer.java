@@ -0,0 +1,393 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveImportChange;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Materializes the ontologies of a project at a given revision.  Rather than always replaying the changes of
+ * every revision from the first one, the materializer starts from whichever known state needs the fewest
+ * changes to be applied to reach the requested revision:
+ * <ul>
+ *     <li>empty ontologies, from which the changes are replayed forwards</li>
+ *     <li>the latest {@link OntologySnapshot}, from which the changes are replayed forwards</li>
+ *     <li>a recently materialized revision, from which the changes are replayed forwards or backwards</li>
+ *     <li>the current state of the project, from which the inverse changes are replayed backwards</li>
+ * </ul>
+ * The ontologies of recently materialized revisions are held in a small cache.
+ */
+@ProjectSingleton
+public class RevisionMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionMaterializer.class);
+
+    private static final int MAX_CACHED_REVISIONS = 4;
+
+    private static final RevisionNumber EMPTY_REVISION = RevisionNumber.getRevisionNumber(0);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final ProjectOntologiesBuilder projectOntologiesBuilder;
+
+    @Nonnull
+    private final ProjectChangeLock projectChangeLock;
+
+    @Nonnull
+    private final OntologySnapshotManager snapshotManager;
+
+    @Nonnull
+    private final OntologySnapshotStore snapshotStore;
+
+    private final Cache<RevisionNumber, ImmutableList<Ontology>> cache = CacheBuilder.newBuilder()
+                                                                                     .maximumSize(MAX_CACHED_REVISIONS)
+                                                                                     .build();
+
+    @Inject
+    public RevisionMaterializer(@Nonnull ProjectId projectId,
+                                @Nonnull RevisionManager revisionManager,
+                                @Nonnull ProjectOntologiesBuilder projectOntologiesBuilder,
+                                @Nonnull ProjectChangeLock projectChangeLock,
+                                @Nonnull OntologySnapshotManager snapshotManager,
+                                @Nonnull OntologySnapshotStore snapshotStore) {
+        this.projectId = checkNotNull(projectId);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.projectOntologiesBuilder = checkNotNull(projectOntologiesBuilder);
+        this.projectChangeLock = checkNotNull(projectChangeLock);
+        this.snapshotManager = checkNotNull(snapshotManager);
+        this.snapshotStore = checkNotNull(snapshotStore);
+    }
+
+    /**
+     * Gets the ontologies of the project at the specified revision.
+     * @param revisionNumber The revision.  If this is the head revision then the ontologies at the current
+     *                       revision are returned.
+     * @return The ontologies.  Ontologies without any axioms, annotations or imports are not included.
+     */
+    @Nonnull
+    public ImmutableList<Ontology> getOntologies(@Nonnull RevisionNumber revisionNumber) {
+        checkNotNull(revisionNumber);
+        if(revisionNumber.isHead()) {
+            return getHeadState().getOntologies();
+        }
+        var cachedOntologies = cache.getIfPresent(revisionNumber);
+        if(cachedOntologies != null) {
+            return cachedOntologies;
+        }
+        var stopwatch = Stopwatch.createStarted();
+        List<RevisionSummary> summaries;
+        ChangeCounts changeCounts;
+        Plan plan;
+        OntologiesState headState = null;
+        // The revision summaries, the head revision and the head state are read under one read lock.  Otherwise,
+        // a revision that is logged in between could be missing from the summaries that are used to replay
+        // backwards from the head state.
+        projectChangeLock.readLock().lock();
+        try {
+            summaries = revisionManager.getRevisionSummaries();
+            changeCounts = new ChangeCounts(summaries);
+            plan = getCheapestPlan(revisionNumber, changeCounts, revisionManager.getCurrentRevision());
+            if(plan.getStart() == Start.HEAD) {
+                headState = getHeadState();
+            }
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+        var state = headState != null ? headState : getStartState(plan);
+        var startRevision = state.getRevisionNumber();
+        if(startRevision.compareTo(revisionNumber) <= 0) {
+            getRevisions(summaries, startRevision, revisionNumber)
+                    .forEach(revision -> revision.getChanges().forEach(state::applyChange));
+        }
+        else {
+            Lists.reverse(getRevisions(summaries, revisionNumber, startRevision))
+                 .forEach(revision -> Lists.reverse(revision.getChanges())
+                                           .forEach(change -> state.applyChange(change.getInverseChange())));
+        }
+        var ontologies = state.getOntologies();
+        cache.put(revisionNumber, ontologies);
+        logger.info("{} Materialized revision {} from {} at revision {} ({} changes) in {} ms",
+                    projectId,
+                    revisionNumber.getValue(),
+                    plan.getStart(),
+                    startRevision.getValue(),
+                    changeCounts.getChangesBetween(startRevision, revisionNumber),
+                    stopwatch.elapsed(MILLISECONDS));
+        return ontologies;
+    }
+
+    @Nonnull
+    private Plan getCheapestPlan(@Nonnull RevisionNumber revisionNumber,
+                                 @Nonnull ChangeCounts changeCounts,
+                                 @Nonnull RevisionNumber headRevision) {
+        var cheapestPlan = new Plan(Start.EMPTY, EMPTY_REVISION, changeCounts.getChangesBetween(EMPTY_REVISION, revisionNumber));
+        for(var cachedRevision : cache.asMap().keySet()) {
+            var plan = new Plan(Start.CACHE, cachedRevision, changeCounts.getChangesBetween(cachedRevision, revisionNumber));
+            cheapestPlan = cheaper(cheapestPlan, plan);
+        }
+        var snapshotRevision = snapshotManager.getLastSnapshotRevision();
+        if(snapshotRevision.isPresent() && snapshotRevision.get().compareTo(revisionNumber) <= 0) {
+            var plan = new Plan(Start.SNAPSHOT, snapshotRevision.get(), changeCounts.getChangesBetween(snapshotRevision.get(), revisionNumber));
+            cheapestPlan = cheaper(cheapestPlan, plan);
+        }
+        var headPlan = new Plan(Start.HEAD, headRevision, changeCounts.getChangesBetween(revisionNumber, headRevision));
+        return cheaper(cheapestPlan, headPlan);
+    }
+
+    private static Plan cheaper(@Nonnull Plan plan, @Nonnull Plan otherPlan) {
+        return otherPlan.getCost() < plan.getCost() ? otherPlan : plan;
+    }
+
+    /**
+     * Gets the state that a plan starts from, other than the head state, which is taken whilst the plan is made.
+     */
+    @Nonnull
+    private OntologiesState getStartState(@Nonnull Plan plan) {
+        switch(plan.getStart()) {
+            case CACHE:
+                var cachedOntologies = cache.getIfPresent(plan.getRevisionNumber());
+                if(cachedOntologies != null) {
+                    return OntologiesState.of(plan.getRevisionNumber(), cachedOntologies);
+                }
+                break;
+            case SNAPSHOT:
+                var snapshot = snapshotStore.load()
+                                            .filter(s -> s.getRevisionNumber().equals(plan.getRevisionNumber()));
+                if(snapshot.isPresent()) {
+                    var state = OntologiesState.empty(snapshot.get().getRevisionNumber());
+                    snapshot.get().getChanges().forEach(state::applyChange);
+                    return state;
+                }
+                break;
+            default:
+                break;
+        }
+        return OntologiesState.empty(EMPTY_REVISION);
+    }
+
+    /**
+     * Gets the state of the project ontologies at the current revision, from the project indexes.
+     */
+    @Nonnull
+    private OntologiesState getHeadState() {
+        projectChangeLock.readLock().lock();
+        try {
+            var currentRevision = revisionManager.getCurrentRevision();
+            return OntologiesState.of(currentRevision, projectOntologiesBuilder.buildProjectOntologies());
+        } finally {
+            projectChangeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the revisions that follow the specified from revision, up to and including the specified to revision.
+     */
+    @Nonnull
+    private ImmutableList<Revision> getRevisions(@Nonnull List<RevisionSummary> summaries,
+                                                 @Nonnull RevisionNumber fromRevision,
+                                                 @Nonnull RevisionNumber toRevision) {
+        return summaries.stream()
+                        .map(RevisionSummary::getRevisionNumber)
+                        .filter(revisionNumber -> revisionNumber.compareTo(fromRevision) > 0)
+                        .filter(revisionNumber -> revisionNumber.compareTo(toRevision) <= 0)
+                        .map(revisionManager::getRevision)
+                        .flatMap(java.util.Optional::stream)
+                        .collect(toImmutableList());
+    }
+
+    private enum Start {
+        EMPTY,
+        SNAPSHOT,
+        CACHE,
+        HEAD
+    }
+
+    private static class Plan {
+
+        private final Start start;
+
+        private final RevisionNumber revisionNumber;
+
+        private final long cost;
+
+        private Plan(Start start, RevisionNumber revisionNumber, long cost) {
+            this.start = start;
+            this.revisionNumber = revisionNumber;
+            this.cost = cost;
+        }
+
+        public Start getStart() {
+            return start;
+        }
+
+        public RevisionNumber getRevisionNumber() {
+            return revisionNumber;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Counts the changes between revisions, using the change counts of the revision summaries.
+     */
+    private static class ChangeCounts {
+
+        private final List<Long> revisionNumbers;
+
+        private final long[] cumulativeChangeCounts;
+
+        private ChangeCounts(@Nonnull List<RevisionSummary> summaries) {
+            this.revisionNumbers = Lists.transform(summaries, summary -> summary.getRevisionNumber().getValue());
+            this.cumulativeChangeCounts = new long[summaries.size() + 1];
+            for(int i = 0; i < summaries.size(); i++) {
+                cumulativeChangeCounts[i + 1] = cumulativeChangeCounts[i] + summaries.get(i).getChangeCount();
+            }
+        }
+
+        /**
+         * Gets the number of changes in the revisions that lie between the two specified revisions, excluding the
+         * earlier revision and including the later revision.
+         */
+        private long getChangesBetween(@Nonnull RevisionNumber revisionA, @Nonnull RevisionNumber revisionB) {
+            return Math.abs(getChangesUpTo(revisionB) - getChangesUpTo(revisionA));
+        }
+
+        private long getChangesUpTo(@Nonnull RevisionNumber revisionNumber) {
+            var index = Collections.binarySearch(revisionNumbers, revisionNumber.getValue());
+            // The number of revisions that are at or before the revision number
+            var count = index >= 0 ? index + 1 : -(index + 1);
+            return cumulativeChangeCounts[count];
+        }
+    }
+
+    /**
+     * The mutable state of the ontologies of a project, at a given revision.
+     */
+    private static class OntologiesState {
+
+        /**
+         * Anonymous ontologies are all treated as one ontology, as they are when the changes are replayed by the
+         * {@link RevisionManager}
+         */
+        private static final OWLOntologyID ANONYMOUS_ONTOLOGY_ID = new OWLOntologyID();
+
+        private final RevisionNumber revisionNumber;
+
+        private final Map<OWLOntologyID, OntologyState> ontologies = new LinkedHashMap<>();
+
+        private OntologiesState(@Nonnull RevisionNumber revisionNumber) {
+            this.revisionNumber = checkNotNull(revisionNumber);
+        }
+
+        private static OntologiesState empty(@Nonnull RevisionNumber revisionNumber) {
+            return new OntologiesState(revisionNumber);
+        }
+
+        private static OntologiesState of(@Nonnull RevisionNumber revisionNumber,
+                                          @Nonnull Collection<Ontology> ontologies) {
+            var state = new OntologiesState(revisionNumber);
+            for(var ontology : ontologies) {
+                var ontologyState = state.getOntologyState(ontology.getOntologyId());
+                ontologyState.imports.addAll(ontology.getImportsDeclarations());
+                ontologyState.annotations.addAll(ontology.getAnnotations());
+                ontologyState.axioms.addAll(ontology.getAxioms());
+            }
+            return state;
+        }
+
+        public RevisionNumber getRevisionNumber() {
+            return revisionNumber;
+        }
+
+        private OntologyState getOntologyState(@Nonnull OWLOntologyID ontologyId) {
+            var normalisedOntologyId = ontologyId.isAnonymous() ? ANONYMOUS_ONTOLOGY_ID : ontologyId;
+            return ontologies.computeIfAbsent(normalisedOntologyId, id -> new OntologyState());
+        }
+
+        private void applyChange(@Nonnull OntologyChange change) {
+            var ontologyState = getOntologyState(change.getOntologyId());
+            if(change.isAddAxiom()) {
+                ontologyState.axioms.add(change.getAxiomOrThrow());
+            }
+            else if(change.isRemoveAxiom()) {
+                ontologyState.axioms.remove(change.getAxiomOrThrow());
+            }
+            else if(change.isAddOntologyAnnotation()) {
+                ontologyState.annotations.add(change.getAnnotationOrThrow());
+            }
+            else if(change.isRemoveOntologyAnnotation()) {
+                ontologyState.annotations.remove(change.getAnnotationOrThrow());
+            }
+            else if(change instanceof AddImportChange) {
+                ontologyState.imports.add(change.getImportsDeclarationOrThrow());
+            }
+            else if(change instanceof RemoveImportChange) {
+                ontologyState.imports.remove(change.getImportsDeclarationOrThrow());
+            }
+        }
+
+        @Nonnull
+        private ImmutableList<Ontology> getOntologies() {
+            return ontologies.entrySet()
+                             .stream()
+                             .filter(entry -> !entry.getValue().isEmpty())
+                             .map(entry -> Ontology.get(entry.getKey(),
+                                                        ImmutableSet.copyOf(entry.getValue().imports),
+                                                        ImmutableSet.copyOf(entry.getValue().annotations),
+                                                        ImmutableSet.copyOf(entry.getValue().axioms)))
+                             .collect(toImmutableList());
+        }
+    }
+
+    private static class OntologyState {
+
+        private final Set<OWLImportsDeclaration> imports = new LinkedHashSet<>();
+
+        private final Set<OWLAnnotation> annotations = new LinkedHashSet<>();
+
+        private final Set<OWLAxiom> axioms = new LinkedHashSet<>();
+
+        private boolean isEmpty() {
+            return imports.isEmpty() && annotations.isEmpty() && axioms.isEmpty();
+        }
+    }
+}
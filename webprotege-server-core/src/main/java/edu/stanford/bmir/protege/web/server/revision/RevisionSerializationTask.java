@@ -1,12 +1,16 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
+import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import org.semanticweb.binaryowl.BinaryOWLMetadata;
 import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
 import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
 
-import java.io.File;
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.concurrent.Callable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -17,37 +21,109 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
  * Stanford University<br>
  * Bio-Medical Informatics Research Group<br>
  * Date: 15/05/2012
+ * <p>
+ * Appends a batch of revisions to the change history through an open channel.  Depending on the
+ * {@link ChangeHistorySyncMode}, the channel is forced to disk after each revision or once for the whole
+ * batch.  The saved handler is notified of each revision once it has been forced to disk.
  */
 public class RevisionSerializationTask implements Callable<Integer> {
 
-    private final File file;
+    private final FileChannel channel;
 
-    private final Revision revision;
+    private final ImmutableList<Revision> revisions;
 
-    private Runnable savedHook = () -> {};
+    private final ChangeHistorySyncMode syncMode;
 
-    public RevisionSerializationTask(File file, Revision revision) {
-        this.file = file;
-        this.revision = revision;
+    private RevisionSavedHandler savedHandler = (revision, offset, length) -> {};
+
+    public RevisionSerializationTask(@Nonnull FileChannel channel,
+                                     @Nonnull ImmutableList<Revision> revisions,
+                                     @Nonnull ChangeHistorySyncMode syncMode) {
+        this.channel = checkNotNull(channel);
+        this.revisions = checkNotNull(revisions);
+        this.syncMode = checkNotNull(syncMode);
     }
 
-    public void setSavedHook(Runnable savedHook) {
-        this.savedHook = checkNotNull(savedHook);
+    public void setSavedHandler(@Nonnull RevisionSavedHandler savedHandler) {
+        this.savedHandler = checkNotNull(savedHandler);
     }
 
     public Integer call() throws IOException {
+        var serializedRevisions = new ByteBuffer[revisions.size()];
+        for(int i = 0; i < revisions.size(); i++) {
+            serializedRevisions[i] = ByteBuffer.wrap(serialize(revisions.get(i)));
+        }
+        var offset = channel.size();
+        if(syncMode == ChangeHistorySyncMode.REVISION) {
+            for(int i = 0; i < revisions.size(); i++) {
+                var length = write(serializedRevisions[i]);
+                channel.force(false);
+                savedHandler.handleSaved(revisions.get(i), offset, length);
+                offset += length;
+            }
+        }
+        else {
+            var lengths = new int[revisions.size()];
+            for(int i = 0; i < revisions.size(); i++) {
+                lengths[i] = serializedRevisions[i].remaining();
+            }
+            while(hasRemaining(serializedRevisions)) {
+                channel.write(serializedRevisions);
+            }
+            channel.force(false);
+            for(int i = 0; i < revisions.size(); i++) {
+                savedHandler.handleSaved(revisions.get(i), offset, lengths[i]);
+                offset += lengths[i];
+            }
+        }
+        return revisions.size();
+    }
+
+    private int write(ByteBuffer buffer) throws IOException {
+        var length = buffer.remaining();
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers) {
+        for(var buffer : buffers) {
+            if(buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] serialize(Revision revision) throws IOException {
         BinaryOWLMetadata metadata = new BinaryOWLMetadata();
         metadata.setStringAttribute(RevisionSerializationVocabulary.USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), revision.getUserId().getUserName());
         metadata.setLongAttribute(RevisionSerializationVocabulary.REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), revision.getRevisionNumber().getValue());
         metadata.setStringAttribute(RevisionSerializationVocabulary.DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), revision.getHighLevelDescription());
         metadata.setStringAttribute(RevisionSerializationVocabulary.REVISION_TYPE_META_DATA_ATTRIBUTE.getVocabularyName(), RevisionType.EDIT.name());
+        metadata.setIntAttribute(RevisionSerializationVocabulary.CHANGE_COUNT_META_DATA_ATTRIBUTE.getVocabularyName(), revision.getSize());
         BinaryOWLOntologyChangeLog changeLog = new BinaryOWLOntologyChangeLog();
         var changeRecords = revision.getChanges()
                 .stream()
                 .map(OntologyChange::toOwlOntologyChangeRecord)
                 .collect(toImmutableList());
-        changeLog.appendChanges(new OntologyChangeRecordList(revision.getTimestamp(), metadata, changeRecords), file);
-        savedHook.run();
-        return 0;
+        var outputStream = new ByteArrayOutputStream();
+        changeLog.appendChanges(new OntologyChangeRecordList(revision.getTimestamp(), metadata, changeRecords), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Notified of each revision once it has been written to the change history.
+     */
+    public interface RevisionSavedHandler {
+
+        /**
+         * Called when a revision has been written.
+         * @param revision The revision.
+         * @param offset The offset of the revision in the change history file.
+         * @param length The number of bytes that the revision occupies in the change history file.
+         */
+        void handleSaved(@Nonnull Revision revision, long offset, int length);
     }
 }
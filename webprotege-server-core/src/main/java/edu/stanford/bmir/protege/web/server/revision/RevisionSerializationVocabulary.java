@@ -15,7 +15,9 @@ public enum RevisionSerializationVocabulary {
 
     DESCRIPTION_META_DATA_ATTRIBUTE("description"),
 
-    REVISION_TYPE_META_DATA_ATTRIBUTE("revisionType");
+    REVISION_TYPE_META_DATA_ATTRIBUTE("revisionType"),
+
+    CHANGE_COUNT_META_DATA_ATTRIBUTE("changeCount");
 
     private String vocabularyName;
 
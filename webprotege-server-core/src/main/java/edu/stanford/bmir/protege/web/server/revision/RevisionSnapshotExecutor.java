@@ -0,0 +1,14 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The executor that writes {@link OntologySnapshot}s in the background.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RevisionSnapshotExecutor {
+
+}
@@ -0,0 +1,14 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The number of revisions after which a new {@link OntologySnapshot} of a project is written.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RevisionSnapshotInterval {
+
+}
@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.revision;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 
 import javax.annotation.Nonnull;
 import java.util.Optional;
@@ -16,7 +17,8 @@ import java.util.Optional;
 public interface RevisionStore {
 
     /**
-     * Gets all of the revisions.
+     * Gets all of the revisions.  The changes of every revision are read, so callers that only need the
+     * details of revisions should use {@link #getRevisionSummaries()} instead.
      * @return The revisions in an immutable list.
      */
     @Nonnull
@@ -31,6 +33,22 @@ public interface RevisionStore {
     @Nonnull
     Optional<Revision> getRevision(@Nonnull RevisionNumber revisionNumber);
 
+    /**
+     * Gets summaries of all of the revisions, in revision order.
+     * @return The summaries in an immutable list.
+     */
+    @Nonnull
+    ImmutableList<RevisionSummary> getRevisionSummaries();
+
+    /**
+     * Gets a summary of the revision that has the specified revision number.
+     * @param revisionNumber The revision number.  Not {@code null}.
+     * @return The summary.  If a revision with the specified revision number does not exist
+     * then an absent value will be returned.  Not {@code null}.
+     */
+    @Nonnull
+    Optional<RevisionSummary> getRevisionSummary(@Nonnull RevisionNumber revisionNumber);
+
     /**
      * Add the specified revision to this revision store.  The revision must have a number that is beyond the revision
      * number of the current revision otherwise an IllegalArgumentException will be thrown.
@@ -27,13 +27,28 @@ public class RevisionStoreFactory {
     @Nonnull
     private final OntologyChangeRecordTranslator changeRecordTranslator;
 
+    @Nonnull
+    private final ChangeHistorySyncMode syncMode;
+
+    @Nonnull
+    private final HeadRevisionIndex headRevisionIndex;
+
+    @Nonnull
+    private final LegacyChangeCountIndex legacyChangeCountIndex;
+
     @Inject
     public RevisionStoreFactory(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory,
                                 @ApplicationDataFactory @Nonnull OWLDataFactory dataFactory,
-                                @Nonnull OntologyChangeRecordTranslator changeRecordTranslator) {
+                                @Nonnull OntologyChangeRecordTranslator changeRecordTranslator,
+                                @Nonnull ChangeHistorySyncMode syncMode,
+                                @Nonnull HeadRevisionIndex headRevisionIndex,
+                                @Nonnull LegacyChangeCountIndex legacyChangeCountIndex) {
         this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
         this.dataFactory = checkNotNull(dataFactory);
         this.changeRecordTranslator = checkNotNull(changeRecordTranslator);
+        this.syncMode = checkNotNull(syncMode);
+        this.headRevisionIndex = checkNotNull(headRevisionIndex);
+        this.legacyChangeCountIndex = checkNotNull(legacyChangeCountIndex);
     }
 
     @Nonnull
@@ -42,7 +57,10 @@ public class RevisionStoreFactory {
         var revisionStore = new RevisionStoreImpl(projectId,
                                      changeHistoryFileFactory,
                                      dataFactory,
-                                     changeRecordTranslator);
+                                     changeRecordTranslator,
+                                     syncMode,
+                                     headRevisionIndex,
+                                     legacyChangeCountIndex);
         revisionStore.load();
         return revisionStore;
     }
@@ -1,15 +1,20 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
-import com.google.auto.factory.AutoFactory;
-import com.google.auto.factory.Provided;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Interners;
+import com.google.common.collect.Lists;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslator;
 import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
 import org.semanticweb.binaryowl.chunk.SkipSetting;
@@ -18,12 +23,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -39,11 +58,20 @@ import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializatio
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 29/05/15
+ * <p>
+ * Only a {@link RevisionHeader} is held in memory for each revision.  The changes of a revision are read on
+ * demand from the memory mapped change history file, and recently used revisions are held in a cache that is
+ * bounded by the total number of changes that it holds.
  */
 public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     private static final Logger logger = LoggerFactory.getLogger(RevisionStoreImpl.class);
 
+    /**
+     * The maximum number of changes, summed over revisions, that are held in the revision cache
+     */
+    private static final int MAX_CACHED_CHANGES = 100_000;
+
     private final ExecutorService changeSerializationExecutor;
 
     private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -61,7 +89,57 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     @Nonnull
     private final OWLDataFactory dataFactory;
 
-    private ImmutableList<Revision> revisions = ImmutableList.of();
+    private final List<RevisionHeader> headers = new ArrayList<>();
+
+    /**
+     * Revisions that have been added but that have not been written to the change history file yet
+     */
+    private final Map<RevisionNumber, Revision> unwrittenRevisions = new ConcurrentHashMap<>();
+
+    private final Cache<RevisionNumber, Revision> revisionCache = CacheBuilder.newBuilder()
+                                                                              .maximumWeight(MAX_CACHED_CHANGES)
+                                                                              .weigher((RevisionNumber revisionNumber, Revision revision) -> revision.getSize() + 1)
+                                                                              .build();
+
+    /**
+     * Revisions that have been added and that are waiting to be written to the change history file
+     */
+    private final Queue<Revision> queuedRevisions = new ConcurrentLinkedQueue<>();
+
+    private final Object changeHistoryWriteLock = new Object();
+
+    @Nullable
+    private FileChannel changeHistoryWriteChannel;
+
+    /**
+     * Revisions of batches that could not be written.  These are written before the queued revisions by the next
+     * batch.  Guarded by the change history write lock.
+     */
+    private final List<Revision> failedRevisions = new ArrayList<>();
+
+    /**
+     * The length of the change history up to the end of the last revision that has been written, or -1 if the
+     * change history has not been opened for writing yet.  Bytes past this length are the remains of a batch that
+     * failed part way through.  Guarded by the change history write lock.
+     */
+    private long writtenChangeHistoryLength = -1;
+
+    @Nonnull
+    private final ChangeHistorySyncMode syncMode;
+
+    @Nonnull
+    private final HeadRevisionIndex headRevisionIndex;
+
+    @Nonnull
+    private final LegacyChangeCountIndex legacyChangeCountIndex;
+
+    private final Object mappingLock = new Object();
+
+    @Nullable
+    private FileChannel changeHistoryChannel;
+
+    @Nullable
+    private MappedByteBuffer mappedChangeHistory;
 
     @Nonnull
     private final OntologyChangeRecordTranslator changeRecordTranslator;
@@ -72,8 +150,14 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     public RevisionStoreImpl(@Nonnull ProjectId projectId,
                              @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory,
                              @Nonnull OWLDataFactory dataFactory,
-                             @Nonnull OntologyChangeRecordTranslator changeRecordTranslator) {
+                             @Nonnull OntologyChangeRecordTranslator changeRecordTranslator,
+                             @Nonnull ChangeHistorySyncMode syncMode,
+                             @Nonnull HeadRevisionIndex headRevisionIndex,
+                             @Nonnull LegacyChangeCountIndex legacyChangeCountIndex) {
         this.projectId = checkNotNull(projectId);
+        this.syncMode = checkNotNull(syncMode);
+        this.headRevisionIndex = checkNotNull(headRevisionIndex);
+        this.legacyChangeCountIndex = checkNotNull(legacyChangeCountIndex);
         this.changeHistoryFileFactory = changeHistoryFileFactory;
         this.dataFactory = checkNotNull(dataFactory);
         this.changeRecordTranslator = changeRecordTranslator;
@@ -91,37 +175,58 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     @Nonnull
     @Override
     public Optional<Revision> getRevision(@Nonnull RevisionNumber revisionNumber) {
-        if(revisions.isEmpty()) {
-            return Optional.empty();
-        }
-        int index = getRevisionIndexForRevision(revisionNumber);
-        if(index < 0 || revisions.size() <= index) {
-            return Optional.empty();
+        RevisionHeader header;
+        try {
+            readLock.lock();
+            int index = getRevisionIndexForRevision(revisionNumber);
+            if(index < 0) {
+                return Optional.empty();
+            }
+            header = headers.get(index);
+            if(!header.isWritten()) {
+                return Optional.ofNullable(unwrittenRevisions.get(header.getRevisionNumber()));
+            }
+        } finally {
+            readLock.unlock();
         }
-        else {
-            return Optional.of(revisions.get(index));
+        try {
+            return Optional.of(revisionCache.get(header.getRevisionNumber(), () -> readRevision(header)));
+        } catch(ExecutionException | UncheckedExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
     }
 
+    /**
+     * Gets the index of the header of the specified revision.  The read lock must be held by the caller.
+     */
     private int getRevisionIndexForRevision(RevisionNumber revision) {
+        if(headers.isEmpty()) {
+            return -1;
+        }
+        if(revision.isHead()) {
+            return headers.size() - 1;
+        }
+        var index = Collections.binarySearch(Lists.transform(headers, RevisionHeader::getRevisionNumber), revision);
+        return index < 0 ? -1 : index;
+    }
+
+    @Nonnull
+    @Override
+    public ImmutableList<Revision> getRevisions() {
+        var revisionsBuilder = ImmutableList.<Revision>builder();
         try {
             readLock.lock();
-            if(revisions.isEmpty()) {
-                return -1;
-            }
-            if(revision.isHead()) {
-                return revisions.size() - 1;
-            }
-            var firstRevision = revisions.get(0);
-            if(revision.compareTo(firstRevision.getRevisionNumber()) < 0) {
-                return -1;
-            }
-            var lastRevision = revisions.get(revisions.size() - 1);
-            if(lastRevision.getRevisionNumber() == revision) {
-                return revisions.size() - 1;
+            for(var header : headers) {
+                if(header.isWritten()) {
+                    // Bypass the cache so that reading the complete history does not evict recently used revisions
+                    var cachedRevision = revisionCache.getIfPresent(header.getRevisionNumber());
+                    revisionsBuilder.add(cachedRevision != null ? cachedRevision : readRevision(header));
+                }
+                else {
+                    revisionsBuilder.add(unwrittenRevisions.get(header.getRevisionNumber()));
+                }
             }
-            var dummyRevision = Revision.createEmptyRevisionWithRevisionNumber(revision);
-            return Collections.binarySearch(revisions, dummyRevision);
+            return revisionsBuilder.build();
         } finally {
             readLock.unlock();
         }
@@ -129,10 +234,27 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     @Nonnull
     @Override
-    public ImmutableList<Revision> getRevisions() {
+    public ImmutableList<RevisionSummary> getRevisionSummaries() {
         try {
             readLock.lock();
-            return revisions;
+            return headers.stream()
+                          .map(RevisionHeader::toRevisionSummary)
+                          .collect(toImmutableList());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Optional<RevisionSummary> getRevisionSummary(@Nonnull RevisionNumber revisionNumber) {
+        try {
+            readLock.lock();
+            int index = getRevisionIndexForRevision(revisionNumber);
+            if(index < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(headers.get(index).toRevisionSummary());
         } finally {
             readLock.unlock();
         }
@@ -148,10 +270,8 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                         .getRevisionNumber()
                         .getValue(), getCurrentRevisionNumber().getValue()));
             }
-            var extendedListBuilder = ImmutableList.<Revision>builder();
-            extendedListBuilder.addAll(revisions);
-            extendedListBuilder.add(revision);
-            revisions = extendedListBuilder.build();
+            unwrittenRevisions.put(revision.getRevisionNumber(), revision);
+            headers.add(RevisionHeader.getUnwritten(revision));
             persistChanges(revision);
         } finally {
             writeLock.unlock();
@@ -164,10 +284,10 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     public RevisionNumber getCurrentRevisionNumber() {
         try {
             readLock.lock();
-            if(revisions.isEmpty()) {
+            if(headers.isEmpty()) {
                 return RevisionNumber.getRevisionNumber(0);
             }
-            return revisions.get(revisions.size() - 1).getRevisionNumber();
+            return headers.get(headers.size() - 1).getRevisionNumber();
         } finally {
             readLock.unlock();
         }
@@ -177,27 +297,190 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     private void persistChanges(Revision revision) {
         try {
             writeLock.lock();
-            var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
-            var revisionSerializationTask = new RevisionSerializationTask(changeHistoryFile, revision);
-            revisionSerializationTask.setSavedHook(savedHook);
-            if(revisions.size() != 1) {
-                changeSerializationExecutor.submit(revisionSerializationTask);
+            queuedRevisions.add(revision);
+            if(headers.size() != 1) {
+                changeSerializationExecutor.submit(this::writeQueuedRevisions);
             }
             else {
                 // Save immediately
+                logger.info("{} Saving first revision of project", projectId);
+                writeQueuedRevisions();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends all of the revisions that are queued to the change history file, as one batch.  Revisions that are
+     * added whilst a batch is being written queue up and are written together by the next call.  If a batch fails
+     * part way through then the bytes that it wrote are discarded and the revisions of the batch that were not
+     * written are written again by the next call.
+     */
+    private void writeQueuedRevisions() {
+        synchronized(changeHistoryWriteLock) {
+            var batchBuilder = ImmutableList.<Revision>builder();
+            batchBuilder.addAll(failedRevisions);
+            failedRevisions.clear();
+            Revision queuedRevision;
+            while((queuedRevision = queuedRevisions.poll()) != null) {
+                batchBuilder.add(queuedRevision);
+            }
+            var batch = batchBuilder.build();
+            if(batch.isEmpty()) {
+                return;
+            }
+            try {
+                if(changeHistoryWriteChannel == null) {
+                    var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+                    changeHistoryWriteChannel = FileChannel.open(changeHistoryFile.toPath(),
+                                                                 StandardOpenOption.CREATE,
+                                                                 StandardOpenOption.WRITE,
+                                                                 StandardOpenOption.APPEND);
+                }
+                discardUnwrittenBytes();
+                var revisionSerializationTask = new RevisionSerializationTask(changeHistoryWriteChannel, batch, syncMode);
+                revisionSerializationTask.setSavedHandler((revision, offset, length) -> {
+                    writtenChangeHistoryLength = offset + length;
+                    markWritten(revision, offset, length);
+                    savedHook.run();
+                });
+                revisionSerializationTask.call();
+                logger.debug("{} Wrote {} revisions to the change history", projectId, batch.size());
+                updateHeadRevisionIndex(batch.get(batch.size() - 1).getRevisionNumber(), writtenChangeHistoryLength);
+            } catch(IOException e) {
+                logger.error("{} An error occurred whilst saving revisions {} to {} of the project.  " +
+                                     "The revisions will be saved again with the next revision.  Cause: {}.",
+                             projectId,
+                             batch.get(0).getRevisionNumber().getValue(),
+                             batch.get(batch.size() - 1).getRevisionNumber().getValue(),
+                             e.getMessage(),
+                             e);
+                batch.stream()
+                     .filter(revision -> unwrittenRevisions.containsKey(revision.getRevisionNumber()))
+                     .forEach(failedRevisions::add);
                 try {
-                    logger.info("{} Saving first revision of project", projectId);
-                    revisionSerializationTask.call();
-                } catch(IOException e) {
-                    logger.error("{} An error occurred whilst saving the first revision of the project.  Cause: {}.", projectId, e
-                            .getMessage(), e);
+                    discardUnwrittenBytes();
+                } catch(IOException truncationException) {
+                    // Retried before the next batch is written
+                    logger.error("{} Could not discard the partially written revisions: {}",
+                                 projectId,
+                                 truncationException.getMessage());
                 }
             }
+        }
+    }
+
+    /**
+     * Truncates the change history to the end of the last revision that has been written, so that the partially
+     * written bytes of a failed batch do not end up in front of the revisions that are written next.  The change
+     * history write lock must be held by the caller.
+     */
+    private void discardUnwrittenBytes() throws IOException {
+        if(changeHistoryWriteChannel == null) {
+            return;
+        }
+        if(writtenChangeHistoryLength < 0) {
+            writtenChangeHistoryLength = changeHistoryWriteChannel.size();
+        }
+        else if(changeHistoryWriteChannel.size() != writtenChangeHistoryLength) {
+            logger.warn("{} Discarding {} bytes of partially written revisions from the change history",
+                        projectId,
+                        changeHistoryWriteChannel.size() - writtenChangeHistoryLength);
+            changeHistoryWriteChannel.truncate(writtenChangeHistoryLength);
+        }
+    }
+
+    private void updateHeadRevisionIndex(@Nonnull RevisionNumber headRevision, long changeHistoryLength) {
+        try {
+            headRevisionIndex.write(projectId, headRevision, changeHistoryLength);
+        } catch(IOException e) {
+            logger.warn("{} Could not record the head revision of the change history: {}", projectId, e.getMessage());
+        }
+    }
+
+    private void closeChangeHistoryWriteChannel() {
+        synchronized(changeHistoryWriteLock) {
+            try {
+                if(changeHistoryWriteChannel != null) {
+                    changeHistoryWriteChannel.close();
+                }
+            } catch(IOException e) {
+                logger.warn("{} Could not close the change history file: {}", projectId, e.getMessage());
+            }
+            changeHistoryWriteChannel = null;
+        }
+    }
+
+    private void markWritten(Revision revision, long offset, int length) {
+        try {
+            writeLock.lock();
+            int index = getRevisionIndexForRevision(revision.getRevisionNumber());
+            if(index < 0) {
+                return;
+            }
+            headers.set(index, headers.get(index).withLocation(offset, length));
+            revisionCache.put(revision.getRevisionNumber(), revision);
+            unwrittenRevisions.remove(revision.getRevisionNumber());
         } finally {
             writeLock.unlock();
         }
     }
 
+    @Nonnull
+    private Revision readRevision(@Nonnull RevisionHeader header) {
+        var revisions = new ArrayList<Revision>(1);
+        try(var inputStream = new ByteBufferInputStream(getMappedRevision(header))) {
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream, dataFactory, (changeRecordList, skipSetting, l) -> {
+                var changes = changeRecordList.getChangeRecords()
+                                              .stream()
+                                              .map(changeRecordTranslator::getOntologyChange)
+                                              .collect(toImmutableList());
+                revisions.add(new Revision(header.getUserId(),
+                                           header.getRevisionNumber(),
+                                           changes,
+                                           header.getTimestamp(),
+                                           header.getDescription()));
+            }, SkipSetting.SKIP_NONE);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if(revisions.size() != 1) {
+            throw new IllegalStateException(String.format("Expected one revision at offset %d of the change history but found %d",
+                                                          header.getOffset(),
+                                                          revisions.size()));
+        }
+        return revisions.get(0);
+    }
+
+    /**
+     * Gets the bytes of the specified revision in the change history file.  The file is mapped in one piece and
+     * remapped when it has grown past the end of the mapping.  Files that are too large to map in one piece are
+     * mapped a revision at a time.
+     */
+    @Nonnull
+    private ByteBuffer getMappedRevision(@Nonnull RevisionHeader header) throws IOException {
+        var end = header.getOffset() + header.getLength();
+        synchronized(mappingLock) {
+            if(changeHistoryChannel == null) {
+                var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+                changeHistoryChannel = FileChannel.open(changeHistoryFile.toPath(), StandardOpenOption.READ);
+            }
+            if(mappedChangeHistory == null || mappedChangeHistory.capacity() < end) {
+                var size = changeHistoryChannel.size();
+                if(size > Integer.MAX_VALUE) {
+                    return changeHistoryChannel.map(FileChannel.MapMode.READ_ONLY, header.getOffset(), header.getLength());
+                }
+                mappedChangeHistory = changeHistoryChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            var buffer = mappedChangeHistory.duplicate();
+            buffer.position((int) header.getOffset());
+            buffer.limit((int) end);
+            return buffer.slice();
+        }
+    }
+
     public void load() {
         try {
             writeLock.lock();
@@ -206,7 +489,7 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                 changeHistoryFile.getParentFile().mkdirs();
                 return;
             }
-            var revisionsBuilder = ImmutableList.<Revision>builder();
+            var loadedHeaders = new ArrayList<RevisionHeader>();
             var metadataInterner = Interners.<String>newStrongInterner();
             var userIdInterner = Interners.<UserId>newStrongInterner();
 
@@ -214,29 +497,42 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                 logger.info("{} Loading change history", projectId);
                 var stopwatch = Stopwatch.createStarted();
                 var changeLog = new BinaryOWLOntologyChangeLog();
-                var inputStream = new BufferedInputStream(new FileInputStream(changeHistoryFile));
-                changeLog.readChanges(inputStream, dataFactory, (changeRecordList, skipSetting, l) -> {
-                    var metadata = changeRecordList.getMetadata();
-                    var userName = metadataInterner.intern(metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), ""));
-                    var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
-                    var revisionNumber = RevisionNumber.getRevisionNumber(revisionNumberValue);
-                    var description = metadata.getStringAttribute(DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), "");
-                    var userId = userIdInterner.intern(UserId.getUserId(userName));
-
-                    var internedChangeRecords = changeRecordList.getChangeRecords()
-                            .stream()
-                            .map(changeRecordTranslator::getOntologyChange)
-                            .collect(toImmutableList());
-                    var revision = new Revision(userId, revisionNumber, internedChangeRecords, changeRecordList.getTimestamp(), description);
-                    revisionsBuilder.add(revision);
-                }, SkipSetting.SKIP_NONE);
-                inputStream.close();
+                // Only the metadata of each revision is read here.  The changes are skipped.
+                try(var inputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(changeHistoryFile)))) {
+                    changeLog.readChanges(inputStream, dataFactory, (changeRecordList, skipSetting, l) -> {
+                        var metadata = changeRecordList.getMetadata();
+                        var userName = metadataInterner.intern(metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), ""));
+                        var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
+                        var revisionNumber = RevisionNumber.getRevisionNumber(revisionNumberValue);
+                        var description = metadata.getStringAttribute(DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), "");
+                        var userId = userIdInterner.intern(UserId.getUserId(userName));
+                        var changeCount = metadata.getIntAttribute(CHANGE_COUNT_META_DATA_ATTRIBUTE.getVocabularyName(), -1);
+                        // Revisions are stored back to back, and the change log has consumed exactly the bytes of
+                        // this revision when the handler is called
+                        var offset = loadedHeaders.isEmpty() ? 0 : getEnd(loadedHeaders.get(loadedHeaders.size() - 1));
+                        var length = (int) (inputStream.getCount() - offset);
+                        loadedHeaders.add(RevisionHeader.get(revisionNumber,
+                                                             userId,
+                                                             changeRecordList.getTimestamp(),
+                                                             description,
+                                                             changeCount,
+                                                             offset,
+                                                             length));
+                    }, SkipSetting.SKIP_DATA);
+                }
+                headers.addAll(loadedHeaders);
+                countChangesOfLegacyRevisions();
+                if(!headers.isEmpty()) {
+                    // Brings the head revision index up to date for change histories that were written without it
+                    var lastHeader = headers.get(headers.size() - 1);
+                    updateHeadRevisionIndex(lastHeader.getRevisionNumber(), getEnd(lastHeader));
+                }
                 stopwatch.stop();
-                revisions = revisionsBuilder.build();
-                logger.info("{} Change history loading complete.  Loaded {} revisions in {} ms.", projectId, revisions.size(), stopwatch
+                logger.info("{} Change history loading complete.  Loaded {} revisions in {} ms.", projectId, headers.size(), stopwatch
                         .elapsed(TimeUnit.MILLISECONDS));
 
             } catch(Exception e) {
+                headers.clear();
                 logger.error("{} Failed to load change history for project.  Cause: {}", projectId, e.getMessage(), e);
             }
         } finally {
@@ -246,8 +542,109 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     }
 
+    private static long getEnd(RevisionHeader header) {
+        return header.getOffset() + header.getLength();
+    }
+
+    /**
+     * Revisions that were written before the change count was recorded in their metadata are read once to count
+     * their changes.  The counts are recorded in a side file, so that the revisions are not read again when the
+     * project is next loaded.  The changes themselves are not retained.
+     */
+    private void countChangesOfLegacyRevisions() {
+        var legacyHeaderIndexes = new ArrayList<Integer>();
+        for(int i = 0; i < headers.size(); i++) {
+            if(headers.get(i).getChangeCount() < 0) {
+                legacyHeaderIndexes.add(i);
+            }
+        }
+        if(legacyHeaderIndexes.isEmpty()) {
+            return;
+        }
+        var recordedChangeCounts = readLegacyChangeCounts();
+        var countedChanges = false;
+        var legacyHeaders = new ArrayList<RevisionHeader>(legacyHeaderIndexes.size());
+        for(var index : legacyHeaderIndexes) {
+            var header = headers.get(index);
+            var changeCount = recordedChangeCounts.get(header.getOffset(), header.getRevisionNumber());
+            if(changeCount == null) {
+                changeCount = readRevision(header).getSize();
+                countedChanges = true;
+            }
+            var countedHeader = header.withChangeCount(changeCount);
+            headers.set(index, countedHeader);
+            legacyHeaders.add(countedHeader);
+        }
+        if(countedChanges) {
+            try {
+                legacyChangeCountIndex.write(projectId, legacyHeaders);
+            } catch(IOException e) {
+                logger.warn("{} Could not record the change counts of the change history: {}", projectId, e.getMessage());
+            }
+        }
+    }
+
+    @Nonnull
+    private ImmutableTable<Long, RevisionNumber, Integer> readLegacyChangeCounts() {
+        try {
+            return legacyChangeCountIndex.read(projectId);
+        } catch(IOException e) {
+            logger.warn("{} Could not read the change counts of the change history: {}", projectId, e.getMessage());
+            return ImmutableTable.of();
+        }
+    }
+
     @Override
     public void dispose() {
+        // Queued revisions, and revisions that could not be written before, are written before the channel is closed
+        changeSerializationExecutor.submit(this::writeQueuedRevisions);
+        changeSerializationExecutor.submit(this::closeChangeHistoryWriteChannel);
         changeSerializationExecutor.shutdown();
+        synchronized(mappingLock) {
+            try {
+                if(changeHistoryChannel != null) {
+                    changeHistoryChannel.close();
+                }
+            } catch(IOException e) {
+                logger.warn("{} Could not close the change history file: {}", projectId, e.getMessage());
+            }
+            changeHistoryChannel = null;
+            mappedChangeHistory = null;
+        }
+    }
+
+    /**
+     * An input stream that reads the remaining bytes of a buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(@Nonnull ByteBuffer buffer) {
+            this.buffer = checkNotNull(buffer);
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] bytes, int off, int len) {
+            if(len == 0) {
+                return 0;
+            }
+            if(!buffer.hasRemaining()) {
+                return -1;
+            }
+            var count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
     }
 }
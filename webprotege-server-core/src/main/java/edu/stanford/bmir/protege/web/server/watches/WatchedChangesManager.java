@@ -2,22 +2,28 @@ package edu.stanford.bmir.protege.web.server.watches;
 
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.hierarchy.*;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByClassIndex;
 import edu.stanford.bmir.protege.web.server.index.ProjectClassAssertionAxiomsByIndividualIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import edu.stanford.bmir.protege.web.server.revision.EntitiesByRevisionCache;
+import edu.stanford.bmir.protege.web.server.revision.EntityRevisionIndex;
 import edu.stanford.bmir.protege.web.server.revision.ProjectChangesManager;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.shared.change.ProjectChange;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.watches.Watch;
 import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.shared.watches.WatchType.BRANCH;
@@ -26,6 +32,9 @@ import static edu.stanford.bmir.protege.web.shared.watches.WatchType.BRANCH;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 27/05/15
+ * <p>
+ * Only the revisions that changed a watched entity, or a descendant of an entity that is watched with a branch
+ * watch, are read.  These revisions are found with the {@link EntityRevisionIndex}.
  */
 @ProjectSingleton
 public class WatchedChangesManager {
@@ -46,6 +55,12 @@ public class WatchedChangesManager {
 
     private final ProjectClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex;
 
+    private final EntityRevisionIndex entityRevisionIndex;
+
+    private final ProjectOntologiesIndex projectOntologiesIndex;
+
+    private final ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClassIndex;
+
     @Inject
     public WatchedChangesManager(ProjectChangesManager projectChangesManager,
                                  ClassHierarchyProvider classHierarchyProvider,
@@ -54,7 +69,10 @@ public class WatchedChangesManager {
                                  AnnotationPropertyHierarchyProvider annotationPropertyHierarchyProvider,
                                  RevisionManager changeManager,
                                  EntitiesByRevisionCache entitiesByRevisionCache,
-                                 ProjectClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex) {
+                                 ProjectClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex,
+                                 EntityRevisionIndex entityRevisionIndex,
+                                 ProjectOntologiesIndex projectOntologiesIndex,
+                                 ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClassIndex) {
         this.projectChangesManager = checkNotNull(projectChangesManager);
         this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
         this.objectPropertyHierarchyProvider = checkNotNull(objectPropertyHierarchyProvider);
@@ -63,6 +81,9 @@ public class WatchedChangesManager {
         this.classAssertionAxiomsByIndividualIndex = classAssertionAxiomsByIndividualIndex;
         this.changeManager = checkNotNull(changeManager);
         this.entitiesByRevisionCache = checkNotNull(entitiesByRevisionCache);
+        this.entityRevisionIndex = checkNotNull(entityRevisionIndex);
+        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
+        this.classAssertionAxiomsByClassIndex = checkNotNull(classAssertionAxiomsByClassIndex);
     }
 
     public ImmutableList<ProjectChange> getProjectChangesForWatches(Set<Watch> watches) {
@@ -82,16 +103,87 @@ public class WatchedChangesManager {
             return ImmutableList.of();
         }
         ImmutableList.Builder<ProjectChange> result = ImmutableList.builder();
-        List<Revision> revisionsCopy = changeManager.getRevisions();
-        for (Revision revision : revisionsCopy) {
-            for (OWLEntity watchedEntity : getWatchedEntities(superEntities, directWatches, revision)) {
-                ImmutableList<ProjectChange> changes = projectChangesManager.getProjectChangesForSubjectInRevision(watchedEntity, revision);
+        for (RevisionNumber revisionNumber : getCandidateRevisions(superEntities, directWatches)) {
+            var revision = changeManager.getRevision(revisionNumber);
+            if (revision.isEmpty()) {
+                continue;
+            }
+            for (OWLEntity watchedEntity : getWatchedEntities(superEntities, directWatches, revision.get())) {
+                ImmutableList<ProjectChange> changes = projectChangesManager.getProjectChangesForSubjectInRevision(watchedEntity, revision.get());
                 result.addAll(changes);
             }
         }
         return result.build();
     }
 
+    /**
+     * Gets the revisions that changed a directly watched entity or a descendant of a branch watched entity.  These
+     * are the only revisions that can contain changes for the watches.
+     */
+    private SortedSet<RevisionNumber> getCandidateRevisions(Set<OWLEntity> superEntities, Set<OWLEntity> directWatches) {
+        Set<OWLEntity> candidateEntities = new HashSet<>(directWatches);
+        for (OWLEntity superEntity : superEntities) {
+            candidateEntities.addAll(getDescendants(superEntity));
+        }
+        SortedSet<RevisionNumber> candidateRevisions = new TreeSet<>();
+        candidateEntities.stream()
+                .map(OWLEntity::getIRI)
+                .distinct()
+                .map(entityRevisionIndex::getRevisions)
+                .forEach(candidateRevisions::addAll);
+        return candidateRevisions;
+    }
+
+    private Collection<? extends OWLEntity> getDescendants(OWLEntity entity) {
+        return entity.accept(new OWLEntityVisitorEx<Collection<? extends OWLEntity>>() {
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLClass cls) {
+                Set<OWLEntity> descendants = new HashSet<>(classHierarchyProvider.getDescendants(cls));
+                // Individuals are watched by the ancestors of their types
+                for (OWLClass descendant : classHierarchyProvider.getDescendants(cls)) {
+                    projectOntologiesIndex.getOntologyIds()
+                            .flatMap(ontologyId -> classAssertionAxiomsByClassIndex.getClassAssertionAxioms(descendant, ontologyId))
+                            .map(OWLClassAssertionAxiom::getIndividual)
+                            .filter(OWLIndividual::isNamed)
+                            .map(OWLIndividual::asOWLNamedIndividual)
+                            .forEach(descendants::add);
+                }
+                return descendants;
+            }
+
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLObjectProperty property) {
+                return objectPropertyHierarchyProvider.getDescendants(property);
+            }
+
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLDataProperty property) {
+                return dataPropertyHierarchyProvider.getDescendants(property);
+            }
+
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLNamedIndividual individual) {
+                return Collections.emptySet();
+            }
+
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLDatatype datatype) {
+                return Collections.emptySet();
+            }
+
+            @Nonnull
+            @Override
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLAnnotationProperty property) {
+                return annotationPropertyHierarchyProvider.getDescendants(property);
+            }
+        });
+    }
+
     private Set<OWLEntity> getWatchedEntities(Set<OWLEntity> superEntities, Set<OWLEntity> directWatches, Revision revision) {
         Set<OWLEntity> watchedEntities = new HashSet<>();
         Set<OWLEntity> entities = entitiesByRevisionCache.getEntities(revision);
@@ -0,0 +1,39 @@
+package edu.stanford.bmir.protege.web.server.app;
+
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistorySyncMode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Properties;
+
+import static edu.stanford.bmir.protege.web.shared.app.WebProtegePropertyName.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WebProtegeProperties_TestCase {
+
+    private Properties properties;
+
+    @Before
+    public void setUp() {
+        properties = new Properties();
+        properties.setProperty(APPLICATION_VERSION.getPropertyName(), "1.0");
+        properties.setProperty(DATA_DIRECTORY.getPropertyName(), "/data");
+    }
+
+    private Optional<ChangeHistorySyncMode> getRevisionSyncMode(String value) {
+        properties.setProperty(REVISION_SYNC_MODE.getPropertyName(), value);
+        return new WebProtegeProperties(properties).getRevisionSyncMode();
+    }
+
+    @Test
+    public void shouldParseRevisionSyncMode() {
+        assertThat(getRevisionSyncMode(" batch "), is(Optional.of(ChangeHistorySyncMode.BATCH)));
+    }
+
+    @Test
+    public void shouldFallBackToRevisionSyncModeForUnknownValue() {
+        assertThat(getRevisionSyncMode("sometimes"), is(Optional.of(ChangeHistorySyncMode.REVISION)));
+    }
+}
@@ -7,12 +7,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.when;
 
 /**
@@ -58,4 +60,13 @@ public class ProjectDownloadCache_TestCase {
         Path expectedPath = root.resolve(THE_PROJECT_ID).resolve(THE_PROJECT_ID + "-R" + REVISION_NUMBER + "." + downloadFormat.getExtension() + ".zip");
         assertThat(path, is(expectedPath));
     }
+
+    @Test
+    public void shouldResolveDifferentPathsForDifferentSubtrees() {
+        Path path = cache.getCachedSubtreeDownloadPath(projectId, revisionNumber, downloadFormat, IRI.create("http://example.org/A"));
+        Path otherPath = cache.getCachedSubtreeDownloadPath(projectId, revisionNumber, downloadFormat, IRI.create("http://example.org/B"));
+        assertThat(path.getParent(), is(root.resolve(THE_PROJECT_ID)));
+        assertThat(path, is(not(otherPath)));
+        assertThat(path, is(not(cache.getCachedDownloadPath(projectId, revisionNumber, downloadFormat))));
+    }
 }
@@ -0,0 +1,114 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.export.ClassSubtreeExtractor;
+import edu.stanford.bmir.protege.web.server.export.RevisionOntologyManagerFactory;
+import edu.stanford.bmir.protege.web.server.index.OntologyAnnotationsIndex;
+import edu.stanford.bmir.protege.web.server.index.OntologyAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.index.impl.OntologyImportsIndexImpl;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.PrefixDeclarationsStore;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionMaterializer;
+import edu.stanford.bmir.protege.web.shared.project.PrefixDeclarations;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.when;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ImportsDeclaration;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectDownloader_TestCase {
+
+    private static final RevisionNumber CURRENT_REVISION = RevisionNumber.getRevisionNumber(5);
+
+    private final IRI ontologyIri = IRI.create("http://example.org/ontology");
+
+    private final IRI importedOntologyIri = IRI.create("http://example.org/imported");
+
+    private ProjectDownloader downloader;
+
+    private ProjectId projectId;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private RevisionMaterializer revisionMaterializer;
+
+    @Mock
+    private ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Mock
+    private OntologyAnnotationsIndex ontologyAnnotationsIndex;
+
+    @Mock
+    private OntologyAxiomsIndex ontologyAxiomsIndex;
+
+    @Mock
+    private ClassSubtreeExtractor classSubtreeExtractor;
+
+    @Mock
+    private PrefixDeclarationsStore prefixDeclarationsStore;
+
+    @Before
+    public void setUp() {
+        projectId = ProjectId.getNil();
+        var ontologyId = new OWLOntologyID(ontologyIri);
+        var importsIndex = new OntologyImportsIndexImpl();
+        importsIndex.applyChanges(ImmutableList.of(AddImportChange.of(ontologyId, ImportsDeclaration(importedOntologyIri))));
+        when(projectOntologiesIndex.getOntologyIds()).thenReturn(Stream.of(ontologyId));
+        when(ontologyAnnotationsIndex.getOntologyAnnotations(ontologyId)).thenReturn(Stream.empty());
+        when(ontologyAxiomsIndex.getAxioms(ontologyId)).thenReturn(Stream.empty());
+        when(revisionManager.getCurrentRevision()).thenReturn(CURRENT_REVISION);
+        when(prefixDeclarationsStore.find(projectId)).thenReturn(PrefixDeclarations.get(projectId));
+        var projectOntologiesBuilder = new ProjectOntologiesBuilder(projectOntologiesIndex,
+                                                                    ontologyAnnotationsIndex,
+                                                                    ontologyAxiomsIndex,
+                                                                    importsIndex);
+        var ontologyManagerFactory = new RevisionOntologyManagerFactory(projectId,
+                                                                        revisionManager,
+                                                                        projectOntologiesBuilder,
+                                                                        new ProjectChangeLock(),
+                                                                        revisionMaterializer,
+                                                                        projectOntologiesIndex,
+                                                                        classSubtreeExtractor);
+        downloader = new ProjectDownloader(projectId,
+                                           "The project",
+                                           CURRENT_REVISION,
+                                           DownloadFormat.FUNCTIONAL_SYNTAX,
+                                           ontologyManagerFactory,
+                                           prefixDeclarationsStore);
+    }
+
+    @Test
+    public void shouldKeepImportsOfCurrentRevision() throws Exception {
+        var outputStream = new ByteArrayOutputStream();
+        downloader.writeProject(outputStream);
+        try(var zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            var entry = zipInputStream.getNextEntry();
+            assertThat(entry, notNullValue());
+            var document = new String(zipInputStream.readAllBytes(), UTF_8);
+            assertThat(document, containsString("Import(<" + importedOntologyIri + ">)"));
+        }
+    }
+}
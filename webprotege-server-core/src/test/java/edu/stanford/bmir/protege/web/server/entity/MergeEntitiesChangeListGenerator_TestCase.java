@@ -118,9 +118,9 @@ public class MergeEntitiesChangeListGenerator_TestCase {
                 AddAxiomChange.of(ontologyId, AnnotationAssertion(rdfsComment, sourceEntity.getIRI(), hi)));
         projectOntologiesIndex = new ProjectOntologiesIndexImpl();
         defaultOntologyIdManager = new DefaultOntologyIdManagerImpl(projectOntologiesIndex);
-        annotationAssertionsIndex = new AnnotationAssertionAxiomsBySubjectIndexImpl();
+        annotationAssertionsIndex = new AnnotationAssertionAxiomsBySubjectIndexImpl(new ObjectIdTable());
         axiomsByEntityReference = new AxiomsByEntityReferenceIndexImpl(dataFactory);
-        axiomsByIriReference = new AnnotationAxiomsByIriReferenceIndexImpl();
+        axiomsByIriReference = new AnnotationAxiomsByIriReferenceIndexImpl(new ObjectIdTable());
         axiomsByReferenceIndex = new AxiomsByReferenceIndexImpl(axiomsByEntityReference,
                                                                 axiomsByIriReference);
         axiomsByTypeIndex = new AxiomsByTypeIndexImpl();
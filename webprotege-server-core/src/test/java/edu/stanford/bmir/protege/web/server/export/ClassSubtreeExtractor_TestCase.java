@@ -0,0 +1,123 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClassSubtreeExtractor_TestCase {
+
+    private ClassSubtreeExtractor extractor;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    private final IRI rootIri = IRI.create("http://example.org/Root");
+
+    private final IRI childIri = IRI.create("http://example.org/Child");
+
+    private final IRI grandChildIri = IRI.create("http://example.org/GrandChild");
+
+    private final IRI otherChildIri = IRI.create("http://example.org/OtherChild");
+
+    private final IRI outsideIri = IRI.create("http://example.org/Outside");
+
+    private final OWLClass root = Class(rootIri);
+
+    private final OWLClass child = Class(childIri);
+
+    private final OWLClass grandChild = Class(grandChildIri);
+
+    private final OWLClass otherChild = Class(otherChildIri);
+
+    private final OWLClass outside = Class(outsideIri);
+
+    private final OWLAnnotationAssertionAxiom childLabel = AnnotationAssertion(RDFSLabel(), childIri, Literal("The child"));
+
+    /**
+     * A diamond: the grand child is reachable via two parents
+     */
+    private final ImmutableSet<OWLAxiom> axioms = ImmutableSet.of(SubClassOf(child, root),
+                                                                  SubClassOf(otherChild, root),
+                                                                  SubClassOf(grandChild, child),
+                                                                  SubClassOf(grandChild, otherChild),
+                                                                  SubClassOf(grandChild, outside),
+                                                                  SubClassOf(root, outside),
+                                                                  childLabel);
+
+    @Before
+    public void setUp() {
+        extractor = new ClassSubtreeExtractor(
+                (subClass, ontId) -> axioms.stream()
+                                           .filter(ax -> ax instanceof OWLSubClassOfAxiom)
+                                           .map(ax -> (OWLSubClassOfAxiom) ax)
+                                           .filter(ax -> ax.getSubClass().equals(subClass)),
+                (subject, ontId) -> axioms.stream()
+                                          .filter(ax -> ax instanceof OWLAnnotationAssertionAxiom)
+                                          .map(ax -> (OWLAnnotationAssertionAxiom) ax)
+                                          .filter(ax -> ax.getSubject().equals(subject)),
+                (entity, ontId) -> axioms.stream()
+                                         .filter(ax -> ax.getSignature().contains(entity)),
+                new OWLDataFactoryImpl());
+    }
+
+    @Test
+    public void shouldDeclareAllClassesOfSubtree() {
+        var subtree = extractor.getSubtreeAxioms(rootIri, ontologyId);
+        assertThat(subtree, hasItems(Declaration(root), Declaration(child), Declaration(otherChild), Declaration(grandChild)));
+        assertThat(subtree, not(hasItem(Declaration(outside))));
+    }
+
+    @Test
+    public void shouldIncludeSubClassOfAxiomsInsideSubtree() {
+        var subtree = extractor.getSubtreeAxioms(rootIri, ontologyId);
+        assertThat(subtree, hasItems(SubClassOf(child, root),
+                                     SubClassOf(otherChild, root),
+                                     SubClassOf(grandChild, child),
+                                     SubClassOf(grandChild, otherChild)));
+        assertThat(subtree, not(hasItem(SubClassOf(grandChild, outside))));
+        assertThat(subtree, not(hasItem(SubClassOf(root, outside))));
+    }
+
+    @Test
+    public void shouldIncludeAnnotationAssertions() {
+        var subtree = extractor.getSubtreeAxioms(rootIri, ontologyId);
+        assertThat(subtree, hasItem(childLabel));
+    }
+
+    @Test
+    public void shouldExtractSubtreeOfAnyRoot() {
+        var subtree = extractor.getSubtreeAxioms(childIri, ontologyId);
+        assertThat(subtree, containsInAnyOrder(Declaration(child),
+                                               Declaration(grandChild),
+                                               SubClassOf(grandChild, child),
+                                               childLabel));
+    }
+
+    @Test
+    public void shouldReturnEmptySetForUnknownRoot() {
+        var subtree = extractor.getSubtreeAxioms(IRI.create("http://example.org/Unknown"), ontologyId);
+        assertThat(subtree, is(empty()));
+    }
+
+    @Test
+    public void shouldExtractSubtreeFromOntology() throws OWLOntologyCreationException {
+        var ontology = OWLManager.createOWLOntologyManager().createOntology(axioms);
+        var subtree = ClassSubtreeExtractor.forOntology(ontology)
+                                           .getSubtreeAxioms(childIri, ontology.getOntologyID());
+        assertThat(subtree, containsInAnyOrder(Declaration(child),
+                                               Declaration(grandChild),
+                                               SubClassOf(grandChild, child),
+                                               childLabel));
+    }
+}
@@ -0,0 +1,74 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ExportArtifactCache_TestCase {
+
+    private static final int MAX_SIZE_IN_MEGABYTES = 1;
+
+    private ExportArtifactCache cache;
+
+    private ProjectId projectId;
+
+    private AtomicInteger exportCount;
+
+    @Before
+    public void setUp() {
+        cache = new ExportArtifactCache(MAX_SIZE_IN_MEGABYTES);
+        projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+        exportCount = new AtomicInteger();
+    }
+
+    private ExportArtifactKey getKey(long revision) {
+        return ExportArtifactKey.get(projectId, RevisionNumber.getRevisionNumber(revision), "owl", ExportArtifactKey.ALL_SCOPE);
+    }
+
+    private OntologyGraph export(int nameLength) {
+        exportCount.incrementAndGet();
+        var node = OntologyGraphNode.get("http://example.org/Cls",
+                                         ImmutableSet.of(OntologyGraphNodeType.CLASS),
+                                         Strings.repeat("x", nameLength),
+                                         ImmutableSetMultimap.of());
+        return OntologyGraph.get(ImmutableList.of(node), ImmutableList.of());
+    }
+
+    @Test
+    public void shouldExportRevisionOnce() throws Exception {
+        var first = cache.get(getKey(3), OntologyGraph.class, () -> export(10));
+        var second = cache.get(getKey(3), OntologyGraph.class, () -> export(10));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(exportCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldExportDifferentRevisionsSeparately() throws Exception {
+        cache.get(getKey(3), OntologyGraph.class, () -> export(10));
+        cache.get(getKey(4), OntologyGraph.class, () -> export(10));
+        assertThat(exportCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldEvictArtifactsThatExceedMaximumSize() throws Exception {
+        cache.get(getKey(3), OntologyGraph.class, () -> export(1024 * 1024));
+        cache.get(getKey(3), OntologyGraph.class, () -> export(1024 * 1024));
+        assertThat(exportCount.get(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptHeadRevisionInKey() {
+        ExportArtifactKey.get(projectId, RevisionNumber.getHeadRevisionNumber(), "owl", ExportArtifactKey.ALL_SCOPE);
+    }
+}
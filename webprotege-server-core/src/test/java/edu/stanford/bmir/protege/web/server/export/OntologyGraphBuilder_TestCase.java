@@ -0,0 +1,124 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+public class OntologyGraphBuilder_TestCase {
+
+    private OntologyGraphBuilder builder;
+
+    private final IRI clsAIri = IRI.create("http://example.org/A");
+
+    private final IRI clsBIri = IRI.create("http://example.org/B");
+
+    private final IRI propIri = IRI.create("http://example.org/p");
+
+    private final OWLClass clsA = Class(clsAIri);
+
+    private final OWLClass clsB = Class(clsBIri);
+
+    private final OWLObjectProperty prop = ObjectProperty(propIri);
+
+    @Before
+    public void setUp() {
+        builder = new OntologyGraphBuilder(new OntologyGraphAxiomTranslator());
+    }
+
+    @Test
+    public void shouldCreateClassNodeForDeclaration() {
+        builder.addAxiom(Declaration(clsA));
+        var graph = builder.build();
+        assertThat(graph.getNodes(), contains(
+                OntologyGraphNode.get(clsAIri.toString(),
+                                      ImmutableSet.of(OntologyGraphNodeType.CLASS),
+                                      "A",
+                                      ImmutableSetMultimap.of())));
+    }
+
+    @Test
+    public void shouldCreateScoRelationshipForNamedSubClassOf() {
+        builder.addAxiom(SubClassOf(clsA, clsB));
+        var graph = builder.build();
+        assertThat(graph.getNodes().size(), is(2));
+        assertThat(graph.getRelationships(), contains(
+                OntologyGraphRelationship.get(OntologyGraphRelationshipType.SCO, clsAIri.toString(), clsBIri.toString())));
+    }
+
+    @Test
+    public void shouldIgnoreSubClassOfAnonymousClass() {
+        builder.addAxiom(SubClassOf(clsA, ObjectSomeValuesFrom(prop, clsB)));
+        var graph = builder.build();
+        assertThat(graph.getRelationships(), is(empty()));
+    }
+
+    @Test
+    public void shouldCreateDomainAndRangeRelationships() {
+        builder.addAxiom(Declaration(prop));
+        builder.addAxiom(ObjectPropertyDomain(prop, clsA));
+        builder.addAxiom(ObjectPropertyRange(prop, clsB));
+        var graph = builder.build();
+        assertThat(graph.getRelationships(), containsInAnyOrder(
+                OntologyGraphRelationship.get(OntologyGraphRelationshipType.DOMAIN, propIri.toString(), clsAIri.toString()),
+                OntologyGraphRelationship.get(OntologyGraphRelationshipType.RANGE, propIri.toString(), clsBIri.toString())));
+        assertThat(graph.getNodes().get(0).getNodeTypes(), contains(OntologyGraphNodeType.OBJECT_PROPERTY));
+    }
+
+    @Test
+    public void shouldAddLabelPropertyToNode() {
+        builder.addAxiom(Declaration(clsA));
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("The A")));
+        var graph = builder.build();
+        assertThat(graph.getNodes().get(0).getProperties(), is(ImmutableSetMultimap.of("label", "The A")));
+    }
+
+    @Test
+    public void shouldKeepEveryLabelOfNode() {
+        builder.addAxiom(Declaration(clsA));
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("The A")));
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("Another A")));
+        var graph = builder.build();
+        assertThat(graph.getNodes().get(0).getProperties().get("label"), contains("Another A", "The A"));
+    }
+
+    @Test
+    public void shouldKeepEveryTypeOfPunnedIri() {
+        builder.addAxiom(Declaration(ObjectProperty(clsAIri)));
+        builder.addAxiom(Declaration(clsA));
+        var graph = builder.build();
+        assertThat(graph.getNodes().get(0).getNodeTypes(),
+                   contains(OntologyGraphNodeType.CLASS, OntologyGraphNodeType.OBJECT_PROPERTY));
+    }
+
+    @Test
+    public void shouldNotDependOnAxiomOrder() {
+        builder.addAxiom(Declaration(clsA));
+        builder.addAxiom(Declaration(ObjectProperty(clsAIri)));
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("The A")));
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("Another A")));
+        var otherBuilder = new OntologyGraphBuilder(new OntologyGraphAxiomTranslator());
+        otherBuilder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("Another A")));
+        otherBuilder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("The A")));
+        otherBuilder.addAxiom(Declaration(ObjectProperty(clsAIri)));
+        otherBuilder.addAxiom(Declaration(clsA));
+        assertThat(otherBuilder.build(), is(builder.build()));
+    }
+
+    @Test
+    public void shouldDropPropertiesOfUnknownNodes() {
+        builder.addAxiom(AnnotationAssertion(RDFSLabel(), clsAIri, Literal("The A")));
+        var graph = builder.build();
+        assertThat(graph.getNodes(), is(empty()));
+    }
+}
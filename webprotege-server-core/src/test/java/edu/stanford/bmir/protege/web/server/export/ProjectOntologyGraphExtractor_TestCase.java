@@ -0,0 +1,184 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
+import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsBySubjectIndex;
+import edu.stanford.bmir.protege.web.server.index.AxiomsByEntityReferenceIndex;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.index.OntologyAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionMaterializer;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectOntologyGraphExtractor_TestCase {
+
+    private ProjectOntologyGraphExtractor extractor;
+
+    @Mock
+    private ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Mock
+    private OntologyAxiomsIndex ontologyAxiomsIndex;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private RevisionMaterializer revisionMaterializer;
+
+    @Mock
+    private EntitiesInProjectSignatureByIriIndex entitiesInProjectSignatureByIriIndex;
+
+    @Mock
+    private AxiomsByEntityReferenceIndex axiomsByEntityReferenceIndex;
+
+    @Mock
+    private AnnotationAssertionAxiomsBySubjectIndex annotationAssertionAxiomsBySubjectIndex;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    @Mock
+    private UserId userId;
+
+    private final IRI clsAIri = IRI.create("http://example.org/A");
+
+    private final IRI clsBIri = IRI.create("http://example.org/B");
+
+    private final IRI clsCIri = IRI.create("http://example.org/C");
+
+    private final OWLClass clsA = Class(clsAIri);
+
+    private final OWLClass clsB = Class(clsBIri);
+
+    private final OWLClass clsC = Class(clsCIri);
+
+    private final OWLSubClassOfAxiom removedAxiom = SubClassOf(clsB, clsA);
+
+    private final OWLSubClassOfAxiom addedAxiom = SubClassOf(clsA, clsC);
+
+    private final RevisionNumber revision1 = RevisionNumber.getRevisionNumber(1);
+
+    private final RevisionNumber revision2 = RevisionNumber.getRevisionNumber(2);
+
+    @Before
+    public void setUp() {
+        extractor = new ProjectOntologyGraphExtractor(ProjectId.getNil(),
+                                                      projectOntologiesIndex,
+                                                      ontologyAxiomsIndex,
+                                                      revisionManager,
+                                                      entitiesInProjectSignatureByIriIndex,
+                                                      axiomsByEntityReferenceIndex,
+                                                      annotationAssertionAxiomsBySubjectIndex,
+                                                      new OntologyGraphAxiomTranslator(),
+                                                      new ProjectChangeLock(),
+                                                      revisionMaterializer);
+        when(revisionManager.getCurrentRevision()).thenReturn(revision2);
+    }
+
+    /**
+     * Revision 2 replaces B SubClassOf A with A SubClassOf C
+     */
+    private void givenRevision2() {
+        when(revisionManager.getRevision(revision2))
+                .thenReturn(Optional.of(new Revision(userId,
+                                                     revision2,
+                                                     ImmutableList.of(RemoveAxiomChange.of(ontologyId, removedAxiom),
+                                                                      AddAxiomChange.of(ontologyId, addedAxiom)),
+                                                     0,
+                                                     "")));
+        when(projectOntologiesIndex.getOntologyIds()).thenAnswer(invocation -> Stream.of(ontologyId));
+        when(entitiesInProjectSignatureByIriIndex.getEntitiesInSignature(any()))
+                .thenAnswer(invocation -> Stream.of(Class(invocation.<IRI>getArgument(0))));
+        when(annotationAssertionAxiomsBySubjectIndex.getAxiomsForSubject(any(), any()))
+                .thenAnswer(invocation -> Stream.empty());
+    }
+
+    @Test
+    public void shouldReturnEmptyDeltaForCurrentRevision() {
+        when(projectOntologiesIndex.getOntologyIds()).thenAnswer(invocation -> Stream.of(ontologyId));
+        var delta = extractor.getOntologyGraphDelta(revision2);
+        assertThat(delta.isPresent(), is(true));
+        assertThat(delta.get().isEmpty(), is(true));
+        verify(revisionManager, never()).getRevision(any());
+    }
+
+    @Test
+    public void shouldNotReturnDeltaForLaterRevision() {
+        var delta = extractor.getOntologyGraphDelta(RevisionNumber.getRevisionNumber(3));
+        assertThat(delta.isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldNotReturnDeltaIfRevisionIsMissing() {
+        when(revisionManager.getRevision(revision2)).thenReturn(Optional.empty());
+        var delta = extractor.getOntologyGraphDelta(revision1);
+        assertThat(delta.isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldContainAffectedIrisOfChanges() {
+        givenRevision2();
+        when(axiomsByEntityReferenceIndex.getReferencingAxioms(any(), any())).thenAnswer(invocation -> Stream.empty());
+        var delta = extractor.getOntologyGraphDelta(revision1).orElseThrow();
+        assertThat(delta.getAffectedIris(), containsInAnyOrder(clsAIri.toString(),
+                                                               clsBIri.toString(),
+                                                               clsCIri.toString()));
+        assertThat(delta.getToRevision(), is(revision2));
+    }
+
+    @Test
+    public void shouldContainCurrentGraphElementsOfAffectedIris() {
+        givenRevision2();
+        when(axiomsByEntityReferenceIndex.getReferencingAxioms(any(), any())).thenAnswer(invocation -> Stream.empty());
+        when(axiomsByEntityReferenceIndex.getReferencingAxioms(clsA, ontologyId))
+                .thenAnswer(invocation -> Stream.of(addedAxiom));
+        when(axiomsByEntityReferenceIndex.getReferencingAxioms(clsC, ontologyId))
+                .thenAnswer(invocation -> Stream.of(addedAxiom));
+        var delta = extractor.getOntologyGraphDelta(revision1).orElseThrow();
+        var graph = delta.getGraph();
+        assertThat(graph.getRelationships(), contains(
+                OntologyGraphRelationship.get(OntologyGraphRelationshipType.SCO, clsAIri.toString(), clsCIri.toString())));
+        assertThat(graph.getNodes().stream().map(OntologyGraphNode::getIri).collect(toList()),
+                   containsInAnyOrder(clsAIri.toString(), clsCIri.toString()));
+    }
+
+    @Test
+    public void shouldNotContainNodesThatAreNoLongerInTheGraph() {
+        givenRevision2();
+        when(axiomsByEntityReferenceIndex.getReferencingAxioms(any(), any())).thenAnswer(invocation -> Stream.empty());
+        var delta = extractor.getOntologyGraphDelta(revision1).orElseThrow();
+        assertThat(delta.getGraph().getNodes(), is(empty()));
+    }
+}
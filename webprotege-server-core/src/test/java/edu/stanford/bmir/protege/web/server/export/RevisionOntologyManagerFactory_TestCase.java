@@ -0,0 +1,129 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionMaterializer;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RevisionOntologyManagerFactory_TestCase {
+
+    private static final RevisionNumber CURRENT_REVISION = RevisionNumber.getRevisionNumber(5);
+
+    private RevisionOntologyManagerFactory factory;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private ProjectOntologiesBuilder projectOntologiesBuilder;
+
+    @Mock
+    private RevisionMaterializer revisionMaterializer;
+
+    @Mock
+    private ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Mock
+    private ClassSubtreeExtractor classSubtreeExtractor;
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://example.org/onto"));
+
+    private final OWLOntologyID earlierOntologyId = new OWLOntologyID(IRI.create("http://example.org/earlier"));
+
+    private final IRI clsIri = IRI.create("http://example.org/Cls");
+
+    private final OWLAxiom axiom = Declaration(Class(clsIri));
+
+    private final RevisionNumber earlierRevision = RevisionNumber.getRevisionNumber(3);
+
+    @Before
+    public void setUp() {
+        when(revisionManager.getCurrentRevision()).thenReturn(CURRENT_REVISION);
+        factory = new RevisionOntologyManagerFactory(ProjectId.getNil(),
+                                                     revisionManager,
+                                                     projectOntologiesBuilder,
+                                                     new ProjectChangeLock(),
+                                                     revisionMaterializer,
+                                                     projectOntologiesIndex,
+                                                     classSubtreeExtractor);
+    }
+
+    private void givenProjectOntologies() {
+        var ontology = Ontology.get(ontologyId, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of(axiom));
+        when(projectOntologiesBuilder.buildProjectOntologies()).thenReturn(List.of(ontology));
+    }
+
+    private void givenEarlierOntologies() {
+        var earlierOntology = Ontology.get(earlierOntologyId, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of(axiom));
+        when(revisionMaterializer.getOntologies(earlierRevision)).thenReturn(ImmutableList.of(earlierOntology));
+    }
+
+    @Test
+    public void shouldCopyCurrentRevisionFromIndexes() {
+        givenProjectOntologies();
+        var manager = factory.createOntologyManager(CURRENT_REVISION);
+        var ontology = manager.getOntology(ontologyId);
+        assertThat(ontology.getAxiomCount(), is(1));
+        verify(revisionMaterializer, never()).getOntologies(any());
+    }
+
+    @Test
+    public void shouldCopyHeadRevisionFromIndexes() {
+        givenProjectOntologies();
+        factory.createOntologyManager(RevisionNumber.getHeadRevisionNumber());
+        verify(projectOntologiesBuilder).buildProjectOntologies();
+        verify(revisionMaterializer, never()).getOntologies(any());
+    }
+
+    @Test
+    public void shouldMaterializeEarlierRevision() {
+        givenEarlierOntologies();
+        var manager = factory.createOntologyManager(earlierRevision);
+        assertThat(manager.getOntology(earlierOntologyId).getAxiomCount(), is(1));
+        verify(revisionMaterializer).getOntologies(earlierRevision);
+        verify(projectOntologiesBuilder, never()).buildProjectOntologies();
+    }
+
+    @Test
+    public void shouldExtractCurrentSubtreeWithIndexes() {
+        when(projectOntologiesIndex.getOntologyIds()).thenReturn(Stream.of(ontologyId));
+        when(classSubtreeExtractor.getSubtreeAxioms(clsIri, ontologyId)).thenReturn(ImmutableSet.of(axiom));
+        var manager = factory.createSubtreeOntologyManager(CURRENT_REVISION, clsIri);
+        var subtree = manager.getOntology(IRI.create("http://example.org/onto_subtree"));
+        assertThat(subtree.getAxiomCount(), is(1));
+        verify(revisionMaterializer, never()).getOntologies(any());
+    }
+
+    @Test
+    public void shouldExtractEarlierSubtreeFromMaterializedOntologies() {
+        givenEarlierOntologies();
+        var manager = factory.createSubtreeOntologyManager(earlierRevision, clsIri);
+        var subtree = manager.getOntology(IRI.create("http://example.org/earlier_subtree"));
+        assertThat(subtree.getAxiomCount(), is(1));
+        verify(classSubtreeExtractor, never()).getSubtreeAxioms(any(), any());
+    }
+}
@@ -43,7 +43,7 @@ public class AnnotationAssertionAxiomsBySubjectIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getSubject())
                 .thenReturn(subject);
-        impl = new AnnotationAssertionAxiomsBySubjectIndexImpl();
+        impl = new AnnotationAssertionAxiomsBySubjectIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, axiom)));
     }
 
@@ -39,7 +39,7 @@ public class AnnotationAssertionAxiomsByValueIndexImpl_TestCase {
 
     @Before
     public void setUp() throws Exception {
-        index = new AnnotationAssertionAxiomsByValueIndexImpl();
+        index = new AnnotationAssertionAxiomsByValueIndexImpl(new ObjectIdTable());
     }
 
 
@@ -65,7 +65,7 @@ public class AnnotationAxiomsByIriReferenceIndexImpl_AnnotationAssertionAxiom_Te
                                                                             otherValueIri,
                                                                             axiomAnnotations());
 
-        impl = new AnnotationAxiomsByIriReferenceIndexImpl();
+        impl = new AnnotationAxiomsByIriReferenceIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationAssertionAxiom)));
     }
 
@@ -61,7 +61,7 @@ public class AnnotationAxiomsByIriReferenceIndexImpl_AnnotationPropertyDomain_Te
     public void setUp() {
         annotationPropertyDomainAxiom = new OWLAnnotationPropertyDomainAxiomImpl(property, domainIri, axiomAnnotations());
         otherAnnotationPropertyDomainAxiom = new OWLAnnotationPropertyDomainAxiomImpl(property, otherDomainIri, axiomAnnotations());
-        impl = new AnnotationAxiomsByIriReferenceIndexImpl();
+        impl = new AnnotationAxiomsByIriReferenceIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationPropertyDomainAxiom)));
     }
 
@@ -53,7 +53,7 @@ public class AnnotationAxiomsByIriReferenceIndexImpl_AnnotationPropertyRange_Tes
         annotationPropertyRangeAxiom = new OWLAnnotationPropertyRangeAxiomImpl(property, rangeIri, axiomAnnotations());
         otherAnnotationPropertyRangeAxiom = new OWLAnnotationPropertyRangeAxiomImpl(property, otherRangeIri, axiomAnnotations());
 
-        impl = new AnnotationAxiomsByIriReferenceIndexImpl();
+        impl = new AnnotationAxiomsByIriReferenceIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationPropertyRangeAxiom)));
     }
 
@@ -76,6 +76,11 @@ public class AxiomMultimapIndex_UnaryKey_TestCase {
         index.getAxioms(null, ontologyId);
     }
 
+    @Test
+    public void shouldGetAxiomTypesForAxiomClass() {
+        assertThat(index.getAxiomTypes(), contains(AxiomType.SUBCLASS_OF));
+    }
+
     @Test
     public void shouldGetEmptyStreamBeforeAnyChange() {
         var axiomsStream = index.getAxioms(subCls, ontologyId);
@@ -43,7 +43,7 @@ public class ClassAssertionAxiomsByClassIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getClassExpression())
                 .thenReturn(cls);
-        impl = new ClassAssertionAxiomsByClassIndexImpl();
+        impl = new ClassAssertionAxiomsByClassIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
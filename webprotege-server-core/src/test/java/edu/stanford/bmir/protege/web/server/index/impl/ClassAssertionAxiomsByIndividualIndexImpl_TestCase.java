@@ -43,7 +43,7 @@ public class ClassAssertionAxiomsByIndividualIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getIndividual())
                 .thenReturn(individual);
-        impl = new ClassAssertionAxiomsByIndividualIndexImpl();
+        impl = new ClassAssertionAxiomsByIndividualIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -44,7 +44,7 @@ public class DataPropertyAssertionAxiomsBySubjectIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getSubject())
                 .thenReturn(subject);
-        impl = new DataPropertyAssertionAxiomsBySubjectIndexImpl();
+        impl = new DataPropertyAssertionAxiomsBySubjectIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -45,7 +45,7 @@ public class DifferentIndividualsAxiomsIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getIndividuals())
                 .thenReturn(Collections.singleton(individual));
-        impl = new DifferentIndividualsAxiomsIndexImpl();
+        impl = new DifferentIndividualsAxiomsIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -45,7 +45,7 @@ public class DisjointClassesAxiomsIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getClassExpressions())
                 .thenReturn(Collections.singleton(cls));
-        impl = new DisjointClassesAxiomsIndexImpl();
+        impl = new DisjointClassesAxiomsIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
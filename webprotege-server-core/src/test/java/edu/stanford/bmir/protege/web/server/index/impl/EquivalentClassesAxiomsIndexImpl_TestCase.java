@@ -47,7 +47,7 @@ public class EquivalentClassesAxiomsIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getNamedClasses())
                 .thenReturn(Collections.singleton(cls));
-        impl = new EquivalentClassesAxiomsIndexImpl();
+        impl = new EquivalentClassesAxiomsIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -0,0 +1,116 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.index.DependentIndex;
+import edu.stanford.bmir.protege.web.server.index.Index;
+import edu.stanford.bmir.protege.web.server.revision.OntologySnapshotManager;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IndexUpdater_TestCase {
+
+    private IndexUpdater indexUpdater;
+
+    @Mock
+    private OntologySnapshotManager snapshotManager;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    @Mock
+    private AxiomTypeSpecificIndex classAssertionIndex;
+
+    @Mock
+    private UpdatableIndex allChangesIndex;
+
+    @Mock(extraInterfaces = DependentIndex.class)
+    private UpdatableIndex dependentIndex;
+
+    private ExecutorService executorService;
+
+    private OntologyChange subClassOfChange;
+
+    private OntologyChange classAssertionChange;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(2);
+        var clsA = Class(IRI.create("http://example.org/A"));
+        var clsB = Class(IRI.create("http://example.org/B"));
+        var individual = NamedIndividual(IRI.create("http://example.org/i"));
+        subClassOfChange = AddAxiomChange.of(ontologyId, SubClassOf(clsA, clsB));
+        classAssertionChange = AddAxiomChange.of(ontologyId, ClassAssertion(clsA, individual));
+        when(classAssertionIndex.getAxiomTypes())
+                .thenReturn(ImmutableSet.of(AxiomType.CLASS_ASSERTION));
+        when(((DependentIndex) dependentIndex).getDependencies())
+                .thenReturn(List.<Index>of(allChangesIndex));
+        indexUpdater = new IndexUpdater(snapshotManager,
+                                        ImmutableSet.of(classAssertionIndex, allChangesIndex, dependentIndex),
+                                        executorService,
+                                        ProjectId.get("12345678-1234-1234-1234-123456789abc"));
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void shouldOnlyPassAxiomTypeSpecificIndexChangesForItsAxiomTypes() {
+        indexUpdater.updateIndexes(ImmutableList.of(subClassOfChange, classAssertionChange));
+        verify(classAssertionIndex).applyChanges(ImmutableList.of(classAssertionChange));
+        verify(classAssertionIndex, never()).applyChanges(ImmutableList.of(subClassOfChange, classAssertionChange));
+    }
+
+    @Test
+    public void shouldPassOtherIndexesAllChanges() {
+        var changes = ImmutableList.of(subClassOfChange, classAssertionChange);
+        indexUpdater.updateIndexes(changes);
+        verify(allChangesIndex).applyChanges(changes);
+        verify(dependentIndex).applyChanges(changes);
+    }
+
+    @Test
+    public void shouldNotPassAxiomTypeSpecificIndexEmptyChanges() {
+        indexUpdater.updateIndexes(ImmutableList.of(subClassOfChange));
+        verify(classAssertionIndex, never()).applyChanges(any());
+    }
+
+    @Test
+    public void shouldBuildDependenciesBeforeDependentIndexes() {
+        var changes = ImmutableList.of(subClassOfChange);
+        indexUpdater.updateIndexes(changes);
+        InOrder inOrder = inOrder(allChangesIndex, dependentIndex);
+        inOrder.verify(allChangesIndex).applyChanges(changes);
+        inOrder.verify(dependentIndex).applyChanges(changes);
+    }
+
+    @Test
+    public void shouldBuildIndexesFromReplayChanges() {
+        var revisions = ImmutableList.of(ImmutableList.of(subClassOfChange), ImmutableList.of(classAssertionChange));
+        when(snapshotManager.getReplayChanges())
+                .thenReturn(revisions);
+        indexUpdater.buildIndexes();
+        verify(allChangesIndex).applyChanges(ImmutableList.of(subClassOfChange, classAssertionChange));
+        verify(classAssertionIndex).applyChanges(ImmutableList.of(classAssertionChange));
+        verify(snapshotManager).releaseReplayChanges();
+    }
+}
@@ -0,0 +1,79 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class IntPostingsMap_TestCase {
+
+    private IntPostingsMap map;
+
+    @Before
+    public void setUp() {
+        map = new IntPostingsMap();
+    }
+
+    @Test
+    public void shouldGetEmptyValuesForUnknownKey() {
+        assertThat(map.get(1).length, is(0));
+    }
+
+    @Test
+    public void shouldGetValuesInAscendingOrder() {
+        map.put(1, 30);
+        map.put(1, 10);
+        map.put(1, 20);
+        assertThat(map.get(1), is(new int[]{10, 20, 30}));
+    }
+
+    @Test
+    public void shouldNotAddDuplicateValues() {
+        assertThat(map.put(1, 10), is(true));
+        assertThat(map.put(1, 10), is(false));
+        assertThat(map.get(1), is(new int[]{10}));
+    }
+
+    @Test
+    public void shouldContainEntry() {
+        map.put(1, 10);
+        assertThat(map.containsEntry(1, 10), is(true));
+        assertThat(map.containsEntry(1, 11), is(false));
+        assertThat(map.containsEntry(2, 10), is(false));
+    }
+
+    @Test
+    public void shouldRemoveValue() {
+        map.put(1, 10);
+        map.put(1, 20);
+        assertThat(map.remove(1, 10), is(true));
+        assertThat(map.get(1), is(new int[]{20}));
+        assertThat(map.remove(1, 10), is(false));
+    }
+
+    @Test
+    public void shouldRemoveKeyWhenLastValueIsRemoved() {
+        map.put(1, 10);
+        map.remove(1, 10);
+        assertThat(map.keyCount(), is(0));
+        assertThat(map.get(1).length, is(0));
+    }
+
+    @Test
+    public void shouldKeepValuesForManyKeys() {
+        for(int key = 0; key < 10_000; key++) {
+            map.put(key, key * 2);
+            map.put(key, key * 2 + 1);
+        }
+        for(int key = 0; key < 10_000; key += 2) {
+            map.remove(key, key * 2);
+            map.remove(key, key * 2 + 1);
+        }
+        assertThat(map.keyCount(), is(5_000));
+        for(int key = 0; key < 10_000; key++) {
+            var expected = key % 2 == 0 ? new int[0] : new int[]{key * 2, key * 2 + 1};
+            assertThat(map.get(key), is(expected));
+        }
+    }
+}
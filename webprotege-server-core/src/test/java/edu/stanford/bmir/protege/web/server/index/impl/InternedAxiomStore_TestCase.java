@@ -0,0 +1,112 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InternedAxiomStore_TestCase {
+
+    private ObjectIdTable objectIdTable;
+
+    private InternedAxiomStore<OWLClass, OWLSubClassOfAxiom> subClassStore;
+
+    private InternedAxiomStore<OWLClass, OWLSubClassOfAxiom> superClassStore;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    private final OWLClass clsA = Class(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = Class(IRI.create("http://example.org/B"));
+
+    private final OWLClass clsC = Class(IRI.create("http://example.org/C"));
+
+    private final OWLSubClassOfAxiom axiomAB = SubClassOf(clsA, clsB);
+
+    private final OWLSubClassOfAxiom axiomAC = SubClassOf(clsA, clsC);
+
+    @Before
+    public void setUp() {
+        objectIdTable = new ObjectIdTable();
+        subClassStore = new InternedAxiomStore<>(objectIdTable, OWLSubClassOfAxiom.class);
+        superClassStore = new InternedAxiomStore<>(objectIdTable, OWLSubClassOfAxiom.class);
+    }
+
+    private void put(OWLSubClassOfAxiom axiom) {
+        subClassStore.put(Key.get(ontologyId, axiom.getSubClass().asOWLClass()), axiom);
+        superClassStore.put(Key.get(ontologyId, axiom.getSuperClass().asOWLClass()), axiom);
+    }
+
+    private void remove(OWLSubClassOfAxiom axiom) {
+        subClassStore.remove(Key.get(ontologyId, axiom.getSubClass().asOWLClass()), axiom);
+        superClassStore.remove(Key.get(ontologyId, axiom.getSuperClass().asOWLClass()), axiom);
+    }
+
+    @Test
+    public void shouldShareObjectsBetweenStores() {
+        put(axiomAB);
+        put(axiomAC);
+        // A, B, C and the two axioms
+        assertThat(objectIdTable.size(), is(5));
+    }
+
+    @Test
+    public void shouldReleaseObjectsOfRemovedAxioms() {
+        put(axiomAB);
+        put(axiomAC);
+        remove(axiomAB);
+        assertThat(objectIdTable.size(), is(3));
+        assertThat(objectIdTable.getIdIfPresent(axiomAB), is(ObjectIdTable.NO_ID));
+        assertThat(objectIdTable.getIdIfPresent(clsB), is(ObjectIdTable.NO_ID));
+        remove(axiomAC);
+        assertThat(objectIdTable.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotGrowTableWhenAxiomsAreRepeatedlyAddedAndRemoved() {
+        for(int i = 0; i < 1_000; i++) {
+            var axiom = SubClassOf(clsA, Class(IRI.create("http://example.org/Cls" + i)));
+            put(axiom);
+            remove(axiom);
+        }
+        assertThat(objectIdTable.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotReleaseObjectsOfDuplicateAddition() {
+        put(axiomAB);
+        put(axiomAB);
+        remove(axiomAB);
+        assertThat(objectIdTable.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotReleaseObjectsOfAxiomThatIsNotInStore() {
+        put(axiomAB);
+        remove(axiomAC);
+        assertThat(objectIdTable.size(), is(3));
+    }
+
+    @Test
+    public void shouldGetAxiomsAfterIdsAreReused() {
+        put(axiomAB);
+        remove(axiomAB);
+        put(axiomAC);
+        var axioms = subClassStore.get(Key.get(ontologyId, clsA)).collect(toList());
+        assertThat(axioms, contains(axiomAC));
+    }
+}
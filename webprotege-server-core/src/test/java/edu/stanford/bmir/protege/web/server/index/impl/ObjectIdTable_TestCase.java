@@ -0,0 +1,107 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class ObjectIdTable_TestCase {
+
+    private ObjectIdTable table;
+
+    @Before
+    public void setUp() {
+        table = new ObjectIdTable();
+    }
+
+    @Test
+    public void shouldGetSameIdForEqualObjects() {
+        var id = table.acquireId("A");
+        assertThat(table.acquireId(new String("A")), is(id));
+    }
+
+    @Test
+    public void shouldGetDifferentIdsForDifferentObjects() {
+        assertThat(table.acquireId("A"), is(not(table.acquireId("B"))));
+    }
+
+    @Test
+    public void shouldGetObjectForId() {
+        for(int i = 0; i < 5_000; i++) {
+            table.acquireId(i);
+        }
+        assertThat(table.getObject(table.acquireId(4_321)), is(4_321));
+        assertThat(table.size(), is(5_000));
+    }
+
+    @Test
+    public void shouldNotAddObjectWhenGettingIdIfPresent() {
+        assertThat(table.getIdIfPresent("A"), is(ObjectIdTable.NO_ID));
+        assertThat(table.size(), is(0));
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowNpeForNullObject() {
+        table.acquireId(null);
+    }
+
+    @Test
+    public void shouldRemoveObjectWhenLastReferenceIsReleased() {
+        var id = table.acquireId("A");
+        table.acquireId("A");
+        table.releaseId(id);
+        assertThat(table.getIdIfPresent("A"), is(id));
+        table.releaseId(id);
+        assertThat(table.getIdIfPresent("A"), is(ObjectIdTable.NO_ID));
+        assertThat(table.size(), is(0));
+    }
+
+    @Test
+    public void shouldReuseReleasedId() {
+        var id = table.acquireId("A");
+        table.releaseId(id);
+        assertThat(table.acquireId("B"), is(id));
+        assertThat(table.getObject(id), is("B"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowIseForIdThatIsNotAcquired() {
+        var id = table.acquireId("A");
+        table.acquireId("B");
+        table.releaseId(id);
+        table.releaseId(id);
+    }
+
+    @Test
+    public void shouldRemoveAllObjectsAfterConcurrentAcquisitionAndRelease() throws Exception {
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for(int t = 0; t < 4; t++) {
+                tasks.add(() -> {
+                    for(int round = 0; round < 100; round++) {
+                        for(int i = 0; i < 100; i++) {
+                            var id = table.acquireId(i);
+                            assertThat(table.getObject(id), is(i));
+                            table.releaseId(id);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for(var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(table.size(), is(0));
+    }
+}
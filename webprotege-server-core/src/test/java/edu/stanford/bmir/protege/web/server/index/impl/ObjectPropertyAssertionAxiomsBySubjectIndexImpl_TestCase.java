@@ -44,7 +44,7 @@ public class ObjectPropertyAssertionAxiomsBySubjectIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getSubject())
                 .thenReturn(subject);
-        impl = new ObjectPropertyAssertionAxiomsBySubjectIndexImpl();
+        impl = new ObjectPropertyAssertionAxiomsBySubjectIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
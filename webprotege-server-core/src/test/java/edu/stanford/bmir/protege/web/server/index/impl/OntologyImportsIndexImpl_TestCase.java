@@ -0,0 +1,59 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveImportChange;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OntologyImportsIndexImpl_TestCase {
+
+    private OntologyImportsIndexImpl impl;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    @Mock
+    private OWLImportsDeclaration importsDeclaration;
+
+    @Before
+    public void setUp() {
+        impl = new OntologyImportsIndexImpl();
+        impl.applyChanges(ImmutableList.of(AddImportChange.of(ontologyId, importsDeclaration)));
+    }
+
+    @Test
+    public void shouldGetImportsDeclarations() {
+        var importsDeclarations = impl.getImportsDeclarations(ontologyId).collect(toList());
+        assertThat(importsDeclarations, contains(importsDeclaration));
+    }
+
+    @Test
+    public void shouldNotContainImportsDeclarationTwice() {
+        impl.applyChanges(ImmutableList.of(AddImportChange.of(ontologyId, importsDeclaration)));
+        assertThat(impl.getImportsDeclarations(ontologyId).count(), is(1L));
+    }
+
+    @Test
+    public void shouldRemoveImportsDeclaration() {
+        impl.applyChanges(ImmutableList.of(RemoveImportChange.of(ontologyId, importsDeclaration)));
+        assertThat(impl.getImportsDeclarations(ontologyId).count(), is(0L));
+    }
+
+    @Test
+    public void shouldGetEmptyStreamForUnknownOntology() {
+        assertThat(impl.getImportsDeclarations(mock(OWLOntologyID.class)).count(), is(0L));
+    }
+}
@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.index.impl;
 import com.google.common.collect.ImmutableList;
 import dagger.Module;
 import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
 import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
 import org.junit.Before;
 import org.junit.Test;
@@ -11,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
 
 import java.util.stream.Collectors;
 
@@ -34,6 +36,9 @@ public class ProjectOntologiesIndexImpl_TestCase {
     @Mock
     private OWLAxiom axiom;
 
+    @Mock
+    private OWLImportsDeclaration importsDeclaration;
+
     @Before
     public void setUp() {
         impl = new ProjectOntologiesIndexImpl();
@@ -52,4 +57,12 @@ public class ProjectOntologiesIndexImpl_TestCase {
         impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(rootOntologyId, axiom)));
         assertThat(impl.getOntologyIds().count(), is(0L));
     }
+
+    @Test
+    public void shouldContainOntologyThatOnlyHasImports() {
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(rootOntologyId, axiom),
+                                           AddImportChange.of(rootOntologyId, importsDeclaration)));
+        var ontologyIds = impl.getOntologyIds().collect(Collectors.toSet());
+        assertThat(ontologyIds, contains(rootOntologyId));
+    }
 }
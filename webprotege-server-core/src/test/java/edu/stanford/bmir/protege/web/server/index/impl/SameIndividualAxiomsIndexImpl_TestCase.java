@@ -45,7 +45,7 @@ public class SameIndividualAxiomsIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getIndividuals())
                 .thenReturn(Collections.singleton(individual));
-        impl = new SameIndividualAxiomsIndexImpl();
+        impl = new SameIndividualAxiomsIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -42,7 +42,7 @@ public class SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl_TestCase {
     public void setUp() {
         when(axiom.getSuperProperty())
                 .thenReturn(property);
-        impl = new SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl();
+        impl = new SubAnnotationPropertyAxiomsBySuperPropertyIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, axiom)));
     }
 
@@ -44,7 +44,7 @@ public class SubClassOfAxiomsBySubClassIndexImpl_TestCase {
     public void setUp() {
         cls = Class(mock(IRI.class));
         axiom = SubClassOf(cls, superCls);
-        impl = new SubClassOfAxiomsBySubClassIndexImpl();
+        impl = new SubClassOfAxiomsBySubClassIndexImpl(new ObjectIdTable());
         impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyID, axiom)));
     }
 
@@ -0,0 +1,118 @@
+package edu.stanford.bmir.protege.web.server.index.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.util.ArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VersionedAxiomPostings_TestCase {
+
+    private static final String KEY = "Key";
+
+    private VersionedAxiomPostings<String> postings;
+
+    @Mock
+    private OWLAxiom axiomA, axiomB;
+
+    @Before
+    public void setUp() {
+        postings = new VersionedAxiomPostings<>(16);
+    }
+
+    @Test
+    public void shouldNotSeeStagedChangesBeforePublish() {
+        postings.put(KEY, axiomA);
+        assertThat(postings.get(KEY, 0), is(empty()));
+        assertThat(postings.get(KEY, 1), is(empty()));
+    }
+
+    @Test
+    public void shouldSeePublishedChangesAtPublishedVersion() {
+        postings.put(KEY, axiomA);
+        postings.publish(1);
+        assertThat(postings.get(KEY, 1), contains(axiomA));
+        assertThat(postings.containsKey(KEY, 1), is(true));
+    }
+
+    @Test
+    public void shouldSeePreviousVersion() {
+        postings.put(KEY, axiomA);
+        postings.publish(1);
+        postings.put(KEY, axiomB);
+        postings.remove(KEY, axiomA);
+        postings.publish(2);
+        assertThat(postings.get(KEY, 1), contains(axiomA));
+        assertThat(postings.get(KEY, 2), contains(axiomB));
+    }
+
+    @Test
+    public void shouldNotSeeKeyBeforeItWasAdded() {
+        postings.put(KEY, axiomA);
+        postings.publish(1);
+        assertThat(postings.containsKey(KEY, 0), is(false));
+        assertThat(postings.getKeys(key -> true, 0), is(empty()));
+        assertThat(postings.getKeys(key -> true, 1), contains(KEY));
+    }
+
+    @Test
+    public void shouldRemoveKeyWhenAllAxiomsAreRemoved() {
+        postings.put(KEY, axiomA);
+        postings.publish(1);
+        postings.remove(KEY, axiomA);
+        postings.publish(2);
+        assertThat(postings.containsKey(KEY, 1), is(true));
+        assertThat(postings.containsKey(KEY, 2), is(false));
+        postings.publish(3);
+        assertThat(postings.getKeys(key -> true, 3), is(empty()));
+    }
+
+    @Test
+    public void shouldReadKeyWithManyPostingsAtEachVersion() {
+        var axioms = new ArrayList<OWLAxiom>();
+        for(int i = 0; i < 10_000; i++) {
+            var axiom = SubClassOf(Class(IRI.create("http://example.org/Cls" + i)), Class(IRI.create("http://example.org/A")));
+            axioms.add(axiom);
+            postings.put(KEY, axiom);
+        }
+        postings.publish(1);
+        // Single edits to the key, as made by individual revisions
+        for(int i = 0; i < 1_000; i++) {
+            var version = i + 2;
+            postings.remove(KEY, axioms.get(i));
+            var axiom = SubClassOf(Class(IRI.create("http://example.org/Added" + i)), Class(IRI.create("http://example.org/A")));
+            axioms.add(axiom);
+            postings.put(KEY, axiom);
+            postings.publish(version);
+            var expected = axioms.subList(i + 1, axioms.size());
+            assertThat(postings.get(KEY, version).size(), is(expected.size()));
+            assertThat(postings.get(KEY, version).contains(axioms.get(i)), is(false));
+            assertThat(postings.get(KEY, version - 1).contains(axioms.get(i)), is(true));
+            assertThat(postings.get(KEY, version).contains(axiom), is(true));
+            assertThat(postings.get(KEY, version - 1).contains(axiom), is(false));
+        }
+        assertThat(postings.get(KEY, 1_001), containsInAnyOrder(axioms.subList(1_000, axioms.size()).toArray()));
+    }
+
+    @Test
+    public void shouldReAddRemovedAxiom() {
+        postings.put(KEY, axiomA);
+        postings.publish(1);
+        postings.remove(KEY, axiomA);
+        postings.publish(2);
+        postings.put(KEY, axiomA);
+        postings.publish(3);
+        assertThat(postings.get(KEY, 2), is(empty()));
+        assertThat(postings.get(KEY, 3), contains(axiomA));
+    }
+}
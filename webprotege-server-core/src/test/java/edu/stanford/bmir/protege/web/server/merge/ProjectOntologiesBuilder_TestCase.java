@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.merge;
 
 import edu.stanford.bmir.protege.web.server.index.OntologyAnnotationsIndex;
 import edu.stanford.bmir.protege.web.server.index.OntologyAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.OntologyImportsIndex;
 import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 
 import java.util.stream.Stream;
@@ -38,6 +40,9 @@ public class ProjectOntologiesBuilder_TestCase {
     @Mock
     private OntologyAxiomsIndex ontologyAxiomsIndex;
 
+    @Mock
+    private OntologyImportsIndex ontologyImportsIndex;
+
     @Mock
     private OWLOntologyID ontologyId;
 
@@ -47,12 +52,16 @@ public class ProjectOntologiesBuilder_TestCase {
     @Mock
     private OWLAxiom axiom;
 
+    @Mock
+    private OWLImportsDeclaration importsDeclaration;
+
 
     @Before
     public void setUp() {
         builder = new ProjectOntologiesBuilder(projectOntologiesIndex,
                                                ontologyAnnotationsIndex,
-                                               ontologyAxiomsIndex);
+                                               ontologyAxiomsIndex,
+                                               ontologyImportsIndex);
         when(projectOntologiesIndex.getOntologyIds())
                 .thenReturn(Stream.of(ontologyId));
 
@@ -61,6 +70,9 @@ public class ProjectOntologiesBuilder_TestCase {
 
         when(ontologyAxiomsIndex.getAxioms(ontologyId))
                 .thenReturn(Stream.of(axiom));
+
+        when(ontologyImportsIndex.getImportsDeclarations(ontologyId))
+                .thenReturn(Stream.of(importsDeclaration));
     }
 
     @Test
@@ -92,4 +104,12 @@ public class ProjectOntologiesBuilder_TestCase {
         var ontology = ontologies.stream().findFirst().get();
         assertThat(ontology.getAxioms(), contains(axiom));
     }
+
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    @Test
+    public void shouldBuildOntologyWithImportsDeclarations() {
+        var ontologies = builder.buildProjectOntologies();
+        var ontology = ontologies.stream().findFirst().get();
+        assertThat(ontology.getImportsDeclarations(), contains(importsDeclaration));
+    }
 }
@@ -62,11 +62,9 @@ public class RevisionManagerImpl_TestCase {
         when(revisionStore.getRevision(revisionNumber)).thenReturn(java.util.Optional.of(revision));
         when(revisionStore.getRevisions()).thenReturn(ImmutableList.of(revision));
         when(revisionNumber.getNextRevisionNumber()).thenReturn(nextRevisionNumber);
-        when(revision.getUserId()).thenReturn(userId);
-        when(revision.getHighLevelDescription()).thenReturn(HIGHLEVEL_DESC);
-        when(revision.getSize()).thenReturn(1);
-        when(revision.getTimestamp()).thenReturn(TIME_STAMP);
-        when(revision.getRevisionNumber()).thenReturn(revisionNumber);
+        var revisionSummary = new RevisionSummary(revisionNumber, userId, TIME_STAMP, 1, HIGHLEVEL_DESC);
+        when(revisionStore.getRevisionSummary(revisionNumber)).thenReturn(Optional.of(revisionSummary));
+        when(revisionStore.getRevisionSummaries()).thenReturn(ImmutableList.of(revisionSummary));
     }
 
     @Test(expected = NullPointerException.class)
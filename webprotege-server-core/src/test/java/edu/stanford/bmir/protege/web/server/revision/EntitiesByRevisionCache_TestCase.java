@@ -0,0 +1,91 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.axiom.AxiomSubjectProvider;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.HasContainsEntityInSignature;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EntitiesByRevisionCache_TestCase {
+
+    private EntitiesByRevisionCache cache;
+
+    @Mock
+    private AxiomSubjectProvider axiomSubjectProvider;
+
+    @Mock
+    private HasContainsEntityInSignature hasContainsEntityInSignature;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    private final OWLClass clsA = Class(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = Class(IRI.create("http://example.org/B"));
+
+    private final OWLClass clsC = Class(IRI.create("http://example.org/C"));
+
+    @Before
+    public void setUp() {
+        when(axiomSubjectProvider.getSubject(any())).thenAnswer(inv -> {
+            OWLAxiom axiom = inv.getArgument(0);
+            return Optional.of(axiom.getClassesInSignature().iterator().next());
+        });
+        cache = new EntitiesByRevisionCache(axiomSubjectProvider, hasContainsEntityInSignature, new OWLDataFactoryImpl(), 4);
+    }
+
+    private Revision createRevision(long revisionNumber, OWLClass cls) {
+        var axiom = Declaration(cls);
+        return new Revision(UserId.getUserId("UserA"),
+                            RevisionNumber.getRevisionNumber(revisionNumber),
+                            ImmutableList.<OntologyChange>of(AddAxiomChange.of(ontologyId, axiom)),
+                            0,
+                            "Revision " + revisionNumber);
+    }
+
+    @Test
+    public void shouldGetSubjectsOfRevision() {
+        var entities = cache.getEntities(createRevision(1, clsA));
+        assertThat(entities, contains(clsA));
+    }
+
+    @Test
+    public void shouldComputeEntitiesOfRevisionOnce() {
+        var revision = createRevision(1, clsA);
+        cache.getEntities(revision);
+        cache.getEntities(revision);
+        verify(axiomSubjectProvider, times(1)).getSubject(any());
+        assertThat(cache.getStats().hitCount(), is(1L));
+        assertThat(cache.getStats().missCount(), is(1L));
+    }
+
+    @Test
+    public void shouldEvictEntitiesOfRevisionsThatExceedMaximumSize() {
+        cache.getEntities(createRevision(1, clsA));
+        cache.getEntities(createRevision(2, clsB));
+        cache.getEntities(createRevision(3, clsC));
+        assertThat(cache.getStats().evictionCount() > 0, is(true));
+    }
+}
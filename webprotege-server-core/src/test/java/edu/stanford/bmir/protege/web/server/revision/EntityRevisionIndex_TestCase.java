@@ -0,0 +1,184 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.server.inject.project.ProjectDirectoryFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EntityRevisionIndex_TestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    private ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    private final ProjectId projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+
+    private final IRI clsAIri = IRI.create("http://example.org/A");
+
+    private final IRI clsBIri = IRI.create("http://example.org/B");
+
+    private final IRI clsCIri = IRI.create("http://example.org/C");
+
+    private final OWLClass clsA = Class(clsAIri);
+
+    private final OWLClass clsB = Class(clsBIri);
+
+    private final OWLClass clsC = Class(clsCIri);
+
+    /**
+     * An IRI that is too long to be written to the index log
+     */
+    private final IRI longIri = IRI.create("http://example.org/" + Strings.repeat("x", 70_000));
+
+    private final List<Revision> revisions = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        changeHistoryFileFactory = new ChangeHistoryFileFactory(new ProjectDirectoryFactory(temporaryFolder.newFolder()));
+        when(revisionManager.getRevisionSummaries()).thenAnswer(inv -> revisions.stream()
+                                                                                .map(this::toSummary)
+                                                                                .collect(ImmutableList.toImmutableList()));
+        when(revisionManager.getRevision(any())).thenAnswer(inv -> revisions.stream()
+                                                                            .filter(r -> r.getRevisionNumber().equals(inv.getArgument(0)))
+                                                                            .findFirst());
+        addRevision(SubClassOf(clsA, clsB));
+        addRevision(SubClassOf(clsB, clsC));
+        addRevision(Declaration(clsA));
+    }
+
+    private void addRevision(OWLAxiom axiom) {
+        var revisionNumber = RevisionNumber.getRevisionNumber(revisions.size() + 1);
+        revisions.add(new Revision(UserId.getUserId("UserA"),
+                                   revisionNumber,
+                                   ImmutableList.<OntologyChange>of(AddAxiomChange.of(ontologyId, axiom)),
+                                   0,
+                                   "Revision " + revisionNumber.getValue()));
+    }
+
+    private RevisionSummary toSummary(Revision revision) {
+        return new RevisionSummary(revision.getRevisionNumber(),
+                                   revision.getUserId(),
+                                   revision.getTimestamp(),
+                                   revision.getSize(),
+                                   revision.getHighLevelDescription());
+    }
+
+    private EntityRevisionIndex createIndex() {
+        return new EntityRevisionIndex(projectId, revisionManager, changeHistoryFileFactory);
+    }
+
+    /**
+     * Indexes the current revisions and persists the index, so that a subsequently created index loads it
+     */
+    private void givenPersistedIndex() {
+        createIndex().getRevisions(clsAIri);
+        when(revisionManager.getCurrentRevision()).thenAnswer(inv -> RevisionNumber.getRevisionNumber(revisions.size()));
+    }
+
+    private static RevisionNumber revision(long revisionNumber) {
+        return RevisionNumber.getRevisionNumber(revisionNumber);
+    }
+
+    @Test
+    public void shouldGetRevisionsThatChangedSubject() {
+        var index = createIndex();
+        assertThat(index.getRevisions(clsAIri), contains(revision(1), revision(3)));
+        assertThat(index.getRevisions(clsBIri), contains(revision(2)));
+        assertThat(index.getRevisions(clsCIri), is(empty()));
+    }
+
+    @Test
+    public void shouldIndexRevisionsThatAreAddedLater() {
+        var index = createIndex();
+        index.getRevisions(clsAIri);
+        addRevision(SubClassOf(clsC, clsA));
+        assertThat(index.getRevisions(clsCIri), contains(revision(4)));
+    }
+
+    @Test
+    public void shouldReadPersistedIndexWithoutReadingIndexedRevisions() {
+        givenPersistedIndex();
+        addRevision(SubClassOf(clsC, clsA));
+        clearInvocations(revisionManager);
+        var index = createIndex();
+        assertThat(index.getRevisions(clsAIri), contains(revision(1), revision(3)));
+        assertThat(index.getRevisions(clsCIri), contains(revision(4)));
+        verify(revisionManager, never()).getRevision(revision(1));
+        verify(revisionManager).getRevision(revision(4));
+    }
+
+    @Test
+    public void shouldDiscardPartiallyWrittenRecord() throws Exception {
+        givenPersistedIndex();
+        var indexFile = changeHistoryFileFactory.getEntityRevisionIndexFile(projectId);
+        Files.write(indexFile.toPath(), new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+        addRevision(SubClassOf(clsC, clsA));
+        createIndex().getRevisions(clsAIri);
+        var index = createIndex();
+        assertThat(index.getRevisions(clsAIri), contains(revision(1), revision(3)));
+        assertThat(index.getRevisions(clsCIri), contains(revision(4)));
+    }
+
+    @Test
+    public void shouldRebuildIndexThatIsAheadOfChangeHistory() {
+        givenPersistedIndex();
+        revisions.remove(2);
+        var index = createIndex();
+        assertThat(index.getRevisions(clsAIri), contains(revision(1)));
+    }
+
+    @Test
+    public void shouldIndexRevisionsThatCouldNotBeWrittenWhenNextLoaded() {
+        givenPersistedIndex();
+        var indexFile = changeHistoryFileFactory.getEntityRevisionIndexFile(projectId);
+        var persistedLength = indexFile.length();
+        addRevision(SubClassOf(Class(longIri), clsA));
+        var index = createIndex();
+        assertThat(index.getRevisions(longIri), contains(revision(4)));
+        addRevision(SubClassOf(clsC, clsA));
+        assertThat(index.getRevisions(clsCIri), contains(revision(5)));
+        assertThat(indexFile.length(), is(persistedLength));
+        var reloadedIndex = createIndex();
+        assertThat(reloadedIndex.getRevisions(longIri), contains(revision(4)));
+        assertThat(reloadedIndex.getRevisions(clsCIri), contains(revision(5)));
+    }
+}
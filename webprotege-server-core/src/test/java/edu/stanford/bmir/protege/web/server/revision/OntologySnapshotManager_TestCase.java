@@ -0,0 +1,167 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslatorImpl;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.server.inject.project.ProjectDirectoryFactory;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OntologySnapshotManager_TestCase {
+
+    private static final RevisionNumber SNAPSHOT_REVISION = RevisionNumber.getRevisionNumber(2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private ProjectOntologiesBuilder projectOntologiesBuilder;
+
+    private final UserId userId = UserId.getUserId("UserA");
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://example.org/ontology"));
+
+    private final OWLImportsDeclaration importsDeclaration = ImportsDeclaration(IRI.create("http://example.org/imported"));
+
+    private final OWLAxiom clsADeclaration = Declaration(Class(IRI.create("http://example.org/A")));
+
+    private final OWLAxiom clsBDeclaration = Declaration(Class(IRI.create("http://example.org/B")));
+
+    private final OWLAxiom clsCDeclaration = Declaration(Class(IRI.create("http://example.org/C")));
+
+    private final OWLAxiom clsDDeclaration = Declaration(Class(IRI.create("http://example.org/D")));
+
+    private final OWLAxiom clsEDeclaration = Declaration(Class(IRI.create("http://example.org/E")));
+
+    private final OWLAxiom clsFDeclaration = Declaration(Class(IRI.create("http://example.org/F")));
+
+    private ProjectId projectId;
+
+    private OntologySnapshotStore snapshotStore;
+
+    private OntologySnapshotManager snapshotManager;
+
+    @Before
+    public void setUp() throws Exception {
+        projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+        var revisions = List.of(revision(1, AddImportChange.of(ontologyId, importsDeclaration),
+                                            AddAxiomChange.of(ontologyId, clsADeclaration)),
+                                revision(2, AddAxiomChange.of(ontologyId, clsBDeclaration)),
+                                // Replaying revision 3 backwards from HEAD costs more than replaying from the start
+                                revision(3, AddAxiomChange.of(ontologyId, clsCDeclaration),
+                                            AddAxiomChange.of(ontologyId, clsDDeclaration),
+                                            AddAxiomChange.of(ontologyId, clsEDeclaration),
+                                            AddAxiomChange.of(ontologyId, clsFDeclaration)));
+        when(revisionManager.getRevisionSummaries()).thenReturn(revisions.stream()
+                                                                         .map(this::toSummary)
+                                                                         .collect(ImmutableList.toImmutableList()));
+        revisions.forEach(revision -> when(revisionManager.getRevision(revision.getRevisionNumber()))
+                .thenReturn(Optional.of(revision)));
+        snapshotStore = new OntologySnapshotStore(projectId,
+                                                  new ChangeHistoryFileFactory(new ProjectDirectoryFactory(temporaryFolder.newFolder())),
+                                                  new OWLDataFactoryImpl(),
+                                                  new OntologyChangeRecordTranslatorImpl());
+        snapshotManager = new OntologySnapshotManager(projectId,
+                                                      revisionManager,
+                                                      snapshotStore,
+                                                      () -> projectOntologiesBuilder,
+                                                      new ProjectChangeLock(),
+                                                      MoreExecutors.newDirectExecutorService(),
+                                                      1);
+    }
+
+    private Revision revision(long revisionNumber, OntologyChange... changes) {
+        return new Revision(userId,
+                            RevisionNumber.getRevisionNumber(revisionNumber),
+                            ImmutableList.copyOf(changes),
+                            revisionNumber,
+                            "Revision " + revisionNumber);
+    }
+
+    private RevisionSummary toSummary(Revision revision) {
+        return new RevisionSummary(revision.getRevisionNumber(),
+                                   revision.getUserId(),
+                                   revision.getTimestamp(),
+                                   revision.getSize(),
+                                   revision.getHighLevelDescription());
+    }
+
+    private void writeSnapshotAtRevision2() {
+        when(revisionManager.getCurrentRevision()).thenReturn(SNAPSHOT_REVISION);
+        when(projectOntologiesBuilder.buildProjectOntologies())
+                .thenReturn(List.of(Ontology.get(ontologyId,
+                                                 ImmutableSet.of(importsDeclaration),
+                                                 ImmutableSet.of(),
+                                                 ImmutableSet.of(clsADeclaration, clsBDeclaration))));
+        snapshotManager.snapshotIfNecessary();
+        when(revisionManager.getCurrentRevision()).thenReturn(RevisionNumber.getRevisionNumber(3));
+    }
+
+    private RevisionMaterializer createMaterializer(OntologySnapshotManager snapshotManager) {
+        return new RevisionMaterializer(projectId,
+                                        revisionManager,
+                                        projectOntologiesBuilder,
+                                        new ProjectChangeLock(),
+                                        snapshotManager,
+                                        snapshotStore);
+    }
+
+    @Test
+    public void shouldPersistImportsInSnapshot() {
+        writeSnapshotAtRevision2();
+        var snapshot = snapshotStore.load().orElseThrow();
+        assertThat(snapshot.getChanges().get(0), is(AddImportChange.of(ontologyId, importsDeclaration)));
+    }
+
+    @Test
+    public void shouldMaterializeSameOntologiesFromSnapshotAsFromForwardReplay() {
+        writeSnapshotAtRevision2();
+        assertThat(snapshotManager.getLastSnapshotRevision(), is(Optional.of(SNAPSHOT_REVISION)));
+        var fromSnapshot = createMaterializer(snapshotManager).getOntologies(SNAPSHOT_REVISION);
+        var forwardReplayManager = new OntologySnapshotManager(projectId,
+                                                               revisionManager,
+                                                               snapshotStore,
+                                                               () -> projectOntologiesBuilder,
+                                                               new ProjectChangeLock(),
+                                                               MoreExecutors.newDirectExecutorService(),
+                                                               0);
+        var fromForwardReplay = createMaterializer(forwardReplayManager).getOntologies(SNAPSHOT_REVISION);
+        assertThat(fromSnapshot, is(fromForwardReplay));
+        assertThat(fromSnapshot.get(0).getImportsDeclarations(), contains(importsDeclaration));
+    }
+}
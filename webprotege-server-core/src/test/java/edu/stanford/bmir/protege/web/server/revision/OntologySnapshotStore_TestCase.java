@@ -0,0 +1,86 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.AddImportChange;
+import edu.stanford.bmir.protege.web.server.change.AddOntologyAnnotationChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslatorImpl;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.server.inject.project.ProjectDirectoryFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.nio.file.Files;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class OntologySnapshotStore_TestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private OntologySnapshotStore store;
+
+    private ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    private ProjectId projectId;
+
+    private OWLDataFactoryImpl dataFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+        dataFactory = new OWLDataFactoryImpl();
+        changeHistoryFileFactory = new ChangeHistoryFileFactory(new ProjectDirectoryFactory(temporaryFolder.newFolder()));
+        store = new OntologySnapshotStore(projectId,
+                                          changeHistoryFileFactory,
+                                          dataFactory,
+                                          new OntologyChangeRecordTranslatorImpl());
+    }
+
+    private OntologySnapshot createSnapshot(long revision) {
+        var ontologyId = new OWLOntologyID(IRI.create("http://example.org/ont"));
+        var cls = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+        var annotation = dataFactory.getOWLAnnotation(dataFactory.getRDFSComment(), dataFactory.getOWLLiteral("Test"));
+        return OntologySnapshot.get(RevisionNumber.getRevisionNumber(revision),
+                                    ImmutableList.of(AddImportChange.of(ontologyId, dataFactory.getOWLImportsDeclaration(IRI.create("http://example.org/imported"))),
+                                                     AddOntologyAnnotationChange.of(ontologyId, annotation),
+                                                     AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(cls))));
+    }
+
+    @Test
+    public void shouldReturnEmptyIfThereIsNoSnapshot() {
+        assertThat(store.load().isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldReadSavedSnapshot() throws Exception {
+        var snapshot = createSnapshot(7);
+        store.save(snapshot);
+        assertThat(store.load().orElseThrow(), is(snapshot));
+    }
+
+    @Test
+    public void shouldReplacePreviousSnapshot() throws Exception {
+        store.save(createSnapshot(7));
+        var snapshot = createSnapshot(9);
+        store.save(snapshot);
+        assertThat(store.load().orElseThrow().getRevisionNumber(), is(RevisionNumber.getRevisionNumber(9)));
+    }
+
+    @Test
+    public void shouldReturnEmptyIfSnapshotIsUnreadable() throws Exception {
+        var snapshotFile = changeHistoryFileFactory.getSnapshotFile(projectId);
+        snapshotFile.getParentFile().mkdirs();
+        Files.write(snapshotFile.toPath(), new byte[]{1, 2, 3});
+        assertThat(store.load().isPresent(), is(false));
+    }
+}
@@ -98,7 +98,7 @@ public class ProjectChangesManager_IT {
 //        var ontologiesIndex = new ProjectOntologiesIndexImpl();
 //        ontologiesIndex.init(revisionManager);
 //
-//        var annotationAssertionsIndex = new AnnotationAssertionAxiomsBySubjectIndexImpl();
+//        var annotationAssertionsIndex = new AnnotationAssertionAxiomsBySubjectIndexImpl(new ObjectIdTable());
 //        var projectAnnotationAssertionsIndex = new ProjectAnnotationAssertionAxiomsBySubjectIndexImpl(ontologiesIndex,
 //                                                                                                      annotationAssertionsIndex);
 //
@@ -0,0 +1,198 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
+import edu.stanford.bmir.protege.web.server.merge.ProjectOntologiesBuilder;
+import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.chg.ProjectChangeLock;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RevisionMaterializer_TestCase {
+
+    private RevisionMaterializer materializer;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private ProjectOntologiesBuilder projectOntologiesBuilder;
+
+    @Mock
+    private OntologySnapshotManager snapshotManager;
+
+    @Mock
+    private OntologySnapshotStore snapshotStore;
+
+    @Mock
+    private OWLOntologyID ontologyId;
+
+    private final ProjectChangeLock projectChangeLock = new ProjectChangeLock();
+
+    private final UserId userId = UserId.getUserId("UserA");
+
+    private final OWLClass clsA = Class(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = Class(IRI.create("http://example.org/B"));
+
+    private final OWLClass clsC = Class(IRI.create("http://example.org/C"));
+
+    private final OWLClass clsD = Class(IRI.create("http://example.org/D"));
+
+    private final OWLAxiom axiomAB = SubClassOf(clsA, clsB);
+
+    private final OWLAxiom axiomBC = SubClassOf(clsB, clsC);
+
+    private final OWLAxiom axiomCD = SubClassOf(clsC, clsD);
+
+    private final OWLAxiom axiomDA = SubClassOf(clsD, clsA);
+
+    private Revision revision1;
+
+    private Revision revision2;
+
+    private Revision revision3;
+
+    private ImmutableList<RevisionSummary> summaries;
+
+    private ImmutableList<Ontology> headOntologies;
+
+    @Before
+    public void setUp() {
+        revision1 = revision(1, AddAxiomChange.of(ontologyId, axiomAB),
+                                AddAxiomChange.of(ontologyId, axiomBC),
+                                AddAxiomChange.of(ontologyId, axiomCD));
+        revision2 = revision(2, AddAxiomChange.of(ontologyId, axiomDA));
+        revision3 = revision(3, RemoveAxiomChange.of(ontologyId, axiomAB),
+                                RemoveAxiomChange.of(ontologyId, axiomBC));
+        summaries = ImmutableList.of(toSummary(revision1), toSummary(revision2), toSummary(revision3));
+        headOntologies = ImmutableList.of(Ontology.get(ontologyId,
+                                                       ImmutableSet.of(),
+                                                       ImmutableSet.of(),
+                                                       ImmutableSet.of(axiomCD, axiomDA)));
+        when(revisionManager.getRevisionSummaries()).thenReturn(summaries);
+        when(revisionManager.getCurrentRevision()).thenReturn(revision3.getRevisionNumber());
+        materializer = new RevisionMaterializer(ProjectId.getNil(),
+                                                revisionManager,
+                                                projectOntologiesBuilder,
+                                                projectChangeLock,
+                                                snapshotManager,
+                                                snapshotStore);
+    }
+
+    private Revision revision(long revisionNumber, OntologyChange... changes) {
+        return new Revision(userId,
+                            RevisionNumber.getRevisionNumber(revisionNumber),
+                            ImmutableList.copyOf(changes),
+                            revisionNumber,
+                            "Revision " + revisionNumber);
+    }
+
+    private RevisionSummary toSummary(Revision revision) {
+        return new RevisionSummary(revision.getRevisionNumber(),
+                                   revision.getUserId(),
+                                   revision.getTimestamp(),
+                                   revision.getSize(),
+                                   revision.getHighLevelDescription());
+    }
+
+    private void givenStoredRevisions(Revision... revisions) {
+        for(var revision : revisions) {
+            when(revisionManager.getRevision(revision.getRevisionNumber())).thenReturn(Optional.of(revision));
+        }
+    }
+
+    private List<OWLAxiom> getAxioms(Revision revision) {
+        var ontologies = materializer.getOntologies(revision.getRevisionNumber());
+        assertThat(ontologies, hasSize(1));
+        return List.copyOf(ontologies.get(0).getAxioms());
+    }
+
+    @Test
+    public void shouldMaterializeBackwardsFromHeadWhenFewerChangesAreApplied() {
+        givenStoredRevisions(revision3);
+        when(projectOntologiesBuilder.buildProjectOntologies()).thenReturn(headOntologies);
+        assertThat(getAxioms(revision2), containsInAnyOrder(axiomAB, axiomBC, axiomCD, axiomDA));
+        verify(revisionManager, never()).getRevision(revision1.getRevisionNumber());
+    }
+
+    @Test
+    public void shouldMaterializeForwardsWhenFewerChangesAreApplied() {
+        givenStoredRevisions(revision1);
+        assertThat(getAxioms(revision1), containsInAnyOrder(axiomAB, axiomBC, axiomCD));
+        verify(projectOntologiesBuilder, never()).buildProjectOntologies();
+    }
+
+    @Test
+    public void shouldMaterializeFromCachedRevision() {
+        givenStoredRevisions(revision2, revision3);
+        when(projectOntologiesBuilder.buildProjectOntologies()).thenReturn(headOntologies);
+        getAxioms(revision2);
+        assertThat(getAxioms(revision1), containsInAnyOrder(axiomAB, axiomBC, axiomCD));
+        verify(projectOntologiesBuilder, times(1)).buildProjectOntologies();
+        verify(revisionManager, never()).getRevision(revision1.getRevisionNumber());
+    }
+
+    @Test
+    public void shouldGetHeadRevisionFromProjectOntologies() {
+        when(projectOntologiesBuilder.buildProjectOntologies()).thenReturn(headOntologies);
+        assertThat(getAxioms(revision3), containsInAnyOrder(axiomCD, axiomDA));
+        verify(revisionManager, never()).getRevision(any());
+    }
+
+    @Test
+    public void shouldPlanFromHeadUnderReadLock() {
+        givenStoredRevisions(revision3);
+        List<Boolean> writeLockAvailable = new ArrayList<>();
+        when(revisionManager.getRevisionSummaries()).thenAnswer(invocation -> {
+            writeLockAvailable.add(isWriteLockAvailable());
+            return summaries;
+        });
+        when(revisionManager.getCurrentRevision()).thenAnswer(invocation -> {
+            writeLockAvailable.add(isWriteLockAvailable());
+            return revision3.getRevisionNumber();
+        });
+        when(projectOntologiesBuilder.buildProjectOntologies()).thenAnswer(invocation -> {
+            writeLockAvailable.add(isWriteLockAvailable());
+            return headOntologies;
+        });
+        getAxioms(revision2);
+        assertThat(writeLockAvailable, contains(false, false, false, false));
+    }
+
+    private boolean isWriteLockAvailable() {
+        var writeLock = projectChangeLock.writeLock();
+        if(writeLock.tryLock()) {
+            writeLock.unlock();
+            return true;
+        }
+        return false;
+    }
+}
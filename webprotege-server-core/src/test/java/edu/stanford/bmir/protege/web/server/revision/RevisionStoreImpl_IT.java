@@ -7,6 +7,7 @@ import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslato
 import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.junit.After;
 import org.junit.Before;
@@ -16,11 +17,16 @@ import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.binaryowl.BinaryOWLMetadata;
+import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
+import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
 import org.semanticweb.owlapi.model.*;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -68,6 +74,8 @@ public class RevisionStoreImpl_IT {
         changeHistoryFile = temporaryFolder.newFile();
         when(changeHistoryFileFactory.getChangeHistoryFile(projectId))
                 .thenReturn(changeHistoryFile);
+        when(changeHistoryFileFactory.getHeadRevisionFile(projectId))
+                .thenReturn(new File(temporaryFolder.getRoot(), "head-revision.binary"));
         dataFactory = new OWLDataFactoryImpl();
         changeRecordTranslator = new OntologyChangeRecordTranslatorImpl();
 
@@ -79,7 +87,10 @@ public class RevisionStoreImpl_IT {
         store = new RevisionStoreImpl(projectId,
                                       changeHistoryFileFactory,
                                       dataFactory,
-                                      changeRecordTranslator);
+                                      changeRecordTranslator,
+                                      ChangeHistorySyncMode.BATCH,
+                                      new HeadRevisionIndex(changeHistoryFileFactory),
+                                      new LegacyChangeCountIndex(changeHistoryFileFactory));
     }
 
     @Test
@@ -158,13 +169,173 @@ public class RevisionStoreImpl_IT {
     public void shouldLoadSavedRevision() {
         var revision = createRevision();
         store.addRevision(revision);
-        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator);
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
         otherStore.load();
         var revisions = store.getRevisions();
         assertThat(revisions, contains(revision));
         otherStore.dispose();
     }
 
+    @Test
+    public void shouldReadRevisionsOfLoadedStoreOnDemand() throws InterruptedException {
+        var firstRevision = createRevision(RevisionNumber.getRevisionNumber(1));
+        store.addRevision(firstRevision);
+        store.setSavedHook(() -> countDownLatch.countDown());
+        var secondRevision = createRevision(RevisionNumber.getRevisionNumber(2));
+        store.addRevision(secondRevision);
+        countDownLatch.await();
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        assertThat(otherStore.getCurrentRevisionNumber(), is(RevisionNumber.getRevisionNumber(2)));
+        assertThat(otherStore.getRevision(RevisionNumber.getRevisionNumber(2)), is(Optional.of(secondRevision)));
+        assertThat(otherStore.getRevision(RevisionNumber.getRevisionNumber(1)), is(Optional.of(firstRevision)));
+        assertThat(otherStore.getRevisions(), contains(firstRevision, secondRevision));
+        otherStore.dispose();
+    }
+
+    @Test
+    public void shouldGetRevisionSummariesOfLoadedStore() {
+        var revision = createRevision();
+        store.addRevision(revision);
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        var summaries = otherStore.getRevisionSummaries();
+        assertThat(summaries.size(), is(1));
+        var summary = summaries.get(0);
+        assertThat(summary.getRevisionNumber(), is(revision.getRevisionNumber()));
+        assertThat(summary.getUserId(), is(revision.getUserId()));
+        assertThat(summary.getChangeCount(), is(revision.getSize()));
+        assertThat(summary.getDescription(), is(revision.getHighLevelDescription()));
+        otherStore.dispose();
+    }
+
+    @Test
+    public void shouldNotifySavedHookForEachRevisionWrittenInBatch() throws InterruptedException {
+        shouldWriteAllQueuedRevisions(store);
+    }
+
+    @Test
+    public void shouldNotifySavedHookForEachRevisionWrittenWithRevisionSyncMode() throws InterruptedException {
+        var revisionSyncStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.REVISION, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        shouldWriteAllQueuedRevisions(revisionSyncStore);
+        revisionSyncStore.dispose();
+    }
+
+    private void shouldWriteAllQueuedRevisions(RevisionStoreImpl store) throws InterruptedException {
+        var revisionCount = 20;
+        var savedLatch = new CountDownLatch(revisionCount - 1);
+        store.addRevision(createRevision(RevisionNumber.getRevisionNumber(1)));
+        store.setSavedHook(savedLatch::countDown);
+        for(int i = 2; i <= revisionCount; i++) {
+            store.addRevision(createRevision(RevisionNumber.getRevisionNumber(i)));
+        }
+        savedLatch.await();
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        assertThat(otherStore.getRevisions(), is(store.getRevisions()));
+        assertThat(otherStore.getCurrentRevisionNumber(), is(RevisionNumber.getRevisionNumber(revisionCount)));
+        otherStore.dispose();
+    }
+
+    @Test
+    public void shouldWriteRevisionsAgainAfterFailedWrite() throws Exception {
+        // The change history cannot be opened for writing while it is a directory
+        Files.delete(changeHistoryFile.toPath());
+        Files.createDirectory(changeHistoryFile.toPath());
+        var firstRevision = createRevision(RevisionNumber.getRevisionNumber(1));
+        store.addRevision(firstRevision);
+        Files.delete(changeHistoryFile.toPath());
+        var savedLatch = new CountDownLatch(2);
+        store.setSavedHook(savedLatch::countDown);
+        var secondRevision = createRevision(RevisionNumber.getRevisionNumber(2));
+        store.addRevision(secondRevision);
+        savedLatch.await();
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        assertThat(otherStore.getRevisions(), contains(firstRevision, secondRevision));
+        otherStore.dispose();
+    }
+
+    @Test
+    public void shouldDiscardPartiallyWrittenBytesBeforeWritingNextRevisions() throws Exception {
+        var firstRevision = createRevision(RevisionNumber.getRevisionNumber(1));
+        store.addRevision(firstRevision);
+        // The remains of a batch that failed part way through
+        Files.write(changeHistoryFile.toPath(), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        var savedLatch = new CountDownLatch(1);
+        store.setSavedHook(savedLatch::countDown);
+        var secondRevision = createRevision(RevisionNumber.getRevisionNumber(2));
+        store.addRevision(secondRevision);
+        savedLatch.await();
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        assertThat(otherStore.getRevisions(), contains(firstRevision, secondRevision));
+        otherStore.dispose();
+    }
+
+    /**
+     * Writes a revision without a change count, as versions before the change count was recorded did
+     */
+    private void givenLegacyRevision() throws IOException {
+        var revision = createRevision();
+        var metadata = new BinaryOWLMetadata();
+        metadata.setLongAttribute(RevisionSerializationVocabulary.REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 1L);
+        var changeRecords = revision.getChanges()
+                                    .stream()
+                                    .map(OntologyChange::toOwlOntologyChangeRecord)
+                                    .collect(ImmutableList.toImmutableList());
+        new BinaryOWLOntologyChangeLog().appendChanges(new OntologyChangeRecordList(revision.getTimestamp(), metadata, changeRecords), changeHistoryFile);
+        when(changeHistoryFileFactory.getLegacyChangeCountsFile(projectId))
+                .thenReturn(new File(temporaryFolder.getRoot(), "legacy-change-counts.binary"));
+    }
+
+    @Test
+    public void shouldCountChangesOfRevisionsWithoutChangeCount() throws IOException {
+        givenLegacyRevision();
+        store.load();
+        var summary = store.getRevisionSummary(RevisionNumber.getRevisionNumber(1));
+        assertThat(summary.map(RevisionSummary::getChangeCount), is(Optional.of(1)));
+    }
+
+    @Test
+    public void shouldRecordChangeCountsOfRevisionsWithoutChangeCount() throws IOException {
+        givenLegacyRevision();
+        store.load();
+        var changeCounts = new LegacyChangeCountIndex(changeHistoryFileFactory).read(projectId);
+        assertThat(changeCounts.get(0L, RevisionNumber.getRevisionNumber(1)), is(1));
+    }
+
+    @Test
+    public void shouldUseRecordedChangeCountsOfRevisionsWithoutChangeCount() throws IOException {
+        givenLegacyRevision();
+        store.load();
+        // The recorded count differs from the actual count, so it is only seen if the revision is not read again
+        var loadedHeader = RevisionHeader.get(RevisionNumber.getRevisionNumber(1), UserId.getUserId(""), 0, "", 7, 0, 0);
+        new LegacyChangeCountIndex(changeHistoryFileFactory).write(projectId, ImmutableList.of(loadedHeader));
+        var otherStore = new RevisionStoreImpl(projectId, changeHistoryFileFactory, dataFactory, changeRecordTranslator, ChangeHistorySyncMode.BATCH, new HeadRevisionIndex(changeHistoryFileFactory), new LegacyChangeCountIndex(changeHistoryFileFactory));
+        otherStore.load();
+        var summary = otherStore.getRevisionSummary(RevisionNumber.getRevisionNumber(1));
+        assertThat(summary.map(RevisionSummary::getChangeCount), is(Optional.of(7)));
+        otherStore.dispose();
+    }
+
+    @Test
+    public void shouldRecordHeadRevisionWhenRevisionIsWritten() throws IOException {
+        var revision = createRevision();
+        store.addRevision(revision);
+        var headRevisionIndex = new HeadRevisionIndex(changeHistoryFileFactory);
+        assertThat(headRevisionIndex.read(projectId), is(Optional.of(revision.getRevisionNumber())));
+    }
+
+    @Test
+    public void shouldRecordHeadRevisionOfChangeHistoryWhenLoaded() throws IOException {
+        givenLegacyRevision();
+        var headRevisionIndex = new HeadRevisionIndex(changeHistoryFileFactory);
+        assertThat(headRevisionIndex.read(projectId), is(Optional.empty()));
+        store.load();
+        assertThat(headRevisionIndex.read(projectId), is(Optional.of(RevisionNumber.getRevisionNumber(1))));
+    }
+
     private Revision createRevision() {
         var revisionNumber = RevisionNumber.getRevisionNumber(1);
         return createRevision(revisionNumber);
@@ -11,6 +11,8 @@ public interface EntityDocumentFieldNames {
 
     String IRI = "iri";
 
+    String ENTITY_KEY = "entityKey";
+
     String BUILT_IN = "builtIn";
 
     String BUILT_IN_TRUE = "true";
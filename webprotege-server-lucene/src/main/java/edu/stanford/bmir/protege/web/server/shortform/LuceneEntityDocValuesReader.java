@@ -0,0 +1,121 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads the entities and dictionary language values for search hits from doc values rather than from stored
+ * documents.  Hits are read segment by segment in doc id order, which is the order that doc values iterators
+ * require.  Documents that were indexed before doc values were written are read from their stored fields.
+ */
+public class LuceneEntityDocValuesReader {
+
+    @Nonnull
+    private final FieldNameTranslator fieldNameTranslator;
+
+    @Nonnull
+    private final LuceneEntityDocumentTranslator documentTranslator;
+
+    @Inject
+    public LuceneEntityDocValuesReader(@Nonnull FieldNameTranslator fieldNameTranslator,
+                                       @Nonnull LuceneEntityDocumentTranslator documentTranslator) {
+        this.fieldNameTranslator = checkNotNull(fieldNameTranslator);
+        this.documentTranslator = checkNotNull(documentTranslator);
+    }
+
+    /**
+     * Gets the dictionary language values for the specified hits
+     * @return The values, in the same order as the hits
+     */
+    @Nonnull
+    public ImmutableList<EntityDictionaryLanguageValues> getDictionaryLanguageValues(@Nonnull IndexSearcher indexSearcher,
+                                                                                     @Nonnull ScoreDoc[] scoreDocs,
+                                                                                     @Nonnull List<DictionaryLanguage> dictionaryLanguages) throws IOException {
+        var leaves = indexSearcher.getIndexReader().leaves();
+        var results = new EntityDictionaryLanguageValues[scoreDocs.length];
+        var hitsInDocIdOrder = IntStream.range(0, scoreDocs.length)
+                                        .boxed()
+                                        .sorted(Comparator.comparingInt(hit -> scoreDocs[hit].doc))
+                                        .toArray(Integer[]::new);
+        LeafDocValues leafDocValues = null;
+        for(var hit : hitsInDocIdOrder) {
+            var docId = scoreDocs[hit].doc;
+            var leaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+            if(leafDocValues == null || leafDocValues.leaf != leaf) {
+                leafDocValues = new LeafDocValues(leaf, dictionaryLanguages);
+            }
+            var values = leafDocValues.getDictionaryLanguageValues(docId - leaf.docBase, dictionaryLanguages);
+            if(values == null) {
+                values = documentTranslator.getDictionaryLanguageValues(indexSearcher.doc(docId), dictionaryLanguages);
+            }
+            results[hit] = values;
+        }
+        return ImmutableList.copyOf(results);
+    }
+
+    private class LeafDocValues {
+
+        private final LeafReaderContext leaf;
+
+        @Nullable
+        private final SortedDocValues entityTypes;
+
+        @Nullable
+        private final BinaryDocValues iris;
+
+        private final List<BinaryDocValues> dictionaryLanguageValues = new ArrayList<>();
+
+        private LeafDocValues(@Nonnull LeafReaderContext leaf,
+                              @Nonnull List<DictionaryLanguage> dictionaryLanguages) throws IOException {
+            this.leaf = leaf;
+            var reader = leaf.reader();
+            this.entityTypes = reader.getSortedDocValues(EntityDocumentFieldNames.ENTITY_TYPE);
+            this.iris = reader.getBinaryDocValues(EntityDocumentFieldNames.IRI);
+            for(var dictionaryLanguage : dictionaryLanguages) {
+                var fieldName = fieldNameTranslator.getNonTokenizedFieldName(dictionaryLanguage);
+                dictionaryLanguageValues.add(reader.getBinaryDocValues(fieldName));
+            }
+        }
+
+        /**
+         * Gets the values for the specified document in this segment, or null if the document does not have doc values
+         */
+        @Nullable
+        private EntityDictionaryLanguageValues getDictionaryLanguageValues(int docId,
+                                                                           @Nonnull List<DictionaryLanguage> dictionaryLanguages) throws IOException {
+            if(entityTypes == null || iris == null || !entityTypes.advanceExact(docId) || !iris.advanceExact(docId)) {
+                return null;
+            }
+            var entityType = entityTypes.binaryValue().utf8ToString();
+            var iri = iris.binaryValue().utf8ToString();
+            var entity = documentTranslator.getEntity(entityType, iri);
+            var valuesBuilder = ImmutableSetMultimap.<DictionaryLanguage, String>builder();
+            for(int i = 0; i < dictionaryLanguages.size(); i++) {
+                var docValues = dictionaryLanguageValues.get(i);
+                if(docValues != null && docValues.advanceExact(docId)) {
+                    valuesBuilder.putAll(dictionaryLanguages.get(i),
+                                         MultiValuedBinaryDocValues.decode(docValues.binaryValue()));
+                }
+            }
+            return EntityDictionaryLanguageValues.get(entity, valuesBuilder.build());
+        }
+    }
+}
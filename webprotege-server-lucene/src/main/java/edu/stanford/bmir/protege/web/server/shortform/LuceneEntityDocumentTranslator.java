@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
 import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -30,6 +31,16 @@ public interface LuceneEntityDocumentTranslator {
     @Nonnull
     OWLEntity getEntity(@Nonnull Document document);
 
+    /**
+     * Gets the {@link OWLEntity} for the values of the entity type and IRI fields of a Lucene document
+     *
+     * @param entityTypeName The value of the entity type field
+     * @param iri            The value of the IRI field
+     * @return The entity
+     */
+    @Nonnull
+    OWLEntity getEntity(@Nonnull String entityTypeName, @Nonnull String iri);
+
     /**
      * Extracts the values of the fields that represent the specified dictionary languages from
      * the specified Lucene document.
@@ -52,6 +63,16 @@ public interface LuceneEntityDocumentTranslator {
     @Nonnull
     Document getLuceneDocument(@Nonnull OWLEntity entity);
 
+    /**
+     * Gets a term that identifies the Lucene document for the specified entity.  This term can
+     * be used to update the document in place.
+     *
+     * @param entity The entity
+     * @return The term that identifies the document for the entity
+     */
+    @Nonnull
+    Term getEntityDocumentTerm(@Nonnull OWLEntity entity);
+
     @Nonnull
     Query getEntityDocumentQuery(@Nonnull OWLEntity entity);
 
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.LinkedListMultimap;
 import edu.stanford.bmir.protege.web.shared.shortform.*;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.IndexableField;
@@ -9,6 +10,7 @@ import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.BytesRef;
 import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
@@ -74,6 +76,12 @@ public class LuceneEntityDocumentTranslatorImpl implements LuceneEntityDocumentT
     public OWLEntity getEntity(@Nonnull Document luceneDocument) {
         var iri = luceneDocument.get(EntityDocumentFieldNames.IRI);
         var entityType = luceneDocument.get(EntityDocumentFieldNames.ENTITY_TYPE);
+        return getEntity(entityType, iri);
+    }
+
+    @Nonnull
+    @Override
+    public OWLEntity getEntity(@Nonnull String entityType, @Nonnull String iri) {
         var entityIri = org.semanticweb.owlapi.model.IRI.create(iri);
         if (entityType.equals(EntityType.CLASS.getName())) {
             return dataFactory.getOWLClass(entityIri);
@@ -130,6 +138,8 @@ public class LuceneEntityDocumentTranslatorImpl implements LuceneEntityDocumentT
 
         addEntityIri(entity, document);
 
+        addEntityKey(entity, document);
+
         builtInStatusDocumentAugmenter.augmentDocument(entity, document);
 
         prefixedNameDocumentAugmenter.augmentDocument(entity, document);
@@ -142,19 +152,55 @@ public class LuceneEntityDocumentTranslatorImpl implements LuceneEntityDocumentT
 
         searchFiltersDocumentAugmenter.augmentDocument(entity, document);
 
+        addDictionaryLanguageDocValues(document);
+
         return document;
     }
 
+    /**
+     * Adds the stored values of the non-tokenized dictionary language fields as binary doc values so that search
+     * results can be read without loading stored documents
+     */
+    private static void addDictionaryLanguageDocValues(Document document) {
+        var valuesByFieldName = LinkedListMultimap.<String, String>create();
+        for(var field : document.getFields()) {
+            if(field.name().startsWith(KEYWORD_FIELD_PREFIX) && field.fieldType().stored()) {
+                valuesByFieldName.put(field.name(), field.stringValue());
+            }
+        }
+        valuesByFieldName.asMap()
+                         .forEach((fieldName, values) -> document.add(new BinaryDocValuesField(fieldName,
+                                                                                               MultiValuedBinaryDocValues.encode(values))));
+    }
+
     private static void addEntityType(OWLEntity entity, Document document) {
         // Entity Type.  Not analyzed
         var entityType = entity.getEntityType().getName();
         document.add(new StringField(ENTITY_TYPE, entityType, Field.Store.YES));
+        document.add(new SortedDocValuesField(ENTITY_TYPE, new BytesRef(entityType)));
     }
 
     private static void addEntityIri(OWLEntity entity, Document document) {
         // Entity IRI.  Not analyzed
         var iri = entity.getIRI().toString();
         document.add(new StringField(EntityDocumentFieldNames.IRI, iri, Field.Store.YES));
+        document.add(new BinaryDocValuesField(EntityDocumentFieldNames.IRI, new BytesRef(iri)));
+    }
+
+    private static void addEntityKey(OWLEntity entity, Document document) {
+        // Entity key.  Not analyzed or stored.  Identifies the document for updates.
+        document.add(new StringField(ENTITY_KEY, getEntityKey(entity), Field.Store.NO));
+    }
+
+    private static String getEntityKey(OWLEntity entity) {
+        // The IRI alone does not identify a document because of punning
+        return entity.getEntityType().getName() + " " + entity.getIRI();
+    }
+
+    @Nonnull
+    @Override
+    public Term getEntityDocumentTerm(@Nonnull OWLEntity entity) {
+        return new Term(ENTITY_KEY, getEntityKey(entity));
     }
 
     @Override
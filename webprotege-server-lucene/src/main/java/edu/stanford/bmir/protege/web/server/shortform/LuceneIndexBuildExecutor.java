@@ -0,0 +1,10 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LuceneIndexBuildExecutor {
+}
@@ -0,0 +1,117 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Makes updates to the Lucene index durable.  Updates are visible to searches as soon as the
+ * near-real-time reader is refreshed, so commits (which sync the index files to disk) are batched.
+ * Pending changes are committed once a threshold number of changes has been reached, or after a short
+ * delay, whichever comes first.  A commit that fails is retried after the same delay.  Anything still
+ * pending when the project is closed is committed when the index writer is closed.  The commit service
+ * is shared by the indexes of all projects.
+ */
+@ProjectSingleton
+public class LuceneIndexCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneIndexCommitter.class);
+
+    public static final int MAX_UNCOMMITTED_CHANGES = 1_000;
+
+    public static final Duration COMMIT_DELAY = Duration.ofSeconds(10);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final IndexWriter indexWriter;
+
+    @Nonnull
+    private final ScheduledExecutorService commitService;
+
+    private final AtomicInteger uncommittedChanges = new AtomicInteger();
+
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+
+    @Inject
+    public LuceneIndexCommitter(@Nonnull ProjectId projectId,
+                                @Nonnull IndexWriter indexWriter,
+                                @Nonnull @LuceneIndexCommitService ScheduledExecutorService commitService) {
+        this.projectId = checkNotNull(projectId);
+        this.indexWriter = checkNotNull(indexWriter);
+        this.commitService = checkNotNull(commitService);
+    }
+
+    /**
+     * Records that changes have been made to the index.  This commits the index if the number of
+     * uncommitted changes has reached the threshold, otherwise it schedules a commit.
+     *
+     * @param changeCount The number of changed documents
+     */
+    public void changesApplied(int changeCount) {
+        var pendingChanges = uncommittedChanges.addAndGet(changeCount);
+        if(pendingChanges >= MAX_UNCOMMITTED_CHANGES) {
+            commit();
+        }
+        else {
+            scheduleCommit();
+        }
+    }
+
+    private void scheduleCommit() {
+        if(commitScheduled.compareAndSet(false, true)) {
+            commitService.schedule(this::commitScheduledChanges, COMMIT_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void commitScheduledChanges() {
+        commitScheduled.set(false);
+        if(uncommittedChanges.get() > 0) {
+            commit();
+        }
+    }
+
+    /**
+     * Commits all changes that have been made to the index.
+     */
+    public void commit() {
+        var pendingChanges = uncommittedChanges.getAndSet(0);
+        try {
+            var stopwatch = Stopwatch.createStarted();
+            indexWriter.commit();
+            logger.debug("{} Committed {} lucene index changes in {} ms",
+                         projectId,
+                         pendingChanges,
+                         stopwatch.elapsed().toMillis());
+        } catch (AlreadyClosedException e) {
+            // The project has been closed.  Closing the writer committed the changes.
+            logger.debug("{} Lucene index writer closed before commit", projectId);
+        } catch (IOException e) {
+            // The changes are still visible to searches.  Retry after a delay, or on the next commit if
+            // that comes first.
+            uncommittedChanges.addAndGet(pendingChanges);
+            logger.error("{} An error occurred while committing the lucene index", projectId, e);
+            scheduleCommit();
+        }
+    }
+
+    public int getUncommittedChangesCount() {
+        return uncommittedChanges.get();
+    }
+}
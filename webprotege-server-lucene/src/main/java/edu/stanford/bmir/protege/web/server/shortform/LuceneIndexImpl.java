@@ -1,7 +1,6 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import com.google.common.collect.ImmutableSet;
-import edu.stanford.bmir.protege.web.server.pagination.PageCollector;
 import edu.stanford.bmir.protege.web.shared.pagination.Page;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
 import edu.stanford.bmir.protege.web.shared.search.EntitySearchFilter;
@@ -55,17 +54,22 @@ public class LuceneIndexImpl implements LuceneIndex {
     @Nonnull
     private final QueryAnalyzerFactory queryAnalyzerFactory;
 
+    @Nonnull
+    private final LuceneEntityDocValuesReader docValuesReader;
+
     @Inject
     public LuceneIndexImpl(@Nonnull LuceneEntityDocumentTranslator luceneEntityDocumentTranslator,
                            @Nonnull SearcherManager searcherManager,
                            @Nonnull LuceneQueryFactory queryFactory,
                            @Nonnull LuceneDictionaryLanguageValuesMatcher luceneDictionaryLanguageValuesMatcher,
-                           @Nonnull QueryAnalyzerFactory queryAnalyzerFactory) {
+                           @Nonnull QueryAnalyzerFactory queryAnalyzerFactory,
+                           @Nonnull LuceneEntityDocValuesReader docValuesReader) {
         this.luceneEntityDocumentTranslator = luceneEntityDocumentTranslator;
         this.searcherManager = searcherManager;
         this.queryFactory = queryFactory;
         this.luceneDictionaryLanguageValuesMatcher = luceneDictionaryLanguageValuesMatcher;
         this.queryAnalyzerFactory = queryAnalyzerFactory;
+        this.docValuesReader = docValuesReader;
     }
 
     @Nonnull
@@ -140,13 +144,8 @@ public class LuceneIndexImpl implements LuceneIndex {
             }
             var query = queryBuilder.build();
 
-            var topDocs = indexSearcher.search(query, Integer.MAX_VALUE);
-            explain(query, topDocs, indexSearcher);
             var languagesSet = ImmutableSet.copyOf(dictionaryLanguages);
-            var page = getDictionaryLanguageValues(dictionaryLanguages,
-                                                   indexSearcher,
-                                                   topDocs).collect(PageCollector.toPage(pageRequest.getPageNumber(),
-                                                                                         pageRequest.getPageSize()));
+            var page = getPage(query, indexSearcher, dictionaryLanguages, pageRequest);
             return page.map(pg -> pg.transform(entityShortForms -> {
                 var matches = luceneDictionaryLanguageValuesMatcher.getShortFormMatches(entityShortForms,
                                                                                         languagesSet,
@@ -159,6 +158,33 @@ public class LuceneIndexImpl implements LuceneIndex {
         }
     }
 
+    /**
+     * Gets the requested page of hits for the specified query.  Only the top hits up to the end of the requested
+     * page are collected and only the documents on the requested page are loaded.  The total number of hits is
+     * obtained by counting, without collecting, the matching documents.
+     */
+    private Optional<Page<EntityDictionaryLanguageValues>> getPage(@Nonnull Query query,
+                                                                   @Nonnull IndexSearcher indexSearcher,
+                                                                   @Nonnull List<DictionaryLanguage> dictionaryLanguages,
+                                                                   @Nonnull PageRequest pageRequest) throws IOException {
+        var pageNumber = pageRequest.getPageNumber();
+        var pageSize = pageRequest.getPageSize();
+        var totalHits = indexSearcher.count(query);
+        var pageCount = (totalHits + pageSize - 1) / pageSize;
+        if(pageNumber > pageCount) {
+            return Optional.empty();
+        }
+        var pageStart = pageRequest.getSkip();
+        var pageEnd = (int) Math.min((long) pageNumber * pageSize, totalHits);
+        var topDocs = indexSearcher.search(query, pageEnd);
+        explain(query, topDocs, indexSearcher);
+        var scoreDocs = Arrays.copyOfRange(topDocs.scoreDocs, Math.min(pageStart, topDocs.scoreDocs.length), topDocs.scoreDocs.length);
+        var pageElements = getDictionaryLanguageValues(dictionaryLanguages,
+                                                       indexSearcher,
+                                                       new TopDocs(topDocs.totalHits, scoreDocs)).collect(toList());
+        return Optional.of(new Page<>(pageNumber, pageCount, pageElements, totalHits));
+    }
+
     private void explain(Query query, TopDocs topDocs, IndexSearcher indexSearcher) {
         if(!logger.isDebugEnabled()) {
             return;
@@ -190,7 +216,12 @@ public class LuceneIndexImpl implements LuceneIndex {
         var query = getQuery(Collections.singletonList(searchStrings), languages, true);
         var indexSearcher = searcherManager.acquire();
         try {
-            var topDocs = indexSearcher.search(query, Integer.MAX_VALUE);
+            // Exact matches are rare so all of them are collected, but the collector is sized to the hit count
+            var hitCount = indexSearcher.count(query);
+            if(hitCount == 0) {
+                return Stream.empty();
+            }
+            var topDocs = indexSearcher.search(query, hitCount);
             return getDictionaryLanguageValues(languages, indexSearcher, topDocs).filter(values -> {
                 var shortForms = values.getValues();
                 return languages.stream().map(shortForms::get).anyMatch(sf -> sf.contains(shortForm));
@@ -203,11 +234,9 @@ public class LuceneIndexImpl implements LuceneIndex {
 
     private Stream<EntityDictionaryLanguageValues> getDictionaryLanguageValues(@Nonnull List<DictionaryLanguage> dictionaryLanguages,
                                                                                @Nonnull IndexSearcher indexSearcher,
-                                                                               @Nonnull TopDocs topDocs) {
-        return Arrays.stream(topDocs.scoreDocs)
-                     .map(scoreDoc -> scoreDoc.doc)
-                     .map(docId -> getDoc(indexSearcher, docId))
-                     .map(doc -> luceneEntityDocumentTranslator.getDictionaryLanguageValues(doc, dictionaryLanguages));
+                                                                               @Nonnull TopDocs topDocs) throws IOException {
+        return docValuesReader.getDictionaryLanguageValues(indexSearcher, topDocs.scoreDocs, dictionaryLanguages)
+                              .stream();
     }
 
     public Document getDoc(IndexSearcher indexSearcher, Integer docId) {
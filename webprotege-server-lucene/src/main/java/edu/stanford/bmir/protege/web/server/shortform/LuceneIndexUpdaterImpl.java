@@ -1,8 +1,6 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
-import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.search.Query;
 import org.apache.lucene.search.SearcherManager;
 import org.semanticweb.owlapi.model.OWLEntity;
 
@@ -31,38 +29,38 @@ public class LuceneIndexUpdaterImpl implements LuceneIndexUpdater {
     @Nonnull
     private final SearcherManager searcherManager;
 
+    @Nonnull
+    private final LuceneShortFormCache luceneShortFormCache;
+
+    @Nonnull
+    private final LuceneIndexCommitter indexCommitter;
+
     @Inject
     public LuceneIndexUpdaterImpl(@Nonnull IndexWriter indexWriter,
                                   @Nonnull Provider<LuceneEntityDocumentTranslator> documentTranslatorProvider,
-                                  @Nonnull SearcherManager searcherManager) {
+                                  @Nonnull SearcherManager searcherManager,
+                                  @Nonnull LuceneShortFormCache luceneShortFormCache,
+                                  @Nonnull LuceneIndexCommitter indexCommitter) {
         this.indexWriter = checkNotNull(indexWriter);
         this.documentTranslatorProvider = checkNotNull(documentTranslatorProvider);
         this.searcherManager = checkNotNull(searcherManager);
+        this.luceneShortFormCache = checkNotNull(luceneShortFormCache);
+        this.indexCommitter = checkNotNull(indexCommitter);
     }
 
     @Override
     public void updateIndexForEntities(@Nonnull Collection<OWLEntity> entities) {
         try {
             var documentTranslator = documentTranslatorProvider.get();
-            var deleteQueries = entities.stream()
-                    .map(documentTranslator::getEntityDocumentQuery)
-                    .toArray(Query[]::new);
-
-            indexWriter.deleteDocuments(deleteQueries);
-
-            entities.stream()
-                    .map(documentTranslator::getLuceneDocument)
-                    .forEach(this::addDocument);
-            indexWriter.commit();
-            searcherManager.maybeRefresh();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
-    private void addDocument(@Nonnull Document document) {
-        try {
-            indexWriter.addDocument(document);
+            for(var entity : entities) {
+                indexWriter.updateDocument(documentTranslator.getEntityDocumentTerm(entity),
+                                           documentTranslator.getLuceneDocument(entity));
+            }
+            // Refreshing the near-real-time reader makes the updates visible without a commit.
+            // The cached short forms may only be invalidated once searches see the updated documents.
+            searcherManager.maybeRefreshBlocking();
+            luceneShortFormCache.invalidate(entities);
+            indexCommitter.changesApplied(entities.size());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -1,17 +1,20 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import edu.stanford.bmir.protege.web.server.index.BuiltInOwlEntitiesIndex;
 import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureIndex;
 import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
 import edu.stanford.bmir.protege.web.server.search.EntitySearchFilterIndexesManager;
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
-import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,8 +24,14 @@ import javax.inject.Provider;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 
 /**
  * Matthew Horridge
@@ -33,6 +42,11 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
 
     private static final Logger logger = LoggerFactory.getLogger(LuceneIndexWriterImpl.class);
 
+    /**
+     * The number of entities that are translated and added to the index by a single build task
+     */
+    private static final int BUILD_BATCH_SIZE = 1_000;
+
     @Nonnull
     private final ProjectId projectId;
 
@@ -57,6 +71,11 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
     @Nonnull
     private BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex;
 
+    @Nonnull
+    private final LuceneShortFormCache luceneShortFormCache;
+
+    @Nonnull
+    private final ExecutorService indexBuildExecutor;
 
     @Inject
     public LuceneIndexWriterImpl(@Nonnull ProjectId projectId,
@@ -66,7 +85,9 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
                                  @Nonnull EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex,
                                  @Nonnull IndexWriter indexWriter,
                                  @Nonnull SearcherManager searcherManager,
-                                 @Nonnull BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex) {
+                                 @Nonnull BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex,
+                                 @Nonnull LuceneShortFormCache luceneShortFormCache,
+                                 @Nonnull @LuceneIndexBuildExecutor ExecutorService indexBuildExecutor) {
         this.projectId = projectId;
         this.luceneDirectory = luceneDirectory;
         this.luceneEntityDocumentTranslator = luceneEntityDocumentTranslator;
@@ -75,6 +96,8 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
         this.indexWriter = indexWriter;
         this.searcherManager = searcherManager;
         this.builtInOwlEntitiesIndex = checkNotNull(builtInOwlEntitiesIndex);
+        this.luceneShortFormCache = checkNotNull(luceneShortFormCache);
+        this.indexBuildExecutor = checkNotNull(indexBuildExecutor);
     }
 
     @Override
@@ -90,43 +113,96 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
     public void rebuildIndex() throws IOException {
         indexWriter.deleteAll();
         buildAndWriteIndex();
+        luceneShortFormCache.invalidateAll();
     }
 
     @Override
     public void writeIndex() throws IOException {
 
         if(DirectoryReader.indexExists(luceneDirectory)) {
-            logger.info("{} Lucene index already exists", projectId);
+            if(isEntityKeyIndexed()) {
+                logger.info("{} Lucene index already exists", projectId);
+                return;
+            }
+            // Documents in older indexes cannot be updated by their entity key
+            logger.info("{} Lucene index does not contain entity keys.  Rebuilding index.", projectId);
+            rebuildIndex();
             return;
         }
         buildAndWriteIndex();
     }
 
+    private boolean isEntityKeyIndexed() throws IOException {
+        try(var reader = DirectoryReader.open(indexWriter)) {
+            return reader.numDocs() == 0
+                    || FieldInfos.getMergedFieldInfos(reader).fieldInfo(EntityDocumentFieldNames.ENTITY_KEY) != null;
+        }
+    }
+
     private void buildAndWriteIndex() throws IOException {
         logger.info("{} Building lucene index", projectId);
         var stopwatch = Stopwatch.createStarted();
 
-        var docTranslator = luceneEntityDocumentTranslator.get();
-        projectSignatureIndex.getSignature()
-                             .map(docTranslator::getLuceneDocument)
-                             .forEach(this::addDocumentToIndex);
-        builtInOwlEntitiesIndex.getBuiltInEntities()
-                               .filter(entity -> !entitiesInProjectSignatureIndex.containsEntityInSignature(entity))
-                               .map(docTranslator::getLuceneDocument)
-                               .forEach(this::addDocumentToIndex);
+        var entities = Stream.concat(projectSignatureIndex.getSignature(),
+                                     builtInOwlEntitiesIndex.getBuiltInEntities()
+                                                            .filter(entity -> !entitiesInProjectSignatureIndex.containsEntityInSignature(entity)))
+                             .collect(toImmutableList());
+        // Translators are not shared between threads.  The build threads are shared by all projects, so each
+        // batch gets its own translator rather than leaving one behind in a thread local of a build thread.
+        var buildTasks = Lists.partition(entities, BUILD_BATCH_SIZE)
+                              .stream()
+                              .map(batch -> (Callable<Void>) () -> {
+                                  addDocumentsToIndex(batch, luceneEntityDocumentTranslator.get());
+                                  return null;
+                              })
+                              .collect(toImmutableList());
+        try {
+            for(var buildTask : indexBuildExecutor.invokeAll(buildTasks)) {
+                buildTask.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while building lucene index", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if(cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            Throwables.throwIfUnchecked(cause);
+            throw new IOException(cause);
+        }
         indexWriter.commit();
         searcherManager.maybeRefreshBlocking();
-        logger.info("{} Built lucene based dictionary in {} ms", projectId, stopwatch.elapsed().toMillis());
+        var elapsedMs = Math.max(1, stopwatch.elapsed().toMillis());
+        logger.info("{} Built lucene based dictionary containing {} documents in {} ms ({} docs/sec, {} segments)",
+                    projectId,
+                    entities.size(),
+                    elapsedMs,
+                    entities.size() * 1000L / elapsedMs,
+                    getSegmentCount());
     }
 
-    public void addDocumentToIndex(Document doc) {
+    private void addDocumentsToIndex(List<OWLEntity> entities,
+                                     LuceneEntityDocumentTranslator documentTranslator) {
         try {
-            indexWriter.addDocument(doc);
+            var documents = entities.stream()
+                                    .map(documentTranslator::getLuceneDocument)
+                                    .collect(toImmutableList());
+            indexWriter.addDocuments(documents);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private int getSegmentCount() throws IOException {
+        var searcher = searcherManager.acquire();
+        try {
+            return searcher.getIndexReader().leaves().size();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
     @Override
     public void dispose() {
         try {
@@ -8,7 +8,9 @@ import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.TieredMergePolicy;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
@@ -34,6 +36,12 @@ public class LuceneModule {
 
     public static final int MAX_GRAM_SIZE = 11;
 
+    /**
+     * The RAM buffer used by the index writer.  This is larger than the Lucene default so that
+     * building the index for a large project flushes fewer, larger segments.
+     */
+    public static final double INDEX_WRITER_RAM_BUFFER_SIZE_MB = 64;
+
     @Provides
     @ProjectSingleton
     public FieldNameTranslator provideDictionaryLanguage2FieldNameTranslator(FieldNameTranslatorImpl impl) {
@@ -97,7 +105,17 @@ public class LuceneModule {
     IndexWriterConfig provideIndexWriterConfig(IndexingAnalyzerFactory analyzerFactory) {
         var analyzer = analyzerFactory.get();
         var config = new IndexWriterConfig(analyzer);
-        return config.setSimilarity(new EntityBasedSimilarity());
+        var mergeScheduler = new ConcurrentMergeScheduler();
+        // Do not fall back to a single merge thread when the disk type cannot be detected
+        mergeScheduler.setDefaultMaxMergesAndThreads(false);
+        var mergePolicy = new TieredMergePolicy();
+        // Merge many of the small segments that are flushed by concurrent indexing threads at once
+        mergePolicy.setSegmentsPerTier(20);
+        mergePolicy.setMaxMergeAtOnce(20);
+        return config.setSimilarity(new EntityBasedSimilarity())
+                     .setRAMBufferSizeMB(INDEX_WRITER_RAM_BUFFER_SIZE_MB)
+                     .setMergeScheduler(mergeScheduler)
+                     .setMergePolicy(mergePolicy);
     }
 
     @Provides
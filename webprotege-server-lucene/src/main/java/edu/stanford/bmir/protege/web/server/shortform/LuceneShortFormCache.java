@@ -0,0 +1,127 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Caches the short forms that are looked up in the Lucene index for an entity and a list of dictionary languages.
+ * The cache is safe for concurrent use.  It is bounded by the number of entities that it holds and evicts the least
+ * recently used entities first.  Entries must be invalidated whenever the index is updated for an entity.
+ */
+@ProjectSingleton
+public class LuceneShortFormCache {
+
+    /**
+     * The maximum number of entities whose short forms are held in the cache
+     */
+    private static final long MAX_CACHED_ENTITIES = 50_000;
+
+    private final Cache<OWLEntity, ConcurrentMap<ImmutableList<DictionaryLanguage>, ImmutableMap<DictionaryLanguage, String>>> shortFormsByEntity;
+
+    /**
+     * Incremented on every invalidation so that short forms that were looked up before an invalidation are not
+     * added to the cache after it
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    @Inject
+    public LuceneShortFormCache() {
+        this(MAX_CACHED_ENTITIES);
+    }
+
+    LuceneShortFormCache(long maxCachedEntities) {
+        shortFormsByEntity = CacheBuilder.newBuilder()
+                                         .maximumSize(maxCachedEntities)
+                                         .recordStats()
+                                         .build();
+    }
+
+    /**
+     * Gets the generation of the cache.  This must be obtained before the short forms for an entity are looked up
+     * and passed to {@link #put(OWLEntity, List, ImmutableMap, long)}.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @Nonnull
+    public Optional<ImmutableMap<DictionaryLanguage, String>> get(@Nonnull OWLEntity entity,
+                                                                  @Nonnull List<DictionaryLanguage> languages) {
+        var shortFormsByLanguages = shortFormsByEntity.getIfPresent(entity);
+        var shortForms = shortFormsByLanguages == null ? null : shortFormsByLanguages.get(languages);
+        if(shortForms != null) {
+            hitCount.increment();
+        }
+        else {
+            missCount.increment();
+        }
+        return Optional.ofNullable(shortForms);
+    }
+
+    /**
+     * Adds the short forms for an entity to the cache
+     * @param generation The generation of the cache, from {@link #getGeneration()}, before the short forms were looked up
+     */
+    public void put(@Nonnull OWLEntity entity,
+                    @Nonnull List<DictionaryLanguage> languages,
+                    @Nonnull ImmutableMap<DictionaryLanguage, String> shortForms,
+                    long generation) {
+        checkNotNull(shortForms);
+        if(generation != this.generation.get()) {
+            return;
+        }
+        shortFormsByEntity.asMap()
+                          .computeIfAbsent(entity, e -> new ConcurrentHashMap<>(2))
+                          .put(ImmutableList.copyOf(languages), shortForms);
+        // An invalidation may have happened between the check above and the put
+        if(generation != this.generation.get()) {
+            shortFormsByEntity.invalidate(entity);
+        }
+    }
+
+    public void invalidate(@Nonnull Collection<OWLEntity> entities) {
+        generation.incrementAndGet();
+        shortFormsByEntity.invalidateAll(entities);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        shortFormsByEntity.invalidateAll();
+    }
+
+    /**
+     * Gets the hit and miss statistics for short form lookups along with the eviction statistics for entities
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        var entityStats = shortFormsByEntity.stats();
+        return new CacheStats(hitCount.sum(),
+                              missCount.sum(),
+                              0,
+                              0,
+                              0,
+                              entityStats.evictionCount());
+    }
+}
@@ -30,9 +30,14 @@ public class MultiLingualShortFormDictionaryLuceneImpl implements MultiLingualSh
     @Nonnull
     private final LuceneIndex luceneIndex;
 
+    @Nonnull
+    private final LuceneShortFormCache luceneShortFormCache;
+
     @Inject
-    public MultiLingualShortFormDictionaryLuceneImpl(@Nonnull LuceneIndex luceneIndex) {
+    public MultiLingualShortFormDictionaryLuceneImpl(@Nonnull LuceneIndex luceneIndex,
+                                                     @Nonnull LuceneShortFormCache luceneShortFormCache) {
         this.luceneIndex = checkNotNull(luceneIndex);
+        this.luceneShortFormCache = checkNotNull(luceneShortFormCache);
     }
 
     @Nonnull
@@ -40,15 +45,12 @@ public class MultiLingualShortFormDictionaryLuceneImpl implements MultiLingualSh
     public String getShortForm(@Nonnull OWLEntity entity,
                                @Nonnull List<DictionaryLanguage> languages,
                                @Nonnull String defaultShortForm) {
-        try {
-            return luceneIndex.find(entity, languages)
-                              .findFirst()
-                              .flatMap(entityShortForms -> getShortFormForLanguages(languages, entityShortForms))
-                              .orElse(defaultShortForm);
-        } catch (IOException e) {
-            logger.error("Error while looking up entity short forms", e);
-            return defaultShortForm;
-        }
+        var shortFormsByLanguage = getShortForms(entity, languages);
+        return languages.stream()
+                        .map(shortFormsByLanguage::get)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(defaultShortForm);
     }
 
     public static Optional<String> getShortFormForLanguages(@Nonnull List<DictionaryLanguage> languages,
@@ -61,13 +63,20 @@ public class MultiLingualShortFormDictionaryLuceneImpl implements MultiLingualSh
     @Override
     public ImmutableMap<DictionaryLanguage, String> getShortForms(@Nonnull OWLEntity entity,
                                                                   @Nonnull List<DictionaryLanguage> languages) {
+        var cachedShortForms = luceneShortFormCache.get(entity, languages);
+        if(cachedShortForms.isPresent()) {
+            return cachedShortForms.get();
+        }
+        var generation = luceneShortFormCache.getGeneration();
         try {
-            return luceneIndex.find(entity, languages)
-                              .findFirst()
-                              .map(EntityShortForms::getShortForms)
-                              .orElse(ImmutableMap.of());
+            var shortForms = luceneIndex.find(entity, languages)
+                                        .findFirst()
+                                        .map(EntityShortForms::getShortForms)
+                                        .orElse(ImmutableMap.of());
+            luceneShortFormCache.put(entity, languages, shortForms, generation);
+            return shortForms;
         } catch (IOException e) {
-            logger.error("Error while looking up entity short forms");
+            logger.error("Error while looking up entity short forms", e);
             return ImmutableMap.of();
         }
     }
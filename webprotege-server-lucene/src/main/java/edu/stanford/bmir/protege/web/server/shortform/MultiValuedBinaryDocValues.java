@@ -0,0 +1,50 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.util.BytesRef;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * Encodes a list of string values as a single binary doc value.  Binary doc values, unlike sorted set doc
+ * values, are not limited to short values and they preserve the order of the values.
+ */
+public class MultiValuedBinaryDocValues {
+
+    private MultiValuedBinaryDocValues() {
+    }
+
+    @Nonnull
+    public static BytesRef encode(@Nonnull Collection<String> values) {
+        try {
+            var output = new ByteBuffersDataOutput();
+            output.writeVInt(values.size());
+            for(var value : values) {
+                output.writeString(value);
+            }
+            return new BytesRef(output.toArrayCopy());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Nonnull
+    public static ImmutableList<String> decode(@Nonnull BytesRef bytesRef) {
+        try {
+            var input = new ByteArrayDataInput(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+            var count = input.readVInt();
+            var values = ImmutableList.<String>builderWithExpectedSize(count);
+            for(int i = 0; i < count; i++) {
+                values.add(input.readString());
+            }
+            return values.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
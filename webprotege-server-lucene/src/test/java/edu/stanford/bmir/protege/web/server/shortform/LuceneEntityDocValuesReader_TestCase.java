@@ -0,0 +1,142 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneEntityDocValuesReader_TestCase {
+
+    private static final String IRI_A = "http://example.org/A";
+
+    private static final String IRI_B = "http://example.org/B";
+
+    private final FieldNameTranslator fieldNameTranslator = new FieldNameTranslatorImpl();
+
+    @Mock
+    private LuceneEntityDocumentTranslator documentTranslator;
+
+    @Mock
+    private OWLEntity entityA;
+
+    @Mock
+    private EntityDictionaryLanguageValues storedValues;
+
+    private ByteBuffersDirectory directory;
+
+    private DirectoryReader reader;
+
+    private LuceneEntityDocValuesReader docValuesReader;
+
+    private List<DictionaryLanguage> languages;
+
+    @Before
+    public void setUp() throws IOException {
+        languages = ImmutableList.of(DictionaryLanguage.localName());
+        directory = new ByteBuffersDirectory();
+        try(var indexWriter = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            indexWriter.addDocument(createDocumentWithDocValues(IRI_A, "A", "Another A"));
+            indexWriter.addDocument(createDocumentWithoutDocValues(IRI_B));
+        }
+        reader = DirectoryReader.open(directory);
+        docValuesReader = new LuceneEntityDocValuesReader(fieldNameTranslator, documentTranslator);
+    }
+
+    private Document createDocumentWithDocValues(String iri, String... values) {
+        var document = createDocumentWithoutDocValues(iri);
+        document.add(new SortedDocValuesField(EntityDocumentFieldNames.ENTITY_TYPE,
+                                              new BytesRef(EntityType.CLASS.getName())));
+        document.add(new BinaryDocValuesField(EntityDocumentFieldNames.IRI, new BytesRef(iri)));
+        var fieldName = fieldNameTranslator.getNonTokenizedFieldName(DictionaryLanguage.localName());
+        document.add(new BinaryDocValuesField(fieldName, MultiValuedBinaryDocValues.encode(List.of(values))));
+        return document;
+    }
+
+    private Document createDocumentWithoutDocValues(String iri) {
+        var document = new Document();
+        document.add(new StringField(EntityDocumentFieldNames.ENTITY_TYPE, EntityType.CLASS.getName(), Field.Store.YES));
+        document.add(new StringField(EntityDocumentFieldNames.IRI, iri, Field.Store.YES));
+        return document;
+    }
+
+    private void givenEntityA() {
+        when(documentTranslator.getEntity(EntityType.CLASS.getName(), IRI_A))
+                .thenReturn(entityA);
+    }
+
+    private void givenStoredValues() {
+        when(documentTranslator.getDictionaryLanguageValues(any(Document.class), any()))
+                .thenReturn(storedValues);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldReadValuesFromDocValues() throws IOException {
+        givenEntityA();
+        var values = docValuesReader.getDictionaryLanguageValues(new IndexSearcher(reader),
+                                                                 new ScoreDoc[]{new ScoreDoc(0, 1.0f)},
+                                                                 languages);
+        var expected = EntityDictionaryLanguageValues.get(entityA,
+                                                          ImmutableSetMultimap.of(DictionaryLanguage.localName(), "A",
+                                                                                  DictionaryLanguage.localName(), "Another A"));
+        assertThat(values, contains(expected));
+    }
+
+    @Test
+    public void shouldReadValuesFromStoredFieldsForDocumentsWithoutDocValues() throws IOException {
+        givenStoredValues();
+        var values = docValuesReader.getDictionaryLanguageValues(new IndexSearcher(reader),
+                                                                 new ScoreDoc[]{new ScoreDoc(1, 1.0f)},
+                                                                 languages);
+        assertThat(values, contains(storedValues));
+    }
+
+    @Test
+    public void shouldPreserveHitOrder() throws IOException {
+        givenEntityA();
+        givenStoredValues();
+        var values = docValuesReader.getDictionaryLanguageValues(new IndexSearcher(reader),
+                                                                 new ScoreDoc[]{new ScoreDoc(1, 2.0f), new ScoreDoc(0, 1.0f)},
+                                                                 languages);
+        assertThat(values.size(), is(2));
+        assertThat(values.get(0), is(storedValues));
+        assertThat(values.get(1).getEntity(), is(entityA));
+    }
+
+    @Test
+    public void shouldRoundTripMultipleValues() {
+        var encoded = MultiValuedBinaryDocValues.encode(List.of("X", "", "Z"));
+        assertThat(MultiValuedBinaryDocValues.decode(encoded), contains("X", "", "Z"));
+    }
+}
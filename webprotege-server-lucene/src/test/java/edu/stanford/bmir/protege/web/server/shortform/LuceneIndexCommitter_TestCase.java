@@ -0,0 +1,143 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneIndexCommitter_TestCase {
+
+    private LuceneIndexCommitter committer;
+
+    private ByteBuffersDirectory directory;
+
+    private boolean failSync = false;
+
+    private IndexWriter indexWriter;
+
+    @Mock
+    private ScheduledExecutorService commitService;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        // Commits fail while syncing the index files fails
+        var syncFailingDirectory = new FilterDirectory(directory) {
+            @Override
+            public void sync(Collection<String> names) throws IOException {
+                if(failSync) {
+                    throw new IOException("Sync failed");
+                }
+                super.sync(names);
+            }
+        };
+        indexWriter = new IndexWriter(syncFailingDirectory, new IndexWriterConfig(new StandardAnalyzer()));
+        committer = new LuceneIndexCommitter(ProjectId.get(UUID.randomUUID().toString()), indexWriter, commitService);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        indexWriter.close();
+        directory.close();
+    }
+
+    private void addDocument() throws IOException {
+        var document = new Document();
+        document.add(new StringField("iri", "http://example.org/A", Field.Store.YES));
+        indexWriter.addDocument(document);
+    }
+
+    private int getCommittedDocumentCount() throws IOException {
+        try(var reader = DirectoryReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+
+    @Test
+    public void shouldScheduleCommitForChangesBelowThreshold() throws IOException {
+        addDocument();
+        committer.changesApplied(1);
+        verify(commitService, times(1)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+        assertThat(indexWriter.hasUncommittedChanges(), is(true));
+        assertThat(committer.getUncommittedChangesCount(), is(1));
+    }
+
+    @Test
+    public void shouldScheduleOnlyOneCommitAtATime() throws IOException {
+        addDocument();
+        committer.changesApplied(1);
+        committer.changesApplied(1);
+        verify(commitService, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void shouldCommitWhenScheduledCommitRuns() throws IOException {
+        addDocument();
+        committer.changesApplied(1);
+        var commitCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(commitService).schedule(commitCaptor.capture(), anyLong(), any());
+        commitCaptor.getValue().run();
+        assertThat(indexWriter.hasUncommittedChanges(), is(false));
+        assertThat(committer.getUncommittedChangesCount(), is(0));
+        assertThat(getCommittedDocumentCount(), is(1));
+    }
+
+    @Test
+    public void shouldCommitImmediatelyWhenThresholdIsReached() throws IOException {
+        addDocument();
+        committer.changesApplied(LuceneIndexCommitter.MAX_UNCOMMITTED_CHANGES);
+        verify(commitService, never()).schedule(any(Runnable.class), anyLong(), any());
+        assertThat(indexWriter.hasUncommittedChanges(), is(false));
+        assertThat(committer.getUncommittedChangesCount(), is(0));
+    }
+
+    @Test
+    public void shouldIgnoreCommitAfterWriterIsClosed() throws IOException {
+        addDocument();
+        committer.changesApplied(1);
+        indexWriter.close();
+        committer.commit();
+        assertThat(getCommittedDocumentCount(), is(1));
+    }
+
+    @Test
+    public void shouldScheduleRetryWhenCommitFails() throws IOException {
+        addDocument();
+        failSync = true;
+        committer.changesApplied(LuceneIndexCommitter.MAX_UNCOMMITTED_CHANGES);
+        assertThat(committer.getUncommittedChangesCount(), is(LuceneIndexCommitter.MAX_UNCOMMITTED_CHANGES));
+        var commitCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(commitService).schedule(commitCaptor.capture(), anyLong(), any());
+        failSync = false;
+        commitCaptor.getValue().run();
+        assertThat(committer.getUncommittedChangesCount(), is(0));
+        assertThat(getCommittedDocumentCount(), is(1));
+    }
+}
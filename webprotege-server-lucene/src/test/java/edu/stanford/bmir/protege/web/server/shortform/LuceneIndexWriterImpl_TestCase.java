@@ -0,0 +1,147 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.server.index.BuiltInOwlEntitiesIndex;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLEntity;
+import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneIndexWriterImpl_TestCase {
+
+    private static final int ENTITY_COUNT = 2_500;
+
+    private static final OWLEntity BUILT_IN_ENTITY = new OWLClassImpl(IRI.create("http://www.w3.org/2002/07/owl#Thing"));
+
+    private LuceneIndexWriterImpl writer;
+
+    private ByteBuffersDirectory directory;
+
+    private IndexWriter indexWriter;
+
+    private SearcherManager searcherManager;
+
+    private final ExecutorService buildExecutor = Executors.newFixedThreadPool(2);
+
+    @Mock
+    private LuceneEntityDocumentTranslator documentTranslator;
+
+    @Mock
+    private ProjectSignatureIndex projectSignatureIndex;
+
+    @Mock
+    private EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex;
+
+    @Mock
+    private BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        searcherManager = new SearcherManager(indexWriter, new SearcherFactory());
+        when(projectSignatureIndex.getSignature())
+                .thenAnswer(invocation -> IntStream.range(0, ENTITY_COUNT)
+                                                   .mapToObj(i -> new OWLClassImpl(IRI.create("http://example.org/C" + i))));
+        when(builtInOwlEntitiesIndex.getBuiltInEntities())
+                .thenAnswer(invocation -> Stream.of(BUILT_IN_ENTITY));
+        when(documentTranslator.getLuceneDocument(any()))
+                .thenAnswer(invocation -> {
+                    OWLEntity entity = invocation.getArgument(0);
+                    var document = new Document();
+                    document.add(new StringField(EntityDocumentFieldNames.IRI, entity.getIRI().toString(), Field.Store.YES));
+                    return document;
+                });
+        writer = new LuceneIndexWriterImpl(ProjectId.get(UUID.randomUUID().toString()),
+                                           directory,
+                                           () -> documentTranslator,
+                                           projectSignatureIndex,
+                                           entitiesInProjectSignatureIndex,
+                                           indexWriter,
+                                           searcherManager,
+                                           builtInOwlEntitiesIndex,
+                                           new LuceneShortFormCache(),
+                                           buildExecutor);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        buildExecutor.shutdown();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private int getSearchableDocumentCount() throws IOException {
+        var searcher = searcherManager.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @Test
+    public void shouldAddDocumentForEveryEntity() throws IOException {
+        writer.rebuildIndex();
+        assertThat(getSearchableDocumentCount(), is(ENTITY_COUNT + 1));
+        assertThat(indexWriter.hasUncommittedChanges(), is(false));
+    }
+
+    @Test
+    public void shouldNotAddBuiltInEntitiesThatAreInSignature() throws IOException {
+        when(entitiesInProjectSignatureIndex.containsEntityInSignature(BUILT_IN_ENTITY)).thenReturn(true);
+        writer.rebuildIndex();
+        assertThat(getSearchableDocumentCount(), is(ENTITY_COUNT));
+    }
+
+    @Test
+    public void shouldReplaceDocumentsOnRebuild() throws IOException {
+        writer.rebuildIndex();
+        writer.rebuildIndex();
+        assertThat(getSearchableDocumentCount(), is(ENTITY_COUNT + 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldPropagateTranslationFailures() throws IOException {
+        doThrow(new IllegalStateException()).when(documentTranslator).getLuceneDocument(any());
+        writer.rebuildIndex();
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldPropagateIndexWriterFailures() throws IOException {
+        doThrow(new UncheckedIOException(new IOException())).when(documentTranslator).getLuceneDocument(any());
+        writer.rebuildIndex();
+    }
+}
@@ -0,0 +1,84 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneShortFormCache_TestCase {
+
+    private LuceneShortFormCache cache;
+
+    @Mock
+    private OWLEntity entity, otherEntity;
+
+    private List<DictionaryLanguage> languages;
+
+    private ImmutableMap<DictionaryLanguage, String> shortForms;
+
+    @Before
+    public void setUp() {
+        cache = new LuceneShortFormCache(10);
+        languages = ImmutableList.of(DictionaryLanguage.rdfsLabel("en"));
+        shortForms = ImmutableMap.of(DictionaryLanguage.rdfsLabel("en"), "A");
+    }
+
+    @Test
+    public void shouldGetCachedShortForms() {
+        cache.put(entity, languages, shortForms, cache.getGeneration());
+        assertThat(cache.get(entity, languages), is(Optional.of(shortForms)));
+    }
+
+    @Test
+    public void shouldNotGetShortFormsForOtherLanguages() {
+        cache.put(entity, languages, shortForms, cache.getGeneration());
+        assertThat(cache.get(entity, ImmutableList.of(DictionaryLanguage.localName())), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldInvalidateEntity() {
+        cache.put(entity, languages, shortForms, cache.getGeneration());
+        cache.put(otherEntity, languages, shortForms, cache.getGeneration());
+        cache.invalidate(ImmutableList.of(entity));
+        assertThat(cache.get(entity, languages), is(Optional.empty()));
+        assertThat(cache.get(otherEntity, languages), is(Optional.of(shortForms)));
+    }
+
+    @Test
+    public void shouldInvalidateAll() {
+        cache.put(entity, languages, shortForms, cache.getGeneration());
+        cache.invalidateAll();
+        assertThat(cache.get(entity, languages), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldNotAddShortFormsLookedUpBeforeInvalidation() {
+        var generation = cache.getGeneration();
+        cache.invalidate(ImmutableList.of(otherEntity));
+        cache.put(entity, languages, shortForms, generation);
+        assertThat(cache.get(entity, languages), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldRecordHitsAndMisses() {
+        cache.get(entity, languages);
+        cache.put(entity, languages, shortForms, cache.getGeneration());
+        cache.get(entity, languages);
+        cache.get(entity, languages);
+        var stats = cache.getStats();
+        assertThat(stats.hitCount(), is(2L));
+        assertThat(stats.missCount(), is(1L));
+    }
+}
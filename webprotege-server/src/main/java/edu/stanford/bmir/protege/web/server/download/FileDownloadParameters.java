@@ -4,8 +4,10 @@ import edu.stanford.bmir.protege.web.shared.download.ProjectDownloadConstants;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.project.ProjectIdFormatException;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.IRI;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 
@@ -86,10 +88,26 @@ public class FileDownloadParameters {
         return DownloadFormat.getDownloadFormatFromParameterName(format);
     }
 
+    /**
+     * Gets the IRI of the class whose subtree has been requested.
+     * @return The IRI of the root class of the subtree, or empty if the complete project has been requested.
+     */
+    public Optional<IRI> getRootClassIri() {
+        String rootClass = getRawRootClassParameter();
+        if(rootClass == null || rootClass.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(IRI.create(rootClass.trim()));
+    }
+
     private String getRawFormatParameter() {
         return request.getParameter(ProjectDownloadConstants.FORMAT);
     }
 
+    private String getRawRootClassParameter() {
+        return request.getParameter(ProjectDownloadConstants.ROOT_CLASS);
+    }
+
     private String getRawRevisionParameter() {
         return request.getParameter(ProjectDownloadConstants.REVISION);
     }
@@ -109,6 +127,7 @@ public class FileDownloadParameters {
                 .add("projectId", getProjectId())
                 .add("revision", getRequestedRevision())
                 .add("format", getFormat())
+                .add("rootClass", getRootClassIri().orElse(null))
                 .toString();
     }
 }
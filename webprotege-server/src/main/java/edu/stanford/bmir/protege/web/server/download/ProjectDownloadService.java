@@ -8,6 +8,7 @@ import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.IRI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,10 +72,16 @@ public class ProjectDownloadService {
         this.createDownloadTaskFactory = checkNotNull(createDownloadTaskFactory);
     }
 
+    /**
+     * Downloads the specified revision of a project.
+     * @param rootClassIri The IRI of the class whose subtree should be downloaded.  If this is empty then
+     *                     the complete ontologies of the project are downloaded.
+     */
     public void downloadProject(@Nonnull UserId requester,
                                 @Nonnull ProjectId projectId,
                                 @Nonnull RevisionNumber revisionNumber,
                                 @Nonnull DownloadFormat downloadFormat,
+                                @Nonnull Optional<IRI> rootClassIri,
                                 @Nonnull HttpServletResponse response) throws IOException {
 
         RevisionNumber realRevisionNumber;
@@ -85,18 +92,26 @@ public class ProjectDownloadService {
             realRevisionNumber = revisionNumber;
         }
 
-        Path downloadPath = projectDownloadCache.getCachedDownloadPath(projectId, realRevisionNumber, downloadFormat);
+        Path downloadPath = rootClassIri.map(iri -> projectDownloadCache.getCachedSubtreeDownloadPath(projectId,
+                                                                                                   realRevisionNumber,
+                                                                                                   downloadFormat,
+                                                                                                   iri))
+                                        .orElseGet(() -> projectDownloadCache.getCachedDownloadPath(projectId,
+                                                                                                    realRevisionNumber,
+                                                                                                    downloadFormat));
 
         createDownloadIfNecessary(requester,
                                   projectId,
-                                  revisionNumber,
+                                  realRevisionNumber,
                                   downloadFormat,
+                                  rootClassIri,
                                   downloadPath);
 
         transferFileToClient(projectId,
                              requester,
                              revisionNumber,
                              downloadFormat,
+                             rootClassIri,
                              downloadPath,
                              response);
     }
@@ -105,6 +120,7 @@ public class ProjectDownloadService {
                                            @Nonnull ProjectId projectId,
                                            @Nonnull RevisionNumber revisionNumber,
                                            @Nonnull DownloadFormat downloadFormat,
+                                           @Nonnull Optional<IRI> rootClassIri,
                                            @Nonnull Path downloadPath) {
         // This thing always returns the same lock for the same project.
         // This means that we won't create the *same* download more than once.  It
@@ -123,6 +139,7 @@ public class ProjectDownloadService {
                                                                        getProjectDisplayName(projectId),
                                                                        revisionNumber,
                                                                        downloadFormat,
+                                                                       rootClassIri,
                                                                        downloadPath);
             try {
                 var futureOfCreateDownload = downloadGeneratorExecutor.submit(task);
@@ -157,12 +174,13 @@ public class ProjectDownloadService {
                                       @Nonnull UserId userId,
                                       @Nonnull RevisionNumber revisionNumber,
                                       @Nonnull DownloadFormat downloadFormat,
+                                      @Nonnull Optional<IRI> rootClassIri,
                                       @Nonnull Path downloadSource,
                                       @Nonnull HttpServletResponse response) {
 
 
 
-        String fileName = getClientSideFileName(projectId, revisionNumber, downloadFormat);
+        String fileName = getClientSideFileName(projectId, revisionNumber, downloadFormat, rootClassIri.isPresent());
         FileTransferTask task = new FileTransferTask(projectId,
                                                      userId,
                                                      downloadSource,
@@ -182,7 +200,7 @@ public class ProjectDownloadService {
         }
     }
 
-    private String getClientSideFileName(ProjectId projectId, RevisionNumber revision, DownloadFormat downloadFormat) {
+    private String getClientSideFileName(ProjectId projectId, RevisionNumber revision, DownloadFormat downloadFormat, boolean subtree) {
         String revisionNumberSuffix;
         if (revision.isHead()) {
             revisionNumberSuffix = "";
@@ -193,6 +211,7 @@ public class ProjectDownloadService {
         String projectDisplayName = projectDetailsManager.getProjectDetails(projectId).getDisplayName();
         String fileName = projectDisplayName.replaceAll("\\s+", "-")
                 + revisionNumberSuffix
+                + (subtree ? "-subtree" : "")
                 + "-ontologies."
                 + downloadFormat.getExtension()
                 + ".zip";
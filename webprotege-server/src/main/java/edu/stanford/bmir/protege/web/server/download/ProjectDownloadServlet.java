@@ -11,6 +11,7 @@ import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.IRI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +22,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 import static edu.stanford.bmir.protege.web.server.logging.RequestFormatter.formatAddr;
 
@@ -88,7 +90,8 @@ public class ProjectDownloadServlet extends HttpServlet {
         ProjectId projectId = downloadParameters.getProjectId();
         RevisionNumber revisionNumber = downloadParameters.getRequestedRevision();
         DownloadFormat format = downloadParameters.getFormat();
-        projectDownloadService.downloadProject(userId, projectId, revisionNumber, format, resp);
+        Optional<IRI> rootClassIri = downloadParameters.getRootClassIri();
+        projectDownloadService.downloadProject(userId, projectId, revisionNumber, format, rootClassIri, resp);
     }
 
     @Override
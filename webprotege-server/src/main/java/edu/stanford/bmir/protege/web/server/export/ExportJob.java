@@ -0,0 +1,132 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An export of a project revision to Neo4J that is run asynchronously by the {@link ProjectExportService}.
+ * The job is updated by the export thread and may be read concurrently by status requests.
+ */
+public class ExportJob {
+
+    @Nonnull
+    private final String jobId;
+
+    @Nonnull
+    private final UserId requester;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionNumber revisionNumber;
+
+    private final long submittedTimestamp;
+
+    private final Neo4jWriteSummary writeSummary = new Neo4jWriteSummary();
+
+    private final StringBuffer report = new StringBuffer();
+
+    @Nonnull
+    private volatile ExportJobPhase phase = ExportJobPhase.QUEUED;
+
+    private volatile String errorMessage = null;
+
+    public ExportJob(@Nonnull String jobId,
+                     @Nonnull UserId requester,
+                     @Nonnull ProjectId projectId,
+                     @Nonnull RevisionNumber revisionNumber,
+                     long submittedTimestamp) {
+        this.jobId = checkNotNull(jobId);
+        this.requester = checkNotNull(requester);
+        this.projectId = checkNotNull(projectId);
+        this.revisionNumber = checkNotNull(revisionNumber);
+        this.submittedTimestamp = submittedTimestamp;
+    }
+
+    @Nonnull
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Nonnull
+    public UserId getRequester() {
+        return requester;
+    }
+
+    @Nonnull
+    public ProjectId getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Gets the requested revision.  This may be the head revision.
+     */
+    @Nonnull
+    public RevisionNumber getRevisionNumber() {
+        return revisionNumber;
+    }
+
+    public long getSubmittedTimestamp() {
+        return submittedTimestamp;
+    }
+
+    @Nonnull
+    public ExportJobPhase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(@Nonnull ExportJobPhase phase) {
+        this.phase = checkNotNull(phase);
+    }
+
+    /**
+     * Gets the summary of the updates that have been made to Neo4J so far.
+     */
+    @Nonnull
+    public Neo4jWriteSummary getWriteSummary() {
+        return writeSummary;
+    }
+
+    /**
+     * Appends an HTML fragment that describes a completed step of the export.
+     */
+    public void appendReport(@Nonnull String htmlFragment) {
+        report.append(htmlFragment);
+    }
+
+    /**
+     * Gets the HTML fragments that describe the steps of the export that have been completed so far.
+     */
+    @Nonnull
+    public String getReport() {
+        return report.toString();
+    }
+
+    public void fail(@Nonnull String errorMessage) {
+        this.errorMessage = checkNotNull(errorMessage);
+        this.phase = ExportJobPhase.FAILED;
+    }
+
+    @Nonnull
+    public Optional<String> getErrorMessage() {
+        return Optional.ofNullable(errorMessage);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper("ExportJob")
+                .add("jobId", jobId)
+                .add("projectId", projectId)
+                .add("revision", revisionNumber)
+                .add("phase", phase)
+                .toString();
+    }
+}
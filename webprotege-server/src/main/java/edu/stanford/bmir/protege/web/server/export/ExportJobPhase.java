@@ -0,0 +1,50 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+/**
+ * The phases that an {@link ExportJob} goes through.
+ */
+public enum ExportJobPhase {
+
+    /**
+     * The job is waiting for the export executor
+     */
+    QUEUED(false),
+
+    /**
+     * The ontology graph (or graph delta) is being extracted from the project
+     */
+    SERIALIZING(false),
+
+    /**
+     * The existing graph is being removed from Neo4J
+     */
+    CLEARING(false),
+
+    /**
+     * Nodes and relationships are being written to Neo4J
+     */
+    IMPORTING(false),
+
+    /**
+     * The export completed successfully
+     */
+    FINISHED(true),
+
+    /**
+     * The export failed
+     */
+    FAILED(true);
+
+    private final boolean terminal;
+
+    ExportJobPhase(boolean terminal) {
+        this.terminal = terminal;
+    }
+
+    /**
+     * Determines whether this phase is a final phase.
+     */
+    public boolean isTerminal() {
+        return terminal;
+    }
+}
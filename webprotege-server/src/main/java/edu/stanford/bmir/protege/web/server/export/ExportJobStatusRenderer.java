@@ -0,0 +1,59 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.html.HtmlEscapers;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+/**
+ * Renders the status of an {@link ExportJob} as an HTML page.  Pages for jobs that have not finished
+ * refresh themselves, so that the browser window that requested the export can follow its progress.
+ */
+public class ExportJobStatusRenderer {
+
+    private static final int REFRESH_INTERVAL_SECONDS = 2;
+
+    @Inject
+    public ExportJobStatusRenderer() {
+    }
+
+    /**
+     * Gets the URL (relative to the export servlet) at which the status of the specified job can be polled.
+     */
+    @Nonnull
+    public static String getStatusUrl(@Nonnull ExportJob job) {
+        return "export?" + ProjectExportServlet.JOB_PARAMETER + "=" + job.getJobId();
+    }
+
+    @Nonnull
+    public String render(@Nonnull ExportJob job) {
+        var phase = job.getPhase();
+        var summary = job.getWriteSummary();
+        StringBuilder sb = new StringBuilder("<html>\n");
+        sb.append("<head>\n").
+                append("    <meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">\n");
+        if (!phase.isTerminal()) {
+            sb.append("    <meta http-equiv=\"refresh\" content=\"").append(REFRESH_INTERVAL_SECONDS)
+              .append(";url=").append(getStatusUrl(job)).append("\">\n");
+        }
+        sb.append("    <title>WebProt&#233;g&#233; Report for Export to Neo4J</title>\n").
+                append("    <link rel=\"shortcut icon\" type=\"image/x-icon\" href=\"favicon.png\"/>\n").
+                append("    <link rel=\"stylesheet\" href=\"css/WebProtege.css\" type=\"text/css\">\n").
+                append("</head>\n");
+        sb.append("<body>\n");
+        sb.append("<ul>")
+          .append("<li>job:").append(job.getJobId()).append("</li>")
+          .append("<li>project:").append(job.getProjectId().getId()).append("</li>")
+          .append("<li>revision:").append(job.getRevisionNumber()).append("</li>")
+          .append("<li>phase:").append(phase).append("</li>")
+          .append("<li>rowsProcessed:").append(summary.getRowsProcessed()).append("</li>")
+          .append("<li>transactions:").append(summary.getTransactions()).append("</li>")
+          .append("<li>nodesDeleted:").append(summary.getNodesDeleted()).append("</li>")
+          .append("</ul>\n");
+        sb.append(job.getReport());
+        job.getErrorMessage().ifPresent(errorMessage ->
+                sb.append("<p>Export failed: ").append(HtmlEscapers.htmlEscaper().escape(errorMessage)).append("</p>"));
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+}
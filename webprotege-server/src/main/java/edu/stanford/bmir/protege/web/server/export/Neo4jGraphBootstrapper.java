@@ -0,0 +1,96 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Prepares the Neo4J database for exports.  The database wide set up (the n10s graph configuration) and
+ * the per project set up (the uniqueness constraint that backs node lookups by IRI) only need to be done
+ * once per target database.  Completed steps are remembered, so that a steady state export only runs the
+ * transactions that write data.  The remembered state is discarded with
+ * {@link #invalidate()} when an export fails, because the failure may have been caused by the target
+ * database having been reset.
+ */
+@ApplicationSingleton
+public class Neo4jGraphBootstrapper {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4jGraphBootstrapper.class);
+
+    /**
+     * Earlier versions of the exporter created this database wide constraint on {@code Resource.uri}.  Every
+     * exported node has the {@code Resource} label, so while the constraint exists two projects cannot contain
+     * a node for the same IRI.  Nothing else in WebProtégé uses the constraint, so it is dropped and uniqueness
+     * is enforced per project instead.
+     */
+    private static final String DROP_GLOBAL_CONSTRAINT_QUERY =
+            "DROP CONSTRAINT n10s_unique_uri IF EXISTS";
+
+    private static final String CREATE_PROJECT_CONSTRAINT_QUERY =
+            "CREATE CONSTRAINT `%1$s_unique_uri` IF NOT EXISTS ON (n:`%1$s`) ASSERT n.uri IS UNIQUE";
+
+    private static final String SHOW_GRAPH_CONFIG_QUERY = "CALL n10s.graphconfig.show()";
+
+    private static final String INIT_GRAPH_CONFIG_QUERY = "CALL n10s.graphconfig.init()";
+
+    @Nonnull
+    private final String target;
+
+    private final Set<String> completedSteps = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    public Neo4jGraphBootstrapper(@Nonnull Neo4jConnectionSettings connectionSettings) {
+        this.target = checkNotNull(connectionSettings).getBoltUri();
+    }
+
+    /**
+     * Ensures that the database and the project specific schema have been set up.
+     * @param session The session to use.
+     * @param job The job that the set up is done for.  Steps that are carried out are added to its report.
+     */
+    public void bootstrap(@Nonnull Session session,
+                          @Nonnull ExportJob job) {
+        checkNotNull(session);
+        var databaseKey = target;
+        if (!completedSteps.contains(databaseKey)) {
+            session.writeTransaction(tx -> tx.run(DROP_GLOBAL_CONSTRAINT_QUERY).consume());
+            boolean graphConfigExists = session.readTransaction(tx -> tx.run(SHOW_GRAPH_CONFIG_QUERY).hasNext());
+            if (!graphConfigExists) {
+                session.writeTransaction(tx -> tx.run(INIT_GRAPH_CONFIG_QUERY).consume());
+                logger.info("Initialized n10s graph configuration of {}", target);
+                job.appendReport("<p>Setting the configuration of the graph ... done<p/>");
+            }
+            completedSteps.add(databaseKey);
+        }
+        var projectId = job.getProjectId();
+        var projectKey = getProjectKey(projectId);
+        if (!completedSteps.contains(projectKey)) {
+            var projectLabel = Neo4jOntologyGraphWriter.getProjectLabel(projectId);
+            var query = String.format(CREATE_PROJECT_CONSTRAINT_QUERY, projectLabel);
+            session.writeTransaction(tx -> tx.run(query).consume());
+            logger.info("{} Ensured uniqueness constraint for {} in {}", projectId, projectLabel, target);
+            job.appendReport("<p>Creating uniqueness constraint ... " + projectLabel + "<p/>");
+            completedSteps.add(projectKey);
+        }
+    }
+
+    private String getProjectKey(@Nonnull ProjectId projectId) {
+        return target + "#" + projectId.getId();
+    }
+
+    /**
+     * Forgets the set up steps that have been completed, so that they are checked again by the next export.
+     */
+    public void invalidate() {
+        completedSteps.clear();
+    }
+}
@@ -0,0 +1,330 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static org.neo4j.driver.Values.parameters;
+
+/**
+ * Writes an {@link OntologyGraph} into Neo4J over Bolt.  Nodes and relationships are sent as
+ * parameter rows that are unwound by a parameterized Cypher statement, one write transaction per
+ * batch.  Labels and relationship types cannot be parameterized in Cypher, so there is one statement
+ * per node type and one statement per relationship type.
+ * <p>
+ * The revision of the project that the graph was last brought up to is recorded in a
+ * {@code WebProtegeExport} node, which allows later exports to apply an {@link OntologyGraphDelta}
+ * instead of reloading the whole graph.  The revision is only recorded once the graph is complete.
+ * A reload invalidates the recorded revision before the existing graph is cleared, so that a graph
+ * that was left incomplete by a failed reload is never treated as being at any revision.
+ * </p>
+ * <p>
+ * All nodes that are written for a project are given a project label (see {@link #getProjectLabel(ProjectId)})
+ * and nodes are identified by their project label and IRI.  Several projects can therefore be exported into
+ * the same database, even if they contain the same IRIs, and the nodes of a project can be removed without
+ * touching the rest of the database.  The {@code Resource} label is kept on all nodes, so that queries written
+ * against single project graphs keep working.  The database wide {@code n10s_unique_uri} constraint on
+ * {@code Resource.uri}, which earlier versions created, is dropped by the {@link Neo4jGraphBootstrapper}.
+ * </p>
+ */
+public class Neo4jOntologyGraphWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4jOntologyGraphWriter.class);
+
+    // In the queries below %1$s is the project label and %2$s is a node label or relationship type
+
+    private static final String MERGE_NODES_QUERY =
+            "UNWIND $rows AS row " +
+            "MERGE (n:`%1$s` {uri: row.uri}) " +
+            "SET n:Resource:%2$s, n.name = row.name " +
+            "SET n += row.props";
+
+    private static final String MERGE_RELATIONSHIPS_QUERY =
+            "UNWIND $rows AS row " +
+            "MERGE (a:`%1$s` {uri: row.from}) " +
+            "MERGE (b:`%1$s` {uri: row.to}) " +
+            "SET a:Resource, b:Resource " +
+            "MERGE (a)-[:%2$s]->(b)";
+
+    private static final String DELETE_RELATIONSHIPS_QUERY =
+            "UNWIND $rows AS uri " +
+            "MATCH (n:`%1$s` {uri: uri})-[r:" + Stream.of(OntologyGraphRelationshipType.values())
+                                                      .map(Enum::name)
+                                                      .collect(joining("|")) + "]-() " +
+            "DELETE r";
+
+    private static final String DELETE_NODES_QUERY =
+            "UNWIND $rows AS uri " +
+            "MATCH (n:`%1$s` {uri: uri}) " +
+            "DETACH DELETE n";
+
+    private static final String RESET_NODES_QUERY =
+            "UNWIND $rows AS uri " +
+            "MATCH (n:`%1$s` {uri: uri}) " +
+            "REMOVE n:" + Stream.of(OntologyGraphNodeType.values())
+                                .map(OntologyGraphNodeType::getLabel)
+                                .collect(joining(":")) + ", " +
+            "n." + OntologyGraphAxiomTranslator.LABEL_PROPERTY_NAME + ", " +
+            "n." + OntologyGraphAxiomTranslator.COMMENT_PROPERTY_NAME;
+
+    private static final String CLEAR_PROJECT_NODES_QUERY =
+            "MATCH (n:`%1$s`) " +
+            "WITH n LIMIT $limit " +
+            "DETACH DELETE n";
+
+    private static final String PROJECT_LABEL_PREFIX = "Project_";
+
+    private static final String EXPORT_STATE_LABEL = "WebProtegeExport";
+
+    private static final String GET_EXPORTED_REVISION_QUERY =
+            "MATCH (e:" + EXPORT_STATE_LABEL + " {projectId: $projectId}) " +
+            "WHERE e.complete = true " +
+            "RETURN e.revision AS revision";
+
+    private static final String SET_EXPORTED_REVISION_QUERY =
+            "MERGE (e:" + EXPORT_STATE_LABEL + " {projectId: $projectId}) " +
+            "SET e.revision = $revision, e.complete = true";
+
+    private static final String INVALIDATE_EXPORTED_REVISION_QUERY =
+            "MATCH (e:" + EXPORT_STATE_LABEL + " {projectId: $projectId}) " +
+            "DELETE e";
+
+    private final int batchSize;
+
+    private final int deleteBatchSize;
+
+    @Inject
+    public Neo4jOntologyGraphWriter(@Neo4jExportBatchSize int batchSize,
+                                    @Neo4jDeleteBatchSize int deleteBatchSize) {
+        checkArgument(batchSize > 0, "The batch size must be greater than zero");
+        checkArgument(deleteBatchSize > 0, "The delete batch size must be greater than zero");
+        this.batchSize = batchSize;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    /**
+     * Gets the label that marks the nodes that belong to the specified project.
+     */
+    @Nonnull
+    public static String getProjectLabel(@Nonnull ProjectId projectId) {
+        return PROJECT_LABEL_PREFIX + projectId.getId().replace('-', '_');
+    }
+
+    /**
+     * Removes the nodes of the specified project, and their relationships, from the graph.  Nodes are
+     * deleted in batches, each in its own transaction, so that the size of the transaction state is
+     * bounded regardless of the size of the graph.
+     * @param session The session that the write transactions are run in.
+     * @param projectId The project whose nodes should be removed.
+     * @param summary The summary that the deletions are recorded in as each batch is deleted.
+     */
+    public void clear(@Nonnull Session session,
+                      @Nonnull ProjectId projectId,
+                      @Nonnull Neo4jWriteSummary summary) {
+        checkNotNull(session);
+        checkNotNull(summary);
+        var query = String.format(CLEAR_PROJECT_NODES_QUERY, getProjectLabel(projectId));
+        int deleted;
+        do {
+            var counters = session.writeTransaction(tx -> tx.run(query, parameters("limit", deleteBatchSize))
+                                                            .consume()
+                                                            .counters());
+            deleted = counters.nodesDeleted();
+            summary.add(counters, deleted);
+        } while (deleted > 0);
+        logger.info("{} Cleared project nodes from Neo4J: {}", projectId, summary);
+    }
+
+    /**
+     * Writes the specified graph.  All nodes are written before any relationships are written.
+     * @param session The session that the write transactions are run in.
+     * @param projectId The project that the graph belongs to.
+     * @param graph The graph to write.
+     * @param summary The summary that the updates are recorded in as each batch is written.
+     */
+    public void write(@Nonnull Session session,
+                      @Nonnull ProjectId projectId,
+                      @Nonnull OntologyGraph graph,
+                      @Nonnull Neo4jWriteSummary summary) {
+        checkNotNull(session);
+        checkNotNull(graph);
+        checkNotNull(summary);
+        var projectLabel = getProjectLabel(projectId);
+        Map<String, List<Map<String, Object>>> nodeRowsByLabels = graph.getNodes()
+                .stream()
+                .collect(groupingBy(Neo4jOntologyGraphWriter::getNodeLabels,
+                                    TreeMap::new,
+                                    mapping(Neo4jOntologyGraphWriter::toRow, toList())));
+        nodeRowsByLabels.forEach((nodeLabels, rows) -> {
+            var query = String.format(MERGE_NODES_QUERY, projectLabel, nodeLabels);
+            writeRows(session, query, rows, summary);
+        });
+        Map<OntologyGraphRelationshipType, List<Map<String, Object>>> relationshipRowsByType = graph.getRelationships()
+                .stream()
+                .collect(groupingBy(OntologyGraphRelationship::getRelationshipType,
+                                    () -> new EnumMap<>(OntologyGraphRelationshipType.class),
+                                    mapping(Neo4jOntologyGraphWriter::toRow, toList())));
+        relationshipRowsByType.forEach((relationshipType, rows) -> {
+            var query = String.format(MERGE_RELATIONSHIPS_QUERY, projectLabel, relationshipType.name());
+            writeRows(session, query, rows, summary);
+        });
+        logger.info("Wrote {} nodes and {} relationships to Neo4J: {}",
+                    graph.getNodes().size(),
+                    graph.getRelationships().size(),
+                    summary);
+    }
+
+    /**
+     * Applies the specified delta.  The relationships of the affected IRIs are removed, the nodes of affected
+     * IRIs that are no longer part of the graph are removed and the remaining affected nodes are stripped of
+     * their labels and properties.  The graph of the delta is then written.  Applying a delta is idempotent,
+     * so a delta that fails part way through can simply be applied again.
+     * @param session The session that the write transactions are run in.
+     * @param projectId The project that the graph belongs to.
+     * @param delta The delta to apply.
+     * @param summary The summary that the updates are recorded in as each batch is written.
+     */
+    public void writeDelta(@Nonnull Session session,
+                           @Nonnull ProjectId projectId,
+                           @Nonnull OntologyGraphDelta delta,
+                           @Nonnull Neo4jWriteSummary summary) {
+        checkNotNull(session);
+        checkNotNull(delta);
+        checkNotNull(summary);
+        var projectLabel = getProjectLabel(projectId);
+        writeRows(session, String.format(DELETE_RELATIONSHIPS_QUERY, projectLabel), delta.getAffectedIris().asList(), summary);
+        var graph = delta.getGraph();
+        var remainingIris = graph.getNodes()
+                                 .stream()
+                                 .map(OntologyGraphNode::getIri)
+                                 .collect(ImmutableSet.toImmutableSet());
+        var removedIris = delta.getAffectedIris()
+                               .stream()
+                               .filter(iri -> !remainingIris.contains(iri))
+                               .collect(ImmutableList.toImmutableList());
+        writeRows(session, String.format(DELETE_NODES_QUERY, projectLabel), removedIris, summary);
+        writeRows(session, String.format(RESET_NODES_QUERY, projectLabel), remainingIris.asList(), summary);
+        write(session, projectId, graph, summary);
+    }
+
+    /**
+     * Gets the revision of the specified project that the graph was last brought up to.
+     * @param session The session to use.
+     * @param projectId The project.
+     * @return The revision, or an empty value if the project has not been exported into the graph or
+     * if the graph of the project is not known to be complete.  In both cases the graph must be fully
+     * reloaded.
+     */
+    @Nonnull
+    public Optional<RevisionNumber> getExportedRevision(@Nonnull Session session,
+                                                        @Nonnull ProjectId projectId) {
+        return session.readTransaction(tx -> {
+            var records = tx.run(GET_EXPORTED_REVISION_QUERY, parameters("projectId", projectId.getId())).list();
+            if(records.isEmpty() || records.get(0).get("revision").isNull()) {
+                return Optional.empty();
+            }
+            return Optional.of(RevisionNumber.getRevisionNumber(records.get(0).get("revision").asLong()));
+        });
+    }
+
+    /**
+     * Invalidates the recorded revision of the specified project.  This must be called before the graph
+     * of the project is modified in a way that leaves it incomplete until the modification finishes.
+     * @param session The session to use.
+     * @param projectId The project.
+     */
+    public void invalidateExportedRevision(@Nonnull Session session,
+                                           @Nonnull ProjectId projectId) {
+        session.writeTransaction(tx -> tx.run(INVALIDATE_EXPORTED_REVISION_QUERY,
+                                              parameters("projectId", projectId.getId()))
+                                         .consume());
+    }
+
+    /**
+     * Records the revision of the specified project that the graph has been brought up to.  This marks
+     * the graph of the project as complete.
+     * @param session The session to use.
+     * @param projectId The project.
+     * @param revisionNumber The revision.
+     */
+    public void setExportedRevision(@Nonnull Session session,
+                                    @Nonnull ProjectId projectId,
+                                    @Nonnull RevisionNumber revisionNumber) {
+        session.writeTransaction(tx -> tx.run(SET_EXPORTED_REVISION_QUERY,
+                                              parameters("projectId", projectId.getId(),
+                                                         "revision", revisionNumber.getValue()))
+                                         .consume());
+    }
+
+    private void writeRows(@Nonnull Session session,
+                           @Nonnull String query,
+                           @Nonnull List<?> rows,
+                           @Nonnull Neo4jWriteSummary summary) {
+        for(var batch : Lists.partition(rows, batchSize)) {
+            var counters = session.writeTransaction(tx -> tx.run(query, parameters("rows", batch))
+                                                            .consume()
+                                                            .counters());
+            summary.add(counters, batch.size());
+        }
+    }
+
+    /**
+     * Gets the labels of a node, separated by colons.  A punned IRI has the labels of all of its types.
+     */
+    private static String getNodeLabels(@Nonnull OntologyGraphNode node) {
+        return node.getNodeTypes()
+                   .stream()
+                   .map(OntologyGraphNodeType::getLabel)
+                   .collect(joining(":"));
+    }
+
+    private static Map<String, Object> toRow(@Nonnull OntologyGraphNode node) {
+        return ImmutableMap.of("uri", node.getIri(),
+                               "name", node.getName(),
+                               "props", toPropertyValues(node.getProperties()));
+    }
+
+    /**
+     * Properties with a single value are written as strings and properties with several values are written
+     * as lists of strings
+     */
+    private static Map<String, Object> toPropertyValues(@Nonnull ImmutableSetMultimap<String, String> properties) {
+        var propertyValues = ImmutableMap.<String, Object>builder();
+        properties.asMap().forEach((propertyName, values) -> {
+            if(values.size() == 1) {
+                propertyValues.put(propertyName, values.iterator().next());
+            }
+            else {
+                propertyValues.put(propertyName, ImmutableList.copyOf(values));
+            }
+        });
+        return propertyValues.build();
+    }
+
+    private static Map<String, Object> toRow(@Nonnull OntologyGraphRelationship relationship) {
+        return ImmutableMap.of("from", relationship.getFromIri(),
+                               "to", relationship.getToIri());
+    }
+}
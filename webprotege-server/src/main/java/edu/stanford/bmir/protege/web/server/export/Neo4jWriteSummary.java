@@ -0,0 +1,83 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import org.neo4j.driver.summary.SummaryCounters;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Accumulates the update counters of the transactions that are run against Neo4J during an export.
+ * The summary is updated by the exporting thread while it is read by status requests, so access is
+ * synchronized.
+ */
+public class Neo4jWriteSummary {
+
+    private int transactions = 0;
+
+    private long rowsProcessed = 0;
+
+    private int nodesCreated = 0;
+
+    private int nodesDeleted = 0;
+
+    private int relationshipsCreated = 0;
+
+    private int relationshipsDeleted = 0;
+
+    private int propertiesSet = 0;
+
+    /**
+     * Records the counters of a transaction.
+     * @param counters The counters.
+     * @param rows The number of parameter rows that were processed by the transaction.
+     */
+    public synchronized void add(@Nonnull SummaryCounters counters, int rows) {
+        transactions++;
+        rowsProcessed += rows;
+        nodesCreated += counters.nodesCreated();
+        nodesDeleted += counters.nodesDeleted();
+        relationshipsCreated += counters.relationshipsCreated();
+        relationshipsDeleted += counters.relationshipsDeleted();
+        propertiesSet += counters.propertiesSet();
+    }
+
+    public synchronized long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public synchronized int getTransactions() {
+        return transactions;
+    }
+
+    public synchronized int getNodesCreated() {
+        return nodesCreated;
+    }
+
+    public synchronized int getNodesDeleted() {
+        return nodesDeleted;
+    }
+
+    public synchronized int getRelationshipsCreated() {
+        return relationshipsCreated;
+    }
+
+    public synchronized int getRelationshipsDeleted() {
+        return relationshipsDeleted;
+    }
+
+    public synchronized int getPropertiesSet() {
+        return propertiesSet;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Neo4jWriteSummary{" +
+                "transactions=" + transactions +
+                ", rowsProcessed=" + rowsProcessed +
+                ", nodesCreated=" + nodesCreated +
+                ", nodesDeleted=" + nodesDeleted +
+                ", relationshipsCreated=" + relationshipsCreated +
+                ", relationshipsDeleted=" + relationshipsDeleted +
+                ", propertiesSet=" + propertiesSet +
+                '}';
+    }
+}
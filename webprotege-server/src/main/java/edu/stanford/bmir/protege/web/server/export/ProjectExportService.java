@@ -1,36 +1,33 @@
 package edu.stanford.bmir.protege.web.server.export;
 
-import com.google.common.util.concurrent.Striped;
-import edu.stanford.bmir.protege.web.server.download.DownloadFormat;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import edu.stanford.bmir.protege.web.server.download.FileTransferExecutor;
-//import edu.stanford.bmir.protege.web.server.download.ProjectDownloadCache;
 import edu.stanford.bmir.protege.web.server.project.ProjectDetailsManager;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
-import edu.stanford.bmir.protege.web.server.revision.HeadRevisionNumberFinder;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.neo4j.driver.*;
-import org.neo4j.driver.Record;
-import org.neo4j.driver.internal.value.NullValue;
-import org.neo4j.driver.util.Pair;
-import org.semanticweb.owlapi.model.OWLOntologyCreationException;
-import org.semanticweb.owlapi.model.OWLOntologyStorageException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import javax.servlet.http.HttpServletResponse;
-import javax.validation.UnexpectedTypeException;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -42,22 +39,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @ApplicationSingleton
 public class ProjectExportService {
 
-    /** The host of neo4j (either localhost or a docker name) */
-    final static String NEO4JHOST = "neo4j"; //*/"localhost";
+    /** The maximum number of export jobs that may be queued or running at the same time */
+    private static final int MAX_IN_FLIGHT_JOBS = 32;
 
-    /** The port number of the neo4j host */
-    final static int NEO4JPORT = 7687;
+    /** The format under which extracted graphs are stored in the {@link ExportArtifactCache} */
+    private static final String GRAPH_ARTIFACT_FORMAT = "neo4j-graph";
 
-    final static String NEO4JUSER = "neo4j";
-
-    final static String NEO4JPASS = "test";
-
-    /** The host of webprotege (either localhost or a docker name) */
-    final static String WEBPROTEGEHOST = "webprotege"; //*/"localhost";
-
-    final static int WEBPROTEGEPORT = 8080;
-
-    final static String IMPORTTYPE = "onto"; //*/"rdf"
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectExportService.class);
 
@@ -70,95 +58,134 @@ public class ProjectExportService {
     @Nonnull
     private final ProjectDetailsManager projectDetailsManager;
 
-    //@Nonnull
-    //private final ProjectDownloadCache projectDownloadCache;
+    /**
+     * One lock per project, so that exports of the same project are serialized while exports of different
+     * projects can run concurrently.  Locks are weakly referenced and disappear with the jobs that use them.
+     */
+    private final LoadingCache<ProjectId, Lock> projectLocks = CacheBuilder.newBuilder()
+                                                                          .weakValues()
+                                                                          .build(CacheLoader.from(() -> new ReentrantLock()));
+
+    /**
+     * Queued and running jobs by project revision.  Used to de-duplicate export requests.
+     */
+    private final Map<ExportJobKey, ExportJob> inFlightJobs = new HashMap<>();
+
+    /**
+     * All jobs by job id, so that the status of finished jobs can still be retrieved for a while.
+     */
+    private final Cache<String, ExportJob> jobs = CacheBuilder.newBuilder()
+                                                            .expireAfterAccess(FINISHED_JOB_RETENTION_MINUTES, TimeUnit.MINUTES)
+                                                            .build();
 
     @Nonnull
-    private final HeadRevisionNumberFinder headRevisionNumberFinder;
+    private final ProjectManager projectManager;
 
-    private final Striped<Lock> lockStripes = Striped.lazyWeakLock(10);
+    @Nonnull
+    private final Driver driver;
 
     @Nonnull
-    private final ProjectExporterFactory projectExporterFactory;
+    private final Neo4jOntologyGraphWriter ontologyGraphWriter;
 
     @Nonnull
-    private final ProjectManager projectManager;
+    private final Neo4jGraphBootstrapper graphBootstrapper;
+
+    @Nonnull
+    private final ExportArtifactCache artifactCache;
+
+    private final boolean incrementalExport;
 
     @Inject
     public ProjectExportService(@Nonnull @ExportGeneratorExecutor ExecutorService exportGeneratorExecutor,
                                 @Nonnull @FileTransferExecutor ExecutorService fileTransferExecutor,
                                 @Nonnull ProjectDetailsManager projectDetailsManager,
                                 @Nonnull ProjectManager projectManager,
-                                //@Nonnull ProjectDownloadCache projectDownloadCache,
-                                @Nonnull HeadRevisionNumberFinder headRevisionNumberFinder,
-                                @Nonnull ProjectExporterFactory projectExporterFactory) {
+                                @Nonnull Driver driver,
+                                @Nonnull Neo4jOntologyGraphWriter ontologyGraphWriter,
+                                @Nonnull Neo4jGraphBootstrapper graphBootstrapper,
+                                @Nonnull ExportArtifactCache artifactCache,
+                                @Neo4jIncrementalExport boolean incrementalExport) {
         this.exportGeneratorExecutor = checkNotNull(exportGeneratorExecutor);
         this.fileTransferExecutor = checkNotNull(fileTransferExecutor);
         this.projectDetailsManager = checkNotNull(projectDetailsManager);
-        //this.projectDownloadCache = checkNotNull(projectDownloadCache);
-        this.headRevisionNumberFinder = checkNotNull(headRevisionNumberFinder);
-        this.projectExporterFactory = checkNotNull(projectExporterFactory);
         this.projectManager = checkNotNull(projectManager);
+        this.driver = checkNotNull(driver);
+        this.ontologyGraphWriter = checkNotNull(ontologyGraphWriter);
+        this.graphBootstrapper = checkNotNull(graphBootstrapper);
+        this.artifactCache = checkNotNull(artifactCache);
+        this.incrementalExport = incrementalExport;
     }
 
-    public void exportProject(@Nonnull UserId requester,
-                              @Nonnull ProjectId projectId,
-                              @Nonnull RevisionNumber revisionNumber,
-                              @Nonnull DownloadFormat downloadFormat,
-                              @Nonnull HttpServletResponse response,
-                              @Nonnull String realPath) throws IOException {
-
-        // create an export file on webprotege host
-        final File file = exportOntology(requester, projectId, revisionNumber, downloadFormat, realPath);
-
-        // import file into neo4j via cypher
-        final String responseMsg = importOntologyIntoNeo4J(file.getName(), downloadFormat);
-
-        boolean isFileDeleted = file.delete();
-        if (!isFileDeleted) logger.warn("File " + file.getName() + " could not be deleted!");
-
-        sendSuccessMessage(response, responseMsg);
+    /**
+     * Submits an export of the specified project revision to Neo4J.  The export is run asynchronously
+     * on the export executor.  If an export of the same project revision is already queued or running
+     * then that export is returned instead of a new one being submitted.
+     * @param requester The user that requested the export.
+     * @param projectId The project to export.
+     * @param revisionNumber The revision to export.
+     * @return The job that exports the revision, or an empty value if the export queue is full.
+     */
+    @Nonnull
+    public Optional<ExportJob> submitExport(@Nonnull UserId requester,
+                                            @Nonnull ProjectId projectId,
+                                            @Nonnull RevisionNumber revisionNumber) {
+        checkNotNull(requester);
+        checkNotNull(projectId);
+        checkNotNull(revisionNumber);
+        var jobKey = new ExportJobKey(projectId, revisionNumber);
+        synchronized (inFlightJobs) {
+            var inFlightJob = inFlightJobs.get(jobKey);
+            if (inFlightJob != null) {
+                logger.info("{} {} Export of revision {} is already in progress ({})", projectId, requester, revisionNumber, inFlightJob.getJobId());
+                return Optional.of(inFlightJob);
+            }
+            if (inFlightJobs.size() >= MAX_IN_FLIGHT_JOBS) {
+                logger.warn("{} {} Rejecting export of revision {} because {} exports are in progress", projectId, requester, revisionNumber, inFlightJobs.size());
+                return Optional.empty();
+            }
+            var job = new ExportJob(UUID.randomUUID().toString(), requester, projectId, revisionNumber, System.currentTimeMillis());
+            try {
+                exportGeneratorExecutor.submit(() -> runExportJob(jobKey, job));
+            } catch (RejectedExecutionException e) {
+                logger.warn("{} {} Export of revision {} was rejected by the executor", projectId, requester, revisionNumber);
+                return Optional.empty();
+            }
+            inFlightJobs.put(jobKey, job);
+            jobs.put(job.getJobId(), job);
+            logger.info("{} {} Submitted export of revision {} ({})", projectId, requester, revisionNumber, job.getJobId());
+            return Optional.of(job);
+        }
     }
 
-    private void sendSuccessMessage(HttpServletResponse response, String msg) throws IOException {
-        response.setStatus(HttpServletResponse.SC_CREATED);
-        PrintWriter writer = response.getWriter();
-        writer.print(msg);
+    /**
+     * Gets the export job with the specified id.  Jobs are available for a limited time after they finish.
+     * @param jobId The job id.
+     */
+    @Nonnull
+    public Optional<ExportJob> getExportJob(@Nonnull String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(checkNotNull(jobId)));
     }
 
-    private File exportOntology(@Nonnull UserId requester,
-                                           @Nonnull ProjectId projectId,
-                                           @Nonnull RevisionNumber revisionNumber,
-                                           @Nonnull DownloadFormat downloadFormat,
-                                           @Nonnull String realPath) throws RuntimeException {
-        // This thing always returns the same lock for the same project.
-        // This means that we won't create the *same* download more than once.  It
-        // does mean that multiple *different* downloads could possibly be created at the same time
-        Lock lock = lockStripes.get(projectId);
+    private void runExportJob(@Nonnull ExportJobKey jobKey, @Nonnull ExportJob job) {
+        var projectId = job.getProjectId();
+        // This always returns the same lock for the same project.
+        // This means that we won't write the *same* project into the graph more than once at the same time.
+        Lock lock = projectLocks.getUnchecked(projectId);
         try {
             lock.lock();
-
-            final String projectDisplayName = getProjectDisplayName(projectId);
-
-            ProjectExporter exporter = projectExporterFactory.create(projectId,
-                    projectDisplayName,
-                    revisionNumber,
-                    downloadFormat,
-                    projectManager.getRevisionManager(projectId),
-                    headRevisionNumberFinder,
-                    realPath);
-
-            try {
-                return exporter.exportOntology();
-            } catch (FileNotFoundException e) {
-                logger.info("The file {} in {} was not found of this project was interrupted.", projectId, requester);
-                throw new RuntimeException(e);
-            } catch (IOException | OWLOntologyStorageException | OWLOntologyCreationException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        finally {
+            logger.info("{} {} Exporting revision {} of project to Neo4J", projectId, job.getRequester(), job.getRevisionNumber());
+            importOntologyIntoNeo4J(job, getProjectDisplayName(projectId));
+            job.setPhase(ExportJobPhase.FINISHED);
+        } catch (Exception e) {
+            logger.error("{} Export of revision {} to Neo4J failed: {}", projectId, job.getRevisionNumber(), e.getMessage(), e);
+            job.fail(String.valueOf(e.getMessage()));
+            // The target database may have been reset, so check its set up again next time
+            graphBootstrapper.invalidate();
+        } finally {
             lock.unlock();
+            synchronized (inFlightJobs) {
+                inFlightJobs.remove(jobKey);
+            }
         }
     }
 
@@ -167,143 +194,93 @@ public class ProjectExportService {
                                     .getDisplayName();
     }
 
-    private String importOntologyIntoNeo4J(String filename, DownloadFormat downloadFormat) {
-        String uri = "bolt://"+NEO4JHOST+":"+NEO4JPORT;
-        Driver driver = GraphDatabase.driver( uri, AuthTokens.basic( NEO4JUSER, NEO4JPASS ) );
-        StringBuilder sb = new StringBuilder("<html>\n");
-        addHeader(sb);
-
-        sb.append("<body>\n");
-        try {
-            Session session = driver.session();
-
-            // first delete everything
-            final String transactionResult01 = session.writeTransaction(tx -> {
-                Result result = tx.run("MATCH (n) DETACH DELETE n");
-                final List<Record> list = result.list();
-                return list.toString();
-            });
-            logger.info("MATCH (n) DETACH DELETE n -> {}", transactionResult01);
-            sb.append("<p>").append("Deleting existing graph ... ").append(transactionResult01).append("<p/>");
-
-            // Pre-requisite: Create uniqueness constraint
-            if (!doesUniquenessConstraintExist(session)) {
-                final String transactionResult02 = session.writeTransaction(tx -> {
-                    Result result = tx.run("CREATE CONSTRAINT n10s_unique_uri ON (r:Resource) ASSERT r.uri IS UNIQUE");
-                    return listToString(result.list());
-                });
-                logger.info("doesUniquenessConstraintExist() -> {}", transactionResult02);
-                sb.append("<p>").append("Creating uniqueness constraint ... ").append(transactionResult02).append("<p/>");
-            }
-
-            // Setting the configuration of the graph
-            if (!doesGraphConfigExist(session)) {
-                final String transactionResult03 = session.writeTransaction(tx -> {
-                    Result result = tx.run("CALL n10s.graphconfig.init()");
-                    return listToString(result.list());
-                });
-                logger.info("doesGraphConfigExist() -> {}", transactionResult03);
-                sb.append("<p>").append("Setting the configuration of the graph: ").append(transactionResult03).append("<p/>");
+    private void importOntologyIntoNeo4J(ExportJob job, String projectDisplayName) throws ExecutionException {
+        final ProjectId projectId = job.getProjectId();
+        final RevisionNumber revisionNumber = job.getRevisionNumber();
+        final Neo4jWriteSummary writeSummary = job.getWriteSummary();
+        try (Session session = driver.session()) {
+            job.setPhase(ExportJobPhase.SERIALIZING);
+            final ProjectOntologyGraphExtractor extractor = projectManager.getOntologyGraphExtractor(projectId);
+            final RevisionNumber currentRevision = extractor.getCurrentRevision();
+            final boolean isCurrentRevisionRequested = revisionNumber.isHead() || revisionNumber.equals(currentRevision);
+
+            // Pre-requisite: graph configuration and uniqueness constraint
+            graphBootstrapper.bootstrap(session, job);
+
+            final RevisionNumber exportedRevision = isCurrentRevisionRequested ? currentRevision : revisionNumber;
+            final Optional<RevisionNumber> previouslyExportedRevision = ontologyGraphWriter.getExportedRevision(session, projectId);
+
+            // Nothing to do if the graph is already at the requested revision
+            if (previouslyExportedRevision.equals(Optional.of(exportedRevision))) {
+                job.setPhase(ExportJobPhase.IMPORTING);
+                logger.info("Graph of ontology {} is already at revision {}", projectDisplayName, exportedRevision);
+                job.appendReport("<p>The graph of ontology " + projectDisplayName +
+                                         " is already at revision " + exportedRevision + "</p>");
+                return;
             }
 
-            // Importing the ontology from the exported file
-            final String serializationFormat = downloadFormat.getDownloadFormatExtension().getDisplayName();
-            final String transactionResult04 = session.writeTransaction(tx -> {
-                final String query = "CALL n10s." + IMPORTTYPE + ".import.fetch(\"http://" + WEBPROTEGEHOST + ":" + WEBPROTEGEPORT + "/" + filename + "\",\"" + serializationFormat + "\");";
-                Result result = tx.run(query);
-                final List<Record> list = result.list();
-                if (list.size() == 1) {
-                    Record record = list.get(0);
-                    Value terminationStatus = record.get("terminationStatus");
-                    if (terminationStatus.isNull())
-                        throw new UnexpectedTypeException("terminationStatus not available");
-                    String terminationStatusValue = terminationStatus.asString();
-                    if ("KO".equalsIgnoreCase(terminationStatusValue)) {
-                        Value extraInfo = record.get("extraInfo");
-                        if (extraInfo.isNull())
-                            throw new UnexpectedTypeException("extraInfo unknown");
-                        String extraInfoValue = extraInfo.asString();
-                        return "Import failed because " + extraInfoValue;
-                    } else if ("OK".equalsIgnoreCase(terminationStatusValue)) {
-                        return transformResultToString(record);
-                    } else {
-                        throw new UnexpectedTypeException("terminationStatus is of unexpected value " + terminationStatusValue);
-                    }
-                } else {
-                    throw new UnexpectedTypeException("Result of import has " + list.size() + " elements");
+            // Bring an existing, complete graph up to date by replaying the changes since the last export.
+            // Applying a delta is idempotent, so a delta that fails part way through is applied again by the
+            // next export.
+            if (incrementalExport && isCurrentRevisionRequested) {
+                final Optional<OntologyGraphDelta> delta = previouslyExportedRevision.flatMap(extractor::getOntologyGraphDelta);
+                if (delta.isPresent()) {
+                    job.setPhase(ExportJobPhase.IMPORTING);
+                    ontologyGraphWriter.writeDelta(session, projectId, delta.get(), writeSummary);
+                    ontologyGraphWriter.setExportedRevision(session, projectId, delta.get().getToRevision());
+                    logger.info("Synchronizing ontology {} from revision {} to revision {} -> {}",
+                                projectDisplayName,
+                                delta.get().getFromRevision(),
+                                delta.get().getToRevision(),
+                                writeSummary);
+                    job.appendReport("<p>Synchronizing ontology " + projectDisplayName +
+                                             " from revision " + delta.get().getFromRevision() +
+                                             " to revision " + delta.get().getToRevision() + " ... " +
+                                             transformResultToString(delta.get().getGraph(), writeSummary) + "</p>");
+                    return;
                 }
-            });
-            logger.info("Importing ontology {} using serialization format {} -> {}", filename, serializationFormat, transactionResult04);
-            sb.append("<p>").append("Importing ontology ").append(filename).append(" ... ").append(transactionResult04).append("</p>");
-
-        } finally {
-            driver.close();
-            sb.append("</body></html>");
-        }
-        return sb.toString();
-    }
+            }
 
-    private String listToString(final List<Record> list) {
-        if (list.isEmpty()) return "";
-        StringBuilder sb = new StringBuilder("<ul>");
-        for (Record r : list) {
-            sb.append("<li>");
-            for (Pair<String, Value> field : r.fields())
-                sb.append(field.value()).append(':');
-            sb.append("</li>");
+            // extract the graph directly from the project indexes, unless it has been extracted before
+            final ExportArtifactKey artifactKey = ExportArtifactKey.get(projectId,
+                                                                        exportedRevision,
+                                                                        GRAPH_ARTIFACT_FORMAT,
+                                                                        ExportArtifactKey.ALL_SCOPE);
+            final OntologyGraph graph = artifactCache.get(artifactKey,
+                                                          OntologyGraph.class,
+                                                          () -> extractor.getOntologyGraph(exportedRevision));
+
+            // first delete the previously exported nodes of the project.  The graph is incomplete until it
+            // has been written, so it must not be brought up to date incrementally if the reload fails.
+            job.setPhase(ExportJobPhase.CLEARING);
+            ontologyGraphWriter.invalidateExportedRevision(session, projectId);
+            ontologyGraphWriter.clear(session, projectId, writeSummary);
+            logger.info("Deleting existing graph of {} -> {} nodes deleted", projectDisplayName, writeSummary.getNodesDeleted());
+            job.appendReport("<p>Deleting existing graph ... " + writeSummary.getNodesDeleted() + " nodes deleted<p/>");
+
+            job.setPhase(ExportJobPhase.IMPORTING);
+            // Writing the nodes and relationships of the ontology
+            ontologyGraphWriter.write(session, projectId, graph, writeSummary);
+            logger.info("Importing ontology {} -> {}", projectDisplayName, writeSummary);
+            // Only record the revision once the complete graph has been written
+            ontologyGraphWriter.setExportedRevision(session, projectId, exportedRevision);
+            job.appendReport("<p>Importing ontology " + projectDisplayName +
+                                     " at revision " + exportedRevision + " ... " +
+                                     transformResultToString(graph, writeSummary) + "</p>");
         }
-        sb.append("</ul>");
-        return sb.toString();
-    }
-
-    private void addHeader(StringBuilder sb) {
-        sb.append("<head>\n").
-                append("    <meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">\n").
-                append("    <title>WebProt&#233;g&#233; Report for Export to Neo4J</title>\n").
-                append("    <link rel=\"shortcut icon\" type=\"image/x-icon\" href=\"favicon.png\"/>\n").
-                append("    <link rel=\"stylesheet\" href=\"css/WebProtege.css\" type=\"text/css\">\n").
-                append("</head>\n");
     }
 
-    private String transformResultToString(final Record r) {
-        return "<ul>" + "<li>terminationStatus:" + r.get("terminationStatus") + "</li>" +
-                "<li>triplesLoaded:" + r.get("triplesLoaded") + "</li>" +
-                "<li>triplesParsed:" + r.get("triplesParsed") + "</li>" +
+    private String transformResultToString(final OntologyGraph graph, final Neo4jWriteSummary summary) {
+        return "<ul>" + "<li>nodes:" + graph.getNodes().size() + "</li>" +
+                "<li>rowsProcessed:" + summary.getRowsProcessed() + "</li>" +
+                "<li>relationships:" + graph.getRelationships().size() + "</li>" +
+                "<li>nodesCreated:" + summary.getNodesCreated() + "</li>" +
+                "<li>relationshipsCreated:" + summary.getRelationshipsCreated() + "</li>" +
+                "<li>propertiesSet:" + summary.getPropertiesSet() + "</li>" +
+                "<li>transactions:" + summary.getTransactions() + "</li>" +
                 "</ul>";
     }
 
-    private boolean doesGraphConfigExist(Session session) {
-        return session.writeTransaction(tx -> {
-            Result result = tx.run("CALL n10s.graphconfig.show()");
-            List<Record> l = result.list();
-            return !l.isEmpty();
-        });
-    }
-
-    /**
-     * Checks if the uniqueness constraint which is necessary for NeoSemantics is already declared or not.
-     * @param session A session.
-     * @return <code>true</code> if constraint already exists, otherwise <code>false</code>.
-     */
-    private boolean doesUniquenessConstraintExist(Session session) {
-        return session.writeTransaction(tx -> {
-            Result result = tx.run("CALL db.constraints()");
-
-            List<Record> l = result.list();
-            if (!l.isEmpty()) {
-                for (Record record : l) {
-                    final Value description = record.get("description");
-                    if (!NullValue.NULL.equals(description))
-                        if (description.asString().equalsIgnoreCase("CONSTRAINT ON ( resource:Resource ) ASSERT (resource.uri) IS UNIQUE"))
-                            return true;
-                }
-                return false;
-            } else {
-                return false;
-            }
-        });
-    }
-
     /**
      * Shuts down this {@link ProjectExportService}.
      */
@@ -314,4 +291,32 @@ public class ProjectExportService {
         logger.info("Project Download Service has been shut down");
     }
 
+    private static final class ExportJobKey {
+
+        private final ProjectId projectId;
+
+        private final RevisionNumber revisionNumber;
+
+        private ExportJobKey(ProjectId projectId, RevisionNumber revisionNumber) {
+            this.projectId = projectId;
+            this.revisionNumber = revisionNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, revisionNumber);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ExportJobKey)) {
+                return false;
+            }
+            ExportJobKey other = (ExportJobKey) obj;
+            return projectId.equals(other.projectId) && revisionNumber.equals(other.revisionNumber);
+        }
+    }
 }
@@ -3,7 +3,6 @@ package edu.stanford.bmir.protege.web.server.export;
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.access.ProjectResource;
 import edu.stanford.bmir.protege.web.server.access.Subject;
-import edu.stanford.bmir.protege.web.server.download.DownloadFormat;
 import edu.stanford.bmir.protege.web.server.download.FileDownloadParameters;
 import edu.stanford.bmir.protege.web.server.download.ProjectDownloader;
 import edu.stanford.bmir.protege.web.server.session.WebProtegeSession;
@@ -18,12 +17,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 import static edu.stanford.bmir.protege.web.server.logging.RequestFormatter.formatAddr;
 
@@ -42,17 +41,27 @@ public class ProjectExportServlet extends HttpServlet {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectExportServlet.class);
 
+    /**
+     * The request parameter that identifies an export job whose status is requested
+     */
+    public static final String JOB_PARAMETER = "job";
+
     @Nonnull
     private final AccessManager accessManager;
 
     @Nonnull
     private final ProjectExportService projectExportService;
 
+    @Nonnull
+    private final ExportJobStatusRenderer statusRenderer;
+
     @Inject
     public ProjectExportServlet(@Nonnull AccessManager accessManager,
-                                @Nonnull ProjectExportService projectExportService) {
+                                @Nonnull ProjectExportService projectExportService,
+                                @Nonnull ExportJobStatusRenderer statusRenderer) {
         this.accessManager = accessManager;
         this.projectExportService = projectExportService;
+        this.statusRenderer = statusRenderer;
     }
 
     @Override
@@ -62,15 +71,12 @@ public class ProjectExportServlet extends HttpServlet {
         String servletPath = req.getServletPath();
         logger.info("ServletPath: {}", servletPath);
 
-        final ServletContext servletContext = this.getServletConfig().getServletContext();
-
-        String realPath = servletContext.getRealPath("/");
-        logger.info("RealPath: {}", realPath);
-
-        String contextPath = servletContext.getContextPath();
-        logger.info("ContextPath: {}", contextPath);
-
         UserId userId = webProtegeSession.getUserInSession();
+        String jobId = req.getParameter(JOB_PARAMETER);
+        if(jobId != null) {
+            sendExportJobStatus(resp, userId, jobId);
+            return;
+        }
         FileDownloadParameters downloadParameters = new FileDownloadParameters(req);
         if(!downloadParameters.isProjectDownload()) {
             logger.info("Bad project download request from {} at {}.  Request URI: {}  Query String: {}",
@@ -93,17 +99,47 @@ public class ProjectExportServlet extends HttpServlet {
             resp.sendError(HttpServletResponse.SC_FORBIDDEN);
         }
         else if (downloadParameters.isProjectDownload()) {
-            startProjectExport(resp, userId, downloadParameters, realPath);
+            startProjectExport(resp, userId, downloadParameters);
         }
     }
 
     private void startProjectExport(HttpServletResponse resp,
                                     UserId userId,
-                                    FileDownloadParameters downloadParameters, String realPath) throws IOException {
+                                    FileDownloadParameters downloadParameters) throws IOException {
         ProjectId projectId = downloadParameters.getProjectId();
         RevisionNumber revisionNumber = downloadParameters.getRequestedRevision();
-        DownloadFormat format = downloadParameters.getFormat();
-        projectExportService.exportProject(userId, projectId, revisionNumber, format, resp, realPath);
+        Optional<ExportJob> job = projectExportService.submitExport(userId, projectId, revisionNumber);
+        if(job.isEmpty()) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many exports are in progress");
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+        resp.setHeader("Location", ExportJobStatusRenderer.getStatusUrl(job.get()));
+        writeStatus(resp, job.get());
+    }
+
+    private void sendExportJobStatus(HttpServletResponse resp,
+                                     UserId userId,
+                                     String jobId) throws IOException {
+        Optional<ExportJob> job = projectExportService.getExportJob(jobId);
+        if(job.isEmpty()) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!accessManager.hasPermission(Subject.forUser(userId),
+                                         new ProjectResource(job.get().getProjectId()),
+                                         BuiltInAction.DOWNLOAD_PROJECT)) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        writeStatus(resp, job.get());
+    }
+
+    private void writeStatus(HttpServletResponse resp, ExportJob job) throws IOException {
+        resp.setContentType("text/html; charset=UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.getWriter().print(statusRenderer.render(job));
     }
 
     @Override
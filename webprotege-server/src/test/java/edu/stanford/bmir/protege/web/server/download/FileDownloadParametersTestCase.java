@@ -8,8 +8,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -123,4 +125,15 @@ public class FileDownloadParametersTestCase {
         when(servletRequest.getParameter(ProjectDownloadConstants.FORMAT)).thenReturn("ofn");
         assertThat(parameters.getFormat(), is(equalTo(DownloadFormat.FUNCTIONAL_SYNTAX)));
     }
+
+    @Test
+    public void shouldParseNoRootClassAsCompleteProject() {
+        assertThat(parameters.getRootClassIri(), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldParseRootClass() {
+        when(servletRequest.getParameter(ProjectDownloadConstants.ROOT_CLASS)).thenReturn("http://example.org/A");
+        assertThat(parameters.getRootClassIri(), is(Optional.of(IRI.create("http://example.org/A"))));
+    }
 }
@@ -0,0 +1,157 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.exceptions.ClientException;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+public class Neo4jOntologyGraphWriter_TestCase {
+
+    private static final Pattern MERGE_PATTERN = Pattern.compile("MERGE \\(\\w+:`([^`]+)` \\{uri: row\\.(\\w+)}\\)");
+
+    private static final String LEGACY_CONSTRAINT_NAME = "n10s_unique_uri";
+
+    private final ProjectId projectIdA = ProjectId.get("11111111-1111-1111-1111-111111111111");
+
+    private final ProjectId projectIdB = ProjectId.get("22222222-2222-2222-2222-222222222222");
+
+    private final String sharedIri = "http://example.org/Shared";
+
+    private final String otherIri = "http://example.org/Other";
+
+    private Neo4jOntologyGraphWriter writer;
+
+    private Neo4jGraphBootstrapper bootstrapper;
+
+    private Session session;
+
+    /**
+     * The constraints of the database.  The database starts out with the constraint that earlier versions of
+     * the exporter created.
+     */
+    private final Set<String> constraints = new HashSet<>();
+
+    /**
+     * The project labels of the nodes in the database, by IRI
+     */
+    private final SetMultimap<String, String> projectLabelsByIri = HashMultimap.create();
+
+    @Before
+    public void setUp() {
+        constraints.add(LEGACY_CONSTRAINT_NAME);
+        var tx = mock(Transaction.class, this::answerTransaction);
+        session = mock(Session.class, invocation -> {
+            var method = invocation.getMethod().getName();
+            if(method.equals("readTransaction") || method.equals("writeTransaction")) {
+                return invocation.<TransactionWork<?>>getArgument(0).execute(tx);
+            }
+            return null;
+        });
+        writer = new Neo4jOntologyGraphWriter(10, 10);
+        bootstrapper = new Neo4jGraphBootstrapper(Neo4jConnectionSettings.get("localhost", 7687, "neo4j", "neo4j", 1, 1, 1));
+    }
+
+    /**
+     * Emulates the statements of the writer and the bootstrapper against the in-memory database.  Merging a node
+     * for an IRI that already has a node in another project violates the legacy constraint, because every
+     * exported node has the {@code Resource} label.
+     */
+    private Object answerTransaction(InvocationOnMock invocation) {
+        if(!invocation.getMethod().getName().equals("run")) {
+            return null;
+        }
+        String query = invocation.getArgument(0);
+        if(query.startsWith("DROP CONSTRAINT " + LEGACY_CONSTRAINT_NAME)) {
+            constraints.remove(LEGACY_CONSTRAINT_NAME);
+        }
+        else if(query.startsWith("CREATE CONSTRAINT")) {
+            constraints.add(query.split("`")[1]);
+        }
+        else {
+            var matcher = MERGE_PATTERN.matcher(query);
+            while(matcher.find()) {
+                var projectLabel = matcher.group(1);
+                var field = matcher.group(2);
+                Value params = invocation.getArgument(1);
+                for(var row : params.get("rows").asList(value -> value.asMap())) {
+                    mergeNode(projectLabel, (String) row.get(field));
+                }
+            }
+        }
+        return mock(Result.class, RETURNS_DEEP_STUBS);
+    }
+
+    private void mergeNode(String projectLabel, String iri) {
+        var projectLabels = projectLabelsByIri.get(iri);
+        if(constraints.contains(LEGACY_CONSTRAINT_NAME) && !projectLabels.isEmpty() && !projectLabels.contains(projectLabel)) {
+            throw new ClientException("Node already exists with label `Resource` and property `uri` = '" + iri + "'");
+        }
+        projectLabels.add(projectLabel);
+    }
+
+    private void export(ProjectId projectId, OntologyGraph graph) {
+        var job = new ExportJob("job", UserId.getUserId("UserA"), projectId, RevisionNumber.getHeadRevisionNumber(), 0);
+        bootstrapper.bootstrap(session, job);
+        writer.write(session, projectId, graph, job.getWriteSummary());
+    }
+
+    private static OntologyGraph graph(String fromIri, String toIri) {
+        return OntologyGraph.get(ImmutableList.of(node(fromIri), node(toIri)),
+                                 ImmutableList.of(OntologyGraphRelationship.get(OntologyGraphRelationshipType.SCO,
+                                                                                fromIri,
+                                                                                toIri)));
+    }
+
+    private static OntologyGraphNode node(String iri) {
+        return OntologyGraphNode.get(iri, ImmutableSet.of(OntologyGraphNodeType.CLASS), iri, ImmutableSetMultimap.of());
+    }
+
+    @Test
+    public void shouldExportProjectsThatShareAnIriAsSeparateNodes() {
+        export(projectIdA, graph(sharedIri, otherIri));
+        export(projectIdB, graph(sharedIri, otherIri));
+        assertThat(projectLabelsByIri.get(sharedIri), containsInAnyOrder(Neo4jOntologyGraphWriter.getProjectLabel(projectIdA),
+                                                                         Neo4jOntologyGraphWriter.getProjectLabel(projectIdB)));
+    }
+
+    @Test
+    public void shouldReplaceLegacyConstraintWithProjectConstraints() {
+        export(projectIdA, graph(sharedIri, otherIri));
+        export(projectIdB, graph(sharedIri, otherIri));
+        assertThat(constraints, containsInAnyOrder(Neo4jOntologyGraphWriter.getProjectLabel(projectIdA) + "_unique_uri",
+                                                   Neo4jOntologyGraphWriter.getProjectLabel(projectIdB) + "_unique_uri"));
+    }
+
+    @Test
+    public void shouldDropLegacyConstraintAgainAfterInvalidation() {
+        export(projectIdA, graph(sharedIri, otherIri));
+        // The database is reset by an earlier version of the exporter
+        constraints.add(LEGACY_CONSTRAINT_NAME);
+        bootstrapper.invalidate();
+        export(projectIdB, graph(sharedIri, otherIri));
+        assertThat(constraints.contains(LEGACY_CONSTRAINT_NAME), is(false));
+    }
+}
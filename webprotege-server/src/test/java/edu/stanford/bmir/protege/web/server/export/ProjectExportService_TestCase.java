@@ -0,0 +1,202 @@
+package edu.stanford.bmir.protege.web.server.export;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import edu.stanford.bmir.protege.web.server.project.ProjectDetailsManager;
+import edu.stanford.bmir.protege.web.server.project.ProjectManager;
+import edu.stanford.bmir.protege.web.shared.project.ProjectDetails;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectExportService_TestCase {
+
+    private final RevisionNumber previousRevision = RevisionNumber.getRevisionNumber(1);
+
+    private final RevisionNumber historicalRevision = RevisionNumber.getRevisionNumber(2);
+
+    private final RevisionNumber currentRevision = RevisionNumber.getRevisionNumber(3);
+
+    private final OntologyGraph graph = OntologyGraph.get(ImmutableList.of(), ImmutableList.of());
+
+    private ProjectExportService service;
+
+    private InMemoryGraphWriter graphWriter;
+
+    @Mock
+    private ProjectId projectId;
+
+    @Mock
+    private UserId userId;
+
+    @Mock
+    private ProjectDetailsManager projectDetailsManager;
+
+    @Mock
+    private ProjectDetails projectDetails;
+
+    @Mock
+    private ProjectManager projectManager;
+
+    @Mock
+    private ProjectOntologyGraphExtractor extractor;
+
+    @Mock
+    private Driver driver;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Neo4jGraphBootstrapper graphBootstrapper;
+
+    @Before
+    public void setUp() {
+        when(projectDetailsManager.getProjectDetails(projectId)).thenReturn(projectDetails);
+        when(projectDetails.getDisplayName()).thenReturn("The project");
+        when(projectManager.getOntologyGraphExtractor(projectId)).thenReturn(extractor);
+        when(extractor.getCurrentRevision()).thenReturn(currentRevision);
+        when(extractor.getOntologyGraph(any())).thenReturn(graph);
+        when(driver.session()).thenReturn(session);
+        graphWriter = new InMemoryGraphWriter();
+        service = new ProjectExportService(MoreExecutors.newDirectExecutorService(),
+                                           MoreExecutors.newDirectExecutorService(),
+                                           projectDetailsManager,
+                                           projectManager,
+                                           driver,
+                                           graphWriter,
+                                           graphBootstrapper,
+                                           new ExportArtifactCache(1),
+                                           true);
+    }
+
+    private ExportJob export(RevisionNumber revisionNumber) {
+        return service.submitExport(userId, projectId, revisionNumber).orElseThrow();
+    }
+
+    @Test
+    public void shouldApplyDeltaToCompleteGraph() {
+        graphWriter.exportedRevision = previousRevision;
+        var delta = OntologyGraphDelta.get(previousRevision, currentRevision, ImmutableSet.of(), graph);
+        when(extractor.getOntologyGraphDelta(previousRevision)).thenReturn(Optional.of(delta));
+        var job = export(RevisionNumber.getHeadRevisionNumber());
+        assertThat(job.getPhase(), is(ExportJobPhase.FINISHED));
+        assertThat(graphWriter.deltasWritten, is(1));
+        assertThat(graphWriter.graphsWritten, is(0));
+        assertThat(graphWriter.exportedRevision, is(currentRevision));
+    }
+
+    @Test
+    public void shouldReloadGraphAfterFailedReload() {
+        graphWriter.exportedRevision = previousRevision;
+        graphWriter.failNextWrite = true;
+        var failedJob = export(historicalRevision);
+        assertThat(failedJob.getPhase(), is(ExportJobPhase.FAILED));
+
+        var job = export(RevisionNumber.getHeadRevisionNumber());
+
+        assertThat(job.getPhase(), is(ExportJobPhase.FINISHED));
+        verify(extractor, never()).getOntologyGraphDelta(any());
+        assertThat(graphWriter.deltasWritten, is(0));
+        assertThat(graphWriter.graphsWritten, is(1));
+        assertThat(graphWriter.exportedRevision, is(currentRevision));
+    }
+
+    @Test
+    public void shouldNotSkipCurrentRevisionAfterFailedReloadOfHistoricalRevision() {
+        graphWriter.exportedRevision = currentRevision;
+        graphWriter.failNextWrite = true;
+        var failedJob = export(historicalRevision);
+        assertThat(failedJob.getPhase(), is(ExportJobPhase.FAILED));
+
+        var job = export(RevisionNumber.getHeadRevisionNumber());
+
+        assertThat(job.getPhase(), is(ExportJobPhase.FINISHED));
+        assertThat(graphWriter.graphsWritten, is(1));
+        assertThat(graphWriter.exportedRevision, is(currentRevision));
+    }
+
+    /**
+     * Keeps the recorded revision of the graph in memory.  Writing a graph can be made to fail
+     * part way through.
+     */
+    private static class InMemoryGraphWriter extends Neo4jOntologyGraphWriter {
+
+        private RevisionNumber exportedRevision;
+
+        private boolean failNextWrite;
+
+        private int graphsWritten;
+
+        private int deltasWritten;
+
+        private InMemoryGraphWriter() {
+            super(1, 1);
+        }
+
+        @Override
+        public void clear(@Nonnull Session session,
+                          @Nonnull ProjectId projectId,
+                          @Nonnull Neo4jWriteSummary summary) {
+        }
+
+        @Override
+        public void write(@Nonnull Session session,
+                          @Nonnull ProjectId projectId,
+                          @Nonnull OntologyGraph graph,
+                          @Nonnull Neo4jWriteSummary summary) {
+            if(failNextWrite) {
+                failNextWrite = false;
+                throw new IllegalStateException("Connection lost");
+            }
+            graphsWritten++;
+        }
+
+        @Override
+        public void writeDelta(@Nonnull Session session,
+                               @Nonnull ProjectId projectId,
+                               @Nonnull OntologyGraphDelta delta,
+                               @Nonnull Neo4jWriteSummary summary) {
+            deltasWritten++;
+        }
+
+        @Nonnull
+        @Override
+        public Optional<RevisionNumber> getExportedRevision(@Nonnull Session session,
+                                                            @Nonnull ProjectId projectId) {
+            return Optional.ofNullable(exportedRevision);
+        }
+
+        @Override
+        public void invalidateExportedRevision(@Nonnull Session session,
+                                               @Nonnull ProjectId projectId) {
+            exportedRevision = null;
+        }
+
+        @Override
+        public void setExportedRevision(@Nonnull Session session,
+                                        @Nonnull ProjectId projectId,
+                                        @Nonnull RevisionNumber revisionNumber) {
+            exportedRevision = revisionNumber;
+        }
+    }
+}
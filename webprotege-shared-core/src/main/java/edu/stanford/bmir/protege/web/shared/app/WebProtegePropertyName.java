@@ -51,7 +51,49 @@ public enum WebProtegePropertyName {
     PROJECT_DORMANT_TIME("project.dormant.time", PropertyValue.ofInteger(180_000)),
 
     @WebProtegePropertiesDocumentation(description = "The edge limit for the entity graph", example = "1000")
-    ENTITY_GRAPH_EDGE_LIMIT("entitygraph.edgelimit", PropertyValue.ofInteger(1_000));
+    ENTITY_GRAPH_EDGE_LIMIT("entitygraph.edgelimit", PropertyValue.ofInteger(1_000)),
+
+    @WebProtegePropertiesDocumentation(description = "The host name of the Neo4J server that projects are exported to", example = "neo4j")
+    NEO4J_HOST("neo4j.host", PropertyValue.ofString("neo4j")),
+
+    @WebProtegePropertiesDocumentation(description = "The Bolt port number of the Neo4J server", example = "7687")
+    NEO4J_PORT("neo4j.port", PropertyValue.ofInteger(7687)),
+
+    @WebProtegePropertiesDocumentation(description = "The user name that is used to authenticate with the Neo4J server", example = "neo4j")
+    NEO4J_AUTH_USERNAME("neo4j.auth.username", PropertyValue.ofString("neo4j")),
+
+    @WebProtegePropertiesDocumentation(description = "The password that is used to authenticate with the Neo4J server", example = "test")
+    NEO4J_AUTH_PASSWORD("neo4j.auth.password", PropertyValue.ofString("test")),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of connections in the Neo4J connection pool", example = "20")
+    NEO4J_POOL_MAX_SIZE("neo4j.pool.maxsize", PropertyValue.ofInteger(20)),
+
+    @WebProtegePropertiesDocumentation(description = "The time in milliseconds to wait for a connection from the Neo4J connection pool", example = "60000")
+    NEO4J_POOL_ACQUISITION_TIMEOUT("neo4j.pool.acquisitiontimeout", PropertyValue.ofInteger(60_000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum time in milliseconds that a failed Neo4J transaction is retried for", example = "30000")
+    NEO4J_TRANSACTION_MAX_RETRY_TIME("neo4j.transaction.maxretrytime", PropertyValue.ofInteger(30_000)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of projects that can be exported to Neo4J concurrently", example = "2")
+    NEO4J_EXPORT_THREADS("neo4j.export.threads", PropertyValue.ofInteger(2)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of nodes or relationships that are written to Neo4J in a single transaction when a project is exported", example = "10000")
+    NEO4J_EXPORT_BATCH_SIZE("neo4j.export.batchsize", PropertyValue.ofInteger(10_000)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of nodes that are deleted from Neo4J in a single transaction when the previously exported graph of a project is cleared", example = "10000")
+    NEO4J_EXPORT_DELETE_BATCH_SIZE("neo4j.export.deletebatchsize", PropertyValue.ofInteger(10_000)),
+
+    @WebProtegePropertiesDocumentation(description = "Whether an export to Neo4J only replays the changes since the revision that was last exported, instead of reloading the whole graph", example = "true")
+    NEO4J_EXPORT_INCREMENTAL("neo4j.export.incremental", PropertyValue.ofBoolean(true)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum size in megabytes of the in-memory cache of project graphs that are exported to Neo4J", example = "64")
+    EXPORT_CACHE_MAX_SIZE("export.cache.maxsize", PropertyValue.ofInteger(64)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of revisions after which a snapshot of the project ontologies is written, so that projects load from the snapshot instead of replaying the whole change history.  Zero disables snapshots", example = "1000")
+    REVISION_SNAPSHOT_INTERVAL("revision.snapshot.interval", PropertyValue.ofInteger(1000)),
+
+    @WebProtegePropertiesDocumentation(description = "When revisions are forced to disk.  REVISION forces each revision to disk before the next one is written.  BATCH appends the revisions that have queued up together and forces them to disk once", example = "BATCH")
+    REVISION_SYNC_MODE("revision.sync.mode", PropertyValue.ofString("BATCH"));
 
     private static class PropertyValue {
 
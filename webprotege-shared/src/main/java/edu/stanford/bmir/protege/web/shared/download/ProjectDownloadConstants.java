@@ -13,4 +13,6 @@ public class ProjectDownloadConstants {
     public static final String REVISION = "revision";
 
     public static final String FORMAT = "format";
+
+    public static final String ROOT_CLASS = "rootClass";
 }